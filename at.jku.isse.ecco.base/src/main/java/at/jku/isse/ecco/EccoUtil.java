@@ -177,7 +177,7 @@ public class EccoUtil {
 			MessageDigest complete = MessageDigest.getInstance("SHA1");
 
 			try (InputStream fis = Files.newInputStream(path)) {
-				byte[] buffer = new byte[1024];
+				byte[] buffer = new byte[64 * 1024];
 				int numRead = 0;
 				while (numRead != -1) {
 					numRead = fis.read(buffer);
@@ -10,7 +10,8 @@ import java.util.*;
  */
 public class DefaultOrderSelector implements OrderSelector {
 
-	private Collection<Artifact<?>> uncertainOrder = new ArrayList<>();
+	// synchronized because nodes of disjoint subtrees may be composed (and thus ordered) concurrently during a checkout
+	private Collection<Artifact<?>> uncertainOrder = Collections.synchronizedList(new ArrayList<>());
 
 	/**
 	 * Returns a collection of ordered artifacts for which multiple possible orders of children existed and an arbitrary one was selected.
@@ -106,6 +106,20 @@ public interface Association extends Persistable {
 	 */
 	public void setName(String name);
 
+	/**
+	 * Returns the revision of the repository in which the artifacts of this association were last changed, or 0 if they have not been changed since revisions were introduced.
+	 *
+	 * @return The revision of the association.
+	 */
+	public long getRevision();
+
+	/**
+	 * Sets the revision of the repository in which the artifacts of this association were last changed.
+	 *
+	 * @param revision The revision of the association.
+	 */
+	public void setRevision(long revision);
+
 	/**
 	 * Returns the root node of the artifact tree or null if no artifacts are stored.
 	 *
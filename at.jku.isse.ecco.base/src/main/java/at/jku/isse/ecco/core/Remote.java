@@ -28,4 +28,27 @@ public interface Remote {
 
 	public Collection<Feature> getFeatures();
 
+
+	/**
+	 * Returns the revision of the remote repository up to which its changes have been pulled, or 0 if they have not been pulled yet.
+	 *
+	 * @return The pulled revision.
+	 */
+	public long getPulledRevision();
+
+	/**
+	 * Returns the deselected feature versions with which the changes up to the pulled revision have been pulled.
+	 *
+	 * @return The deselected feature versions string.
+	 */
+	public String getPulledDeselection();
+
+	/**
+	 * Records that the changes of the remote repository up to the given revision have been pulled with the given deselected feature versions.
+	 *
+	 * @param revision    The pulled revision.
+	 * @param deselection The deselected feature versions string.
+	 */
+	public void setPulled(long revision, String deselection);
+
 }
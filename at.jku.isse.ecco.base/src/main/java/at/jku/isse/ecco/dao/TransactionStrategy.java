@@ -11,6 +11,15 @@ public interface TransactionStrategy {
 
 	public void begin() throws EccoException;
 
+	/**
+	 * Begins a transaction that only reads, so that it can run at the same time as other read-only transactions. Within a read-only transaction read-only transactions can be nested, but no read-write transactions. By default this is the same as {@link #begin()}.
+	 *
+	 * @throws EccoException If the transaction could not be started.
+	 */
+	public default void beginReadOnly() throws EccoException {
+		this.begin();
+	}
+
 	public void end() throws EccoException;
 
 	public void rollback() throws EccoException;
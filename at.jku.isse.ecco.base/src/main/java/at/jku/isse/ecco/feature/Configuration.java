@@ -24,4 +24,21 @@ public interface Configuration {//extends Collection<FeatureInstance> {
 
 	public Set<Module> computeModules(int maxOrder);
 
+	/**
+	 * Returns the same modules as {@link #computeModules(int)} but computes them one after the other while iterating.
+	 *
+	 * @param maxOrder The maximum order of the modules.
+	 * @return The modules.
+	 */
+	public Iterable<Module> modules(int maxOrder);
+
+	/**
+	 * Checks whether the given module is contained in {@link #computeModules(int)} without computing the modules.
+	 *
+	 * @param module   The module.
+	 * @param maxOrder The maximum order of the modules.
+	 * @return True if the module is contained, false otherwise.
+	 */
+	public boolean containsModule(Module module, int maxOrder);
+
 }
@@ -4,13 +4,10 @@ import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.module.Module;
 import at.jku.isse.ecco.module.ModuleFeature;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
-import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 public class ConfigurationOperator {
 
@@ -64,82 +61,160 @@ public class ConfigurationOperator {
 	 * @return The set of modules.
 	 */
 	protected Set<Module> computeModules(int maxOrder) {
-		// first compute the ordinary powerset modules
-		Set<Module> modules = this.powerSet(this.configuration.getFeatureInstances(), maxOrder);
-
-		// add different feature versions to modules
-		for (FeatureInstance featureInstance : this.configuration.getFeatureInstances()) {
-			for (FeatureVersion featureVersion : featureInstance.getFeature().getVersions()) { // for every version of every feature
-				if (!featureVersion.equals(featureInstance.getFeatureVersion())) {
-					this.addVersionToModules(featureVersion, modules);
-				}
-			}
+		Set<Module> modules = new HashSet<>();
+		for (Module module : this.modules(maxOrder)) {
+			modules.add(module);
 		}
-
 		return modules;
 	}
 
-	private void addVersionToModules(FeatureVersion featureVersion, Set<Module> modules) {
-		Set<Module> modulesToAdd = new HashSet<Module>();
-		for (Module module : modules) { // for every module
-
-			boolean featureContained = false;
-			boolean versionContained = false;
-			for (ModuleFeature moduleFeature : module) {
-				if (moduleFeature.getFeature().equals(featureVersion.getFeature()))
-					featureContained = true;
-				if (moduleFeature.contains(featureVersion))
-					versionContained = true;
-			}
-			if (featureContained && !versionContained) { // feature must be contained in module but not in the same version as the one we want to add
-				Module newModule = this.configuration.createModule();
-
-				for (ModuleFeature moduleFeature : module) {
-					if (moduleFeature.getFeature().equals(featureVersion.getFeature())) {
-						ModuleFeature newModuleFeature = this.configuration.createModuleFeature(moduleFeature); // make a copy of the module feature
-						newModuleFeature.add(featureVersion);
-						newModule.add(newModuleFeature);
-					} else {
-						newModule.add(moduleFeature); // copy module feature from original module
-					}
-				}
+	/**
+	 * Returns the modules for the association one after the other without computing all of them up front (see {@link ModuleIterator}). The same modules as by {@link #computeModules(int)} are returned.
+	 *
+	 * @param maxOrder The maximum order up to which modules shall be returned.
+	 * @return The modules.
+	 */
+	protected Iterable<Module> modules(int maxOrder) {
+		return () -> new ModuleIterator(new ArrayList<>(this.configuration.getFeatureInstances()), maxOrder);
+	}
 
-				modulesToAdd.add(newModule);
+	/**
+	 * Checks whether the given module is one of the modules for the association without computing them. A module is one of them if its order is at most the given maximum order and each of its module features corresponds to a different feature instance of the configuration, i.e. it has the same feature and sign and contains the feature instance's version and possibly other versions of the feature.
+	 *
+	 * @param module   The module.
+	 * @param maxOrder The maximum order of modules.
+	 * @return True if the module is one of the modules for the association, false otherwise.
+	 */
+	protected boolean containsModule(Module module, int maxOrder) {
+		if (module.isEmpty() || module.getOrder() > maxOrder)
+			return false;
+
+		Set<FeatureInstance> usedFeatureInstances = new HashSet<>();
+		for (ModuleFeature moduleFeature : module) {
+			FeatureInstance matchingFeatureInstance = null;
+			for (FeatureInstance featureInstance : this.configuration.getFeatureInstances()) {
+				if (featureInstance.getSign() == moduleFeature.getSign() && featureInstance.getFeature().equals(moduleFeature.getFeature()) && moduleFeature.contains(featureInstance.getFeatureVersion()) && !usedFeatureInstances.contains(featureInstance)) {
+					matchingFeatureInstance = featureInstance;
+					break;
+				}
 			}
+			if (matchingFeatureInstance == null)
+				return false;
+			for (FeatureVersion featureVersion : moduleFeature) {
+				if (!matchingFeatureInstance.getFeature().getVersions().contains(featureVersion))
+					return false;
+			}
+			usedFeatureInstances.add(matchingFeatureInstance);
 		}
-		modules.addAll(modulesToAdd);
+
+		return true;
 	}
 
-	private Set<Module> powerSet(final Set<FeatureInstance> featureInstances, int maxOrder) {
-		checkNotNull(featureInstances);
 
-		Set<ModuleFeature> moduleFeatures = new HashSet<ModuleFeature>();
-		for (FeatureInstance featureInstance : featureInstances) {
-			moduleFeatures.add(this.configuration.createModuleFeature(featureInstance.getFeature(), Arrays.asList(featureInstance.getFeatureVersion()), featureInstance.getSign()));
+	/**
+	 * Generates the modules of a configuration on demand. These are all combinations of up to <code>maxOrder + 1</code> feature instances, where every module feature contains the version of its feature instance plus any subset of the other versions of its feature.
+	 * Combinations are enumerated in lexicographic order and the version subsets of a combination are enumerated as bit masks, so that only the current state and the current module are kept in memory.
+	 * <p>
+	 * The configuration must contain at most one instance per feature.
+	 */
+	private class ModuleIterator implements Iterator<Module> {
+		private final List<FeatureInstance> featureInstances;
+		private final List<List<FeatureVersion>> otherVersions = new ArrayList<>();
+		private final ModuleFeature[] baseModuleFeatures;
+		private final int maxSize;
+
+		private int[] combination;
+		private long[] versionMasks;
+		private boolean hasNext;
+
+		private ModuleIterator(List<FeatureInstance> featureInstances, int maxOrder) {
+			this.featureInstances = featureInstances;
+			this.baseModuleFeatures = new ModuleFeature[featureInstances.size()];
+			for (int i = 0; i < featureInstances.size(); i++) {
+				FeatureInstance featureInstance = featureInstances.get(i);
+				List<FeatureVersion> versions = new ArrayList<>();
+				for (FeatureVersion featureVersion : featureInstance.getFeature().getVersions()) {
+					if (!featureVersion.equals(featureInstance.getFeatureVersion()))
+						versions.add(featureVersion);
+				}
+				checkState(versions.size() < Long.SIZE - 1, "Too many versions of feature %s.", featureInstance.getFeature());
+				this.otherVersions.add(versions);
+				this.baseModuleFeatures[i] = ConfigurationOperator.this.configuration.createModuleFeature(featureInstance.getFeature(), Arrays.asList(featureInstance.getFeatureVersion()), featureInstance.getSign());
+			}
+			this.maxSize = Math.min(featureInstances.size(), maxOrder + 1);
+
+			this.hasNext = this.maxSize > 0;
+			if (this.hasNext)
+				this.startCombination(1);
 		}
 
-		// add empty set
-		Set<Module> moduleSet = new HashSet<>();
-		moduleSet.add(this.configuration.createModule()); // add empty module to power set
+		private void startCombination(int size) {
+			this.combination = new int[size];
+			for (int i = 0; i < size; i++)
+				this.combination[i] = i;
+			this.versionMasks = new long[size];
+		}
 
-		for (final ModuleFeature moduleFeature : moduleFeatures) {
-			final Set<Module> toAdd = new HashSet<>();
+		@Override
+		public boolean hasNext() {
+			return this.hasNext;
+		}
 
-			for (final Module module : moduleSet) {
-				if (module.getOrder() < maxOrder) {
-					final Module newModule = this.configuration.createModule();
-					newModule.addAll(module);
-					newModule.add(moduleFeature);
-					toAdd.add(newModule);
+		@Override
+		public Module next() {
+			if (!this.hasNext)
+				throw new NoSuchElementException();
+
+			Module module = ConfigurationOperator.this.configuration.createModule();
+			for (int i = 0; i < this.combination.length; i++) {
+				int featureInstanceIndex = this.combination[i];
+				if (this.versionMasks[i] == 0) {
+					module.add(this.baseModuleFeatures[featureInstanceIndex]);
+				} else {
+					FeatureInstance featureInstance = this.featureInstances.get(featureInstanceIndex);
+					List<FeatureVersion> versions = new ArrayList<>();
+					versions.add(featureInstance.getFeatureVersion());
+					List<FeatureVersion> others = this.otherVersions.get(featureInstanceIndex);
+					for (int v = 0; v < others.size(); v++) {
+						if ((this.versionMasks[i] & (1L << v)) != 0)
+							versions.add(others.get(v));
+					}
+					module.add(ConfigurationOperator.this.configuration.createModuleFeature(featureInstance.getFeature(), versions, featureInstance.getSign()));
 				}
 			}
 
-			moduleSet.addAll(toAdd);
+			this.advance();
+
+			return module;
 		}
 
-		moduleSet.remove(this.configuration.createModule()); // remove the empty module again
+		private void advance() {
+			// next version subset of the current combination
+			for (int i = this.combination.length - 1; i >= 0; i--) {
+				long limit = 1L << this.otherVersions.get(this.combination[i]).size();
+				if (++this.versionMasks[i] < limit)
+					return;
+				this.versionMasks[i] = 0;
+			}
 
-		return moduleSet;
+			// next combination of the same size
+			int size = this.combination.length;
+			int n = this.featureInstances.size();
+			for (int i = size - 1; i >= 0; i--) {
+				if (this.combination[i] < n - size + i) {
+					this.combination[i]++;
+					for (int j = i + 1; j < size; j++)
+						this.combination[j] = this.combination[j - 1] + 1;
+					return;
+				}
+			}
+
+			// first combination of the next size
+			if (size < this.maxSize)
+				this.startCombination(size + 1);
+			else
+				this.hasNext = false;
+		}
 	}
 
 
@@ -124,17 +124,18 @@ public class PresenceConditionOperator {
 	}
 
 	public void initialize(Configuration configuration, int maxOrder) {
-		Set<Module> modules = configuration.computeModules(maxOrder);
-
 		// initialize the module sets
 		this.presenceCondition.getMinModules().clear();
 		this.presenceCondition.getMaxModules().clear();
 		this.presenceCondition.getAllModules().clear();
-		this.presenceCondition.getMaxModules().clear();
+		this.presenceCondition.getNotModules().clear();
 
-		this.presenceCondition.getMinModules().addAll(modules);
-		this.presenceCondition.getMaxModules().addAll(modules);
-		this.presenceCondition.getAllModules().addAll(modules);
+		// the modules are added one after the other as they are generated instead of computing them all up front
+		for (Module module : configuration.modules(maxOrder)) {
+			this.presenceCondition.getMinModules().add(module);
+		}
+		this.presenceCondition.getMaxModules().addAll(this.presenceCondition.getMinModules());
+		this.presenceCondition.getAllModules().addAll(this.presenceCondition.getMinModules());
 	}
 
 	/**
@@ -1,5 +1,6 @@
 package at.jku.isse.ecco.repository;
 
+import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.core.Association;
 import at.jku.isse.ecco.core.Checkout;
 import at.jku.isse.ecco.core.Commit;
@@ -45,6 +46,16 @@ public interface Repository {
 		 */
 		public Commit extract(Configuration configuration, Set<Node.Op> nodes);
 
+		/**
+		 * Extracts new associations and refines existing associations in this repository like {@link #extract(Configuration, Set)}, except that nodes with property {@link Artifact#PROPERTY_UNMODIFIED} stand for the complete subtrees of the equal nodes in the given associations (e.g. files that were not modified since these associations were checked out). These subtrees are reused as they are instead of being sliced.
+		 *
+		 * @param configuration          The configuration describing the given artifact tree.
+		 * @param nodes                  The root node of the artifact tree representing the implementation of the given configuration.
+		 * @param unmodifiedAssociations The associations of this repository whose subtrees the unmodified nodes stand for.
+		 * @return The commit object.
+		 */
+		public Commit extract(Configuration configuration, Set<Node.Op> nodes, Collection<? extends Association> unmodifiedAssociations);
+
 		/**
 		 * Composes an artifact tree from the associations stored in this repository that implements the given configuration.
 		 *
@@ -64,6 +75,18 @@ public interface Repository {
 		 */
 		public Op subset(Collection<FeatureVersion> deselected, int maxOrder, EntityFactory entityFactory);
 
+		/**
+		 * Creates a subset repository like {@link #subset(Collection, int, EntityFactory)} that only contains the associations that were changed after the given revision (see {@link #getRevision()}), together with the associations they depend on.
+		 * Merging it into a repository into which a subset of this repository as of the given revision has already been merged has the same effect as merging the complete subset.
+		 *
+		 * @param deselected    The collection of deselected feature versions.
+		 * @param maxOrder      The maximum order of modules to be copied over into the subset repository.
+		 * @param entityFactory The entity factory used for creating the subset repository.
+		 * @param sinceRevision The revision after which associations must have been changed to be contained, or 0 for all associations.
+		 * @return The subset repository.
+		 */
+		public Op subset(Collection<FeatureVersion> deselected, int maxOrder, EntityFactory entityFactory, long sinceRevision);
+
 		/**
 		 * Makes a copy of this repository.
 		 *
@@ -116,6 +139,31 @@ public interface Repository {
 		public void setMaxOrder(int maxOrder);
 
 
+		/**
+		 * Returns the revision of this repository, which is incremented by every operation that changes the artifacts of its associations. Associations are stamped with the revision in which they were last changed (see {@link Association#getRevision()}).
+		 *
+		 * @return The revision of this repository.
+		 */
+		public long getRevision();
+
+		public void setRevision(long revision);
+
+
+		/**
+		 * Returns the number of threads used to slice artifact trees when extracting (i.e. committing or merging) associations. This setting is not persisted.
+		 *
+		 * @return The number of threads.
+		 */
+		public int getParallelism();
+
+		/**
+		 * Sets the number of threads used to slice artifact trees when extracting (i.e. committing or merging) associations. This setting is not persisted.
+		 *
+		 * @param parallelism The number of threads (1 means sequential).
+		 */
+		public void setParallelism(int parallelism);
+
+
 		public EntityFactory getEntityFactory();
 	}
 
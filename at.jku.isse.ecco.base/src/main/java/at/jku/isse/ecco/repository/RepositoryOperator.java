@@ -3,6 +3,7 @@ package at.jku.isse.ecco.repository;
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.EccoUtil;
 import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.artifact.ArtifactReference;
 import at.jku.isse.ecco.composition.LazyCompositionRootNode;
 import at.jku.isse.ecco.core.*;
 import at.jku.isse.ecco.dao.EntityFactory;
@@ -18,6 +19,8 @@ import at.jku.isse.ecco.util.Associations;
 import at.jku.isse.ecco.util.Trees;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -27,12 +30,59 @@ public class RepositoryOperator {
 	private Repository.Op repository;
 	private EntityFactory entityFactory;
 
+	private int parallelism = 1;
+
+	/**
+	 * The maximum number of configurations for which the selected associations are cached.
+	 */
+	public static final int SELECTION_CACHE_SIZE = 256;
+
+	private volatile SelectionIndex selectionIndex = null; // compositions may run concurrently
+
 	public RepositoryOperator(Repository.Op repository) {
 		this.repository = repository;
 		this.entityFactory = repository.getEntityFactory();
 	}
 
 
+	/**
+	 * Returns the number of threads used to slice the artifact trees of new associations with the original associations during an extraction.
+	 *
+	 * @return The number of threads.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of threads used to slice the artifact trees of new associations with the original associations during an extraction. A value of 1 slices sequentially.
+	 *
+	 * @param parallelism The number of threads.
+	 */
+	public void setParallelism(int parallelism) {
+		checkArgument(parallelism >= 1, "Parallelism must be at least 1.");
+
+		this.parallelism = parallelism;
+	}
+
+
+	/**
+	 * Discards the index (and cache) used to select the associations for a configuration during composition. Must be called whenever associations or their presence conditions are modified.
+	 */
+	public void invalidateSelectionIndex() {
+		this.selectionIndex = null;
+	}
+
+	private SelectionIndex getSelectionIndex() {
+		SelectionIndex selectionIndex = this.selectionIndex;
+		if (selectionIndex == null) {
+			selectionIndex = new SelectionIndex(this.repository.getAssociations(), SELECTION_CACHE_SIZE);
+			this.selectionIndex = selectionIndex;
+		}
+		return selectionIndex;
+	}
+
+
 	public Collection<Feature> getFeaturesByName(String name) {
 		Collection<Feature> features = new ArrayList<Feature>();
 		for (Feature feature : this.repository.getFeatures()) {
@@ -61,13 +111,28 @@ public class RepositoryOperator {
 	 * @return The subset repository.
 	 */
 	public Repository.Op subset(Collection<FeatureVersion> deselected, int maxOrder, EntityFactory entityFactory) {
+		return this.subset(deselected, maxOrder, entityFactory, 0);
+	}
+
+	/**
+	 * Creates a subset repository of this repository using the given entity factory that only contains the associations that were changed after the given revision and the associations they depend on. This repository is not changed.
+	 * Associations whose artifacts were not changed after the given revision are left out, because merging them again has no effect. Their presence conditions may have been changed by slicing, but the same changes are made when the changed associations are merged.
+	 *
+	 * @param deselected    The deselected feature versions (i.e. feature versions that are set to false).
+	 * @param maxOrder      The maximum order of modules.
+	 * @param sinceRevision The revision after which associations must have been changed, or 0 for all associations.
+	 * @return The subset repository.
+	 */
+	public Repository.Op subset(Collection<FeatureVersion> deselected, int maxOrder, EntityFactory entityFactory, long sinceRevision) {
 		checkNotNull(deselected);
 		checkArgument(maxOrder <= this.repository.getMaxOrder());
+		checkArgument(sinceRevision >= 0);
 
 
 		// create empty repository using the given entity factory
 		Repository.Op newRepository = entityFactory.createRepository();
 		newRepository.setMaxOrder(maxOrder);
+		newRepository.setRevision(this.repository.getRevision());
 
 
 		// add all features and versions in this repository to new repository, excluding the deselected feature versions.
@@ -99,8 +164,9 @@ public class RepositoryOperator {
 
 
 		// copy associations in this repository and add them to new repository, but exclude modules or module features that evaluate to false given the deselected feature versions
+		Collection<? extends Association.Op> selectedAssociations = sinceRevision > 0 ? this.getChangedAssociations(sinceRevision) : this.repository.getAssociations();
 		Collection<Association.Op> copiedAssociations = new ArrayList<>();
-		for (Association association : this.repository.getAssociations()) {
+		for (Association association : selectedAssociations) {
 			Association.Op copiedAssociation = entityFactory.createAssociation();
 			copiedAssociation.setId(UUID.randomUUID().toString());
 
@@ -216,9 +282,57 @@ public class RepositoryOperator {
 			newRepository.addAssociation(copiedAssociation);
 		}
 
+		// the copies were registered as replacing artifacts of the artifacts in this repository, which must not be left behind (e.g. for a server that keeps the repository open)
+		for (Association association : selectedAssociations) {
+			for (Node.Op child : association.getRootNode().getChildren())
+				removeReplacingArtifacts(child);
+		}
+
 		return newRepository;
 	}
 
+	/**
+	 * Returns the associations that were changed after the given revision and, transitively, the associations that contain artifacts used by their artifacts.
+	 *
+	 * @param sinceRevision The revision.
+	 * @return The associations in the order of the repository.
+	 */
+	private Collection<Association.Op> getChangedAssociations(long sinceRevision) {
+		Set<Association> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Node> nodes = new ArrayDeque<>();
+		for (Association.Op association : this.repository.getAssociations()) {
+			if (association.getRevision() > sinceRevision && selected.add(association))
+				nodes.add(association.getRootNode());
+		}
+
+		while (!nodes.isEmpty()) {
+			Node node = nodes.poll();
+			if (node.getArtifact() != null) {
+				for (ArtifactReference reference : node.getArtifact().getUses()) {
+					Node targetNode = reference.getTarget().getContainingNode();
+					Association target = targetNode != null ? targetNode.getContainingAssociation() : null;
+					if (target != null && selected.add(target))
+						nodes.add(target.getRootNode());
+				}
+			}
+			nodes.addAll(node.getChildren());
+		}
+
+		Collection<Association.Op> changedAssociations = new ArrayList<>();
+		for (Association.Op association : this.repository.getAssociations()) {
+			if (selected.contains(association))
+				changedAssociations.add(association);
+		}
+		return changedAssociations;
+	}
+
+	private static void removeReplacingArtifacts(Node.Op node) {
+		if (node.getArtifact() != null)
+			node.getArtifact().removeProperty(Artifact.PROPERTY_REPLACING_ARTIFACT);
+		for (Node.Op child : node.getChildren())
+			removeReplacingArtifacts(child);
+	}
+
 
 	/**
 	 * Merges other repository into this repository. The other repository is destroyed in the process.
@@ -229,6 +343,8 @@ public class RepositoryOperator {
 		checkNotNull(other);
 		checkArgument(other.getClass().equals(this.repository.getClass()));
 
+		this.invalidateSelectionIndex();
+
 		// step 1: add new features and versions in other repository to associations in this repository,
 		Map<Feature, Feature> featureReplacementMap = new HashMap<>();
 		Map<FeatureVersion, FeatureVersion> featureVersionReplacementMap = new HashMap<>();
@@ -299,6 +415,10 @@ public class RepositoryOperator {
 	public Commit split() { // TODO: the presence condition must also somehow be marked and extracted! otherwise the repo becomes inconsistent.
 		Commit commit = this.entityFactory.createCommit();
 
+		this.invalidateSelectionIndex();
+
+		long revision = this.nextRevision();
+
 		Collection<? extends Association.Op> originalAssociations = this.repository.getAssociations();
 		Collection<Association.Op> newAssociations = new ArrayList<>();
 
@@ -326,6 +446,8 @@ public class RepositoryOperator {
 				// set parents for intersection association (and child for parents)
 				extractedA.addParent(origA);
 				extractedA.setName("EXTRACTED " + origA.getId());
+				extractedA.setRevision(revision);
+				origA.setRevision(revision);
 
 				// store association
 				newAssociations.add(extractedA);
@@ -342,6 +464,8 @@ public class RepositoryOperator {
 			commit.addAssociation(newA);
 		}
 
+		this.invalidateSelectionIndex();
+
 		return commit;
 	}
 
@@ -354,8 +478,22 @@ public class RepositoryOperator {
 	 * @return The resulting commit object or null in case of an error.
 	 */
 	public Commit extract(Configuration configuration, Set<Node.Op> nodes) {
+		return this.extract(configuration, nodes, Collections.emptySet());
+	}
+
+	/**
+	 * Commits a set of artifact nodes as a given configuration to the repository like {@link #extract(Configuration, Set)}, except that nodes with property {@link Artifact#PROPERTY_UNMODIFIED} stand for the complete subtrees of the equal nodes in the given associations (e.g. files that were not modified since these associations were checked out).
+	 * These subtrees are moved to the resulting associations as they are instead of being sliced (see {@link Trees#slice(Node.Op, Node.Op, Set, boolean)}).
+	 *
+	 * @param configuration          The configuration that is committed.
+	 * @param nodes                  The artifact nodes that implement the given configuration.
+	 * @param unmodifiedAssociations The associations of this repository whose subtrees the unmodified nodes stand for.
+	 * @return The resulting commit object or null in case of an error.
+	 */
+	public Commit extract(Configuration configuration, Set<Node.Op> nodes, Collection<? extends Association> unmodifiedAssociations) {
 		checkNotNull(configuration);
 		checkNotNull(nodes);
+		checkNotNull(unmodifiedAssociations);
 
 		// add new features and versions from configuration to this repository
 		Collection<FeatureVersion> newFeatureVersions = new ArrayList<>();
@@ -392,8 +530,14 @@ public class RepositoryOperator {
 		Association.Op association = this.entityFactory.createAssociation(presenceCondition, nodes);
 		association.setId(UUID.randomUUID().toString());
 
+		// collect unmodified nodes
+		Set<Node.Op> unmodifiedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Node.Op node : nodes) {
+			this.collectUnmodifiedNodes(node, unmodifiedNodes);
+		}
+
 		// commit association
-		Commit commit = this.extract(association);
+		Commit commit = this.extract(Collections.singletonList(association), unmodifiedAssociations, unmodifiedNodes);
 		commit.setConfiguration(configuration);
 
 		// TODO: consider this when committing associations that already have a presence table, or when merging repositories!
@@ -428,6 +572,16 @@ public class RepositoryOperator {
 		return commit;
 	}
 
+	private void collectUnmodifiedNodes(Node.Op node, Set<Node.Op> unmodifiedNodes) {
+		if (node.getArtifact() != null && node.getArtifact().getProperty(Artifact.PROPERTY_UNMODIFIED).isPresent()) {
+			unmodifiedNodes.add(node);
+		} else {
+			for (Node.Op child : node.getChildren()) {
+				this.collectUnmodifiedNodes(child, unmodifiedNodes);
+			}
+		}
+	}
+
 	/**
 	 * When an association is committed directly then the corresponding configuration must be added manually first!
 	 *
@@ -449,10 +603,29 @@ public class RepositoryOperator {
 	 * @return The resulting commit object or null in case of an error.
 	 */
 	protected Commit extract(Collection<? extends Association.Op> inputAs) {
+		return this.extract(inputAs, Collections.emptySet(), Collections.emptySet());
+	}
+
+	/**
+	 * Commits associations whose unmodified nodes stand for the complete subtrees of the equal nodes in the given original associations.
+	 *
+	 * @param inputAs                The collection of associations to be committed.
+	 * @param unmodifiedAssociations The original associations whose subtrees the unmodified nodes stand for.
+	 * @param unmodifiedNodes        The unmodified nodes of the associations to be committed.
+	 * @return The resulting commit object or null in case of an error.
+	 */
+	private Commit extract(Collection<? extends Association.Op> inputAs, Collection<? extends Association> unmodifiedAssociations, Set<Node.Op> unmodifiedNodes) {
 		checkNotNull(inputAs);
 
+		Set<Association> reusedAssociations = Collections.newSetFromMap(new IdentityHashMap<>());
+		reusedAssociations.addAll(unmodifiedAssociations);
+
+		this.invalidateSelectionIndex();
+
 		Commit commit = this.entityFactory.createCommit();
 
+		long revision = this.nextRevision();
+
 		Collection<? extends Association.Op> originalAssociations = this.repository.getAssociations();
 		Collection<Association.Op> newAssociations = new ArrayList<>();
 		Collection<Association.Op> removedAssociations = new ArrayList<>();
@@ -472,69 +645,45 @@ public class RepositoryOperator {
 			Collection<Association.Op> toRemove = new ArrayList<>();
 
 			// slice new association with every original association
-			for (Association.Op origA : originalAssociations) {
-
-				// ASSOCIATION
-				// slice the associations. the order matters here! the "left" association's featuers and artifacts are maintained. the "right" association's features and artifacts are replaced by the "left" association's.
-				//Association intA = origA.slice(inputA);
-				Association.Op intA = this.entityFactory.createAssociation();
-				intA.setId(UUID.randomUUID().toString());
-
+			if (this.parallelism > 1 && originalAssociations.size() > 1) {
+				List<Association.Op> intAs = this.sliceParallel(originalAssociations, inputA, reusedAssociations, unmodifiedNodes);
 
-				// PRESENCE CONDITION
-				//intA.setPresenceCondition(FeatureUtil.slice(origA.getPresenceCondition(), inputA.getPresenceCondition()));
-				intA.setPresenceCondition(origA.getPresenceCondition().slice(inputA.getPresenceCondition()));
+				Iterator<Association.Op> intAsIterator = intAs.iterator();
+				for (Association.Op origA : originalAssociations) {
+					Association.Op intA = intAsIterator.next();
 
+					// PRESENCE CONDITION
+					intA.setPresenceCondition(origA.getPresenceCondition().slice(inputA.getPresenceCondition()));
 
-				// ARTIFACT TREE
-				//intA.setRootNode((origA.getRootNode().slice(inputA.getRootNode())));
-				intA.setRootNode((RootNode.Op) Trees.slice(origA.getRootNode(), inputA.getRootNode()));
+					emptyAssociation = this.processSlice(commit, revision, origA, inputA, intA, emptyAssociation, toAdd, toRemove);
+				}
+			} else {
+				for (Association.Op origA : originalAssociations) {
 
-				// INTERSECTION
-				if (!intA.getRootNode().getChildren().isEmpty()) { // if the intersection association has artifacts store it
-					// set parents for intersection association (and child for parents)
-					intA.addParent(origA);
-					intA.addParent(inputA);
-					intA.setName(origA.getId() + " INT " + inputA.getId());
+					// ASSOCIATION
+					// slice the associations. the order matters here! the "left" association's featuers and artifacts are maintained. the "right" association's features and artifacts are replaced by the "left" association's.
+					//Association intA = origA.slice(inputA);
+					Association.Op intA = this.entityFactory.createAssociation();
+					intA.setId(UUID.randomUUID().toString());
 
-					toAdd.add(intA);
 
-					commit.addUnmodified(intA);
-					commit.addAssociation(intA);
+					// PRESENCE CONDITION
+					//intA.setPresenceCondition(FeatureUtil.slice(origA.getPresenceCondition(), inputA.getPresenceCondition()));
+					intA.setPresenceCondition(origA.getPresenceCondition().slice(inputA.getPresenceCondition()));
 
-					Trees.checkConsistency(intA.getRootNode());
-				} else if (!intA.getPresenceCondition().isEmpty()) { // if it has no artifacts but a not empty presence condition merge it with other empty associations
-					if (emptyAssociation == null) {
-						emptyAssociation = intA;
-						emptyAssociation.setName("EMPTY");
-						toAdd.add(intA);
-					} else if (emptyAssociation != intA) {
-						emptyAssociation.getPresenceCondition().merge(intA.getPresenceCondition());
-					}
-				}
 
-				// ORIGINAL
-				if (origA.getRootNode().getChildren().isEmpty()) { // if the original association has no artifacts left
-					if (!origA.getPresenceCondition().isEmpty()) { // if presence condition is not empty merge it
-						if (emptyAssociation == null) {
-							emptyAssociation = origA;
-							emptyAssociation.setName("EMPTY");
-						} else if (emptyAssociation != origA) {
-							emptyAssociation.getPresenceCondition().merge(origA.getPresenceCondition());
-							toRemove.add(origA);
-						}
-					} else {
-						toRemove.add(origA);
-					}
-				} else {
-					commit.addRemoved(origA);
+					// ARTIFACT TREE
+					//intA.setRootNode((origA.getRootNode().slice(inputA.getRootNode())));
+					intA.setRootNode((RootNode.Op) Trees.slice(origA.getRootNode(), inputA.getRootNode(), unmodifiedNodes, reusedAssociations.contains(origA)));
 
-					Trees.checkConsistency(origA.getRootNode());
+					emptyAssociation = this.processSlice(commit, revision, origA, inputA, intA, emptyAssociation, toAdd, toRemove);
 				}
-
-
 			}
 
+			// UNMODIFIED
+			// the unmodified nodes have been sliced with every original association whose subtrees they stand for
+			Trees.removeUnmodified(unmodifiedNodes);
+
 			// REMAINDER
 			// if the remainder is not empty store it
 			if (!inputA.getRootNode().getChildren().isEmpty()) {
@@ -542,6 +691,7 @@ public class RepositoryOperator {
 				Trees.updateArtifactReferences(inputA.getRootNode());
 				Trees.checkConsistency(inputA.getRootNode());
 
+				inputA.setRevision(revision);
 				toAdd.add(inputA);
 
 				commit.addNew(inputA);
@@ -554,6 +704,7 @@ public class RepositoryOperator {
 				} else if (emptyAssociation != inputA) {
 					emptyAssociation.getPresenceCondition().merge(inputA.getPresenceCondition());
 				}
+				emptyAssociation.setRevision(revision);
 			}
 
 			//originalAssociations.removeAll(toRemove);
@@ -572,10 +723,124 @@ public class RepositoryOperator {
 			this.repository.addAssociation(newA);
 		}
 
+		this.invalidateSelectionIndex();
+
 		return commit;
 	}
 
 
+	/**
+	 * Increments the revision of the repository.
+	 *
+	 * @return The new revision.
+	 */
+	private long nextRevision() {
+		long revision = this.repository.getRevision() + 1;
+		this.repository.setRevision(revision);
+		return revision;
+	}
+
+
+	/**
+	 * Slices the artifact tree of the given new association with the artifact trees of all given original associations in parallel.
+	 * The presence conditions are not sliced.
+	 * This relies on every artifact being unique in at most one original association, so that the slices only compete for the synchronized artifacts and nodes of the new association.
+	 * Nodes removed from the new association's tree are only removed once all slices are done.
+	 *
+	 * @param originalAssociations The original associations.
+	 * @param inputA               The new association.
+	 * @param reusedAssociations   The original associations whose subtrees the unmodified nodes stand for.
+	 * @param unmodifiedNodes      The unmodified nodes of the new association.
+	 * @return The intersection associations (without presence condition) in the order of the original associations.
+	 */
+	private List<Association.Op> sliceParallel(Collection<? extends Association.Op> originalAssociations, Association.Op inputA, Set<Association> reusedAssociations, Set<Node.Op> unmodifiedNodes) {
+		Set<Node.Op> rightRemovals = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+		List<Association.Op> intAs = new ArrayList<>(originalAssociations.size());
+		List<ForkJoinTask<Node.Op>> tasks = new ArrayList<>(originalAssociations.size());
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			for (Association.Op origA : originalAssociations) {
+				// the workers are not part of the transaction of the current thread, so trees that are loaded lazily are loaded before they are sliced
+				Trees.load(origA.getRootNode());
+
+				Association.Op intA = this.entityFactory.createAssociation();
+				intA.setId(UUID.randomUUID().toString());
+				intAs.add(intA);
+
+				boolean reuseUnmodified = reusedAssociations.contains(origA);
+				tasks.add(pool.submit(() -> Trees.sliceConcurrent(origA.getRootNode(), inputA.getRootNode(), rightRemovals, unmodifiedNodes, reuseUnmodified)));
+			}
+
+			Iterator<Association.Op> intAsIterator = intAs.iterator();
+			for (ForkJoinTask<Node.Op> task : tasks) {
+				intAsIterator.next().setRootNode((RootNode.Op) task.join());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		Trees.removeDeferred(inputA.getRootNode(), rightRemovals);
+
+		return intAs;
+	}
+
+	/**
+	 * Stores the intersection of an original and a new association and updates the original association accordingly. Associations whose artifacts are changed are stamped with the given revision.
+	 *
+	 * @return The (possibly new) empty association.
+	 */
+	private Association processSlice(Commit commit, long revision, Association.Op origA, Association.Op inputA, Association.Op intA, Association emptyAssociation, Collection<Association.Op> toAdd, Collection<Association.Op> toRemove) {
+		// INTERSECTION
+		if (!intA.getRootNode().getChildren().isEmpty()) { // if the intersection association has artifacts store it
+			// set parents for intersection association (and child for parents)
+			intA.addParent(origA);
+			intA.addParent(inputA);
+			intA.setName(origA.getId() + " INT " + inputA.getId());
+			intA.setRevision(revision);
+			origA.setRevision(revision);
+
+			toAdd.add(intA);
+
+			commit.addUnmodified(intA);
+			commit.addAssociation(intA);
+
+			Trees.checkConsistency(intA.getRootNode());
+		} else if (!intA.getPresenceCondition().isEmpty()) { // if it has no artifacts but a not empty presence condition merge it with other empty associations
+			if (emptyAssociation == null) {
+				emptyAssociation = intA;
+				emptyAssociation.setName("EMPTY");
+				toAdd.add(intA);
+			} else if (emptyAssociation != intA) {
+				emptyAssociation.getPresenceCondition().merge(intA.getPresenceCondition());
+			}
+			emptyAssociation.setRevision(revision);
+		}
+
+		// ORIGINAL
+		if (origA.getRootNode().getChildren().isEmpty()) { // if the original association has no artifacts left
+			if (!origA.getPresenceCondition().isEmpty()) { // if presence condition is not empty merge it
+				if (emptyAssociation == null) {
+					emptyAssociation = origA;
+					emptyAssociation.setName("EMPTY");
+				} else if (emptyAssociation != origA) {
+					emptyAssociation.getPresenceCondition().merge(origA.getPresenceCondition());
+					toRemove.add(origA);
+				}
+				emptyAssociation.setRevision(revision);
+			} else {
+				toRemove.add(origA);
+			}
+		} else {
+			commit.addRemoved(origA);
+
+			Trees.checkConsistency(origA.getRootNode());
+		}
+
+		return emptyAssociation;
+	}
+
+
 	public Checkout compose(Configuration configuration) {
 		return this.compose(configuration, true);
 	}
@@ -583,31 +848,33 @@ public class RepositoryOperator {
 	public Checkout compose(Configuration configuration, boolean lazy) {
 		checkNotNull(configuration);
 
-		Set<Association> selectedAssociations = new HashSet<>();
-		for (Association association : this.repository.getAssociations()) {
-			if (association.getPresenceCondition().holds(configuration)) {
-				selectedAssociations.add(association);
-			}
-		}
+		Set<Association> selectedAssociations = new HashSet<>(this.getSelectionIndex().select(configuration));
 
 		Checkout checkout = this.compose(selectedAssociations, lazy);
 		checkout.setConfiguration(configuration);
 
 
-		Set<at.jku.isse.ecco.module.Module> desiredModules = configuration.computeModules(this.repository.getMaxOrder());
+		// the desired modules are not computed up front but generated (for missing) or checked against the configuration (for surplus)
+		int maxOrder = this.repository.getMaxOrder();
 		Set<at.jku.isse.ecco.module.Module> missingModules = new HashSet<>();
 		Set<at.jku.isse.ecco.module.Module> surplusModules = new HashSet<>();
 
-		for (Association association : selectedAssociations) {
-			// compute missing
-			for (at.jku.isse.ecco.module.Module desiredModule : desiredModules) {
-				if (!association.getPresenceCondition().getMinModules().contains(desiredModule)) {
-					missingModules.add(desiredModule);
+		// compute missing
+		if (!selectedAssociations.isEmpty()) {
+			for (at.jku.isse.ecco.module.Module desiredModule : configuration.modules(maxOrder)) {
+				for (Association association : selectedAssociations) {
+					if (!association.getPresenceCondition().getMinModules().contains(desiredModule)) {
+						missingModules.add(desiredModule);
+						break;
+					}
 				}
 			}
-			// compute surplus
+		}
+
+		// compute surplus
+		for (Association association : selectedAssociations) {
 			for (at.jku.isse.ecco.module.Module existingModule : association.getPresenceCondition().getMinModules()) {
-				if (!desiredModules.contains(existingModule)) {
+				if (!configuration.containsModule(existingModule, maxOrder)) {
 					surplusModules.add(existingModule);
 				}
 			}
@@ -709,6 +976,8 @@ public class RepositoryOperator {
 		for (Association.Op a : toRemove) {
 			repository.removeAssociation(a);
 		}
+
+		this.invalidateSelectionIndex();
 	}
 
 	protected void mergeEmptyAssociations() {
@@ -735,6 +1004,8 @@ public class RepositoryOperator {
 		for (Association.Op a : toRemove) {
 			this.repository.removeAssociation(a);
 		}
+
+		this.invalidateSelectionIndex();
 	}
 
 }
@@ -0,0 +1,198 @@
+package at.jku.isse.ecco.repository;
+
+import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.feature.Configuration;
+import at.jku.isse.ecco.feature.FeatureInstance;
+import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.module.Module;
+import at.jku.isse.ecco.module.ModuleFeature;
+import at.jku.isse.ecco.module.PresenceCondition;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Selects the associations whose presence conditions hold in a configuration. The presence condition of every association is compiled into a predicate over bit masks of feature versions and the selections of the most recently used configurations are cached.
+ * <p>
+ * The index is a snapshot of the associations and their presence conditions at the time it is created. It must be discarded whenever associations or presence conditions are modified.
+ */
+class SelectionIndex {
+
+	private final Map<FeatureVersion, Integer> featureVersionIds = new HashMap<>();
+
+	private final List<Association> associations = new ArrayList<>();
+	private final List<CompiledModule[]> conditions = new ArrayList<>();
+
+	private final Map<ConfigurationKey, List<Association>> cache;
+
+
+	/**
+	 * Compiles the presence conditions of the given associations.
+	 *
+	 * @param associations The associations.
+	 * @param cacheSize    The maximum number of configurations for which the selection is cached.
+	 */
+	SelectionIndex(Collection<? extends Association> associations, int cacheSize) {
+		checkArgument(cacheSize >= 0);
+
+		for (Association association : associations) {
+			this.associations.add(association);
+			this.conditions.add(this.compile(association.getPresenceCondition()));
+		}
+
+		this.cache = new LinkedHashMap<ConfigurationKey, List<Association>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ConfigurationKey, List<Association>> eldest) {
+				return this.size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Compiles a presence condition into its relevant modules, i.e. the min modules or, if there are none, the max modules (see {@link PresenceCondition#holds(Configuration)}).
+	 */
+	private CompiledModule[] compile(PresenceCondition presenceCondition) {
+		Set<Module> modules = presenceCondition.getMinModules().isEmpty() ? presenceCondition.getMaxModules() : presenceCondition.getMinModules();
+
+		CompiledModule[] compiledModules = new CompiledModule[modules.size()];
+		int i = 0;
+		for (Module module : modules) {
+			CompiledModule compiledModule = new CompiledModule(module.size());
+			int j = 0;
+			for (ModuleFeature moduleFeature : module) {
+				long[] mask = new long[0];
+				for (FeatureVersion featureVersion : moduleFeature) {
+					Integer id = this.featureVersionIds.get(featureVersion);
+					if (id == null) {
+						id = this.featureVersionIds.size();
+						this.featureVersionIds.put(featureVersion, id);
+					}
+					mask = setBit(mask, id);
+				}
+				compiledModule.masks[j] = mask;
+				compiledModule.signs[j] = moduleFeature.getSign();
+				j++;
+			}
+			compiledModules[i++] = compiledModule;
+		}
+		return compiledModules;
+	}
+
+
+	/**
+	 * Returns the associations whose presence conditions hold in the given configuration in the order in which they were indexed.
+	 *
+	 * @param configuration The configuration.
+	 * @return The selected associations.
+	 */
+	synchronized List<Association> select(Configuration configuration) {
+		ConfigurationKey key = this.createKey(configuration);
+
+		List<Association> selectedAssociations = this.cache.get(key);
+		if (selectedAssociations == null) {
+			selectedAssociations = new ArrayList<>();
+			for (int i = 0; i < this.associations.size(); i++) {
+				if (this.holds(this.conditions.get(i), key))
+					selectedAssociations.add(this.associations.get(i));
+			}
+			selectedAssociations = Collections.unmodifiableList(selectedAssociations);
+			this.cache.put(key, selectedAssociations);
+		}
+
+		return selectedAssociations;
+	}
+
+	/**
+	 * Creates the canonical key of a configuration, which only consists of the feature versions that appear in any of the indexed presence conditions.
+	 */
+	private ConfigurationKey createKey(Configuration configuration) {
+		long[] positive = new long[0];
+		long[] negative = new long[0];
+		for (FeatureInstance featureInstance : configuration.getFeatureInstances()) {
+			Integer id = this.featureVersionIds.get(featureInstance.getFeatureVersion());
+			if (id != null) {
+				if (featureInstance.getSign())
+					positive = setBit(positive, id);
+				else
+					negative = setBit(negative, id);
+			}
+		}
+		return new ConfigurationKey(positive, negative);
+	}
+
+	private boolean holds(CompiledModule[] modules, ConfigurationKey key) {
+		for (CompiledModule module : modules) {
+			if (module.holds(key.positive, key.negative))
+				return true;
+		}
+		return false;
+	}
+
+
+	private static long[] setBit(long[] words, int bit) {
+		int word = bit >>> 6;
+		if (word >= words.length)
+			words = Arrays.copyOf(words, word + 1);
+		words[word] |= 1L << bit;
+		return words;
+	}
+
+	private static boolean intersects(long[] words1, long[] words2) {
+		for (int w = Math.min(words1.length, words2.length) - 1; w >= 0; w--) {
+			if ((words1[w] & words2[w]) != 0)
+				return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * A module holds if every module feature has at least one of its feature versions selected (or deselected, if it is negative).
+	 */
+	private static final class CompiledModule {
+		private final long[][] masks;
+		private final boolean[] signs;
+
+		private CompiledModule(int size) {
+			this.masks = new long[size][];
+			this.signs = new boolean[size];
+		}
+
+		private boolean holds(long[] positive, long[] negative) {
+			for (int i = 0; i < this.masks.length; i++) {
+				if (!intersects(this.masks[i], this.signs[i] ? positive : negative))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private static final class ConfigurationKey {
+		private final long[] positive;
+		private final long[] negative;
+		private final int hash;
+
+		private ConfigurationKey(long[] positive, long[] negative) {
+			this.positive = positive;
+			this.negative = negative;
+			this.hash = 31 * Arrays.hashCode(positive) + Arrays.hashCode(negative);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof ConfigurationKey)) return false;
+
+			ConfigurationKey that = (ConfigurationKey) o;
+
+			return Arrays.equals(this.positive, that.positive) && Arrays.equals(this.negative, that.negative);
+		}
+	}
+
+}
@@ -15,6 +15,29 @@ public interface SequenceGraph {
 	public Node getRoot();
 
 
+	/**
+	 * Strategy used to align a sequence of artifacts to a sequence graph (see {@link Op#align(List, AlignmentMode)}).
+	 */
+	public enum AlignmentMode {
+		/**
+		 * Explores alignments recursively with a global best cost cutoff. Can take exponential time on long, divergent sequences.
+		 */
+		RECURSIVE,
+		/**
+		 * Computes an optimal alignment via a memoized branch and bound search (see {@link SequenceGraphAligner}).
+		 */
+		BRANCH_AND_BOUND,
+		/**
+		 * Computes an approximate alignment via a beam search of bounded width (see {@link SequenceGraphAligner}).
+		 */
+		BEAM,
+		/**
+		 * Uses {@link #BRANCH_AND_BOUND} and falls back to {@link #BEAM} when the search exceeds {@link SequenceGraphAligner#DEFAULT_MAX_STATES} states.
+		 */
+		AUTO
+	}
+
+
 	/**
 	 * Private sequence graph interface.
 	 */
@@ -28,8 +51,12 @@ public interface SequenceGraph {
 
 		public void sequenceArtifacts(List<? extends Artifact.Op<?>> artifacts) throws EccoException;
 
+		public void sequenceArtifacts(List<? extends Artifact.Op<?>> artifacts, AlignmentMode mode) throws EccoException;
+
 		public int[] align(List<? extends Artifact.Op<?>> artifacts) throws EccoException;
 
+		public int[] align(List<? extends Artifact.Op<?>> artifacts, AlignmentMode mode) throws EccoException;
+
 
 		public void sequence(SequenceGraph.Op other);
 
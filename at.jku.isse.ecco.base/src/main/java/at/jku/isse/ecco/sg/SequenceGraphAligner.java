@@ -0,0 +1,480 @@
+package at.jku.isse.ecco.sg;
+
+import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.artifact.ArtifactReference;
+
+import java.util.*;
+import java.util.function.BiPredicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Aligns a sequence of artifacts or another sequence graph (right) to a sequence graph (left). An alignment is a path from the root to a sink in the left sequence graph, a path from the root to a sink in the right sequence graph (which for a sequence of artifacts is the sequence itself) and an order preserving matching of the symbols along the two paths.
+ * Its cost is the number of symbols on both paths that are not matched (the same cost as used by the recursive alignment).
+ * <p>
+ * The search operates on states consisting of a left and a right node. As every sequence graph node is identified by the set of symbols on the paths leading to it, all these paths have the same length and every state has a fixed distance (sum of the path lengths) from the initial state.
+ * States are therefore processed in layers of equal distance, only the cheapest way of reaching every state is kept (memoization) and states whose cost plus an admissible lower bound of their remaining cost is not below the best alignment found so far are pruned (branch and bound).
+ * The lower bound is derived from the ranges of the remaining path lengths and the maximum number of remaining symbols that appear in the respective other sequence graph.
+ * <p>
+ * A beam search that keeps only the cheapest states of every layer is used to obtain a first bound and serves as fallback when the exact search exceeds its state limit.
+ */
+public class SequenceGraphAligner {
+
+	/**
+	 * Maximum number of states per layer kept by the beam search.
+	 */
+	public static final int DEFAULT_BEAM_WIDTH = 64;
+
+	/**
+	 * Maximum number of states created by the exact search in {@link SequenceGraph.AlignmentMode#AUTO} before falling back to the beam search.
+	 */
+	public static final int DEFAULT_MAX_STATES = 1 << 20;
+
+
+	private final List<? extends Artifact.Op<?>> artifacts;
+
+	private final BiPredicate<Artifact.Op<?>, Artifact.Op<?>> matcher;
+
+	private final NodeInfo left;
+
+	private final NodeInfo right;
+
+	private final int rightSize;
+
+	private int beamWidth = DEFAULT_BEAM_WIDTH;
+
+	private int maxStates = DEFAULT_MAX_STATES;
+
+	private int cost = -1;
+
+	private int createdStates = 0;
+
+
+	/**
+	 * Creates an aligner for a sequence of artifacts. Artifacts are matched with symbols via {@link Artifact#equals(Object)}.
+	 *
+	 * @param root      The root of the sequence graph.
+	 * @param artifacts The sequence of artifacts.
+	 */
+	public SequenceGraphAligner(SequenceGraph.Node.Op root, List<? extends Artifact.Op<?>> artifacts) {
+		checkNotNull(root);
+		checkNotNull(artifacts);
+
+		this.artifacts = artifacts;
+		this.matcher = Artifact::equals;
+
+		List<NodeInfo> leftNodes = new ArrayList<>();
+		this.left = this.createNodeInfos(root, leftNodes);
+
+		// the sequence is represented as a chain of nodes, the node at index i is reached after i artifacts
+		List<NodeInfo> rightNodes = new ArrayList<>();
+		NodeInfo next = new NodeInfo(null, artifacts.size(), artifacts.size());
+		next.children = new NodeInfo[0];
+		next.symbols = new Artifact.Op<?>[0];
+		rightNodes.add(next);
+		for (int i = artifacts.size() - 1; i >= 0; i--) {
+			NodeInfo node = new NodeInfo(null, i, i);
+			node.children = new NodeInfo[]{next};
+			node.symbols = new Artifact.Op<?>[]{artifacts.get(i)};
+			node.minRemaining = next.minRemaining + 1;
+			node.maxRemaining = next.maxRemaining + 1;
+			rightNodes.add(node);
+			next = node;
+		}
+		this.right = next;
+		this.rightSize = rightNodes.size();
+
+		this.computeShared(leftNodes, rightNodes);
+	}
+
+	/**
+	 * Creates an aligner for two sequence graphs. Symbols are matched regardless of their sequence numbers (see {@link #equalsIgnoringSequenceNumber(Artifact.Op, Artifact.Op)}).
+	 *
+	 * @param leftRoot  The root of the left sequence graph.
+	 * @param rightRoot The root of the right sequence graph.
+	 */
+	public SequenceGraphAligner(SequenceGraph.Node.Op leftRoot, SequenceGraph.Node.Op rightRoot) {
+		checkNotNull(leftRoot);
+		checkNotNull(rightRoot);
+
+		this.artifacts = null;
+		this.matcher = SequenceGraphAligner::equalsIgnoringSequenceNumber;
+
+		List<NodeInfo> leftNodes = new ArrayList<>();
+		this.left = this.createNodeInfos(leftRoot, leftNodes);
+		List<NodeInfo> rightNodes = new ArrayList<>();
+		this.right = this.createNodeInfos(rightRoot, rightNodes);
+		this.rightSize = rightNodes.size();
+
+		this.computeShared(leftNodes, rightNodes);
+	}
+
+	/**
+	 * Computes the node infos of all nodes reachable from the given root without recursion. The infos are added to the given list in post order.
+	 */
+	private NodeInfo createNodeInfos(SequenceGraph.Node.Op root, List<NodeInfo> postOrder) {
+		Map<SequenceGraph.Node.Op, NodeInfo> infos = new IdentityHashMap<>();
+		NodeInfo rootInfo = new NodeInfo(root, infos.size(), 0);
+		infos.put(root, rootInfo);
+
+		Deque<NodeInfo> stack = new ArrayDeque<>();
+		stack.push(rootInfo);
+		while (!stack.isEmpty()) {
+			NodeInfo info = stack.peek();
+			if (info.children == null) {
+				// first visit: create the infos of all children and visit them
+				Map<Artifact.Op<?>, SequenceGraph.Node.Op> children = info.node.getChildren();
+				info.children = new NodeInfo[children.size()];
+				info.symbols = new Artifact.Op<?>[children.size()];
+				int k = 0;
+				for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> entry : children.entrySet()) {
+					NodeInfo child = infos.get(entry.getValue());
+					if (child == null) {
+						child = new NodeInfo(entry.getValue(), infos.size(), info.depth + 1);
+						infos.put(entry.getValue(), child);
+						stack.push(child);
+					}
+					info.children[k] = child;
+					info.symbols[k] = entry.getKey();
+					k++;
+				}
+			} else {
+				// second visit: all children are done
+				stack.pop();
+				if (info.children.length > 0) {
+					info.minRemaining = Integer.MAX_VALUE;
+					for (NodeInfo child : info.children) {
+						info.minRemaining = Math.min(info.minRemaining, child.minRemaining + 1);
+						info.maxRemaining = Math.max(info.maxRemaining, child.maxRemaining + 1);
+					}
+				}
+				postOrder.add(info);
+			}
+		}
+
+		return rootInfo;
+	}
+
+	/**
+	 * Computes for every node the maximum number of symbols on a path to a sink that match any symbol on the other side.
+	 */
+	private void computeShared(List<NodeInfo> leftNodes, List<NodeInfo> rightNodes) {
+		Set<Symbol> leftSymbols = this.collectSymbols(leftNodes);
+		Set<Symbol> rightSymbols = this.collectSymbols(rightNodes);
+
+		for (List<NodeInfo> nodes : Arrays.asList(leftNodes, rightNodes)) {
+			Set<Symbol> otherSymbols = nodes == leftNodes ? rightSymbols : leftSymbols;
+			for (NodeInfo node : nodes) {
+				for (int k = 0; k < node.children.length; k++) {
+					int shared = node.children[k].shared + (otherSymbols.contains(new Symbol(node.symbols[k])) ? 1 : 0);
+					node.shared = Math.max(node.shared, shared);
+				}
+			}
+		}
+	}
+
+	private Set<Symbol> collectSymbols(List<NodeInfo> nodes) {
+		Set<Symbol> symbols = new HashSet<>();
+		for (NodeInfo node : nodes) {
+			for (Artifact.Op<?> symbol : node.symbols)
+				symbols.add(new Symbol(symbol));
+		}
+		return symbols;
+	}
+
+
+	public int getBeamWidth() {
+		return this.beamWidth;
+	}
+
+	public void setBeamWidth(int beamWidth) {
+		checkArgument(beamWidth >= 1);
+		this.beamWidth = beamWidth;
+	}
+
+	public int getMaxStates() {
+		return this.maxStates;
+	}
+
+	public void setMaxStates(int maxStates) {
+		checkArgument(maxStates >= 1);
+		this.maxStates = maxStates;
+	}
+
+	/**
+	 * @return The cost of the last computed alignment or -1 if no alignment has been computed yet.
+	 */
+	public int getCost() {
+		return this.cost;
+	}
+
+	/**
+	 * @return The number of states created during the last alignment.
+	 */
+	public int getCreatedStates() {
+		return this.createdStates;
+	}
+
+
+	/**
+	 * Aligns the sequence of artifacts to the sequence graph. Does not modify the artifacts or the sequence graph.
+	 *
+	 * @param mode The alignment mode. {@link SequenceGraph.AlignmentMode#RECURSIVE} is not supported by this aligner.
+	 * @return For every artifact the sequence number of the symbol it is matched with or -1 if it is not matched.
+	 */
+	public int[] align(SequenceGraph.AlignmentMode mode) {
+		checkState(this.artifacts != null, "Aligner was not created for a sequence of artifacts.");
+
+		int[] alignment = new int[this.artifacts.size()];
+		Arrays.fill(alignment, -1);
+		for (State state = this.search(mode); state != null; state = state.parent) {
+			if (state.leftMatched != null)
+				alignment[state.right.depth - 1] = state.leftMatched.getSequenceNumber();
+		}
+		return alignment;
+	}
+
+	/**
+	 * Aligns the right sequence graph to the left sequence graph. Does not modify any of the two sequence graphs.
+	 *
+	 * @param mode The alignment mode. {@link SequenceGraph.AlignmentMode#RECURSIVE} is not supported by this aligner.
+	 * @return Map (by identity) from every matched symbol of the right sequence graph to the symbol of the left sequence graph it is matched with.
+	 */
+	public Map<Artifact.Op<?>, Artifact.Op<?>> alignGraphs(SequenceGraph.AlignmentMode mode) {
+		Map<Artifact.Op<?>, Artifact.Op<?>> matches = new IdentityHashMap<>();
+		for (State state = this.search(mode); state != null; state = state.parent) {
+			if (state.leftMatched != null)
+				matches.put(state.rightMatched, state.leftMatched);
+		}
+		return matches;
+	}
+
+	private State search(SequenceGraph.AlignmentMode mode) {
+		checkNotNull(mode);
+		checkArgument(mode != SequenceGraph.AlignmentMode.RECURSIVE, "Recursive alignment is not supported by this aligner.");
+
+		this.createdStates = 0;
+
+		// the beam search provides the first upper bound
+		State best = this.search(this.beamWidth, Integer.MAX_VALUE, 0);
+
+		if (mode != SequenceGraph.AlignmentMode.BEAM && best.cost > this.lowerBound(this.left, this.right)) {
+			State exact = this.search(0, best.cost, mode == SequenceGraph.AlignmentMode.AUTO ? this.maxStates : 0);
+			if (exact != null && exact.cost < best.cost)
+				best = exact;
+		}
+
+		this.cost = best.cost;
+		return best;
+	}
+
+	/**
+	 * Searches the cheapest alignment layer by layer.
+	 *
+	 * @param beamWidth  The maximum number of states per layer or 0 for no limit.
+	 * @param upperBound Only alignments that are cheaper than this are considered.
+	 * @param maxStates  The maximum number of states to create or 0 for no limit.
+	 * @return The final state of the cheapest alignment, or null if there is none below the upper bound or the state limit was exceeded.
+	 */
+	private State search(int beamWidth, int upperBound, int maxStates) {
+		List<Map<Long, State>> layers = new ArrayList<>();
+		for (int t = 0; t <= this.left.maxRemaining + this.right.maxRemaining; t++)
+			layers.add(null);
+		layers.set(0, new HashMap<>());
+		layers.get(0).put(this.key(this.left, this.right), new State(this.left, this.right, 0, null, null, null));
+
+		State best = null;
+		int bestCost = upperBound;
+		int createdStates = 1;
+
+		for (int t = 0; t < layers.size(); t++) {
+			Map<Long, State> layer = layers.get(t);
+			layers.set(t, null);
+			if (layer == null)
+				continue;
+
+			Collection<State> states = layer.values();
+			if (beamWidth > 0 && states.size() > beamWidth) {
+				List<State> sortedStates = new ArrayList<>(states);
+				sortedStates.sort(Comparator.comparingInt((State state) -> state.cost + this.lowerBound(state.left, state.right)).thenComparingLong(state -> this.key(state.left, state.right)));
+				states = sortedStates.subList(0, beamWidth);
+			}
+
+			for (State state : states) {
+				NodeInfo left = state.left;
+				NodeInfo right = state.right;
+
+				if (state.cost + this.lowerBound(left, right) >= bestCost)
+					continue;
+
+				// sink on either side: all remaining symbols on the other side are unmatched
+				if (left.children.length == 0 || right.children.length == 0) {
+					int cost = state.cost + left.minRemaining + right.minRemaining;
+					if (cost < bestCost) {
+						bestCost = cost;
+						best = new State(left, right, cost, state, null, null);
+					}
+					continue;
+				}
+
+				for (int k = 0; k < left.children.length; k++) {
+					// match
+					for (int l = 0; l < right.children.length; l++) {
+						if (this.matcher.test(left.symbols[k], right.symbols[l]))
+							createdStates += this.add(layers, t + 2, left.children[k], right.children[l], state.cost, state, left.symbols[k], right.symbols[l], bestCost);
+					}
+					// skip left
+					createdStates += this.add(layers, t + 1, left.children[k], right, state.cost + 1, state, null, null, bestCost);
+				}
+				// skip right
+				for (int l = 0; l < right.children.length; l++)
+					createdStates += this.add(layers, t + 1, left, right.children[l], state.cost + 1, state, null, null, bestCost);
+
+				if (maxStates > 0 && createdStates > maxStates) {
+					this.createdStates += createdStates;
+					return null;
+				}
+			}
+		}
+
+		this.createdStates += createdStates;
+		return best;
+	}
+
+	private int add(List<Map<Long, State>> layers, int t, NodeInfo left, NodeInfo right, int cost, State parent, Artifact.Op<?> leftMatched, Artifact.Op<?> rightMatched, int bestCost) {
+		if (cost + this.lowerBound(left, right) >= bestCost)
+			return 0;
+
+		Map<Long, State> layer = layers.get(t);
+		if (layer == null) {
+			layer = new HashMap<>();
+			layers.set(t, layer);
+		}
+
+		long key = this.key(left, right);
+		State existing = layer.get(key);
+		if (existing != null && existing.cost <= cost)
+			return 0;
+
+		layer.put(key, new State(left, right, cost, parent, leftMatched, rightMatched));
+		return existing == null ? 1 : 0;
+	}
+
+	private long key(NodeInfo left, NodeInfo right) {
+		return (long) left.id * this.rightSize + right.id;
+	}
+
+	/**
+	 * Computes a lower bound for the cost of aligning the paths starting at the given left node to the paths starting at the given right node.
+	 * The cost of aligning paths of lengths L1 and L2 with M matches is L1 + L2 - 2M where M is at most min(L1, L2, S) and S is the maximum number of remaining symbols that match any symbol on the other side.
+	 * This cost does not increase when both lengths are decreased, so its minimum lies where one of the lengths is minimal.
+	 */
+	private int lowerBound(NodeInfo left, NodeInfo right) {
+		int shared = Math.min(left.shared, right.shared);
+		int cost1 = cost(left.minRemaining, clamp(Math.min(shared, left.minRemaining), right.minRemaining, right.maxRemaining), shared);
+		int cost2 = cost(clamp(Math.min(shared, right.minRemaining), left.minRemaining, left.maxRemaining), right.minRemaining, shared);
+		return Math.min(cost1, cost2);
+	}
+
+	private static int cost(int leftLength, int rightLength, int shared) {
+		return leftLength + rightLength - 2 * Math.min(Math.min(leftLength, rightLength), shared);
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+
+	/**
+	 * Compares two artifacts like {@link Artifact#equals(Object)} but ignores their sequence numbers.
+	 *
+	 * @param artifact1 The first artifact.
+	 * @param artifact2 The second artifact.
+	 * @return True if the artifacts are equal except for their sequence numbers, false otherwise.
+	 */
+	public static boolean equalsIgnoringSequenceNumber(Artifact.Op<?> artifact1, Artifact.Op<?> artifact2) {
+		if (artifact1 == artifact2) return true;
+		if (artifact1.getSequenceNumber() == artifact2.getSequenceNumber() || artifact1.getSequenceNumber() == Artifact.UNASSIGNED_SEQUENCE_NUMBER || artifact2.getSequenceNumber() == Artifact.UNASSIGNED_SEQUENCE_NUMBER)
+			return artifact1.equals(artifact2);
+
+		if (artifact1.getClass() != artifact2.getClass() || artifact1.isOrdered() != artifact2.isOrdered() || !artifact1.getData().equals(artifact2.getData()))
+			return false;
+
+		if (artifact1.useReferencesInEquals()) {
+			if (artifact1.getUses().size() != artifact2.getUses().size())
+				return false;
+			for (ArtifactReference reference1 : artifact1.getUses()) {
+				boolean found = false;
+				for (ArtifactReference reference2 : artifact2.getUses()) {
+					if (reference1.getTarget().equals(reference2.getTarget())) {
+						found = true;
+						break;
+					}
+				}
+				if (!found)
+					return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static final class NodeInfo {
+		private final SequenceGraph.Node.Op node;
+		private final int id;
+		private final int depth;
+		private NodeInfo[] children = null;
+		private Artifact.Op<?>[] symbols = null;
+		private int minRemaining = 0;
+		private int maxRemaining = 0;
+		private int shared = 0;
+
+		private NodeInfo(SequenceGraph.Node.Op node, int id, int depth) {
+			this.node = node;
+			this.id = id;
+			this.depth = depth;
+		}
+	}
+
+	private static final class State {
+		private final NodeInfo left;
+		private final NodeInfo right;
+		private final int cost;
+		private final State parent;
+		private final Artifact.Op<?> leftMatched;
+		private final Artifact.Op<?> rightMatched;
+
+		private State(NodeInfo left, NodeInfo right, int cost, State parent, Artifact.Op<?> leftMatched, Artifact.Op<?> rightMatched) {
+			this.left = left;
+			this.right = right;
+			this.cost = cost;
+			this.parent = parent;
+			this.leftMatched = leftMatched;
+			this.rightMatched = rightMatched;
+		}
+	}
+
+	/**
+	 * Wraps a symbol such that symbols are hashed via {@link Artifact#hashCode()} (which does not depend on the sequence number) and compared via the matcher of the aligner.
+	 */
+	private final class Symbol {
+		private final Artifact.Op<?> artifact;
+
+		private Symbol(Artifact.Op<?> artifact) {
+			this.artifact = artifact;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.artifact.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Symbol && matcher.test(this.artifact, ((Symbol) o).artifact);
+		}
+	}
+
+}
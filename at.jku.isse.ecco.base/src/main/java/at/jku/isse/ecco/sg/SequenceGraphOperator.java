@@ -184,7 +184,7 @@ public class SequenceGraphOperator {
 		if (right.getPol() == newPol) // already visited
 			return;
 
-		right.setPol(this.sequenceGraph.getPol()); // mark as visited
+		right.setPol(newPol); // mark as visited
 
 		for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightEntry : right.getChildren().entrySet()) {
 			Set<Artifact.Op<?>> newPath = new HashSet<>(path);
@@ -207,7 +207,8 @@ public class SequenceGraphOperator {
 
 
 	/**
-	 * Sequences another sequence graph into this sequence graph.
+	 * Sequences another sequence graph into this sequence graph. The other sequence graph is aligned to this one as a whole (see {@link SequenceGraphAligner#alignGraphs(SequenceGraph.AlignmentMode)}) and then merged into it structurally, i.e. without sequencing its individual paths.
+	 * Afterwards the symbols of the other sequence graph carry the sequence numbers of the symbols of this sequence graph they were matched with or new sequence numbers if they were not matched.
 	 *
 	 * @param sg The other sequence graph to sequence into this one.
 	 */
@@ -216,351 +217,108 @@ public class SequenceGraphOperator {
 			throw new EccoException("Copy requires two sequence graph operands.");
 		SequenceGraph.Op other = (SequenceGraph.Op) sg;
 
-		// set sequence number of all artifacts in right sequence graph to -1 prior to alignment to left sequence graph.
-		for (Artifact.Op symbol : other.getSymbols()) {
-			symbol.setSequenceNumber(-1);
-		}
-
-		// align right to left
-		this.global_best_cost = Integer.MAX_VALUE;
-		this.alignSequenceGraphRec(this.sequenceGraph.getRoot(), other.getRoot(), 0);
-
-		// assign new sequence numbers to right
-		int num_symbols = this.sequenceGraph.getCurrentSequenceNumber();
-		Set<Artifact.Op<?>> rightArtifacts = new HashSet<>();
-		other.setPol(!other.getPol());
-		this.assignNewSequenceNumbersRec(other.getRoot(), rightArtifacts, other.getPol());
-
-		// update left
-		Set<Artifact.Op<?>> shared_symbols = new HashSet<>();
-		for (Artifact.Op<?> symbol : rightArtifacts) {
-			if (symbol.getSequenceNumber() < num_symbols) {
-				shared_symbols.add(symbol);
-			}
-		}
-		this.sequenceGraph.setPol(!this.sequenceGraph.getPol());
-		HashSet<Artifact.Op<?>> path = new HashSet<>();
-		Map<Set<Artifact.Op<?>>, SequenceGraph.Node.Op> nodes = new HashMap<>();
-		nodes.put(path, this.sequenceGraph.getRoot());
-		this.updateSequenceGraphRec(this.sequenceGraph.getRoot(), other.getRoot(), new HashSet<>(), nodes, shared_symbols);
-
-//		// remove all graphnodes that were not visited
-//		Iterator<SequenceGraphNode> it = this.sequenceGraph.getNodes().values().iterator();
-//		while (it.hasNext()) {
-//			SequenceGraphNode gn = it.next();
-//			if (gn.getPol() != this.sequenceGraph.getPol()) {
-//				it.remove();
-//			}
-//		}
-	}
-
-	// TODO: should this be a util function? or a public function? because this should actually be called on the other sg not on this one!
-	private void assignNewSequenceNumbersRec(SequenceGraph.Node.Op sgn, Set<Artifact.Op<?>> artifacts, boolean newPol) {
-		if (sgn.getPol() == newPol) // already visited
-			return;
-
-		sgn.setPol(this.sequenceGraph.getPol()); // mark as visited
-
-		for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> child : sgn.getChildren().entrySet()) {
-			if (child.getKey().getSequenceNumber() == -1) {
-				child.getKey().setSequenceNumber(this.sequenceGraph.nextSequenceNumber());
-			}
-			artifacts.add(child.getKey()); // add symbol after it had its new sequence number assigned, otherwise there may be identical symbols.
-
-			this.assignNewSequenceNumbersRec(child.getValue(), artifacts, newPol);
-		}
-	}
-
-	// TODO: implement optimized sequence graph merge
-	private int alignSequenceGraphRecFast(SequenceGraph.Node.Op left, SequenceGraph.Node.Op right, int cost) {
-		//int local_best_cost = this.global_best_cost;
-		int local_best_cost = Integer.MAX_VALUE;
-
-		// base case 1: abort and don't update alignment if we already had a better or equal solution.
-		if (cost >= this.global_best_cost) {
-			return Integer.MAX_VALUE;
-		}
-
-		// base case 2: both sequence graphs have no more nodes
-		else if (left.getChildren().isEmpty() && right.getChildren().isEmpty()) {
-			// update current best cost (we would not have gotten here if cost > global_best_cost)
-			this.global_best_cost = cost;
-			return cost;
-		}
-
-		// recursion case 1: left has no more nodes, right does
-		else if (left.getChildren().isEmpty() && !right.getChildren().isEmpty()) {
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightChildEntry : right.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(left, rightChildEntry.getValue(), cost + 1);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-
-				if (temp_cost <= this.global_best_cost) { // part of currently best alignment
-					if (temp_cost == this.global_best_cost && rightChildEntry.getKey().getSequenceNumber() != -1)
-						System.out.println("WARNING1! " + rightChildEntry.getKey() + ": " + -1);
-
-					rightChildEntry.getKey().setSequenceNumber(-1); // indicate that this artifact needs a new sequence number assigned
+		// align right to left without modifying the right sequence graph
+		Map<Artifact.Op<?>, Artifact.Op<?>> matches = new SequenceGraphAligner(this.sequenceGraph.getRoot(), other.getRoot()).alignGraphs(SequenceGraph.AlignmentMode.AUTO);
+
+		// determine the new sequence numbers of the right symbols. they are only assigned after the merge because changing them changes equals() of the symbols.
+		Map<Artifact.Op<?>, Integer> sequenceNumbers = new IdentityHashMap<>();
+		Set<SequenceGraph.Node.Op> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<SequenceGraph.Node.Op> stack = new ArrayDeque<>();
+		stack.push(other.getRoot());
+		visited.add(other.getRoot());
+		while (!stack.isEmpty()) {
+			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> entry : stack.pop().getChildren().entrySet()) {
+				if (!sequenceNumbers.containsKey(entry.getKey())) {
+					Artifact.Op<?> match = matches.get(entry.getKey());
+					sequenceNumbers.put(entry.getKey(), match != null ? match.getSequenceNumber() : this.sequenceGraph.nextSequenceNumber());
 				}
+				if (visited.add(entry.getValue()))
+					stack.push(entry.getValue());
 			}
 		}
 
-		// recursion case 2: right has no more nodes, left does
-		else if (right.getChildren().isEmpty() && !left.getChildren().isEmpty()) {
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftChildEntry : left.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(leftChildEntry.getValue(), right, cost + 1);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-			}
-		}
-
-		// recursion case
-		else {
-
-			// case 1: do matches first
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftChildEntry : left.getChildren().entrySet()) {
-				for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightChildEntry : right.getChildren().entrySet()) {
-
-					if (leftChildEntry.getKey().equals(rightChildEntry.getKey())) { // we found a match -> pursue it
-						int temp_cost = this.alignSequenceGraphRec(leftChildEntry.getValue(), rightChildEntry.getValue(), cost); // do not increment cost as it was a match
-
-						if (temp_cost < local_best_cost)
-							local_best_cost = temp_cost;
-
-						if (temp_cost <= this.global_best_cost) { // part of currently best alignment
-							if (temp_cost == this.global_best_cost && rightChildEntry.getKey().getSequenceNumber() != leftChildEntry.getKey().getSequenceNumber())
-								System.out.println("WARNING2! " + leftChildEntry.getKey() + ": " + leftChildEntry.getKey().getSequenceNumber());
+		// merge right into left
+		Map<SequenceGraph.Node.Op, List<Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op>>> children = this.merge(other.getRoot(), matches);
 
-							rightChildEntry.getKey().setSequenceNumber(leftChildEntry.getKey().getSequenceNumber()); // set right sequence number to left sequence number
-						}
-					}
-
-				}
-			}
-
-//			// find match by skipping left
-//			SequenceGraphNode tempLeftNode = left.getChildren().values().iterator().next();
-//			boolean found_match = false;
-//			while (tempLeftNode.getChildren().size() > 0) {
-//				for (Map.Entry<Artifact.Op<?>, SequenceGraphNode> leftChildEntry : tempLeftNode.getChildren().entrySet()) {
-//					for (Map.Entry<Artifact.Op<?>, SequenceGraphNode> rightChildEntry : right.getChildren().entrySet()) {
-//						if (leftChildEntry.getKey().equals(rightChildEntry.getKey())) {
-//							found_match = true;
-//							// TODO
-//							break;
-//						}
-//					}
-//					if (found_match)
-//						break;
-//				}
-//				if (!found_match) {
-//					tempLeftNode = left.getChildren().values().iterator().next(); // just take first left child
-//				} else {
-//
-//				}
-//			}
-
-			// case 2: skip left
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftChildEntry : left.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(leftChildEntry.getValue(), right, cost + 1);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-			}
-
-			// case 3: skip right
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightChildEntry : right.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(left, rightChildEntry.getValue(), cost);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-
-				if (temp_cost <= this.global_best_cost) { // part of currently best alignment
-					if (temp_cost == this.global_best_cost && rightChildEntry.getKey().getSequenceNumber() != -1)
-						System.out.println("WARNING3! " + rightChildEntry.getKey() + ": " + -1);
-
-					rightChildEntry.getKey().setSequenceNumber(-1); // indicate that this artifact needs a new sequence number assigned
-				}
-			}
+		// assign the new sequence numbers to the right symbols and rebuild the children maps of the merged nodes
+		for (Map.Entry<Artifact.Op<?>, Integer> entry : sequenceNumbers.entrySet())
+			entry.getKey().setSequenceNumber(entry.getValue());
 
+		for (Map.Entry<SequenceGraph.Node.Op, List<Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op>>> entry : children.entrySet()) {
+			Map<Artifact.Op<?>, SequenceGraph.Node.Op> nodeChildren = entry.getKey().getChildren();
+			nodeChildren.clear();
+			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> child : entry.getValue())
+				nodeChildren.put(child.getKey(), child.getValue());
 		}
-
-		return local_best_cost;
 	}
 
 	/**
-	 * This aligns the right sequence graph to the left sequence graph, assigning sequence numbers to the artifacts of the right sequence graph.
+	 * Computes the product of this sequence graph and the right sequence graph in which matched symbols have to be taken together and unmatched symbols can be taken independently on either side.
+	 * A matched symbol of this sequence graph that cannot be taken together with its match is cut.
+	 * Every merged node corresponds to a pair of a left and a right node, which is equivalent to identifying it by the set of symbols on the paths leading to it. The root of this sequence graph is reused as merged root, all other merged nodes are new.
 	 * <p>
-	 * NOTE: Changing the sequence number of artifacts changes their hashCode() and equals()! This makes the right sequence graph's children maps inconsistent!
-	 * In other words: in its current state this method destroys the right sequence graph!
+	 * The children of the merged nodes are returned instead of being added to the nodes directly, because the sequence numbers of the right symbols still have to be updated before they can be used as keys.
+	 *
+	 * @param rightRoot The root of the right sequence graph.
+	 * @param matches   Map (by identity) from the matched right symbols to the left symbols they are matched with.
+	 * @return The children of all merged nodes.
 	 */
-	private int alignSequenceGraphRec(SequenceGraph.Node.Op left, SequenceGraph.Node.Op right, int cost) {
-		int local_best_cost = Integer.MAX_VALUE;
-
-		// base case 1: abort and don't update alignment if we already had a better or equal solution.
-		if (cost >= this.global_best_cost) {
-			return Integer.MAX_VALUE;
-		}
-
-		// base case 2: both sequence graphs have no more nodes
-		else if (left.getChildren().isEmpty() && right.getChildren().isEmpty()) {
-			// update current best cost (we would not have gotten here if cost > global_best_cost)
-			this.global_best_cost = cost;
-			return cost;
-		}
-
-		// recursion case 1: left has no more nodes, right does
-		else if (left.getChildren().isEmpty() && !right.getChildren().isEmpty()) {
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightChildEntry : right.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(left, rightChildEntry.getValue(), cost + 1);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-
-				if (temp_cost <= this.global_best_cost) { // part of currently best alignment
-					if (temp_cost == this.global_best_cost && rightChildEntry.getKey().getSequenceNumber() != -1)
-						System.out.println("WARNING1! " + rightChildEntry.getKey() + ": " + -1);
-
-					rightChildEntry.getKey().setSequenceNumber(-1); // indicate that this artifact needs a new sequence number assigned
-				}
+	private Map<SequenceGraph.Node.Op, List<Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op>>> merge(SequenceGraph.Node.Op rightRoot, Map<Artifact.Op<?>, Artifact.Op<?>> matches) {
+		Set<Artifact.Op<?>> matchedLeft = Collections.newSetFromMap(new IdentityHashMap<>());
+		matchedLeft.addAll(matches.values());
+
+		Map<SequenceGraph.Node.Op, Map<SequenceGraph.Node.Op, SequenceGraph.Node.Op>> nodes = new IdentityHashMap<>(); // left node -> right node -> merged node
+		Map<SequenceGraph.Node.Op, List<Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op>>> children = new IdentityHashMap<>();
+		Deque<SequenceGraph.Node.Op[]> pairs = new ArrayDeque<>();
+
+		SequenceGraph.Node.Op leftRoot = this.sequenceGraph.getRoot();
+		nodes.computeIfAbsent(leftRoot, k -> new IdentityHashMap<>()).put(rightRoot, leftRoot);
+		pairs.push(new SequenceGraph.Node.Op[]{leftRoot, rightRoot, leftRoot});
+
+		while (!pairs.isEmpty()) {
+			SequenceGraph.Node.Op[] pair = pairs.pop();
+			SequenceGraph.Node.Op left = pair[0];
+			SequenceGraph.Node.Op right = pair[1];
+
+			List<Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op>> mergedChildren = new ArrayList<>();
+
+			// matched right symbols by the left symbols they are matched with
+			Map<Artifact.Op<?>, SequenceGraph.Node.Op> matchedRightChildren = new IdentityHashMap<>();
+
+			// unmatched right symbol -> add it and advance right
+			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightEntry : right.getChildren().entrySet()) {
+				Artifact.Op<?> match = matches.get(rightEntry.getKey());
+				if (match == null)
+					mergedChildren.add(new AbstractMap.SimpleEntry<>(rightEntry.getKey(), this.getMergedNode(left, rightEntry.getValue(), nodes, pairs)));
+				else
+					matchedRightChildren.put(match, rightEntry.getValue());
 			}
-		}
-
-		// recursion case 2: right has no more nodes, left does
-		else if (right.getChildren().isEmpty() && !left.getChildren().isEmpty()) {
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftChildEntry : left.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(leftChildEntry.getValue(), right, cost + 1);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-			}
-		}
-
-		// recursion case
-		else {
-
-			// case 1: do matches first
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftChildEntry : left.getChildren().entrySet()) {
-				for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightChildEntry : right.getChildren().entrySet()) {
-
-					if (leftChildEntry.getKey().equals(rightChildEntry.getKey())) { // we found a match -> pursue it
-						int temp_cost = this.alignSequenceGraphRec(leftChildEntry.getValue(), rightChildEntry.getValue(), cost); // do not increment cost as it was a match
-
-						if (temp_cost < local_best_cost)
-							local_best_cost = temp_cost;
-
-						if (temp_cost <= this.global_best_cost) { // part of currently best alignment
-							if (temp_cost == this.global_best_cost && rightChildEntry.getKey().getSequenceNumber() != leftChildEntry.getKey().getSequenceNumber())
-								System.out.println("WARNING2! " + leftChildEntry.getKey() + ": " + leftChildEntry.getKey().getSequenceNumber());
-
-							rightChildEntry.getKey().setSequenceNumber(leftChildEntry.getKey().getSequenceNumber()); // set right sequence number to left sequence number
-						}
-					}
 
+			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftEntry : left.getChildren().entrySet()) {
+				if (!matchedLeft.contains(leftEntry.getKey())) { // unmatched left symbol -> advance left
+					mergedChildren.add(new AbstractMap.SimpleEntry<>(leftEntry.getKey(), this.getMergedNode(leftEntry.getValue(), right, nodes, pairs)));
+				} else { // matched left symbol -> take it when it is also available right, cut it otherwise
+					SequenceGraph.Node.Op rightChild = matchedRightChildren.get(leftEntry.getKey());
+					if (rightChild != null)
+						mergedChildren.add(new AbstractMap.SimpleEntry<>(leftEntry.getKey(), this.getMergedNode(leftEntry.getValue(), rightChild, nodes, pairs)));
 				}
 			}
 
-			// case 2: skip left
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftChildEntry : left.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(leftChildEntry.getValue(), right, cost + 1);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-			}
-
-			// case 3: skip right
-			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightChildEntry : right.getChildren().entrySet()) {
-				int temp_cost = this.alignSequenceGraphRec(left, rightChildEntry.getValue(), cost);
-
-				if (temp_cost < local_best_cost)
-					local_best_cost = temp_cost;
-
-				if (temp_cost <= this.global_best_cost) { // part of currently best alignment
-					if (temp_cost == this.global_best_cost && rightChildEntry.getKey().getSequenceNumber() != -1)
-						System.out.println("WARNING3! " + rightChildEntry.getKey() + ": " + -1);
-
-					rightChildEntry.getKey().setSequenceNumber(-1); // indicate that this artifact needs a new sequence number assigned
-				}
-			}
-
+			children.put(pair[2], mergedChildren);
 		}
 
-		return local_best_cost;
+		return children;
 	}
 
-	/**
-	 * This updates the left sequence graph by merging the aligned right sequence graph into it.
-	 */
-	private SequenceGraph.Node.Op updateSequenceGraphRec(SequenceGraph.Node.Op left, SequenceGraph.Node.Op right, HashSet<Artifact.Op<?>> path, Map<Set<Artifact.Op<?>>, SequenceGraph.Node.Op> nodes, Set<Artifact.Op<?>> shared_symbols) {
-		// get current graph node
-		SequenceGraph.Node.Op sgn = nodes.get(path);
-		if (sgn == null) {
-			sgn = this.sequenceGraph.createSequenceGraphNode(!this.sequenceGraph.getPol());
-			nodes.put(path, sgn);
-		}
-
-		// base case: node has already been visited
-		if (sgn.getPol() == this.sequenceGraph.getPol())
-			return sgn;
-
-		// set node to visited
-		sgn.setPol(this.sequenceGraph.getPol());
-
-		HashMap<Artifact.Op<?>, SequenceGraph.Node.Op> new_children = new HashMap<>();
-
-		// if unshared symbol left -> advance
-		for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftEntry : left.getChildren().entrySet()) {
-			if (!shared_symbols.contains(leftEntry.getKey())) {
-				System.out.println("LEFT UNSHARED");
-				HashSet<Artifact.Op<?>> new_path = new HashSet<>(path);
-				new_path.add(leftEntry.getKey());
-				SequenceGraph.Node.Op child = this.updateSequenceGraphRec(leftEntry.getValue(), right, new_path, nodes, shared_symbols);
-				new_children.put(leftEntry.getKey(), child);
-			}
-		}
-
-		// if unshared symbol right -> add it left and advance
-		for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightEntry : right.getChildren().entrySet()) {
-			if (!shared_symbols.contains(rightEntry.getKey())) {
-				System.out.println("RIGHT UNSHARED");
-				HashSet<Artifact.Op<?>> new_path = new HashSet<>(path);
-				new_path.add(rightEntry.getKey());
-				SequenceGraph.Node.Op child = this.updateSequenceGraphRec(left, rightEntry.getValue(), new_path, nodes, shared_symbols); // this should be a new node
-				new_children.put(rightEntry.getKey(), child);
-			}
-		}
-
-		// if shared symbol -> cut it if onesided or take it when on both sides
-		Iterator<Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op>> it = left.getChildren().entrySet().iterator();
-		//for (Map.Entry<Artifact.Op<?>, SequenceGraphNode> leftEntry : left.getChildren().entrySet()) {
-		while (it.hasNext()) {
-			Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> leftEntry = it.next();
-			if (shared_symbols.contains(leftEntry.getKey())) {
-				Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> rightEntry = null;
-				for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> tempRightEntry : right.getChildren().entrySet()) {
-					if (tempRightEntry.getKey().equals(leftEntry.getKey())) {
-						rightEntry = tempRightEntry;
-						break;
-					}
-				}
-				if (rightEntry != null) { // matching shared symbols -> take them
-					System.out.println("MATCH SHARED");
-					HashSet<Artifact.Op<?>> new_path = new HashSet<>(path);
-					new_path.add(leftEntry.getKey());
-					SequenceGraph.Node.Op child = this.updateSequenceGraphRec(leftEntry.getValue(), rightEntry.getValue(), new_path, nodes, shared_symbols);
-					new_children.put(leftEntry.getKey(), child);
-				} else { // no match for shared symbol -> cut graph
-					System.out.println("MATCH CUT");
-					it.remove();
-				}
-			}
+	private SequenceGraph.Node.Op getMergedNode(SequenceGraph.Node.Op left, SequenceGraph.Node.Op right, Map<SequenceGraph.Node.Op, Map<SequenceGraph.Node.Op, SequenceGraph.Node.Op>> nodes, Deque<SequenceGraph.Node.Op[]> pairs) {
+		Map<SequenceGraph.Node.Op, SequenceGraph.Node.Op> rightNodes = nodes.computeIfAbsent(left, k -> new IdentityHashMap<>());
+		SequenceGraph.Node.Op merged = rightNodes.get(right);
+		if (merged == null) {
+			merged = this.sequenceGraph.createSequenceGraphNode(this.sequenceGraph.getPol());
+			rightNodes.put(right, merged);
+			pairs.push(new SequenceGraph.Node.Op[]{left, right, merged});
 		}
-
-		sgn.getChildren().clear();
-		sgn.getChildren().putAll(new_children);
-
-		return sgn;
+		return merged;
 	}
 
 
@@ -622,8 +380,12 @@ public class SequenceGraphOperator {
 	}
 
 	public void sequenceArtifacts(List<? extends Artifact.Op<?>> artifacts) throws EccoException {
+		this.sequenceArtifacts(artifacts, SequenceGraph.AlignmentMode.AUTO);
+	}
+
+	public void sequenceArtifacts(List<? extends Artifact.Op<?>> artifacts, SequenceGraph.AlignmentMode mode) throws EccoException {
 		int num_symbols = this.sequenceGraph.getCurrentSequenceNumber();
-		int[] alignment = align(artifacts);
+		int[] alignment = align(artifacts, mode);
 
 		//if (num_symbols != this.sequenceGraph.getCurrentSequenceNumber()) {
 		Set<Artifact.Op<?>> shared_symbols = new HashSet<>();
@@ -649,10 +411,20 @@ public class SequenceGraphOperator {
 
 
 	public int[] align(List<? extends Artifact.Op<?>> artifacts) throws EccoException {
-		int[] alignment_array = new int[artifacts.size()]; // +1? maybe remove node_right_index and use instead alignment[0]?
+		return this.align(artifacts, SequenceGraph.AlignmentMode.AUTO);
+	}
+
+	public int[] align(List<? extends Artifact.Op<?>> artifacts, SequenceGraph.AlignmentMode mode) throws EccoException {
+		int[] alignment_array;
 
-		this.global_best_cost = Integer.MAX_VALUE;
-		align_rec_fast(this.sequenceGraph.getRoot(), artifacts, 0, alignment_array, 0);
+		if (mode == SequenceGraph.AlignmentMode.RECURSIVE) {
+			alignment_array = new int[artifacts.size()]; // +1? maybe remove node_right_index and use instead alignment[0]?
+
+			this.global_best_cost = Integer.MAX_VALUE;
+			align_rec_fast(this.sequenceGraph.getRoot(), artifacts, 0, alignment_array, 0);
+		} else {
+			alignment_array = new SequenceGraphAligner(this.sequenceGraph.getRoot(), artifacts).align(mode);
+		}
 
 		// finalize alignment
 		for (int i = 0; i < alignment_array.length; i++) {
@@ -0,0 +1,79 @@
+package at.jku.isse.ecco.util;
+
+import at.jku.isse.ecco.EccoException;
+
+import java.util.concurrent.*;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Executes tasks on a fixed number of threads. Tasks are queued in a bounded work queue and once it is full the thread that submits a task executes it itself, so tasks are not created much faster than they are executed. With a single thread, tasks are executed right away by the thread that submits them.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+public class BoundedExecutor implements AutoCloseable {
+
+	/**
+	 * The number of tasks that may be queued per thread before the thread that submits tasks has to execute them itself.
+	 */
+	private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+	private final ExecutorService executor;
+
+	/**
+	 * @param parallelism The number of threads (1 means sequential).
+	 */
+	public BoundedExecutor(int parallelism) {
+		checkArgument(parallelism >= 1, "Parallelism must be at least 1.");
+
+		if (parallelism > 1)
+			this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(parallelism * QUEUE_CAPACITY_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+		else
+			this.executor = null;
+	}
+
+	/**
+	 * Submits the task to the executor or, if there is a single thread, executes it in the current thread.
+	 */
+	public <T> Future<T> submit(Callable<T> task) {
+		if (this.executor != null) {
+			return this.executor.submit(task);
+		} else {
+			FutureTask<T> futureTask = new FutureTask<>(task);
+			futureTask.run();
+			return futureTask;
+		}
+	}
+
+	/**
+	 * Waits for the result of a submitted task. Exceptions of the task are rethrown as {@link EccoException}.
+	 *
+	 * @param future    The future of the task.
+	 * @param operation The operation of the task for error messages, e.g. "reading".
+	 * @param subject   The subject of the task for error messages, e.g. the path of the file that is read.
+	 * @return The result of the task.
+	 */
+	public <T> T join(Future<T> future, String operation, Object subject) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new EccoException("Interrupted while " + operation + " " + subject, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof EccoException)
+				throw (EccoException) e.getCause();
+			throw new EccoException("Error " + operation + " " + subject, e);
+		}
+	}
+
+	/**
+	 * Stops the threads. Tasks that have not completed yet are interrupted.
+	 */
+	@Override
+	public void close() {
+		if (this.executor != null)
+			this.executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,325 @@
+package at.jku.isse.ecco.util;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Views of collections that are embedded in persistent entities. Collections that are not entities themselves are stored as part of the entity that holds them, so every modification through a view calls the callback that marks that owner as modified and it is written when the current transaction is committed.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+public final class TrackedCollections {
+
+	private TrackedCollections() {
+	}
+
+
+	public static <E> List<E> list(Runnable modified, List<E> list) {
+		return new TrackedList<>(modified, list);
+	}
+
+	public static <E> Set<E> set(Runnable modified, Set<E> set) {
+		return new TrackedSet<>(modified, set);
+	}
+
+	public static <E> Collection<E> collection(Runnable modified, Collection<E> collection) {
+		return new TrackedCollection<>(modified, collection);
+	}
+
+	public static <K, V> Map<K, V> map(Runnable modified, Map<K, V> map) {
+		return new TrackedMap<>(modified, map);
+	}
+
+	public static <E> Iterator<E> iterator(Runnable modified, Iterator<E> iterator) {
+		return new TrackedIterator<>(modified, iterator);
+	}
+
+
+	private static class TrackedIterator<E> implements Iterator<E> {
+		private final Runnable modified;
+		private final Iterator<E> iterator;
+
+		private TrackedIterator(Runnable modified, Iterator<E> iterator) {
+			this.modified = checkNotNull(modified);
+			this.iterator = checkNotNull(iterator);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.iterator.hasNext();
+		}
+
+		@Override
+		public E next() {
+			return this.iterator.next();
+		}
+
+		@Override
+		public void remove() {
+			this.iterator.remove();
+			this.modified.run();
+		}
+	}
+
+	private static class TrackedCollection<E> extends AbstractCollection<E> {
+		protected final Runnable modified;
+		protected final Collection<E> collection;
+
+		private TrackedCollection(Runnable modified, Collection<E> collection) {
+			this.modified = checkNotNull(modified);
+			this.collection = checkNotNull(collection);
+		}
+
+		@Override
+		public int size() {
+			return this.collection.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return this.collection.contains(o);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new TrackedIterator<>(this.modified, this.collection.iterator());
+		}
+
+		@Override
+		public boolean add(E e) {
+			return this.changed(this.collection.add(e));
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return this.changed(this.collection.remove(o));
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends E> c) {
+			return this.changed(this.collection.addAll(c));
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			return this.changed(this.collection.removeAll(c));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			return this.changed(this.collection.retainAll(c));
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super E> filter) {
+			return this.changed(this.collection.removeIf(filter));
+		}
+
+		@Override
+		public void clear() {
+			if (!this.collection.isEmpty()) {
+				this.collection.clear();
+				this.modified.run();
+			}
+		}
+
+		protected boolean changed(boolean changed) {
+			if (changed)
+				this.modified.run();
+			return changed;
+		}
+	}
+
+	private static class TrackedSet<E> extends TrackedCollection<E> implements Set<E> {
+		private TrackedSet(Runnable modified, Set<E> set) {
+			super(modified, set);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o == this || this.collection.equals(o);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.collection.hashCode();
+		}
+	}
+
+	private static class TrackedList<E> extends AbstractList<E> implements RandomAccess {
+		private final Runnable modified;
+		private final List<E> list;
+
+		private TrackedList(Runnable modified, List<E> list) {
+			this.modified = checkNotNull(modified);
+			this.list = checkNotNull(list);
+		}
+
+		@Override
+		public E get(int index) {
+			return this.list.get(index);
+		}
+
+		@Override
+		public int size() {
+			return this.list.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return this.list.contains(o);
+		}
+
+		@Override
+		public int indexOf(Object o) {
+			return this.list.indexOf(o);
+		}
+
+		@Override
+		public E set(int index, E element) {
+			E previous = this.list.set(index, element);
+			this.modified.run();
+			return previous;
+		}
+
+		@Override
+		public void add(int index, E element) {
+			this.list.add(index, element);
+			this.modified.run();
+		}
+
+		@Override
+		public E remove(int index) {
+			E removed = this.list.remove(index);
+			this.modified.run();
+			return removed;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			boolean changed = this.list.remove(o);
+			if (changed)
+				this.modified.run();
+			return changed;
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends E> c) {
+			boolean changed = this.list.addAll(c);
+			if (changed)
+				this.modified.run();
+			return changed;
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super E> filter) {
+			boolean changed = this.list.removeIf(filter);
+			if (changed)
+				this.modified.run();
+			return changed;
+		}
+
+		@Override
+		public void replaceAll(UnaryOperator<E> operator) {
+			this.list.replaceAll(operator);
+			this.modified.run();
+		}
+
+		@Override
+		public void sort(Comparator<? super E> c) {
+			this.list.sort(c);
+			this.modified.run();
+		}
+
+		@Override
+		public void clear() {
+			if (!this.list.isEmpty()) {
+				this.list.clear();
+				this.modified.run();
+			}
+		}
+	}
+
+	private static class TrackedMap<K, V> extends AbstractMap<K, V> {
+		private final Runnable modified;
+		private final Map<K, V> map;
+
+		private TrackedMap(Runnable modified, Map<K, V> map) {
+			this.modified = checkNotNull(modified);
+			this.map = checkNotNull(map);
+		}
+
+		@Override
+		public int size() {
+			return this.map.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.map.containsKey(key);
+		}
+
+		@Override
+		public V get(Object key) {
+			return this.map.get(key);
+		}
+
+		@Override
+		public V put(K key, V value) {
+			V previous = this.map.put(key, value);
+			this.modified.run();
+			return previous;
+		}
+
+		@Override
+		public V remove(Object key) {
+			if (!this.map.containsKey(key))
+				return null;
+			V removed = this.map.remove(key);
+			this.modified.run();
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			if (!this.map.isEmpty()) {
+				this.map.clear();
+				this.modified.run();
+			}
+		}
+
+		@Override
+		public Set<Entry<K, V>> entrySet() {
+			return new AbstractSet<Entry<K, V>>() {
+				@Override
+				public int size() {
+					return TrackedMap.this.map.size();
+				}
+
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					Iterator<Entry<K, V>> iterator = TrackedMap.this.map.entrySet().iterator();
+					return new TrackedIterator<Entry<K, V>>(TrackedMap.this.modified, iterator) {
+						@Override
+						public Entry<K, V> next() {
+							Entry<K, V> entry = super.next();
+							return new SimpleEntry<K, V>(entry) {
+								@Override
+								public V setValue(V value) {
+									super.setValue(value);
+									TrackedMap.this.modified.run();
+									return entry.setValue(value);
+								}
+							};
+						}
+					};
+				}
+			};
+		}
+	}
+
+}
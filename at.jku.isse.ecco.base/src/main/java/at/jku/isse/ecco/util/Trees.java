@@ -9,6 +9,8 @@ import at.jku.isse.ecco.tree.RootNode;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * This static class provides a collection of tree utility functions.
  */
@@ -32,6 +34,29 @@ public class Trees {
 
 	// # WRITE OPERATIONS ##############################################################################################
 
+	/**
+	 * Strategy used by {@link #slice(Node.Op, Node.Op, SliceMode)} to match the children of the left node with the children of the right node.
+	 */
+	public enum SliceMode {
+		/**
+		 * Looks up every left child in the list of right children via {@link List#indexOf(Object)}. Quadratic in the number of children, but without any setup cost.
+		 */
+		SCAN,
+		/**
+		 * Builds a hash index of the right children (keyed on the artifact hash and the sequence number) once per node. Near-linear in the number of children.
+		 */
+		INDEXED,
+		/**
+		 * Uses {@link #INDEXED} for nodes with more than {@link #INDEXED_SLICE_THRESHOLD} right children and {@link #SCAN} otherwise.
+		 */
+		AUTO
+	}
+
+	/**
+	 * Number of right children above which {@link SliceMode#AUTO} switches from {@link SliceMode#SCAN} to {@link SliceMode#INDEXED}.
+	 */
+	public static final int INDEXED_SLICE_THRESHOLD = 32;
+
 	/**
 	 * Slices (i.e. intersects) the two given nodes. It returns the intersection node and removes the intersection from the left and right nodes.
 	 *
@@ -42,10 +67,168 @@ public class Trees {
 	 */
 	//public static <T extends Node.Op> T slice(T left, T right) throws EccoException {
 	public static Node.Op slice(Node.Op left, Node.Op right) throws EccoException {
+		return slice(left, right, SliceMode.AUTO);
+	}
+
+	/**
+	 * Slices (i.e. intersects) the two given nodes using the given strategy for matching children. The result is the same for every mode.
+	 *
+	 * @param left  The left (original) node.
+	 * @param right The right (new) node.
+	 * @param mode  The strategy for matching the children of the left and right nodes.
+	 * @return The created intersection node.
+	 * @throws EccoException
+	 */
+	public static Node.Op slice(Node.Op left, Node.Op right, SliceMode mode) throws EccoException {
+		return slice(left, right, mode, null, Collections.emptySet(), false);
+	}
+
+	/**
+	 * Slices (i.e. intersects) the two given nodes like {@link #slice(Node.Op, Node.Op)}, except for the given unmodified right nodes, which stand for the complete subtrees of the equal nodes in some of the left trees (e.g. files that were not modified since these left trees were checked out).
+	 * If the given left tree is one of them, the children of the left node equal to an unmodified node are moved to the intersection node as they are instead of being sliced, so that they keep their identity and their artifact references. Otherwise unmodified nodes are sliced like any other node.
+	 * Unmodified nodes are never removed from the right tree, since they may stand for the subtrees of further left trees. Once all slices are done they must be removed via {@link #removeUnmodified(Set)}.
+	 *
+	 * @param left            The left (original) node.
+	 * @param right           The right (new) node.
+	 * @param unmodifiedNodes The unmodified nodes of the right tree, compared by identity.
+	 * @param reuseUnmodified True if the unmodified nodes stand for the subtrees of the left tree.
+	 * @return The created intersection node.
+	 * @throws EccoException
+	 */
+	public static Node.Op slice(Node.Op left, Node.Op right, Set<? extends Node> unmodifiedNodes, boolean reuseUnmodified) throws EccoException {
+		checkNotNull(unmodifiedNodes);
+
+		return slice(left, right, SliceMode.AUTO, null, unmodifiedNodes, reuseUnmodified);
+	}
+
+	/**
+	 * Slices the given left node with a right node that may at the same time be sliced with other left nodes by other threads (e.g. when a new association is sliced with every original association of a repository in parallel).
+	 * The modifications of the right artifacts (sequencing, replacing artifacts, merging artifact references) are synchronized on the right node.
+	 * Nodes that must be removed from the right tree are not removed but collected in the given set, so that the structure of the right tree does not change while it is being sliced.
+	 * Once all slices are done the removals must be applied via {@link #removeDeferred(Node.Op, Set)}.
+	 * <p>
+	 * The result is the same as that of slicing with every left node one after the other as long as every artifact is unique in at most one of the left trees, which holds for the associations of a repository.
+	 *
+	 * @param left          The left (original) node, which must not be accessed by any other thread.
+	 * @param right         The right (new) node, which may be shared with other threads.
+	 * @param rightRemovals The thread safe set in which the nodes to be removed from the right tree are collected.
+	 * @return The created intersection node.
+	 * @throws EccoException
+	 */
+	public static Node.Op sliceConcurrent(Node.Op left, Node.Op right, Set<Node.Op> rightRemovals) throws EccoException {
+		return sliceConcurrent(left, right, rightRemovals, Collections.emptySet(), false);
+	}
+
+	/**
+	 * Same as {@link #sliceConcurrent(Node.Op, Node.Op, Set)}, but with unmodified right nodes that stand for the complete subtrees of the equal nodes in some of the left trees (see {@link #slice(Node.Op, Node.Op, Set, boolean)}).
+	 *
+	 * @param left            The left (original) node, which must not be accessed by any other thread.
+	 * @param right           The right (new) node, which may be shared with other threads.
+	 * @param rightRemovals   The thread safe set in which the nodes to be removed from the right tree are collected.
+	 * @param unmodifiedNodes The unmodified nodes of the right tree, compared by identity.
+	 * @param reuseUnmodified True if the unmodified nodes stand for the subtrees of the left tree.
+	 * @return The created intersection node.
+	 * @throws EccoException
+	 */
+	public static Node.Op sliceConcurrent(Node.Op left, Node.Op right, Set<Node.Op> rightRemovals, Set<? extends Node> unmodifiedNodes, boolean reuseUnmodified) throws EccoException {
+		checkNotNull(rightRemovals);
+		checkNotNull(unmodifiedNodes);
+
+		return slice(left, right, SliceMode.INDEXED, rightRemovals, unmodifiedNodes, reuseUnmodified);
+	}
+
+	/**
+	 * Applies the removals collected by {@link #sliceConcurrent(Node.Op, Node.Op, Set)} to the tree rooted at the given node.
+	 * Besides the collected nodes, every node that is not unique and has no children left is removed as well.
+	 *
+	 * @param node          The root of the right tree.
+	 * @param rightRemovals The collected nodes to be removed.
+	 */
+	public static void removeDeferred(Node.Op node, Set<Node.Op> rightRemovals) {
+		for (Node.Op child : node.getChildren()) {
+			if (!rightRemovals.contains(child))
+				removeDeferred(child, rightRemovals);
+		}
+
+		node.getChildren().removeIf(child -> {
+			if (rightRemovals.contains(child) || !child.isUnique() && child.getChildren().isEmpty()) {
+				child.setParent(null);
+				return true;
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * Removes the unmodified nodes that were given to {@link #slice(Node.Op, Node.Op, Set, boolean)} from the right tree once all slices are done, together with the ancestors that are not unique and have no children left.
+	 *
+	 * @param unmodifiedNodes The unmodified nodes of the right tree.
+	 */
+	public static void removeUnmodified(Set<? extends Node.Op> unmodifiedNodes) {
+		for (Node.Op node : unmodifiedNodes) {
+			Node.Op parent = node.getParent();
+			while (parent != null) {
+				Node.Op child = node;
+				parent.getChildren().removeIf(c -> c == child);
+				node.setParent(null);
+				if (parent instanceof RootNode || parent.isUnique() || !parent.getChildren().isEmpty())
+					break;
+				node = parent;
+				parent = node.getParent();
+			}
+		}
+	}
+
+	private static Node.Op slice(Node.Op left, Node.Op right, SliceMode mode, Set<Node.Op> rightRemovals, Set<? extends Node> unmodifiedNodes, boolean reuseUnmodified) throws EccoException {
 		if (!left.equals(right))
 			throw new EccoException("Intersection of non-equal nodes is not allowed!");
 
+		// sequencing may renumber the right children, so slicing below an ordered right node must not interleave with other threads (locks are always acquired top-down)
+		if (rightRemovals != null && right.getArtifact() != null && right.getArtifact().isOrdered()) {
+			synchronized (right) {
+				return sliceTree(left, right, mode, rightRemovals, unmodifiedNodes, reuseUnmodified);
+			}
+		}
+
+		return sliceTree(left, right, mode, rightRemovals, unmodifiedNodes, reuseUnmodified);
+	}
+
+	private static Node.Op sliceTree(Node.Op left, Node.Op right, SliceMode mode, Set<Node.Op> rightRemovals, Set<? extends Node> unmodifiedNodes, boolean reuseUnmodified) {
+		Node.Op intersection;
+		if (rightRemovals != null) {
+			synchronized (right) {
+				intersection = sliceNode(left, right);
+			}
+		} else {
+			intersection = sliceNode(left, right);
+		}
+
+		if (intersection == left) // atomic
+			return left;
+
+		if (reuseUnmodified && unmodifiedNodes.contains(right)) { // the right node stands for the complete left subtree
+			for (Node.Op leftChild : left.getChildren()) {
+				intersection.getChildren().add(leftChild);
+				leftChild.setParent(intersection);
+			}
+			left.getChildren().clear();
+			return intersection;
+		}
+
+
+		if (rightRemovals != null || mode == SliceMode.INDEXED || mode == SliceMode.AUTO && right.getChildren().size() > INDEXED_SLICE_THRESHOLD)
+			sliceChildrenIndexed(left, right, intersection, mode, rightRemovals, unmodifiedNodes, reuseUnmodified);
+		else
+			sliceChildrenScan(left, right, intersection, mode, unmodifiedNodes, reuseUnmodified);
 
+
+		return intersection;
+	}
+
+	/**
+	 * Slices the artifacts of the two given nodes and creates the intersection node (without children). In case the artifacts are atomic the left node is returned instead.
+	 */
+	private static Node.Op sliceNode(Node.Op left, Node.Op right) {
 		if (left.getArtifact() != null && right.getArtifact() != null) {
 			if (left.getArtifact().isOrdered()) {
 				if (left.getArtifact().isSequenced() && right.getArtifact().isSequenced() && left.getArtifact().getSequenceGraph() != right.getArtifact().getSequenceGraph()) {
@@ -109,7 +292,10 @@ public class Trees {
 //			return intersection;
 //		}
 
+		return intersection;
+	}
 
+	private static void sliceChildrenScan(Node.Op left, Node.Op right, Node.Op intersection, SliceMode mode, Set<? extends Node> unmodifiedNodes, boolean reuseUnmodified) {
 		Iterator<Node.Op> leftChildrenIterator = left.getChildren().iterator();
 		while (leftChildrenIterator.hasNext()) {
 			Node.Op leftChild = leftChildrenIterator.next();
@@ -120,7 +306,7 @@ public class Trees {
 
 			Node.Op rightChild = right.getChildren().get(ri);
 
-			Node.Op intersectionChild = slice(leftChild, rightChild);
+			Node.Op intersectionChild = slice(leftChild, rightChild, mode, null, unmodifiedNodes, reuseUnmodified);
 
 			if (intersectionChild != null && (intersectionChild.isUnique() || (!intersectionChild.getChildren().isEmpty() && !intersectionChild.isAtomic()))) {
 				intersection.addChild(intersectionChild);
@@ -139,15 +325,139 @@ public class Trees {
 					leftChildrenIterator.remove();
 				}
 
-				if (!rightChild.isUnique() && rightChild.getChildren().isEmpty()) {
+				if (!rightChild.isUnique() && rightChild.getChildren().isEmpty() && !unmodifiedNodes.contains(rightChild)) {
 					rightChild.setParent(null);
 					right.getChildren().remove(rightChild);
 				}
 			}
 		}
+	}
 
+	/**
+	 * Same as {@link #sliceChildrenScan(Node.Op, Node.Op, Node.Op, SliceMode, Set, boolean)}, but matches children via a {@link ChildIndex} of the right children.
+	 * Removals from the left and right children lists are collected and applied in one pass at the end instead of one list scan per removal.
+	 * If a set of right removals is given, the right children are not removed at all but only added to that set (see {@link #sliceConcurrent(Node.Op, Node.Op, Set)}).
+	 */
+	private static void sliceChildrenIndexed(Node.Op left, Node.Op right, Node.Op intersection, SliceMode mode, Set<Node.Op> rightRemovals, Set<? extends Node> unmodifiedNodes, boolean reuseUnmodified) {
+		ChildIndex rightIndex = new ChildIndex(right.getChildren());
+		Set<Node.Op> removedLeftChildren = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<Node.Op> removedRightChildren = rightRemovals != null ? rightRemovals : Collections.newSetFromMap(new IdentityHashMap<>());
 
-		return intersection;
+		for (Node.Op leftChild : left.getChildren()) {
+			Node.Op rightChild = rightIndex.find(leftChild);
+			if (rightChild == null)
+				continue;
+
+			Node.Op intersectionChild = slice(leftChild, rightChild, mode, rightRemovals, unmodifiedNodes, reuseUnmodified);
+
+			// the intersection children originate from distinct left children and can therefore not be equal to each other, which makes the check in addChild unnecessary
+			if (intersectionChild != null && (intersectionChild.isUnique() || (!intersectionChild.getChildren().isEmpty() && !intersectionChild.isAtomic()))) {
+				intersection.getChildren().add(intersectionChild);
+				intersectionChild.setParent(intersection);
+			}
+
+			if (intersectionChild != null && intersectionChild.isAtomic()) { // left child becomes the intersection child
+				intersectionChild.setParent(intersection);
+
+				if (rightRemovals == null)
+					rightChild.setParent(null);
+
+				removedLeftChildren.add(leftChild);
+				removedRightChildren.add(rightChild);
+				rightIndex.remove(rightChild);
+			} else {
+				if (!leftChild.isUnique() && leftChild.getChildren().isEmpty()) {
+					leftChild.setParent(null);
+					removedLeftChildren.add(leftChild);
+				}
+
+				if (!rightChild.isUnique() && rightChild.getChildren().isEmpty() && !unmodifiedNodes.contains(rightChild)) {
+					if (rightRemovals == null)
+						rightChild.setParent(null);
+					removedRightChildren.add(rightChild);
+					rightIndex.remove(rightChild);
+				}
+			}
+		}
+
+		if (!removedLeftChildren.isEmpty())
+			left.getChildren().removeIf(removedLeftChildren::contains);
+		if (rightRemovals == null && !removedRightChildren.isEmpty())
+			right.getChildren().removeIf(removedRightChildren::contains);
+	}
+
+	/**
+	 * Hash index over a list of children used by {@link #sliceChildrenIndexed(Node.Op, Node.Op, Node.Op, SliceMode, Set, Set, boolean)}.
+	 * Children are bucketed by the hash code of their artifact (which depends only on the artifact data) and their sequence number.
+	 * Since an unassigned sequence number matches any other sequence number, children are additionally bucketed by hash code alone.
+	 * A lookup returns the same child as {@link List#indexOf(Object)} would, i.e. the first equal child in list order that has not been removed.
+	 */
+	private static final class ChildIndex {
+		private final Map<Long, List<Entry>> bySequenceNumber = new HashMap<>();
+		private final Map<Integer, List<Entry>> byHash = new HashMap<>();
+		private final Map<Node.Op, Entry> entries = new IdentityHashMap<>();
+
+		private static final class Entry {
+			private final Node.Op node;
+			private final int position;
+			private boolean removed = false;
+
+			private Entry(Node.Op node, int position) {
+				this.node = node;
+				this.position = position;
+			}
+		}
+
+		private ChildIndex(List<Node.Op> children) {
+			int position = 0;
+			for (Node.Op child : children) {
+				Entry entry = new Entry(child, position++);
+				this.entries.put(child, entry);
+				this.bySequenceNumber.computeIfAbsent(key(child.hashCode(), sequenceNumber(child)), k -> new ArrayList<>()).add(entry);
+				this.byHash.computeIfAbsent(child.hashCode(), k -> new ArrayList<>()).add(entry);
+			}
+		}
+
+		private static long key(int hash, int sequenceNumber) {
+			return ((long) hash << 32) | (sequenceNumber & 0xffffffffL);
+		}
+
+		private static int sequenceNumber(Node node) {
+			return node.getArtifact() != null ? node.getArtifact().getSequenceNumber() : Artifact.UNASSIGNED_SEQUENCE_NUMBER;
+		}
+
+		private Node.Op find(Node.Op node) {
+			int hash = node.hashCode();
+			int sequenceNumber = sequenceNumber(node);
+
+			Entry match;
+			if (sequenceNumber == Artifact.UNASSIGNED_SEQUENCE_NUMBER) {
+				match = this.first(this.byHash.get(hash), node, null);
+			} else {
+				match = this.first(this.bySequenceNumber.get(key(hash, sequenceNumber)), node, null);
+				match = this.first(this.bySequenceNumber.get(key(hash, Artifact.UNASSIGNED_SEQUENCE_NUMBER)), node, match);
+			}
+
+			return match != null ? match.node : null;
+		}
+
+		private Entry first(List<Entry> bucket, Node.Op node, Entry match) {
+			if (bucket == null)
+				return match;
+			for (Entry entry : bucket) {
+				if (match != null && entry.position >= match.position)
+					break;
+				if (!entry.removed && node.equals(entry.node))
+					return entry;
+			}
+			return match;
+		}
+
+		private void remove(Node.Op node) {
+			Entry entry = this.entries.remove(node);
+			if (entry != null)
+				entry.removed = true;
+		}
 	}
 
 	private static void matchAtomicArtifacts(Node.Op left, Node.Op right) {
@@ -531,6 +841,20 @@ public class Trees {
 	}
 
 
+	/**
+	 * Accesses every node of the given tree and its artifact, so that backends that load trees lazily (e.g. from a database) have loaded the whole tree in the current thread afterwards.
+	 * This is required before a tree is accessed by other threads that are not part of the transaction of the current thread.
+	 *
+	 * @param node The root of the artifact tree.
+	 */
+	public static void load(Node node) {
+		node.getArtifact();
+		for (Node child : node.getChildren()) {
+			load(child);
+		}
+	}
+
+
 	/**
 	 * Computes the depth of a node in the tree.
 	 *
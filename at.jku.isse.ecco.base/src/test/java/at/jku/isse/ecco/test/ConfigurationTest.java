@@ -0,0 +1,129 @@
+package at.jku.isse.ecco.test;
+
+import at.jku.isse.ecco.feature.*;
+import at.jku.isse.ecco.module.BaseModule;
+import at.jku.isse.ecco.module.BaseModuleFeature;
+import at.jku.isse.ecco.module.Module;
+import at.jku.isse.ecco.module.ModuleFeature;
+import junit.framework.Assert;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+public class ConfigurationTest {
+
+	@Test(groups = {"unit", "base", "feature"})
+	public void Configuration_Modules() {
+		Configuration configuration = new BaseConfiguration();
+		for (int i = 0; i < 6; i++) {
+			Feature feature = new BaseFeature("F" + i, "F" + i, "");
+			for (int v = 0; v <= i % 3; v++)
+				feature.addVersion(String.valueOf(v));
+			configuration.addFeatureInstance(new BaseFeatureInstance(feature, feature.getLatestVersion(), i % 4 != 3));
+		}
+
+		for (int maxOrder = 0; maxOrder <= 6; maxOrder++) {
+			Set<Module> expected = this.computeModulesEagerly(configuration, maxOrder);
+
+			List<Module> modules = new ArrayList<>();
+			for (Module module : configuration.modules(maxOrder))
+				modules.add(module);
+
+			Assert.assertEquals(expected.size(), modules.size());
+			Assert.assertEquals(expected, new HashSet<>(modules));
+			Assert.assertEquals(expected, configuration.computeModules(maxOrder));
+
+			for (Module module : modules)
+				Assert.assertTrue(configuration.containsModule(module, maxOrder));
+			for (Module module : this.computeModulesEagerly(configuration, maxOrder + 1)) {
+				if (!expected.contains(module))
+					Assert.assertFalse(configuration.containsModule(module, maxOrder));
+			}
+		}
+
+		Feature other = new BaseFeature("X", "X", "");
+		Module otherModule = new BaseModule();
+		otherModule.add(new BaseModuleFeature(other, Arrays.asList(other.addVersion("1")), true));
+		Assert.assertFalse(configuration.containsModule(otherModule, 3));
+	}
+
+	@Test(groups = {"benchmark", "base", "feature"})
+	public void Configuration_Modules_Benchmark() {
+		Configuration configuration = new BaseConfiguration();
+		for (int i = 0; i < 40; i++) {
+			Feature feature = new BaseFeature("F" + i, "F" + i, "");
+			feature.addVersion("1");
+			configuration.addFeatureInstance(new BaseFeatureInstance(feature, feature.getLatestVersion(), true));
+		}
+
+		long start = System.nanoTime();
+		int count = 0;
+		for (Module module : configuration.modules(3))
+			count++;
+		long end = System.nanoTime();
+		System.out.println("STREAMED: " + count + " modules in " + ((end - start) / 1000000) + "ms");
+
+		start = System.nanoTime();
+		count = this.computeModulesEagerly(configuration, 3).size();
+		end = System.nanoTime();
+		System.out.println("EAGER: " + count + " modules in " + ((end - start) / 1000000) + "ms");
+	}
+
+
+	/**
+	 * Computes the modules of a configuration by first computing the power set of its feature instances and then adding the other versions of their features (as done before modules were generated on demand).
+	 */
+	private Set<Module> computeModulesEagerly(Configuration configuration, int maxOrder) {
+		Set<Module> modules = new HashSet<>();
+		modules.add(new BaseModule());
+		for (FeatureInstance featureInstance : configuration.getFeatureInstances()) {
+			ModuleFeature moduleFeature = new BaseModuleFeature(featureInstance.getFeature(), Arrays.asList(featureInstance.getFeatureVersion()), featureInstance.getSign());
+			Set<Module> toAdd = new HashSet<>();
+			for (Module module : modules) {
+				if (module.getOrder() < maxOrder) {
+					Module newModule = new BaseModule();
+					newModule.addAll(module);
+					newModule.add(moduleFeature);
+					toAdd.add(newModule);
+				}
+			}
+			modules.addAll(toAdd);
+		}
+		modules.remove(new BaseModule());
+
+		for (FeatureInstance featureInstance : configuration.getFeatureInstances()) {
+			for (FeatureVersion featureVersion : featureInstance.getFeature().getVersions()) {
+				if (featureVersion.equals(featureInstance.getFeatureVersion()))
+					continue;
+				Set<Module> toAdd = new HashSet<>();
+				for (Module module : modules) {
+					boolean featureContained = false;
+					boolean versionContained = false;
+					for (ModuleFeature moduleFeature : module) {
+						if (moduleFeature.getFeature().equals(featureVersion.getFeature()))
+							featureContained = true;
+						if (moduleFeature.contains(featureVersion))
+							versionContained = true;
+					}
+					if (featureContained && !versionContained) {
+						Module newModule = new BaseModule();
+						for (ModuleFeature moduleFeature : module) {
+							if (moduleFeature.getFeature().equals(featureVersion.getFeature())) {
+								ModuleFeature newModuleFeature = new BaseModuleFeature(moduleFeature.getFeature(), moduleFeature, moduleFeature.getSign());
+								newModuleFeature.add(featureVersion);
+								newModule.add(newModuleFeature);
+							} else {
+								newModule.add(moduleFeature);
+							}
+						}
+						toAdd.add(newModule);
+					}
+				}
+				modules.addAll(toAdd);
+			}
+		}
+
+		return modules;
+	}
+
+}
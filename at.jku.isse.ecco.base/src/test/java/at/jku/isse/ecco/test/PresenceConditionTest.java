@@ -0,0 +1,177 @@
+package at.jku.isse.ecco.test;
+
+import at.jku.isse.ecco.feature.*;
+import at.jku.isse.ecco.module.*;
+import junit.framework.Assert;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+public class PresenceConditionTest {
+
+	@Test(groups = {"unit", "base", "pc"})
+	public void PresenceCondition_Bitset() {
+		List<Feature> features = this.createFeatures(8);
+		List<Configuration> configurations = this.createConfigurations(features, 12, 1);
+
+		List<PresenceCondition> basePCs = this.commit(configurations, 3, BasePresenceCondition::new);
+		ModuleIndex index = new ModuleIndex();
+		List<PresenceCondition> bitsetPCs = this.commit(configurations, 3, (configuration, maxOrder) -> new BitsetPresenceCondition(index, configuration, maxOrder));
+
+		Assert.assertEquals(basePCs.size(), bitsetPCs.size());
+		for (int i = 0; i < basePCs.size(); i++) {
+			PresenceCondition basePC = basePCs.get(i);
+			PresenceCondition bitsetPC = bitsetPCs.get(i);
+
+			Assert.assertEquals(this.modulesToString(basePC.getMinModules()), this.modulesToString(bitsetPC.getMinModules()));
+			Assert.assertEquals(this.modulesToString(basePC.getMaxModules()), this.modulesToString(bitsetPC.getMaxModules()));
+			Assert.assertEquals(this.modulesToString(basePC.getAllModules()), this.modulesToString(bitsetPC.getAllModules()));
+			Assert.assertEquals(this.modulesToString(basePC.getNotModules()), this.modulesToString(bitsetPC.getNotModules()));
+			Assert.assertEquals(basePC.isEmpty(), bitsetPC.isEmpty());
+
+			for (Configuration configuration : this.createConfigurations(features, 20, 2)) {
+				Assert.assertEquals(basePC.holds(configuration), bitsetPC.holds(configuration));
+			}
+		}
+	}
+
+	@Test(groups = {"unit", "base", "pc"})
+	public void PresenceCondition_Bitset_Indices() {
+		List<Feature> features = this.createFeatures(8);
+		List<Configuration> configurations = this.createConfigurations(features, 12, 1);
+
+		// presence conditions of different indices are sliced module by module instead of word-wise
+		ModuleIndex index = new ModuleIndex();
+		List<PresenceCondition> sharedPCs = this.commit(configurations, 3, (configuration, maxOrder) -> new BitsetPresenceCondition(index, configuration, maxOrder));
+		List<PresenceCondition> separatePCs = this.commit(configurations, 3, (configuration, maxOrder) -> new BitsetPresenceCondition(new ModuleIndex(), configuration, maxOrder));
+
+		Assert.assertEquals(sharedPCs.size(), separatePCs.size());
+		for (int i = 0; i < sharedPCs.size(); i++) {
+			Assert.assertEquals(sharedPCs.get(i).getMinModules(), separatePCs.get(i).getMinModules());
+			Assert.assertEquals(sharedPCs.get(i).getMaxModules(), separatePCs.get(i).getMaxModules());
+			Assert.assertEquals(sharedPCs.get(i).getAllModules(), separatePCs.get(i).getAllModules());
+			Assert.assertEquals(sharedPCs.get(i).getNotModules(), separatePCs.get(i).getNotModules());
+		}
+	}
+
+	@Test(groups = {"unit", "base", "pc"})
+	public void ModuleIndex_Concurrent() throws InterruptedException {
+		List<Feature> features = this.createFeatures(8);
+		List<Configuration> configurations = this.createConfigurations(features, 12, 1);
+		List<Module> modules = new ArrayList<>();
+		for (PresenceCondition pc : this.commit(configurations, 3, BasePresenceCondition::new))
+			modules.addAll(pc.getAllModules());
+
+		// every thread interns the same modules into one index
+		ModuleIndex index = new ModuleIndex();
+		int numThreads = 4;
+		BitsetModule[][] interned = new BitsetModule[numThreads][modules.size()];
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < numThreads; t++) {
+			int thread = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < modules.size(); i++)
+					interned[thread][i] = index.intern(modules.get(i));
+			}));
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		Set<Module> distinct = new HashSet<>(modules);
+		for (int i = 0; i < modules.size(); i++) {
+			for (int t = 1; t < numThreads; t++)
+				Assert.assertSame(interned[0][i], interned[t][i]);
+			int id = index.find(modules.get(i));
+			Assert.assertTrue(id >= 0 && id < distinct.size());
+			Assert.assertSame(interned[0][i], index.get(id));
+		}
+	}
+
+	@Test(groups = {"benchmark", "base", "pc"})
+	public void PresenceCondition_Benchmark() {
+		List<Feature> features = this.createFeatures(24);
+		List<Configuration> configurations = this.createConfigurations(features, 10, 1);
+
+		Map<String, BiFunction<Configuration, Integer, PresenceCondition>> implementations = new LinkedHashMap<>();
+		implementations.put("HASHSET", BasePresenceCondition::new);
+		ModuleIndex index = new ModuleIndex();
+		implementations.put("BITSET", (configuration, maxOrder) -> new BitsetPresenceCondition(index, configuration, maxOrder));
+
+		for (Map.Entry<String, BiFunction<Configuration, Integer, PresenceCondition>> implementation : implementations.entrySet()) {
+			long start = System.nanoTime();
+			List<PresenceCondition> pcs = this.commit(configurations, 3, implementation.getValue());
+			long end = System.nanoTime();
+
+			long holdsStart = System.nanoTime();
+			int holds = 0;
+			for (PresenceCondition pc : pcs) {
+				for (Configuration configuration : configurations) {
+					if (pc.holds(configuration))
+						holds++;
+				}
+			}
+			long holdsEnd = System.nanoTime();
+
+			System.out.println(implementation.getKey() + ": commit " + ((end - start) / 1000000) + "ms, holds " + ((holdsEnd - holdsStart) / 1000000) + "ms (" + pcs.size() + " presence conditions, " + holds + " hold)");
+		}
+	}
+
+
+	/**
+	 * Mimics the slicing of presence conditions during consecutive commits of the given configurations and returns the resulting non-empty presence conditions.
+	 */
+	private List<PresenceCondition> commit(List<Configuration> configurations, int maxOrder, BiFunction<Configuration, Integer, PresenceCondition> factory) {
+		List<PresenceCondition> pcs = new ArrayList<>();
+		for (Configuration configuration : configurations) {
+			PresenceCondition inputPC = factory.apply(configuration, maxOrder);
+			List<PresenceCondition> intersections = new ArrayList<>();
+			for (PresenceCondition pc : pcs) {
+				PresenceCondition intersection = pc.slice(inputPC);
+				if (!intersection.getMinModules().isEmpty())
+					intersections.add(intersection);
+			}
+			pcs.addAll(intersections);
+			pcs.add(inputPC);
+		}
+		return pcs;
+	}
+
+	private List<Feature> createFeatures(int count) {
+		List<Feature> features = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Feature feature = new BaseFeature("F" + i, "F" + i, "");
+			feature.addVersion("1");
+			features.add(feature);
+		}
+		return features;
+	}
+
+	/**
+	 * Creates random configurations in which every feature is selected with a probability of one half. Every tenth feature is deselected explicitly.
+	 */
+	private List<Configuration> createConfigurations(List<Feature> features, int count, long seed) {
+		Random random = new Random(seed);
+		List<Configuration> configurations = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Configuration configuration = new BaseConfiguration();
+			for (int f = 0; f < features.size(); f++) {
+				Feature feature = features.get(f);
+				if (random.nextBoolean())
+					configuration.addFeatureInstance(new BaseFeatureInstance(feature, feature.getLatestVersion(), true));
+				else if (f % 10 == 0)
+					configuration.addFeatureInstance(new BaseFeatureInstance(feature, feature.getLatestVersion(), false));
+			}
+			configurations.add(configuration);
+		}
+		return configurations;
+	}
+
+	private Set<String> modulesToString(Set<Module> modules) {
+		return modules.stream().map(module -> module.stream().map(ModuleFeature::toString).sorted().collect(Collectors.joining(", "))).collect(Collectors.toSet());
+	}
+
+}
@@ -1,5 +1,176 @@
 package at.jku.isse.ecco.test;
 
+import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.core.Checkout;
+import at.jku.isse.ecco.dao.EntityFactory;
+import at.jku.isse.ecco.dao.MemEntityFactory;
+import at.jku.isse.ecco.dao.MemRepositoryDao;
+import at.jku.isse.ecco.dao.MemTransactionStrategy;
+import at.jku.isse.ecco.feature.*;
+import at.jku.isse.ecco.module.ModuleIndex;
+import at.jku.isse.ecco.repository.Repository;
+import at.jku.isse.ecco.tree.Node;
+import junit.framework.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
 public class RepositoryTest {
 
+	@Test(groups = {"unit", "base", "repository"})
+	public void Repository_Compose_Selection() {
+		EntityFactory ef = new MemEntityFactory();
+		Repository.Op repository = ef.createRepository();
+		repository.setMaxOrder(2);
+
+		List<Feature> features = this.createFeatures(6);
+		List<Configuration> configurations = this.createConfigurations(features, 20, 3);
+
+		for (int i = 0; i < 6; i++) {
+			repository.extract(configurations.get(i), this.createNodes(ef, configurations.get(i)));
+
+			// compose twice to use the cached selection the second time
+			for (int c = 0; c < 2; c++) {
+				for (Configuration configuration : configurations) {
+					Checkout checkout = repository.compose(configuration);
+					Assert.assertEquals(this.selectAssociations(repository, configuration), checkout.getSelectedAssociations());
+				}
+			}
+		}
+	}
+
+	@Test(groups = {"benchmark", "base", "repository"})
+	public void Repository_Compose_Selection_Benchmark() {
+		EntityFactory ef = new MemEntityFactory();
+		Repository.Op repository = ef.createRepository();
+		repository.setMaxOrder(2);
+
+		List<Feature> features = this.createFeatures(16);
+		List<Configuration> configurations = this.createConfigurations(features, 200, 4);
+		for (int i = 0; i < 12; i++)
+			repository.extract(configurations.get(i), this.createNodes(ef, configurations.get(i)));
+
+		long start = System.nanoTime();
+		for (Configuration configuration : configurations)
+			this.selectAssociations(repository, configuration);
+		long end = System.nanoTime();
+		System.out.println("HOLDS: " + repository.getAssociations().size() + " associations, " + configurations.size() + " configurations in " + ((end - start) / 1000) + "us");
+
+		for (int run = 0; run < 2; run++) {
+			start = System.nanoTime();
+			for (Configuration configuration : configurations)
+				repository.compose(configuration);
+			end = System.nanoTime();
+			System.out.println("COMPOSE (" + (run == 0 ? "cold" : "cached") + "): " + configurations.size() + " configurations in " + ((end - start) / 1000) + "us");
+		}
+	}
+
+	@Test(groups = {"unit", "base", "repository"})
+	public void Repository_Mem_Persistence() throws IOException {
+		Path repositoryDir = Files.createTempDirectory("ecco-mem");
+		ModuleIndex moduleIndex = new ModuleIndex();
+		EntityFactory ef = new MemEntityFactory(moduleIndex);
+		List<Feature> features = this.createFeatures(6);
+		List<Configuration> configurations = this.createConfigurations(features, 20, 5);
+
+		MemTransactionStrategy transactionStrategy = new MemTransactionStrategy(repositoryDir, moduleIndex);
+		MemRepositoryDao repositoryDao = new MemRepositoryDao(transactionStrategy, new MemEntityFactory(moduleIndex));
+		transactionStrategy.open();
+		for (int i = 0; i < 4; i++) {
+			transactionStrategy.begin();
+			Repository.Op repository = repositoryDao.load();
+			repository.extract(configurations.get(i), this.createNodes(ef, configurations.get(i)));
+			repositoryDao.store(repository);
+			transactionStrategy.end();
+		}
+		List<String> expected = this.describe(repositoryDao.load(), configurations);
+
+		// changes of a transaction that is rolled back are discarded
+		transactionStrategy.begin();
+		Repository.Op repository = repositoryDao.load();
+		repository.extract(configurations.get(4), this.createNodes(ef, configurations.get(4)));
+		repositoryDao.store(repository);
+		transactionStrategy.rollback();
+		Assert.assertEquals(expected, this.describe(repositoryDao.load(), configurations));
+		transactionStrategy.close();
+
+		// the repository is restored from the log
+		transactionStrategy.open();
+		Assert.assertEquals(expected, this.describe(repositoryDao.load(), configurations));
+		transactionStrategy.close();
+
+		// an incomplete entry at the end of the log is discarded
+		Files.write(repositoryDir.resolve("mem.log"), new byte[]{0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+		transactionStrategy.open();
+		Assert.assertEquals(expected, this.describe(repositoryDao.load(), configurations));
+		transactionStrategy.close();
+	}
+
+
+	/**
+	 * Describes the repository by the artifacts it composes for every given configuration.
+	 */
+	private List<String> describe(Repository.Op repository, List<Configuration> configurations) {
+		List<String> description = new ArrayList<>();
+		for (Configuration configuration : configurations) {
+			Checkout checkout = repository.compose(configuration);
+			List<String> artifacts = new ArrayList<>();
+			for (Node node : checkout.getNode().getChildren())
+				artifacts.add(String.valueOf(node.getArtifact().getData()));
+			Collections.sort(artifacts);
+			description.add(checkout.getSelectedAssociations().size() + ": " + artifacts);
+		}
+		return description;
+	}
+
+	private Set<Association> selectAssociations(Repository repository, Configuration configuration) {
+		Set<Association> selectedAssociations = new HashSet<>();
+		for (Association association : repository.getAssociations()) {
+			if (association.getPresenceCondition().holds(configuration))
+				selectedAssociations.add(association);
+		}
+		return selectedAssociations;
+	}
+
+	/**
+	 * Creates one node per selected feature plus a node that is contained in every variant.
+	 */
+	private Set<Node.Op> createNodes(EntityFactory ef, Configuration configuration) {
+		Set<Node.Op> nodes = new HashSet<>();
+		nodes.add(ef.createNode(new TestArtifactData("base")));
+		for (FeatureInstance featureInstance : configuration.getFeatureInstances()) {
+			if (featureInstance.getSign())
+				nodes.add(ef.createNode(new TestArtifactData(featureInstance.getFeature().getName())));
+		}
+		return nodes;
+	}
+
+	private List<Feature> createFeatures(int count) {
+		List<Feature> features = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Feature feature = new BaseFeature("F" + i, "F" + i, "");
+			feature.addVersion("1");
+			features.add(feature);
+		}
+		return features;
+	}
+
+	private List<Configuration> createConfigurations(List<Feature> features, int count, long seed) {
+		Random random = new Random(seed);
+		List<Configuration> configurations = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Configuration configuration = new BaseConfiguration();
+			for (Feature feature : features) {
+				if (random.nextBoolean())
+					configuration.addFeatureInstance(new BaseFeatureInstance(feature, feature.getLatestVersion(), true));
+			}
+			configurations.add(configuration);
+		}
+		return configurations;
+	}
+
 }
@@ -5,13 +5,14 @@ import at.jku.isse.ecco.artifact.BaseArtifact;
 import at.jku.isse.ecco.gui.view.graph.SequenceGraphView;
 import at.jku.isse.ecco.sg.BaseSequenceGraph;
 import at.jku.isse.ecco.sg.SequenceGraph;
+import at.jku.isse.ecco.sg.SequenceGraphAligner;
 import javafx.scene.Scene;
+import junit.framework.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 public class SequenceGraphsTest {
 
@@ -48,6 +49,198 @@ public class SequenceGraphsTest {
 	}
 
 
+	@Test(groups = {"unit", "base", "sg"})
+	public void SequenceGraphs_Align() {
+		// the recursive alignment takes exponential time already for short sequences
+		for (SequenceGraph.AlignmentMode mode : new SequenceGraph.AlignmentMode[]{SequenceGraph.AlignmentMode.BRANCH_AND_BOUND, SequenceGraph.AlignmentMode.BEAM, SequenceGraph.AlignmentMode.AUTO}) {
+			List<List<String>> variants = this.createVariants(30, 10, 4, 1);
+
+			SequenceGraph.Op sg = new BaseSequenceGraph();
+			List<List<String>> sequenced = new ArrayList<>();
+			for (List<String> variant : variants) {
+				List<Artifact.Op<?>> artifacts = this.createArtifacts(variant);
+
+				if (mode == SequenceGraph.AlignmentMode.BRANCH_AND_BOUND) {
+					// the branch and bound alignment must be optimal and the beam alignment must not be better than it
+					int expectedCost = this.computeCost(sg.getRoot(), artifacts, 0, new IdentityHashMap<>());
+
+					SequenceGraphAligner aligner = new SequenceGraphAligner(sg.getRoot(), artifacts);
+					aligner.align(SequenceGraph.AlignmentMode.BRANCH_AND_BOUND);
+					Assert.assertEquals(expectedCost, aligner.getCost());
+
+					aligner.setBeamWidth(2);
+					aligner.align(SequenceGraph.AlignmentMode.BEAM);
+					Assert.assertTrue(aligner.getCost() >= expectedCost);
+				}
+
+				sg.sequenceArtifacts(artifacts, mode);
+				sequenced.add(variant);
+
+				// every variant that has already been sequenced must be aligned completely
+				if (mode == SequenceGraph.AlignmentMode.BRANCH_AND_BOUND || mode == SequenceGraph.AlignmentMode.AUTO) {
+					for (List<String> sequence : sequenced) {
+						List<Artifact.Op<?>> sequenceArtifacts = this.createArtifacts(sequence);
+						int[] alignment = new SequenceGraphAligner(sg.getRoot(), sequenceArtifacts).align(mode);
+						for (int sequenceNumber : alignment)
+							Assert.assertTrue(sequenceNumber > 0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test(groups = {"benchmark", "base", "sg"})
+	public void SequenceGraphs_Align_Benchmark() {
+		// lines, sequenced variants, aligned variants, edits per variant
+		int[][] sizes = {{10, 3, 20, 2}, {1000, 5, 50, 20}};
+		for (int[] size : sizes) {
+			List<List<String>> variants = this.createVariants(size[0], size[1] + size[2], size[3], 2);
+
+			SequenceGraph.Op sg = new BaseSequenceGraph();
+			for (List<String> variant : variants.subList(0, size[1]))
+				sg.sequenceArtifacts(this.createArtifacts(variant));
+			int symbols = sg.getCurrentSequenceNumber() - 1;
+
+			for (SequenceGraph.AlignmentMode mode : SequenceGraph.AlignmentMode.values()) {
+				// the recursive alignment does not finish within minutes already for 20 lines
+				if (mode == SequenceGraph.AlignmentMode.RECURSIVE && size[0] > 10) {
+					System.out.println(mode + ": skipped");
+					continue;
+				}
+
+				long start = System.nanoTime();
+				for (List<String> variant : variants.subList(size[1], variants.size()))
+					sg.align(this.createArtifacts(variant), mode);
+				long end = System.nanoTime();
+
+				System.out.println(mode + ": " + size[2] + " variants of " + size[0] + " lines aligned to " + symbols + " symbols in " + ((end - start) / 1000000) + "ms");
+			}
+		}
+	}
+
+
+	@Test(groups = {"unit", "base", "sg"})
+	public void SequenceGraphs_Merge() {
+		List<List<String>> variants = this.createVariants(30, 8, 4, 3);
+
+		SequenceGraph.Op sg1 = new BaseSequenceGraph();
+		SequenceGraph.Op sg2 = new BaseSequenceGraph();
+		List<List<Artifact.Op<?>>> sequenced = new ArrayList<>();
+		for (int i = 0; i < variants.size(); i++) {
+			List<Artifact.Op<?>> artifacts = this.createArtifacts(variants.get(i));
+			(i < variants.size() / 2 ? sg1 : sg2).sequenceArtifacts(artifacts);
+			sequenced.add(artifacts);
+		}
+
+		sg1.sequence(sg2);
+
+		// the artifacts of both sequence graphs must carry sequence numbers of symbols in the merged sequence graph
+		Set<Integer> sequenceNumbers = new HashSet<>();
+		for (Artifact.Op<?> symbol : sg1.getSymbols())
+			Assert.assertTrue(sequenceNumbers.add(symbol.getSequenceNumber()));
+		for (List<Artifact.Op<?>> artifacts : sequenced) {
+			for (Artifact.Op<?> artifact : artifacts)
+				Assert.assertTrue(sequenceNumbers.contains(artifact.getSequenceNumber()));
+		}
+
+		// every variant must be aligned completely to the merged sequence graph
+		for (List<String> variant : variants) {
+			int[] alignment = new SequenceGraphAligner(sg1.getRoot(), this.createArtifacts(variant)).align(SequenceGraph.AlignmentMode.BRANCH_AND_BOUND);
+			for (int sequenceNumber : alignment)
+				Assert.assertTrue(sequenceNumber > 0);
+		}
+	}
+
+	@Test(groups = {"benchmark", "base", "sg"})
+	public void SequenceGraphs_Merge_Benchmark() {
+		List<List<String>> variants = this.createVariants(1000, 6, 10, 4);
+
+		SequenceGraph.Op sg1 = new BaseSequenceGraph();
+		SequenceGraph.Op sg2 = new BaseSequenceGraph();
+		for (int i = 0; i < variants.size(); i++)
+			(i < variants.size() / 2 ? sg1 : sg2).sequenceArtifacts(this.createArtifacts(variants.get(i)));
+
+		long start = System.nanoTime();
+		sg1.sequence(sg2);
+		long end = System.nanoTime();
+
+		System.out.println("MERGE: " + variants.size() + " variants of 1000 lines in " + ((end - start) / 1000000) + "ms, " + sg1.getSymbols().size() + " symbols");
+	}
+
+
+	/**
+	 * Computes the cost of an optimal alignment via exhaustive dynamic programming over all pairs of sequence graph nodes and artifact indices.
+	 */
+	private int computeCost(SequenceGraph.Node.Op node, List<Artifact.Op<?>> artifacts, int index, Map<SequenceGraph.Node.Op, int[]> costs) {
+		int[] nodeCosts = costs.get(node);
+		if (nodeCosts == null) {
+			nodeCosts = new int[artifacts.size() + 1];
+			Arrays.fill(nodeCosts, -1);
+			costs.put(node, nodeCosts);
+		}
+		if (nodeCosts[index] >= 0)
+			return nodeCosts[index];
+
+		int cost;
+		if (node.getChildren().isEmpty()) {
+			cost = artifacts.size() - index;
+		} else {
+			cost = Integer.MAX_VALUE;
+			if (index < artifacts.size())
+				cost = this.computeCost(node, artifacts, index + 1, costs) + 1;
+			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> entry : node.getChildren().entrySet()) {
+				if (index < artifacts.size() && entry.getKey().equals(artifacts.get(index)))
+					cost = Math.min(cost, this.computeCost(entry.getValue(), artifacts, index + 1, costs));
+				cost = Math.min(cost, this.computeCost(entry.getValue(), artifacts, index, costs) + 1);
+			}
+		}
+
+		nodeCosts[index] = cost;
+		return cost;
+	}
+
+	/**
+	 * Creates variants of a base sequence of lines. Every variant deletes, replaces and inserts random blocks of lines. Inserted lines are shared by all variants that insert a block at the same position.
+	 */
+	private List<List<String>> createVariants(int size, int count, int edits, long seed) {
+		Random random = new Random(seed);
+		List<List<String>> variants = new ArrayList<>();
+		for (int v = 0; v < count; v++) {
+			List<String> variant = new ArrayList<>();
+			for (int i = 0; i < size; i++)
+				variant.add("L" + i);
+
+			for (int e = 0; e < edits && !variant.isEmpty(); e++) {
+				int position = random.nextInt(variant.size());
+				int length = Math.min(1 + random.nextInt(5), variant.size() - position);
+				String anchor = variant.get(position);
+				switch (random.nextInt(3)) {
+					case 0: // delete
+						variant.subList(position, position + length).clear();
+						break;
+					case 1: // replace
+						for (int i = 0; i < length; i++)
+							variant.set(position + i, anchor + "_R" + i + "_" + v);
+						break;
+					default: // insert
+						for (int i = 0; i < length; i++)
+							variant.add(position + i, anchor + "_I" + i);
+						break;
+				}
+			}
+
+			variants.add(variant);
+		}
+		return variants;
+	}
+
+	private List<Artifact.Op<?>> createArtifacts(List<String> lines) {
+		List<Artifact.Op<?>> artifacts = new ArrayList<>();
+		for (String line : lines)
+			artifacts.add(A(line));
+		return artifacts;
+	}
+
 	private void displaySG(SequenceGraph sg) {
 		Utility.launchApp((app, stage) -> {
 			SequenceGraphView sequenceGraphView = new SequenceGraphView();
@@ -8,6 +8,9 @@ public class TestArtifactData implements ArtifactData {
 
 	private String identifier;
 
+	protected TestArtifactData() {
+	}
+
 	public TestArtifactData(String identifier) {
 		checkNotNull(identifier);
 
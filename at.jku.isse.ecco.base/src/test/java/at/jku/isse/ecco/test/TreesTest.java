@@ -1,6 +1,7 @@
 package at.jku.isse.ecco.test;
 
 import at.jku.isse.ecco.EccoUtil;
+import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.dao.MemEntityFactory;
 import at.jku.isse.ecco.tree.Node;
@@ -11,6 +12,10 @@ import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 public class TreesTest {
 
 	@Test(groups = {"unit", "base", "tree"})
@@ -56,6 +61,191 @@ public class TreesTest {
 	}
 
 
+	@Test(groups = {"unit", "base", "tree"})
+	public void Trees_Slice_Indexed() {
+		Node.Op left1 = this.createWideTree(1000, 0);
+		Node.Op right1 = this.createWideTree(1000, 500);
+		Node.Op intersection1 = Trees.slice(left1, right1, Trees.SliceMode.SCAN);
+
+		Node.Op left2 = this.createWideTree(1000, 0);
+		Node.Op right2 = this.createWideTree(1000, 500);
+		Node.Op intersection2 = Trees.slice(left2, right2, Trees.SliceMode.INDEXED);
+
+		Assert.assertEquals(this.treeToString(intersection1), this.treeToString(intersection2));
+		Assert.assertEquals(this.treeToString(left1), this.treeToString(left2));
+		Assert.assertEquals(this.treeToString(right1), this.treeToString(right2));
+
+		Trees.checkConsistency(intersection2);
+		Trees.checkConsistency(left2);
+		Trees.checkConsistency(right2);
+	}
+
+	@Test(groups = {"benchmark", "base", "tree"})
+	public void Trees_Slice_Benchmark() {
+		for (int size : new int[]{10000, 100000, 1000000}) {
+			for (Trees.SliceMode mode : new Trees.SliceMode[]{Trees.SliceMode.SCAN, Trees.SliceMode.INDEXED}) {
+				if (mode == Trees.SliceMode.SCAN && size > 10000) {
+					System.out.println(mode + " " + size + ": skipped");
+					continue;
+				}
+
+				Node.Op left = this.createWideTree(size, 0);
+				Node.Op right = this.createWideTree(size, size / 2);
+
+				long start = System.nanoTime();
+				Trees.slice(left, right, mode);
+				long end = System.nanoTime();
+
+				System.out.println(mode + " " + size + ": " + ((end - start) / 1000000) + "ms");
+			}
+		}
+	}
+
+	@Test(groups = {"unit", "base", "tree"})
+	public void Trees_Slice_Concurrent() {
+		int parts = 8;
+
+		List<Node.Op> lefts1 = this.createPartitionedTrees(1000, parts);
+		Node.Op right1 = this.createWideTree(1000, 500);
+		List<String> intersections1 = new ArrayList<>();
+		for (Node.Op left : lefts1)
+			intersections1.add(this.treeToString(Trees.slice(left, right1)));
+
+		List<Node.Op> lefts2 = this.createPartitionedTrees(1000, parts);
+		Node.Op right2 = this.createWideTree(1000, 500);
+		List<String> intersections2 = new ArrayList<>();
+		for (Node.Op intersection : this.sliceConcurrent(lefts2, right2, 4))
+			intersections2.add(this.treeToString(intersection));
+
+		Assert.assertEquals(intersections1, intersections2);
+		for (int part = 0; part < parts; part++) {
+			Assert.assertEquals(this.treeToString(lefts1.get(part)), this.treeToString(lefts2.get(part)));
+			Trees.checkConsistency(lefts2.get(part));
+		}
+		Assert.assertEquals(this.treeToString(right1), this.treeToString(right2));
+		Trees.checkConsistency(right2);
+	}
+
+	@Test(groups = {"benchmark", "base", "tree"})
+	public void Trees_Slice_Concurrent_Benchmark() {
+		int size = 100000;
+		int parts = 64;
+
+		for (int parallelism : new int[]{1, 4, 16}) {
+			List<Node.Op> lefts = this.createPartitionedTrees(size, parts);
+			Node.Op right = this.createWideTree(size, size / 2);
+
+			long start = System.nanoTime();
+			if (parallelism == 1) {
+				for (Node.Op left : lefts)
+					Trees.slice(left, right);
+			} else {
+				this.sliceConcurrent(lefts, right, parallelism);
+			}
+			long end = System.nanoTime();
+
+			System.out.println("THREADS " + parallelism + " " + size + ": " + ((end - start) / 1000000) + "ms");
+		}
+	}
+
+	private List<Node.Op> sliceConcurrent(List<Node.Op> lefts, Node.Op right, int parallelism) {
+		Set<Node.Op> rightRemovals = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+		List<ForkJoinTask<Node.Op>> tasks = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			for (Node.Op left : lefts)
+				tasks.add(pool.submit(() -> Trees.sliceConcurrent(left, right, rightRemovals)));
+
+			List<Node.Op> intersections = new ArrayList<>();
+			for (ForkJoinTask<Node.Op> task : tasks)
+				intersections.add(task.join());
+
+			Trees.removeDeferred(right, rightRemovals);
+
+			return intersections;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Creates disjoint parts of a tree as created by {@link #createWideTree(int, int)} (with offset 0), as they would be stored in different associations.
+	 * Every part contains the children whose number modulo the number of parts equals the number of the part. The wide node is only unique in the first part and its artifact is shared by all parts.
+	 *
+	 * @param size  The number of children of the wide node in all parts together.
+	 * @param parts The number of parts.
+	 * @return Roots of the parts.
+	 */
+	private List<Node.Op> createPartitionedTrees(int size, int parts) {
+		EntityFactory ef = new MemEntityFactory();
+
+		Artifact.Op<?> pluginArtifact = ef.createArtifact(new TestArtifactData("plugin"));
+
+		List<Node.Op> roots = new ArrayList<>();
+		for (int part = 0; part < parts; part++) {
+			RootNode root = ef.createRootNode();
+
+			Node.Op plugin = ef.createNode(pluginArtifact);
+			plugin.setUnique(part == 0);
+			if (part == 0)
+				pluginArtifact.setContainingNode(plugin);
+			root.addChild(plugin);
+
+			for (int i = part; i < size; i += parts) {
+				Node.Op child = ef.createNode(new TestArtifactData("c" + i));
+				plugin.getChildren().add(child);
+				child.setParent(plugin);
+				if (i % 10 == 0)
+					child.addChild(ef.createNode(new TestArtifactData("g" + i + "-0")));
+			}
+
+			roots.add(root);
+		}
+
+		return roots;
+	}
+
+	/**
+	 * Creates a tree with a single wide node with the given number of children. The children are numbered starting with the given offset and every tenth child has a child of its own.
+	 *
+	 * @param size   The number of children of the wide node.
+	 * @param offset The number of the first child.
+	 * @return Root of the tree.
+	 */
+	private Node.Op createWideTree(int size, int offset) {
+		EntityFactory ef = new MemEntityFactory();
+
+		RootNode root = ef.createRootNode();
+
+		Node.Op plugin = ef.createNode(new TestArtifactData("plugin"));
+		root.addChild(plugin);
+
+		for (int i = offset; i < offset + size; i++) {
+			Node.Op child = ef.createNode(new TestArtifactData("c" + i));
+			plugin.getChildren().add(child);
+			child.setParent(plugin);
+			if (i % 10 == 0)
+				child.addChild(ef.createNode(new TestArtifactData("g" + i + "-" + offset)));
+		}
+
+		return root;
+	}
+
+	private String treeToString(Node node) {
+		StringBuilder sb = new StringBuilder();
+		this.treeToStringRec(node, sb);
+		return sb.toString();
+	}
+
+	private void treeToStringRec(Node node, StringBuilder sb) {
+		sb.append(node.toString()).append(node.isUnique() ? "+" : "-").append("(");
+		for (Node child : node.getChildren())
+			this.treeToStringRec(child, sb);
+		sb.append(")");
+	}
+
+
 	/**
 	 * root
 	 * -00
@@ -214,6 +214,14 @@ public class CLI implements EccoListener {
 		this.eccoService.close();
 	}
 
+	public void switchConfiguration(String configurationString) {
+		this.initRepo();
+
+		this.eccoService.switchConfiguration(configurationString);
+
+		this.eccoService.close();
+	}
+
 	public void commit() {
 		this.initRepo();
 
@@ -57,6 +57,10 @@ public class Main {
 		Subparser parserCheckout = subparsers.addParser("checkout").help("checkout a configuration").description("Checkout a given configuration from the repository at the current location to the current base directory (property baseDir) of the repository.");
 		parserCheckout.addArgument(CONFIGURATION_STRING);
 
+		// switch the working copy to another configuration (composition)
+		Subparser parserSwitch = subparsers.addParser("switch").help("switch to another configuration").description("Switch the checkout in the current base directory (property baseDir) of the repository to a given configuration, writing only the files that differ.");
+		parserSwitch.addArgument(CONFIGURATION_STRING);
+
 		// commit the working copy as a new configuration into the local repository
 		Subparser parserCommit = subparsers.addParser("commit").help("commit a configuration").description("Commit a given configuration to the repository at the current location from its current base directory (property baseDir).");
 		parserCommit.addArgument(CONFIGURATION_STRING).nargs("?");
@@ -144,6 +148,9 @@ public class Main {
 				case "checkout":
 					cli.checkout(res.getString(CONFIGURATION_STRING));
 					break;
+				case "switch":
+					cli.switchConfiguration(res.getString(CONFIGURATION_STRING));
+					break;
 				case "commit":
 					if (res.getString(CONFIGURATION_STRING) != null)
 						cli.commit(res.getString(CONFIGURATION_STRING));
@@ -20,6 +20,9 @@ public class CDTArtifactData implements ArtifactData {
 
 	private String sourceType;
 
+	private CDTArtifactData() {
+	}
+
 	public CDTArtifactData(String astNode, String identifier, String type, ASTNodeProperty propertyInParent) {
 		super();
 		this.astNode = astNode;
@@ -12,6 +12,8 @@ import org.eclipse.cdt.internal.core.parser.IMacroDictionary;
 import org.eclipse.cdt.internal.core.parser.SavedFilesProvider;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.core.runtime.CoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.lang.reflect.Method;
@@ -20,8 +22,41 @@ import java.util.*;
 
 public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(CppReader.class);
+
 	public static final String NODE_OFFSET = "offset";
 
+	/**
+	 * The return types of methods of AST nodes that provide bindings.
+	 */
+	private static final Set<Class<?>> BINDING_TYPES = new HashSet<>(Arrays.asList(IBinding.class, ICompositeType.class, IEnumeration.class, IEnumerator.class, IField.class, IFunction.class, ILabel.class, IMacroBinding.class, IParameter.class, IProblemBinding.class, ITypedef.class, IVariable.class));
+
+	/**
+	 * The binding accessors of names. Names are the only AST nodes whose bindings are resolved.
+	 */
+	private static final Collection<String> NAME_BINDING_ACCESSORS = Arrays.asList("getBinding", "getPreBinding", "resolveBinding", "resolvePreBinding");
+
+	/**
+	 * The binding accessors of an AST node class whose bindings are not resolved. They are looked up once per class instead of once per node and are logged when the class is encountered for the first time.
+	 */
+	private static final ClassValue<List<String>> UNRESOLVED_BINDING_ACCESSORS = new ClassValue<List<String>>() {
+		@Override
+		protected List<String> computeValue(Class<?> clazz) {
+			List<String> accessors = new ArrayList<>();
+			try {
+				for (Method m : clazz.getMethods()) {
+					if (BINDING_TYPES.contains(m.getReturnType()) && !(IASTName.class.isAssignableFrom(clazz) && NAME_BINDING_ACCESSORS.contains(m.getName()))) {
+						accessors.add(m.getName());
+						LOGGER.debug("BINDING UNRESOLVED: " + clazz.getCanonicalName() + " := " + m.getName() + " : " + m.getReturnType().getName() + " in: " + m.getDeclaringClass().getCanonicalName());
+					}
+				}
+			} catch (NoClassDefFoundError e) {
+				LOGGER.warn("Could not look up the binding accessors of " + clazz.getCanonicalName(), e);
+			}
+			return Collections.unmodifiableList(accessors);
+		}
+	};
+
 	class Pair {
 		protected IBinding binding;
 		protected CDTArtifactData artifact;
@@ -105,17 +140,15 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 		Map<String, IASTPreprocessorIncludeStatement[]> includes = new HashMap<String, IASTPreprocessorIncludeStatement[]>();
 
-		PrintStream out;
-		try {
-			out = new PrintStream("AST.txt");
-		} catch (FileNotFoundException e1) {
-			e1.printStackTrace();
-			return null;
-		}
-
 		int i = 1;
 
+		// parse times per file in nanoseconds: parsing with preprocessor directives, parsing again without them, traversing the AST
+		Map<File, long[]> parseTimes = new LinkedHashMap<>();
+
 		for (File file : files) {
+			long[] times = new long[3];
+			parseTimes.put(file, times);
+			long start = System.nanoTime();
 			try {
 
 //				System.out.println(i++ + " / " + files.size() + " : " + file.getAbsolutePath());
@@ -145,6 +178,7 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 //				int opts = 8;
 				int opts = ILanguage.OPTION_PARSE_INACTIVE_CODE | ILanguage.OPTION_IS_SOURCE_UNIT;
 				IASTTranslationUnit translationUnit = GPPLanguage.getDefault().getASTTranslationUnit(fileContent, info, emptyIncludes, null, opts, log);
+				times[0] = System.nanoTime() - start;
 
 
 				IASTPreprocessorStatement[] ppStatements = translationUnit.getAllPreprocessorStatements();
@@ -195,6 +229,7 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 				} catch (IOException e) {
 					e.printStackTrace();
 				}
+				times[1] = System.nanoTime() - start - times[0];
 
 
 				String ident = getIdentifier(translationUnit);
@@ -210,9 +245,8 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 				Node transNode = new OrderedNode(transArtifact);
 
-				print(translationUnit, out);
-
 				traverseAST(translationUnit, transNode, saveLocationInfromtation, "");
+				times[2] = System.nanoTime() - start - times[0] - times[1];
 
 				ns.add(transNode);
 
@@ -222,7 +256,11 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 		}
 
+		long start = System.nanoTime();
 		resolveReverences(includes);
+		long resolveTime = System.nanoTime() - start;
+
+		this.reportParseTimes(parseTimes, resolveTime);
 
 		//if h file is included make reference from translationunit c to translationunit h
 		for (Node n : ns) {
@@ -294,23 +332,19 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 		}
 	}
 
-	private void print(IASTNode node, PrintStream out) {
-		CDTAstIterator it = new CDTAstIterator(node);
-		while (it.hasNext()) {
-			IASTNode next = it.next();
-			int depth = it.getRelativeDepth();
-			String line = "";
-			for (int i = 0; i < depth; i++) {
-				line += "\t";
+	/**
+	 * Logs the parse times of every file (debug level) and the total parse times (info level).
+	 */
+	private void reportParseTimes(Map<File, long[]> parseTimes, long resolveTime) {
+		long[] total = new long[3];
+		for (Map.Entry<File, long[]> entry : parseTimes.entrySet()) {
+			long[] times = entry.getValue();
+			LOGGER.debug(String.format("%s: %d ms (parse %d ms, parse without directives %d ms, traverse %d ms)", entry.getKey(), (times[0] + times[1] + times[2]) / 1000000, times[0] / 1000000, times[1] / 1000000, times[2] / 1000000));
+			for (int i = 0; i < total.length; i++) {
+				total[i] += times[i];
 			}
-
-//			System.out.println(next.getRawSignature());
-			line += getIdentifier(next) + " [" + next.getClass().getName() + "] {" + next.getPropertyInParent() + "}";
-//			if(next instanceof IASTName){
-//				line += " <" + ((IASTName) next).resolveBinding().getClass().getCanonicalName() + "(" + System.identityHashCode(((IASTName) next).resolveBinding()) + ")" + ">";
-//			}
-			out.println(line);
 		}
+		LOGGER.info(String.format("Parsed %d files in %d ms (parse %d ms, parse without directives %d ms, traverse %d ms, resolve references %d ms)", parseTimes.size(), (total[0] + total[1] + total[2] + resolveTime) / 1000000, total[0] / 1000000, total[1] / 1000000, total[2] / 1000000, resolveTime / 1000000));
 	}
 
 
@@ -328,57 +362,8 @@ public class CppReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 	private void checkForReferences(CDTArtifactData artifact, IASTNode node) {
 
-		//check if type has bindings
-		Map<Class<?>, List<String>> coveredBindineg = new HashMap<Class<?>, List<String>>();
-		coveredBindineg.put(IASTName.class, Arrays.asList(new String[]{"getBinding", "getPreBinding", "resolveBinding", "resolvePreBinding"}));
-
-		Class<?> clazz = null;
-		try {
-			clazz = node.getClass();
-			Method[] methods = clazz.getMethods();
-			for (Method m : methods) {
-				Class<?> retType = m.getReturnType();
-
-//				if(retType.isAssignableFrom(IScope.class)){
-//					System.out.println("SCOPE: " + clazz.getCanonicalName() + " := " + m.getName());
-//				}
-
-				if (retType.getName().equals("org.eclipse.cdt.core.dom.ast.IBinding") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.ICompositeType") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IEnumeration") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IEnumerator") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IField") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IFunction") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.ILabel") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IMacroBinding") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IParameter") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IProblemBinding") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.ITypedef") ||
-						retType.getName().equals("org.eclipse.cdt.core.dom.ast.IVariable")) {
-
-					//if(IBinding.class.isInstance(retType)){
-					//if(retType.isInstance(IBinding.class)){
-
-					boolean isCovered = false;
-					for (Map.Entry<Class<?>, List<String>> entry : coveredBindineg.entrySet()) {
-						if (entry.getKey().isAssignableFrom(clazz) &&
-								entry.getValue().contains(m.getName())) {
-
-							isCovered = true;
-							break;
-						}
-					}
-
-					if (!isCovered) {
-						System.out.println("BINDING UNRESOLVED: " + clazz.getCanonicalName() + " := " + m.getName() + " : " + retType.getName() + " in: " + m.getDeclaringClass().getCanonicalName());
-					}
-				}
-			}
-		} catch (NoClassDefFoundError e) {
-			if (clazz != null) {
-				System.out.println("ERROR: " + clazz.getCanonicalName());
-			}
-		}
+		//check if type has bindings that are not resolved (looked up and logged once per class)
+		UNRESOLVED_BINDING_ACCESSORS.get(node.getClass());
 
 
 		//referenced node types
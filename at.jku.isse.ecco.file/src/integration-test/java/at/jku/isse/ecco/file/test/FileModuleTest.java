@@ -1,18 +1,28 @@
 package at.jku.isse.ecco.file.test;
 
+import at.jku.isse.ecco.EccoUtil;
+import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.plugin.CoreModule;
 import at.jku.isse.ecco.tree.Node;
 import at.jku.isse.ecco.plugin.PerstModule;
 import at.jku.isse.ecco.plugin.artifact.ArtifactPlugin;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
+import at.jku.isse.ecco.plugin.artifact.PluginArtifactData;
+import at.jku.isse.ecco.plugin.artifact.file.FileArtifactData;
+import at.jku.isse.ecco.plugin.artifact.file.FilePlugin;
 import at.jku.isse.ecco.plugin.artifact.file.FileReader;
 import at.jku.isse.ecco.plugin.artifact.file.FileWriter;
 import com.google.inject.*;
 import com.google.inject.name.Names;
+import junit.framework.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -29,13 +39,15 @@ public class FileModuleTest {
 	private FileReader reader;
 	@Inject
 	private FileWriter writer;
+	@Inject
+	private EntityFactory entityFactory;
 
 	@Test(groups = {"integration", "text"})
 	public void Text_Module_Test() {
 		Path[] inputFiles = new Path[]{Paths.get("data/input/file")};
 
 		System.out.println("READ");
-		Set<Node> nodes = this.reader.read(Paths.get("data/input"), inputFiles);
+		Set<Node> nodes = new HashSet<>(this.reader.read(Paths.get("data/input"), inputFiles));
 
 		// TODO: sequence the nodes?
 
@@ -45,6 +57,100 @@ public class FileModuleTest {
 		// TODO: compare inputFiles with outputFiles
 	}
 
+	@Test(groups = {"integration", "file"})
+	public void File_Deduplication_Test() throws IOException {
+		Path baseDir = Files.createTempDirectory("ecco-file");
+		Files.write(baseDir.resolve("a.txt"), "same content\n".getBytes());
+		Files.write(baseDir.resolve("b.txt"), "same content\n".getBytes());
+		Files.write(baseDir.resolve("c.txt"), "other content\n".getBytes());
+
+		BlobStore blobStore = new BlobStore(Files.createTempDirectory("ecco-repository"));
+		FileReader reader = new FileReader(this.entityFactory, blobStore);
+		Map<Path, FileArtifactData> files = this.readFiles(reader, baseDir, Paths.get("a.txt"), Paths.get("b.txt"), Paths.get("c.txt"));
+
+		// files with equal content share one blob, which is named by the checksum of the content
+		Assert.assertEquals(files.get(Paths.get("a.txt")), files.get(Paths.get("b.txt")));
+		Assert.assertFalse(files.get(Paths.get("a.txt")).equals(files.get(Paths.get("c.txt"))));
+		Assert.assertEquals(2, blobStore.getIds().size());
+		for (Map.Entry<Path, FileArtifactData> entry : files.entrySet()) {
+			Path file = baseDir.resolve(entry.getKey());
+			Assert.assertEquals(EccoUtil.getSHA(file), entry.getValue().getHexChecksum());
+			Assert.assertEquals(Files.size(file), entry.getValue().getSize());
+			Assert.assertTrue(blobStore.contains(entry.getValue().getHexChecksum()));
+		}
+
+		// reading the files again does not store anything new
+		this.readFiles(reader, baseDir, Paths.get("a.txt"), Paths.get("c.txt"));
+		Assert.assertEquals(2, blobStore.getIds().size());
+	}
+
+	@Test(groups = {"integration", "file"})
+	public void File_Writer_Round_Trip_Test() throws IOException {
+		Path baseDir = Files.createTempDirectory("ecco-file");
+		byte[] large = new byte[3 * 1024 * 1024 + 17];
+		new Random(42).nextBytes(large);
+		Files.write(baseDir.resolve("large.bin"), large);
+		Files.write(baseDir.resolve("empty.txt"), new byte[0]);
+		Files.write(baseDir.resolve("small.txt"), "small content\n".getBytes());
+
+		BlobStore blobStore = new BlobStore(Files.createTempDirectory("ecco-repository"));
+		FileReader reader = new FileReader(this.entityFactory, blobStore);
+		FileWriter writer = new FileWriter(blobStore);
+		Set<Node> nodes = new HashSet<>(reader.read(baseDir, new Path[]{Paths.get("large.bin"), Paths.get("empty.txt"), Paths.get("small.txt")}));
+
+		// write into a directory
+		Path outputDir = Files.createTempDirectory("ecco-output");
+		Path[] outputFiles = writer.write(outputDir, nodes);
+		Assert.assertEquals(3, outputFiles.length);
+		for (Path outputFile : outputFiles) {
+			Assert.assertTrue(Arrays.equals(Files.readAllBytes(baseDir.resolve(outputDir.relativize(outputFile))), Files.readAllBytes(outputFile)));
+		}
+
+		// write into a stream
+		for (Node node : nodes) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Assert.assertTrue(writer.write(Collections.singleton(node), out));
+			Path path = ((PluginArtifactData) node.getArtifact().getData()).getPath();
+			Assert.assertTrue(Arrays.equals(Files.readAllBytes(baseDir.resolve(path)), out.toByteArray()));
+		}
+	}
+
+	@Test(groups = {"integration", "file"})
+	public void Legacy_File_Data_Test() throws IOException, ClassNotFoundException {
+		// new FileArtifactData(Paths.get("data"), Paths.get("legacy.txt")) of a file containing "legacy content\n" serialized by the version before the blob store was introduced
+		byte[] bytes = Base64.getDecoder().decode("rO0ABXNyADZhdC5qa3UuaXNzZS5lY2NvLnBsdWdpbi5hcnRpZmFjdC5maWxlLkZpbGVBcnRpZmFjdERhdGHBJCfVgGs+9gIABFsACGNoZWNrc3VtdAACW0JbAARkYXRhcQB+AAFMAAtoZXhDaGVja3N1bXQAEkxqYXZhL2xhbmcvU3RyaW5nO0wACnBhdGhTdHJpbmdxAH4AAnhwdXIAAltCrPMX+AYIVOACAAB4cAAAABT5FgYNFsA7foFq3W1Eb9vq8vgwRHVxAH4ABAAAAA9sZWdhY3kgY29udGVudAp0AChGOTE2MDYwRDE2QzAzQjdFODE2QURENkQ0NDZGREJFQUYyRjgzMDQ0dAAKbGVnYWN5LnR4dA==");
+		FileArtifactData fileArtifactData;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			fileArtifactData = (FileArtifactData) in.readObject();
+		}
+		Assert.assertEquals("F916060D16C03B7E816ADD6D446FDBEAF2F83044", fileArtifactData.getHexChecksum());
+		Assert.assertEquals(Paths.get("legacy.txt"), fileArtifactData.getPath());
+		Assert.assertEquals("legacy content\n".length(), fileArtifactData.getSize());
+
+		Node.Op pluginNode = this.entityFactory.createNode(this.entityFactory.createArtifact(new PluginArtifactData(FilePlugin.class.getName(), Paths.get("legacy.txt"))));
+		pluginNode.addChild(this.entityFactory.createNode(this.entityFactory.createArtifact(fileArtifactData)));
+
+		// writing the file moves its content into the blob store
+		BlobStore blobStore = new BlobStore(Files.createTempDirectory("ecco-repository"));
+		FileWriter writer = new FileWriter(blobStore);
+		Assert.assertFalse(blobStore.contains(fileArtifactData.getHexChecksum()));
+		for (int i = 0; i < 2; i++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Assert.assertTrue(writer.write(Collections.<Node>singleton(pluginNode), out));
+			Assert.assertEquals("legacy content\n", new String(out.toByteArray()));
+			Assert.assertEquals(Collections.singletonList(fileArtifactData.getHexChecksum()), new ArrayList<>(blobStore.getIds()));
+		}
+	}
+
+	private Map<Path, FileArtifactData> readFiles(FileReader reader, Path baseDir, Path... files) {
+		Map<Path, FileArtifactData> fileArtifactData = new HashMap<>();
+		for (Node.Op pluginNode : reader.read(baseDir, files)) {
+			Path path = ((PluginArtifactData) pluginNode.getArtifact().getData()).getPath();
+			fileArtifactData.put(path, (FileArtifactData) pluginNode.getChildren().get(0).getArtifact().getData());
+		}
+		return fileArtifactData;
+	}
+
 	@AfterTest(alwaysRun = true)
 	public void afterTest() {
 		System.out.println("AFTER");
@@ -75,7 +181,7 @@ public class FileModuleTest {
 		final Module repositoryDirModule = new AbstractModule() {
 			@Override
 			protected void configure() {
-				bind(String.class).annotatedWith(Names.named("repositoryDir")).toInstance(properties.getProperty("repositoryDir"));
+				bind(Path.class).annotatedWith(Names.named("repositoryDir")).toInstance(Paths.get(properties.getProperty("repositoryDir")));
 			}
 		};
 		List<Module> modules = new ArrayList<Module>();
@@ -1,87 +1,81 @@
 package at.jku.isse.ecco.plugin.artifact.file;
 
 import at.jku.isse.ecco.artifact.ArtifactData;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
 
 import javax.xml.bind.annotation.adapters.HexBinaryAdapter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.io.ObjectInputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.Objects;
 
+/**
+ * The content of a file. The content itself is kept in the {@link BlobStore} of the repository under the checksum of the file.
+ * <p>
+ * Repositories that were created before the blob store was introduced contain the content itself. The serial version of those instances is kept so that they can still be read, and their content is copied into the blob store when the file is written (see {@link #migrateData(BlobStore)}).
+ */
 public class FileArtifactData implements ArtifactData {
 
-	private static byte[] getSHADigest(Path path) throws IOException, NoSuchAlgorithmException {
-		MessageDigest complete = MessageDigest.getInstance("SHA1");
-
-		try (InputStream fis = Files.newInputStream(path)) {
-			byte[] buffer = new byte[1024];
-			int numRead = 0;
-			while (numRead != -1) {
-				numRead = fis.read(buffer);
-				if (numRead > 0) {
-					complete.update(buffer, 0, numRead);
-				}
-			}
-		}
-
-		return complete.digest();
-	}
-
-//	private static final String HEXES = "0123456789ABCDEF";
-
-	private static String getHex(byte[] raw) {
-//		if (raw == null) {
-//			return null;
-//		}
-//		final StringBuilder hex = new StringBuilder(2 * raw.length);
-//		for (final byte b : raw) {
-//			hex.append(HEXES.charAt((b & 0xF0) >> 4)).append(HEXES.charAt((b & 0x0F)));
-//		}
-//		return hex.toString();
-		return new HexBinaryAdapter().marshal(raw);
-	}
-
-	private static byte[] getData(Path path) throws IOException {
-		return Files.readAllBytes(path);
-	}
-
-	// #########################################################
+	private static final long serialVersionUID = -4529451527291846922L;
 
 	private byte[] checksum;
 	private String hexChecksum;
+	private long size;
+
+	/**
+	 * The content of the file in repositories that were created before the blob store was introduced, null otherwise.
+	 */
 	private byte[] data;
 
 	private transient Path path = null;
 	private String pathString = null;
 
-	protected FileArtifactData() throws IOException {
+	protected FileArtifactData() {
 		this.path = null;
 		this.pathString = null;
 		this.checksum = null;
 		this.hexChecksum = null;
+		this.size = 0;
 		this.data = null;
 	}
 
-	public FileArtifactData(Path base, Path path) throws IOException {
-		//this.path = file.toPath().relativize(new File(".").toPath());
-		//this.path = base.relativize(path);
-		//this.path = path;
+	/**
+	 * @param path        The path of the file relative to the base directory.
+	 * @param hexChecksum The hex encoded SHA-1 checksum of the content, which is also its id in the blob store.
+	 * @param size        The size of the content in bytes.
+	 */
+	public FileArtifactData(Path path, String hexChecksum, long size) {
 		this.path = path;
 		this.pathString = path.toString();
-		Path resolvedPath = base.resolve(path);
-		try {
-			this.checksum = FileArtifactData.getSHADigest(resolvedPath);
-			this.hexChecksum = FileArtifactData.getHex(this.checksum);
-		} catch (NoSuchAlgorithmException e) {
-			this.checksum = null;
-			this.hexChecksum = null;
+		this.checksum = new HexBinaryAdapter().unmarshal(hexChecksum);
+		this.hexChecksum = hexChecksum;
+		this.size = size;
+		this.data = null;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+
+		// the size was not stored before the blob store was introduced
+		if (this.data != null)
+			this.size = this.data.length;
+	}
+
+	/**
+	 * Moves the content of a file that was read from an old repository into the given blob store, unless it is already stored. Files of current repositories are not affected.
+	 * <p>
+	 * This is called when files are written, i.e. during a checkout, which runs in a read-only transaction. The artifact is therefore not marked as modified: the content is only dropped from the loaded instance and remains in the stored artifact until it is stored again for other reasons. This is safe because the blob is stored before the content is dropped, and migrating the same content again only finds the blob already stored.
+	 *
+	 * @param blobStore The blob store of the repository.
+	 */
+	public synchronized void migrateData(BlobStore blobStore) {
+		if (this.data != null) {
+			if (!blobStore.contains(this.hexChecksum))
+				blobStore.put(new ByteArrayInputStream(this.data));
+			this.data = null;
 		}
-		this.data = FileArtifactData.getData(resolvedPath);
 	}
 
 	public byte[] getChecksum() {
@@ -92,6 +86,10 @@ public class FileArtifactData implements ArtifactData {
 		return this.hexChecksum;
 	}
 
+	public long getSize() {
+		return this.size;
+	}
+
 	public Path getPath() {
 		if (this.path == null && this.pathString != null) {
 			this.path = Paths.get(this.pathString);
@@ -113,7 +111,7 @@ public class FileArtifactData implements ArtifactData {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.checksum);
+		return Arrays.hashCode(this.checksum);
 	}
 
 	@Override
@@ -121,10 +119,6 @@ public class FileArtifactData implements ArtifactData {
 		return this.hexChecksum;
 	}
 
-	public byte[] getData() {
-		return data;
-	}
-
 	public String getIdentifier() {
 		return this.hexChecksum;
 	}
@@ -4,11 +4,11 @@ import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.listener.ReadListener;
 import at.jku.isse.ecco.plugin.artifact.ArtifactReader;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
 import at.jku.isse.ecco.plugin.artifact.PluginArtifactData;
 import at.jku.isse.ecco.tree.Node;
 import com.google.inject.Inject;
 
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -25,11 +25,15 @@ public class FileReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 	private final EntityFactory entityFactory;
 
+	private final BlobStore blobStore;
+
 	@Inject
-	public FileReader(EntityFactory entityFactory) {
+	public FileReader(EntityFactory entityFactory, BlobStore blobStore) {
 		com.google.common.base.Preconditions.checkNotNull(entityFactory);
+		com.google.common.base.Preconditions.checkNotNull(blobStore);
 
 		this.entityFactory = entityFactory;
+		this.blobStore = blobStore;
 	}
 
 	@Override
@@ -58,17 +62,15 @@ public class FileReader implements ArtifactReader<Path, Set<Node.Op>> {
 	public Set<Node.Op> read(Path base, Path[] input) {
 		Set<Node.Op> nodes = new HashSet<>();
 		for (Path path : input) {
-			try {
-				Artifact.Op<PluginArtifactData> pluginArtifact = this.entityFactory.createArtifact(new PluginArtifactData(this.getPluginId(), path));
-				Node.Op pluginNode = this.entityFactory.createNode(pluginArtifact);
-				nodes.add(pluginNode);
-
-				FileArtifactData fileArtifactData = new FileArtifactData(base, path);
-				Node.Op fileNode = this.entityFactory.createNode(this.entityFactory.createArtifact(fileArtifactData));
-				pluginNode.addChild(fileNode);
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+			Artifact.Op<PluginArtifactData> pluginArtifact = this.entityFactory.createArtifact(new PluginArtifactData(this.getPluginId(), path));
+			Node.Op pluginNode = this.entityFactory.createNode(pluginArtifact);
+			nodes.add(pluginNode);
+
+			// store the content in the blob store and keep only its checksum and size in the artifact
+			String id = this.blobStore.put(base.resolve(path));
+			FileArtifactData fileArtifactData = new FileArtifactData(path, id, this.blobStore.size(id));
+			Node.Op fileNode = this.entityFactory.createNode(this.entityFactory.createArtifact(fileArtifactData));
+			pluginNode.addChild(fileNode);
 		}
 		return nodes;
 	}
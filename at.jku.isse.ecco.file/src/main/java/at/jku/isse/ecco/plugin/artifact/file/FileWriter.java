@@ -2,11 +2,12 @@ package at.jku.isse.ecco.plugin.artifact.file;
 
 import at.jku.isse.ecco.listener.WriteListener;
 import at.jku.isse.ecco.plugin.artifact.ArtifactWriter;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
 import at.jku.isse.ecco.plugin.artifact.PluginArtifactData;
 import at.jku.isse.ecco.tree.Node;
+import com.google.inject.Inject;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -16,8 +17,13 @@ import java.util.Set;
 
 public class FileWriter implements ArtifactWriter<Set<Node>, Path> {
 
-	public FileWriter() {
+	private final BlobStore blobStore;
 
+	@Inject
+	public FileWriter(BlobStore blobStore) {
+		com.google.common.base.Preconditions.checkNotNull(blobStore);
+
+		this.blobStore = blobStore;
 	}
 
 	@Override
@@ -44,18 +50,25 @@ public class FileWriter implements ArtifactWriter<Set<Node>, Path> {
 			} else {
 				FileArtifactData fileArtifact = (FileArtifactData) node.getChildren().get(0).getArtifact().getData(); // TODO: node type must have Type parameter for artifact type it contains?
 
-				try {
-					// Path path = Files.write(artifact.getPath(), artifact.getData());
-					Files.write(outputPath, fileArtifact.getData());
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
+				fileArtifact.migrateData(this.blobStore);
+				this.blobStore.copyTo(fileArtifact.getHexChecksum(), outputPath);
 			}
 		}
 
 		return output.toArray(new Path[output.size()]);
 	}
 
+	@Override
+	public boolean write(Set<Node> input, OutputStream out) {
+		if (input.size() != 1 || input.iterator().next().getChildren().size() != 1)
+			return false;
+
+		FileArtifactData fileArtifact = (FileArtifactData) input.iterator().next().getChildren().get(0).getArtifact().getData();
+		fileArtifact.migrateData(this.blobStore);
+		this.blobStore.copyTo(fileArtifact.getHexChecksum(), out);
+		return true;
+	}
+
 
 	private Collection<WriteListener> listeners = new ArrayList<WriteListener>();
 
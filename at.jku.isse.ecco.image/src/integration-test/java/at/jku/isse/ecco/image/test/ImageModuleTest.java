@@ -1,18 +1,25 @@
 package at.jku.isse.ecco.image.test;
 
+import at.jku.isse.ecco.EccoService;
 import at.jku.isse.ecco.plugin.CoreModule;
 import at.jku.isse.ecco.tree.Node;
 import at.jku.isse.ecco.plugin.PerstModule;
 import at.jku.isse.ecco.plugin.artifact.ArtifactPlugin;
+import at.jku.isse.ecco.plugin.artifact.image.ImageArtifactData;
 import at.jku.isse.ecco.plugin.artifact.image.ImageReader;
 import at.jku.isse.ecco.plugin.artifact.image.ImageFileWriter;
 import com.google.inject.*;
 import com.google.inject.name.Names;
+import junit.framework.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -35,7 +42,7 @@ public class ImageModuleTest {
 		Path[] inputFiles = new Path[]{Paths.get("data/input/P1/src/1.png")};
 
 		System.out.println("READ");
-		Set<Node> nodes = this.reader.read(Paths.get("data/input"), inputFiles);
+		Set<Node> nodes = new HashSet<>(this.reader.read(Paths.get("data/input"), inputFiles));
 
 		// TODO: sequence the nodes?
 
@@ -45,6 +52,65 @@ public class ImageModuleTest {
 		// TODO: compare inputFiles with outputFiles
 	}
 
+	@Test(groups = {"integration", "image"})
+	public void Image_Round_Trip_Test() throws IOException {
+		// the size is not a multiple of the tile size, so the tiles at the right and bottom border are smaller
+		BufferedImage imageA = createImage(2 * ImageReader.TILE_SIZE + 5, ImageReader.TILE_SIZE + 7);
+		BufferedImage imageB = createImage(2 * ImageReader.TILE_SIZE + 5, ImageReader.TILE_SIZE + 7);
+		// the variants differ inside the second tile of the first row only
+		imageB.setRGB(ImageReader.TILE_SIZE + 3, 4, 0xff123456);
+		imageB.setRGB(ImageReader.TILE_SIZE + 4, 4, 0xff654321);
+
+		Path baseDir = Files.createTempDirectory("ecco-image");
+		EccoService service = new EccoService(baseDir, baseDir.resolve(".ecco"));
+		service.init();
+		ImageIO.write(imageA, "png", baseDir.resolve("image.png").toFile());
+		service.commit("A");
+		ImageIO.write(imageB, "png", baseDir.resolve("image.png").toFile());
+		service.commit("B");
+
+		Path checkoutDirA = Files.createTempDirectory("ecco-image");
+		service.setBaseDir(checkoutDirA);
+		service.checkout("A");
+		assertPixelsEqual(imageA, ImageIO.read(checkoutDirA.resolve("image.png").toFile()));
+
+		Path checkoutDirB = Files.createTempDirectory("ecco-image");
+		service.setBaseDir(checkoutDirB);
+		service.checkout("B");
+		assertPixelsEqual(imageB, ImageIO.read(checkoutDirB.resolve("image.png").toFile()));
+
+		service.close();
+	}
+
+	@Test(groups = {"integration", "image"})
+	public void Legacy_Image_Data_Test() throws IOException, ClassNotFoundException {
+		// new ImageArtifactData(new int[]{32, 64}, "TILE_POS") serialized by the version before image data was divided into tiles
+		byte[] bytes = Base64.getDecoder().decode("rO0ABXNyADhhdC5qa3UuaXNzZS5lY2NvLnBsdWdpbi5hcnRpZmFjdC5pbWFnZS5JbWFnZUFydGlmYWN0RGF0YQJfcZdNEGhOAgADTAAKaWRlbnRpZmllcnQAEkxqYXZhL2xhbmcvU3RyaW5nO0wABHR5cGVxAH4AAVsABnZhbHVlc3QAAltJeHB0AAhbMzIsIDY0XXQACFRJTEVfUE9TdXIAAltJTbpgJnbqsqUCAAB4cAAAAAIAAAAgAAAAQA==");
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			ImageArtifactData data = (ImageArtifactData) in.readObject();
+			Assert.assertEquals(new ImageArtifactData(new int[]{32, 64}, ImageReader.TYPE_TILE_POS), data);
+			Assert.assertEquals("[32, 64]", data.toString());
+		}
+	}
+
+	private static BufferedImage createImage(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++)
+				image.setRGB(x, y, 0xff000000 | (x * 3) << 16 | (y * 5) << 8 | (x + y) & 0xff);
+		}
+		return image;
+	}
+
+	private static void assertPixelsEqual(BufferedImage expected, BufferedImage actual) {
+		Assert.assertEquals(expected.getWidth(), actual.getWidth());
+		Assert.assertEquals(expected.getHeight(), actual.getHeight());
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++)
+				Assert.assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+		}
+	}
+
 	@AfterTest(alwaysRun = true)
 	public void afterTest() {
 		System.out.println("AFTER");
@@ -75,7 +141,7 @@ public class ImageModuleTest {
 		final Module repositoryDirModule = new AbstractModule() {
 			@Override
 			protected void configure() {
-				bind(String.class).annotatedWith(Names.named("repositoryDir")).toInstance(properties.getProperty("repositoryDir"));
+				bind(Path.class).annotatedWith(Names.named("repositoryDir")).toInstance(Paths.get(properties.getProperty("repositoryDir")));
 			}
 		};
 		List<Module> modules = new ArrayList<Module>();
@@ -9,11 +9,18 @@ import java.util.Objects;
 
 public class ImageArtifactData implements ArtifactData {
 
+	private static final long serialVersionUID = 170980205510289486L;
+
 	private final int[] values;
 
+	// no longer set, only kept so that image data of existing repositories and of this version have the same serialized form
 	private String identifier;
 	private String type;
 
+	// derived from the values, which are large for tiles, so they are computed when first needed and not stored
+	private transient String string;
+	private transient int hash;
+
 	protected ImageArtifactData() {
 		this.values = null;
 		this.identifier = null;
@@ -22,7 +29,7 @@ public class ImageArtifactData implements ArtifactData {
 
 	public ImageArtifactData(final int[] values, final String type) {
 		this.values = values;
-		this.identifier = Arrays.toString(values);
+		this.identifier = null;
 		this.type = type;
 	}
 
@@ -43,17 +50,26 @@ public class ImageArtifactData implements ArtifactData {
 		if (getClass() != obj.getClass())
 			return false;
 		final ImageArtifactData other = (ImageArtifactData) obj;
-		return Arrays.equals(values, other.values);
+		// the hashes are compared first so that differing tiles are usually told apart without comparing their pixels
+		return this.hashCode() == other.hashCode() && Objects.equals(this.type, other.type) && Arrays.equals(this.values, other.values);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(values);
+		if (this.hash == 0)
+			this.hash = 31 * Objects.hashCode(this.type) + Arrays.hashCode(this.values);
+		return this.hash;
 	}
 
 	@Override
 	public String toString() {
-		return this.identifier;
+		if (this.string == null) {
+			if (ImageReader.TYPE_TILE.equals(this.type))
+				this.string = "[" + this.values[0] + "x" + this.values[1] + ", " + Integer.toHexString(this.hashCode()) + "]";
+			else
+				this.string = Arrays.toString(this.values);
+		}
+		return this.string;
 	}
 
 }
@@ -9,6 +9,7 @@ import at.jku.isse.ecco.tree.Node;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -68,6 +69,23 @@ public class ImageFileWriter implements ArtifactWriter<Set<Node>, Path> {
 		return output.toArray(new Path[output.size()]);
 	}
 
+	@Override
+	public boolean write(Set<Node> nodes, OutputStream out) throws IOException {
+		if (nodes.size() != 1)
+			return false;
+
+		Node pluginNode = nodes.iterator().next();
+		if (pluginNode.getChildren().size() != 1 || !(((Node) pluginNode.getChildren().iterator().next()).getArtifact().getData() instanceof ImageArtifactData))
+			return false;
+
+		PluginArtifactData pluginArtifactData = (PluginArtifactData) pluginNode.getArtifact().getData();
+		BufferedImage outputImage = ImageUtil.createBufferedImage(pluginNode, this.backgroundColor, this.enableBlending);
+		String fileName = pluginArtifactData.getPath().getFileName().toString();
+		String fileType = fileName.substring(fileName.lastIndexOf(".") + 1, fileName.length());
+		ImageIO.write(outputImage, fileType, out);
+		return true;
+	}
+
 
 	private Collection<WriteListener> listeners = new ArrayList<WriteListener>();
 
@@ -24,6 +24,13 @@ public class ImageReader implements ArtifactReader<Path, Set<Node.Op>> {
 	public static final String TYPE_IMAGE = "IMAGE";
 	public static final String TYPE_POS = "POS";
 	public static final String TYPE_COLOR = "COLOR";
+	public static final String TYPE_TILE_POS = "TILE_POS";
+	public static final String TYPE_TILE = "TILE";
+
+	/**
+	 * The width and height of the tiles into which images are divided. Tiles at the right and bottom border of an image can be smaller.
+	 */
+	public static final int TILE_SIZE = 32;
 
 	private final EntityFactory entityFactory;
 
@@ -91,44 +98,38 @@ public class ImageReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 		final Node.Op imageNode = this.entityFactory.createNode(this.entityFactory.createArtifact(imageArtifactData));
 
-		List<Node.Op> pixelNode = parsePixelData(image);
+		List<Node.Op> tileNodes = parseTiles(image);
 
-		pixelNode.forEach(imageNode::addChild);
+		tileNodes.forEach(imageNode::addChild);
 
 		return imageNode;
 	}
 
-	private int[] getPixel(BufferedImage image, int x, int y) {
-		assert image != null;
-		assert x >= 0 && x < image.getWidth() : "Expected x to be in image range.";
-		assert y >= 0 && y < image.getHeight() : "Expected y to be in image range.";
-
-		int argb = image.getRGB(x, y);
-
-		return new int[]{(argb >> 24) & 0xff, // alpha
-				(argb >> 16) & 0xff, // red
-				(argb >> 8) & 0xff, // green
-				argb & 0xff // blue
-		};
-	}
-
-	private List<Node.Op> parsePixelData(final BufferedImage image) {
+	/**
+	 * Divides the image into tiles of at most {@link #TILE_SIZE} x {@link #TILE_SIZE} pixels. Every tile is represented by a position node (the upper left corner of the tile) with a single child that holds the width, height and packed ARGB pixels of the tile. Variants of an image therefore share all equal tiles and only the tiles that differ are traced separately.
+	 */
+	private List<Node.Op> parseTiles(final BufferedImage image) {
 		assert image != null;
 
 		List<Node.Op> nodes = new ArrayList<>();
-		for (int y = 0; y < image.getHeight(); y++) {
-			for (int x = 0; x < image.getWidth(); x++) {
-				final int[] position = new int[]{x, y};
-				final ImageArtifactData posArtifactData = new ImageArtifactData(position, TYPE_POS);
+		for (int y = 0; y < image.getHeight(); y += TILE_SIZE) {
+			for (int x = 0; x < image.getWidth(); x += TILE_SIZE) {
+				final int width = Math.min(TILE_SIZE, image.getWidth() - x);
+				final int height = Math.min(TILE_SIZE, image.getHeight() - y);
+
+				final ImageArtifactData posArtifactData = new ImageArtifactData(new int[]{x, y}, TYPE_TILE_POS);
 
-				final int[] rgb = this.getPixel(image, x, y);
-				final ImageArtifactData colorArtifactData = new ImageArtifactData(rgb, TYPE_COLOR);
+				final int[] tile = new int[2 + width * height];
+				tile[0] = width;
+				tile[1] = height;
+				image.getRGB(x, y, width, height, tile, 2, width);
+				final ImageArtifactData tileArtifactData = new ImageArtifactData(tile, TYPE_TILE);
 
 				final Node.Op positionNode = this.entityFactory.createNode(this.entityFactory.createArtifact(posArtifactData));
 
-				final Node.Op colorNode = this.entityFactory.createNode(this.entityFactory.createArtifact(colorArtifactData));
+				final Node.Op tileNode = this.entityFactory.createNode(this.entityFactory.createArtifact(tileArtifactData));
 
-				positionNode.addChild(colorNode);
+				positionNode.addChild(tileNode);
 
 				nodes.add(positionNode);
 			}
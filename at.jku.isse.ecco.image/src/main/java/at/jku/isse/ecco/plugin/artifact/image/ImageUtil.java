@@ -2,10 +2,13 @@ package at.jku.isse.ecco.plugin.artifact.image;
 
 import at.jku.isse.ecco.tree.Node;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelWriter;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class ImageUtil {
 
@@ -14,172 +17,118 @@ public class ImageUtil {
 
 
 	protected static Image createImage(Node pluginNode, int backgroundColor, boolean enableBlending) {
-		Node imageNode = (Node) pluginNode.getChildren().iterator().next();
-		// ImageArtifact imageArtifact = (ImageArtifact) fileNode.getAllChildren().iterator().next().getArtifact();
-		ImageArtifactData imageArtifact = (ImageArtifactData) imageNode.getArtifact().getData();
+		ImageArtifactData imageArtifact = (ImageArtifactData) ((Node) pluginNode.getChildren().iterator().next()).getArtifact().getData();
 		int width = imageArtifact.getValues()[0];
 		int height = imageArtifact.getValues()[1];
 
-		int defaultColor = 0;
-		{
-			int alpha = 128;
-			int red = 0;
-			int green = 255;
-			int blue = 0;
-			defaultColor = (blue & 0x000000ff) | ((green << 8) & 0x0000ff00) | ((red << 16) & 0x00ff0000) | ((alpha << 24) & 0xff000000);
-
-			defaultColor = backgroundColor;
-		}
-
 		WritableImage outputImage = new WritableImage(width, height);
-		PixelWriter pixelWriter = outputImage.getPixelWriter();
-
-		// TODO: include image metadata in artifacts, like type or color model
-
-		for (int i = 0; i < width; i++) {
-			for (int j = 0; j < height; j++) {
-				//outputImage.setRGB(i, j, defaultColor);
-				pixelWriter.setArgb(i, j, defaultColor);
-			}
-		}
-
-		for (Node posNode : imageNode.getChildren()) {
-			ImageArtifactData posArtifact = (ImageArtifactData) posNode.getArtifact().getData();
-			int x = posArtifact.getValues()[0];
-			int y = posArtifact.getValues()[1];
+		outputImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), createPixels(pluginNode, backgroundColor, enableBlending), 0, width);
 
-			int color = 0;
-			if (posNode.getChildren().size() <= 0) {
-				//System.out.println("There is no color for pos (" + x + ", " + y + ").");
-				// color = 0;
-				color = defaultColor;
-			} else {
-				if (posNode.getChildren().size() > 1) {
-					//System.out.println("There is more than one color for pos (" + x + ", " + y + "). Picking the first one.");
-				}
-
-				int alpha = 0;
-				int red = 0;
-				int green = 0;
-				int blue = 0;
-
-				int relevantChildren = 0;
-				for (Node colorNode : posNode.getChildren()) {
-					ImageArtifactData colorArtifact = (ImageArtifactData) colorNode.getArtifact().getData();
-					int pixelColor = (colorArtifact.getValues()[3] & 0x000000ff) | ((colorArtifact.getValues()[2] << 8) & 0x0000ff00) | ((colorArtifact.getValues()[1] << 16) & 0x00ff0000) | ((colorArtifact.getValues()[0] << 24) & 0xff000000);
-
-					// TODO: store the actual background color of the image as image metadata nodes in the artifact tree and make use of it here!
-					if (backgroundColor != pixelColor) {
-						relevantChildren++;
-
-						alpha += colorArtifact.getValues()[0];
-						red += colorArtifact.getValues()[1];
-						green += colorArtifact.getValues()[2];
-						blue += colorArtifact.getValues()[3];
-					}
+		return outputImage;
+	}
 
-					if (!enableBlending)
-						break;
-				}
 
-				if (enableBlending && relevantChildren > 0) {
-					alpha = alpha / relevantChildren;
-					red = red / relevantChildren;
-					green = green / relevantChildren;
-					blue = blue / relevantChildren;
-				}
+	protected static BufferedImage createBufferedImage(Node pluginNode, int backgroundColor, boolean enableBlending) {
+		ImageArtifactData imageArtifact = (ImageArtifactData) ((Node) pluginNode.getChildren().iterator().next()).getArtifact().getData();
+		int width = imageArtifact.getValues()[0];
+		int height = imageArtifact.getValues()[1];
 
-				color = 0;
-				color = (blue & 0x000000ff) | ((green << 8) & 0x0000ff00) | ((red << 16) & 0x00ff0000) | ((alpha << 24) & 0xff000000);
-			}
-			//outputImage.setRGB(x, y, color);
-			pixelWriter.setArgb(x, y, color);
-		}
+		BufferedImage outputImage = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
+		// TODO: include image metadata in artifacts, like type or color model
+		outputImage.setRGB(0, 0, width, height, createPixels(pluginNode, backgroundColor, enableBlending), 0, width);
 
 		return outputImage;
 	}
 
 
-	protected static BufferedImage createBufferedImage(Node pluginNode, int backgroundColor, boolean enableBlending) {
+	/**
+	 * Assembles the ARGB pixels of the image of the given plugin node row by row, directly from the pixels of its tiles. Pixels that have no color get the background color. Pixels that have more than one color (e.g. from tiles of different variants at the same position) get the average of their colors that differ from the background color if blending is enabled, and the first color otherwise.
+	 * Images that were read before images were divided into tiles, i.e. with one position node per pixel, are supported as well.
+	 *
+	 * @param pluginNode      The plugin node of the image.
+	 * @param backgroundColor The background color.
+	 * @param enableBlending  Whether multiple colors of a pixel are blended.
+	 * @return The pixels of the image.
+	 */
+	protected static int[] createPixels(Node pluginNode, int backgroundColor, boolean enableBlending) {
 		Node imageNode = (Node) pluginNode.getChildren().iterator().next();
-		// ImageArtifact imageArtifact = (ImageArtifact) fileNode.getAllChildren().iterator().next().getArtifact();
 		ImageArtifactData imageArtifact = (ImageArtifactData) imageNode.getArtifact().getData();
 		int width = imageArtifact.getValues()[0];
 		int height = imageArtifact.getValues()[1];
 
-		int defaultColor = 0;
-		{
-			int alpha = 128;
-			int red = 0;
-			int green = 255;
-			int blue = 0;
-			defaultColor = (blue & 0x000000ff) | ((green << 8) & 0x0000ff00) | ((red << 16) & 0x00ff0000) | ((alpha << 24) & 0xff000000);
-
-			defaultColor = backgroundColor;
-		}
-
-		BufferedImage outputImage = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-		// TODO: include image metadata in artifacts, like type or color model
-
-		for (int i = 0; i < width; i++) {
-			for (int j = 0; j < height; j++) {
-				outputImage.setRGB(i, j, defaultColor);
-			}
-		}
+		int[] pixels = new int[width * height];
+		Arrays.fill(pixels, backgroundColor);
 
+		int[] colors = new int[0];
 		for (Node posNode : imageNode.getChildren()) {
 			ImageArtifactData posArtifact = (ImageArtifactData) posNode.getArtifact().getData();
 			int x = posArtifact.getValues()[0];
 			int y = posArtifact.getValues()[1];
 
-			int color = 0;
-			if (posNode.getChildren().size() <= 0) {
-				//System.out.println("There is no color for pos (" + x + ", " + y + ").");
-				// color = 0;
-				color = defaultColor;
-			} else {
-				if (posNode.getChildren().size() > 1) {
-					//System.out.println("There is more than one color for pos (" + x + ", " + y + "). Picking the first one.");
-				}
+			if (posNode.getChildren().size() <= 0)
+				continue;
+			if (colors.length < posNode.getChildren().size())
+				colors = new int[posNode.getChildren().size()];
 
-				int alpha = 0;
-				int red = 0;
-				int green = 0;
-				int blue = 0;
-
-				int relevantChildren = 0;
-				for (Node colorNode : posNode.getChildren()) {
-					ImageArtifactData colorArtifact = (ImageArtifactData) colorNode.getArtifact().getData();
-					int pixelColor = (colorArtifact.getValues()[3] & 0x000000ff) | ((colorArtifact.getValues()[2] << 8) & 0x0000ff00) | ((colorArtifact.getValues()[1] << 16) & 0x00ff0000) | ((colorArtifact.getValues()[0] << 24) & 0xff000000);
-
-					// TODO: store the actual background color of the image as image metadata nodes in the artifact tree and make use of it here!
-					if (backgroundColor != pixelColor) {
-						relevantChildren++;
-
-						alpha += colorArtifact.getValues()[0];
-						red += colorArtifact.getValues()[1];
-						green += colorArtifact.getValues()[2];
-						blue += colorArtifact.getValues()[3];
+			if (ImageReader.TYPE_TILE_POS.equals(posArtifact.getType())) {
+				List<int[]> tiles = new ArrayList<>();
+				for (Node tileNode : posNode.getChildren()) {
+					tiles.add(((ImageArtifactData) tileNode.getArtifact().getData()).getValues());
+				}
+				int tileWidth = tiles.get(0)[0];
+				int tileHeight = tiles.get(0)[1];
+
+				for (int j = 0; j < tileHeight; j++) {
+					for (int i = 0; i < tileWidth; i++) {
+						for (int k = 0; k < tiles.size(); k++) {
+							colors[k] = tiles.get(k)[2 + j * tileWidth + i];
+						}
+						pixels[(y + j) * width + x + i] = blend(colors, tiles.size(), backgroundColor, enableBlending);
 					}
-
-					if (!enableBlending)
-						break;
 				}
-
-				if (enableBlending && relevantChildren > 0) {
-					alpha = alpha / relevantChildren;
-					red = red / relevantChildren;
-					green = green / relevantChildren;
-					blue = blue / relevantChildren;
+			} else {
+				int numColors = 0;
+				for (Node colorNode : posNode.getChildren()) {
+					int[] argb = ((ImageArtifactData) colorNode.getArtifact().getData()).getValues();
+					colors[numColors++] = (argb[3] & 0x000000ff) | ((argb[2] << 8) & 0x0000ff00) | ((argb[1] << 16) & 0x00ff0000) | ((argb[0] << 24) & 0xff000000);
 				}
+				pixels[y * width + x] = blend(colors, numColors, backgroundColor, enableBlending);
+			}
+		}
+
+		return pixels;
+	}
 
-				color = 0;
-				color = (blue & 0x000000ff) | ((green << 8) & 0x0000ff00) | ((red << 16) & 0x00ff0000) | ((alpha << 24) & 0xff000000);
+	private static int blend(int[] colors, int numColors, int backgroundColor, boolean enableBlending) {
+		int alpha = 0;
+		int red = 0;
+		int green = 0;
+		int blue = 0;
+
+		int relevantColors = 0;
+		for (int i = 0; i < numColors; i++) {
+			// TODO: store the actual background color of the image as image metadata nodes in the artifact tree and make use of it here!
+			if (backgroundColor != colors[i]) {
+				relevantColors++;
+
+				alpha += (colors[i] >>> 24) & 0xff;
+				red += (colors[i] >> 16) & 0xff;
+				green += (colors[i] >> 8) & 0xff;
+				blue += colors[i] & 0xff;
 			}
-			outputImage.setRGB(x, y, color);
+
+			if (!enableBlending)
+				break;
 		}
 
-		return outputImage;
+		if (enableBlending && relevantColors > 0) {
+			alpha = alpha / relevantColors;
+			red = red / relevantColors;
+			green = green / relevantColors;
+			blue = blue / relevantColors;
+		}
+
+		return (blue & 0x000000ff) | ((green << 8) & 0x0000ff00) | ((red << 16) & 0x00ff0000) | ((alpha << 24) & 0xff000000);
 	}
 
 }
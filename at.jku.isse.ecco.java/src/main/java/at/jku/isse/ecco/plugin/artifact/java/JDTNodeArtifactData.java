@@ -25,6 +25,9 @@ public class JDTNodeArtifactData implements ArtifactData, JDTArtifactData {
 	private String type;
 	private boolean executed = false;
 
+	private JDTNodeArtifactData() {
+	}
+
 	/**
 	 * Constructs a new JDTArtifact with the given <code>astNode</code> as
 	 * object. The constructed artifact will not be of a simpleType.
@@ -16,6 +16,9 @@ public class JDTPropertyArtifactData implements ArtifactData, JDTArtifactData {
 	private String type;
 	private boolean executed = false;
 
+	private JDTPropertyArtifactData() {
+	}
+
 	public JDTPropertyArtifactData(String structuralProperty, String identifier, String type, boolean mandatory) {
 		super();
 		this.structuralProperty = structuralProperty;
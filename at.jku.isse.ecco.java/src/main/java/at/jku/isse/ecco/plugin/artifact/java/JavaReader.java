@@ -6,6 +6,7 @@ import at.jku.isse.ecco.listener.ReadListener;
 import at.jku.isse.ecco.plugin.artifact.ArtifactReader;
 import at.jku.isse.ecco.plugin.artifact.PluginArtifactData;
 import at.jku.isse.ecco.tree.Node;
+import at.jku.isse.ecco.util.BoundedExecutor;
 import com.google.inject.Inject;
 import org.eclipse.jdt.core.BindingKey;
 import org.eclipse.jdt.core.JavaCore;
@@ -16,7 +17,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.*;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
@@ -56,6 +59,14 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 		return typeHierarchy;
 	}
 
+	/**
+	 * The reader keeps no state between invocations, but references between files are only resolved among the files of one invocation, so all files have to be read in a single invocation.
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	@Override
 	public boolean canRead(Path path) {
 		// TODO: actually check contents of file to see if it is a text file
@@ -75,18 +86,35 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 	public Set<Node.Op> read(Path base, Path[] input) {
 		Set<Node.Op> nodes = new HashSet<>();
 
-//		referencing.clear();
-//		referenced.clear();
-		referencing = new LinkedList<Pair>();
-		referenced = new IdentityHashMap<>();
-
-
 		parse(input, base, nodes, true);
 
 		return nodes;
 	}
 
 
+	/**
+	 * The minimum number of files per batch. Every batch resolves the types of the other batches from source again, so small source sets are not split.
+	 */
+	private static final int MIN_BATCH_SIZE = 100;
+
+	private int parallelism = 1;
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of batches that large source sets are split into and parsed in parallel. The default is 1, so a reader that is itself invoked on several threads does not start further threads unless configured to.
+	 *
+	 * @param parallelism The number of threads (1 means sequential).
+	 */
+	public void setParallelism(int parallelism) {
+		checkArgument(parallelism >= 1, "Parallelism must be at least 1.");
+
+		this.parallelism = parallelism;
+	}
+
+
 	private static String SOURCE_TYPE = "java";
 
 	private static List<String> ORDERED = new LinkedList<>();
@@ -103,14 +131,48 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 		ORDERED.add("");
 	}
 
-	private static List<Pair> referencing = new LinkedList<>();
-	private static IdentityHashMap<IBinding, Artifact.Op<?>> referenced = new IdentityHashMap<>();
+	/**
+	 * The types of AST nodes (class name and node type) by node class. Every node class has a single node type, so all artifacts share the same few type strings.
+	 */
+	private static final Map<Class<?>, String> NODE_TYPES = new ConcurrentHashMap<>();
+
+	/**
+	 * The names of structural property descriptors, of which there is only a fixed set.
+	 */
+	private static final Map<StructuralPropertyDescriptor, String> DESCRIPTOR_NAMES = new ConcurrentHashMap<>();
 
 
-	@SuppressWarnings("unchecked")
-	//private void parse(String[] sources, final String[] sourcePath, final HashSet<Node> nodes, final boolean saveLocationInfromtation) {
 	private void parse(Path[] sources, final Path sourcePath, final Set<Node.Op> nodes, final boolean saveLocationInfromtation) {
+		// files in the same directory mostly reference each other, so batches are formed of consecutive files
+		Path[] sortedSources = sources.clone();
+		Arrays.sort(sortedSources);
+
+		int numBatches = Math.max(1, Math.min(this.parallelism, sortedSources.length / MIN_BATCH_SIZE));
+		int batchSize = (sortedSources.length + numBatches - 1) / numBatches;
+
+		try (BoundedExecutor executor = new BoundedExecutor(numBatches)) {
+			List<Future<Batch>> tasks = new ArrayList<>();
+			for (int from = 0; from < sortedSources.length; from += batchSize) {
+				final Path[] batchSources = Arrays.copyOfRange(sortedSources, from, Math.min(from + batchSize, sortedSources.length));
+				tasks.add(executor.submit(() -> parseBatch(batchSources, sourcePath, saveLocationInfromtation)));
+			}
 
+			List<Batch> batches = new ArrayList<>();
+			for (Future<Batch> task : tasks) {
+				Batch batch = executor.join(task, "reading", sourcePath);
+				nodes.addAll(batch.nodes);
+				batches.add(batch);
+			}
+
+			resolveReverences(batches);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	//private void parse(String[] sources, final String[] sourcePath, final HashSet<Node> nodes, final boolean saveLocationInfromtation) {
+	private Batch parseBatch(Path[] sources, final Path sourcePath, final boolean saveLocationInfromtation) {
+		final Batch batch = new Batch();
+		final Set<Node.Op> nodes = batch.nodes;
 
 		ASTParser parser = ASTParser.newParser(AST.JLS8);
 
@@ -151,7 +213,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 				final String cuName = new File(sourceFilePath).getName().replace(".java", "");
 				cuString += cuName;
 
-				JDTNodeArtifactData cuArtifactData = new JDTNodeArtifactData(cuString, cuString, cu.getClass().getName() + ":" + cu.getNodeType());
+				JDTNodeArtifactData cuArtifactData = new JDTNodeArtifactData(cuString, cuString, getNodeType(cu));
 				Artifact.Op<?> cuArtifact = entityFactory.createArtifact(cuArtifactData);
 				int pos = cu.getStartPosition();
 				int line = cu.getLineNumber(pos);
@@ -160,7 +222,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 				cuArtifact.putProperty("line", line);
 				cuArtifact.putProperty("col", col);
 
-				checkForReferences(cuArtifact, cu);
+				checkForReferences(cuArtifact, cu, batch);
 
 				//String source = new File(sourceFilePath).getAbsolutePath().replace(sourcePath[0], "").substring(1);
 				String source = sourceFilePath;
@@ -175,7 +237,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 				nodes.add(pluginNode);
 				pluginNode.addChild(cuNode);
 
-				traverseAST(cu, cuNode, saveLocationInfromtation, cu, source);
+				traverseAST(cu, cuNode, saveLocationInfromtation, cu, source, batch);
 			}
 		};
 
@@ -188,11 +250,11 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 		parser.createASTs(absoluteSources, null, bindingKeys.toArray(new String[0]), requestor, null);
 
-		resolveReverences();
+		return batch;
 	}
 
 	@SuppressWarnings("unchecked")
-	private void traverseAST(ASTNode astNode, Node.Op parent, final boolean saveLocationInfromtation, final CompilationUnit cu, final String source) {
+	private void traverseAST(ASTNode astNode, Node.Op parent, final boolean saveLocationInfromtation, final CompilationUnit cu, final String source, final Batch batch) {
 //		if(astNode instanceof Expression){
 //			return;
 //		}
@@ -211,7 +273,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 			Object obj = astNode.getStructuralProperty(desc);
 			if (obj != null) {
 				if (desc instanceof ChildPropertyDescriptor) {
-					JDTPropertyArtifactData propertyArtifactData = new JDTPropertyArtifactData(desc.toString(), desc.getId(), desc.getClass().getName(), ((ChildPropertyDescriptor) desc).isMandatory());
+					JDTPropertyArtifactData propertyArtifactData = new JDTPropertyArtifactData(getDescriptorName(desc), desc.getId(), desc.getClass().getName(), ((ChildPropertyDescriptor) desc).isMandatory());
 					Node.Op propertyNode = entityFactory.createNode(propertyArtifactData);
 					if (CREATE_PROPERTY_NODES) {
 						parent.addChild(propertyNode);
@@ -221,23 +283,23 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 					if (objNode instanceof FieldDeclaration || objNode instanceof VariableDeclarationStatement) {
 						if (CREATE_PROPERTY_NODES) {
-							variable(objNode, propertyNode, saveLocationInfromtation, cu, source);
+							variable(objNode, propertyNode, saveLocationInfromtation, cu, source, batch);
 						} else {
-							variable(objNode, parent, saveLocationInfromtation, cu, source);
+							variable(objNode, parent, saveLocationInfromtation, cu, source, batch);
 						}
 					} else {
 						String ident = getIdentifier(objNode);
-						JDTNodeArtifactData jdtArtifactData = new JDTNodeArtifactData(ident, ident, objNode.getClass().getName() + ":" + objNode.getNodeType());
+						JDTNodeArtifactData jdtArtifactData = new JDTNodeArtifactData(ident, ident, getNodeType(objNode));
 						Artifact.Op<?> jdtArtifact = entityFactory.createArtifact(jdtArtifactData);
 						addProperties(jdtArtifact, objNode, saveLocationInfromtation, cu);
-						checkForReferences(jdtArtifact, objNode);
+						checkForReferences(jdtArtifact, objNode, batch);
 
 						jdtArtifactData.setSource(source);
 						jdtArtifactData.setSourceType(SOURCE_TYPE);
 
 						Node.Op node = entityFactory.createNode(jdtArtifact);
 
-						traverseAST(objNode, node, saveLocationInfromtation, cu, source);
+						traverseAST(objNode, node, saveLocationInfromtation, cu, source, batch);
 
 						if (CREATE_PROPERTY_NODES) {
 							propertyNode.addChild(node);
@@ -249,7 +311,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 				} else if (desc instanceof ChildListPropertyDescriptor) {
 					List<ASTNode> list = (List<ASTNode>) obj;
 					if (!list.isEmpty()) {
-						JDTPropertyArtifactData propertyArtifactData = new JDTPropertyArtifactData(desc.toString(), desc.getId(), desc.getClass().getName(), false);
+						JDTPropertyArtifactData propertyArtifactData = new JDTPropertyArtifactData(getDescriptorName(desc), desc.getId(), desc.getClass().getName(), false);
 						Node.Op propertyNode = entityFactory.createNode(propertyArtifactData);
 						if (isOrdered((ChildListPropertyDescriptor) desc)) {
 							propertyNode = entityFactory.createOrderedNode(propertyArtifactData);
@@ -268,24 +330,24 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 							if (objNode instanceof FieldDeclaration || objNode instanceof VariableDeclarationStatement) {
 								if (CREATE_PROPERTY_NODES) {
-									variable(objNode, propertyNode, saveLocationInfromtation, cu, source);
+									variable(objNode, propertyNode, saveLocationInfromtation, cu, source, batch);
 								} else {
-									variable(objNode, parent, saveLocationInfromtation, cu, source);
+									variable(objNode, parent, saveLocationInfromtation, cu, source, batch);
 								}
 							} else {
 								String ident = getIdentifier(objNode);
 
-								JDTNodeArtifactData jdtArtifactData = new JDTNodeArtifactData(ident, ident, objNode.getClass().getName() + ":" + objNode.getNodeType());
+								JDTNodeArtifactData jdtArtifactData = new JDTNodeArtifactData(ident, ident, getNodeType(objNode));
 								Artifact.Op<?> jdtArtifact = entityFactory.createArtifact(jdtArtifactData);
 								addProperties(jdtArtifact, objNode, saveLocationInfromtation, cu);
-								checkForReferences(jdtArtifact, objNode);
+								checkForReferences(jdtArtifact, objNode, batch);
 
 								jdtArtifactData.setSource(source);
 								jdtArtifactData.setSourceType(SOURCE_TYPE);
 
 								Node.Op node = entityFactory.createNode(jdtArtifact);
 
-								traverseAST(objNode, node, saveLocationInfromtation, cu, source);
+								traverseAST(objNode, node, saveLocationInfromtation, cu, source, batch);
 
 								if (CREATE_PROPERTY_NODES) {
 									propertyNode.addChild(node);
@@ -296,7 +358,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 						}
 					}
 				} else if (desc instanceof SimplePropertyDescriptor) {
-					JDTPropertyArtifactData propertyArtifactData = new JDTPropertyArtifactData(desc.toString(), desc.getId(), desc.getClass().getName(), ((SimplePropertyDescriptor) desc).isMandatory());
+					JDTPropertyArtifactData propertyArtifactData = new JDTPropertyArtifactData(getDescriptorName(desc), desc.getId(), desc.getClass().getName(), ((SimplePropertyDescriptor) desc).isMandatory());
 					Artifact.Op<?> propertyArtifact = entityFactory.createArtifact(propertyArtifactData);
 					Node.Op propertyNode = entityFactory.createNode(propertyArtifact);
 					if (CREATE_PROPERTY_NODES) {
@@ -332,7 +394,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 	 * @param cu
 	 */
 	@SuppressWarnings("unchecked")
-	private void variable(ASTNode var, Node.Op parent, final boolean saveLocationInfromtation, final CompilationUnit cu, final String source) {
+	private void variable(ASTNode var, Node.Op parent, final boolean saveLocationInfromtation, final CompilationUnit cu, final String source, final Batch batch) {
 		List<VariableDeclarationFragment> fragments;
 		List<IExtendedModifier> modifiers;
 		Type type;
@@ -351,11 +413,11 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 		for (VariableDeclarationFragment fragment : fragments) {
 			String ident = suffix + fragment.getName();
-			JDTNodeArtifactData artifactData = new JDTNodeArtifactData(ident, ident, var.getClass().getName() + ":" + var.getNodeType());
+			JDTNodeArtifactData artifactData = new JDTNodeArtifactData(ident, ident, getNodeType(var));
 			Artifact.Op<?> artifact = entityFactory.createArtifact(artifactData);
 
 			addProperties(artifact, fragment, saveLocationInfromtation, cu);
-			checkForReferences(artifact, fragment);
+			checkForReferences(artifact, fragment, batch);
 			artifactData.setSource(source);
 			artifactData.setSourceType(SOURCE_TYPE);
 
@@ -377,7 +439,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 
 				for (IExtendedModifier modifier : modifiers) {
 					String modifierIdent = getIdentifier((ASTNode) modifier);
-					JDTNodeArtifactData modifierArtifactData = new JDTNodeArtifactData(modifierIdent, modifierIdent, modifier.getClass().getName() + ":" + ((ASTNode) modifier).getNodeType());
+					JDTNodeArtifactData modifierArtifactData = new JDTNodeArtifactData(modifierIdent, modifierIdent, getNodeType((ASTNode) modifier));
 					Artifact.Op<?> modifierArtifact = entityFactory.createArtifact(modifierArtifactData);
 
 					addProperties(modifierArtifact, fragment, saveLocationInfromtation, cu);
@@ -391,7 +453,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 						node.addChild(modifierNode);
 					}
 
-					traverseAST((ASTNode) modifier, modifierNode, saveLocationInfromtation, cu, source);
+					traverseAST((ASTNode) modifier, modifierNode, saveLocationInfromtation, cu, source, batch);
 				}
 			}
 
@@ -405,11 +467,11 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 			}
 
 			String typeIdent = getIdentifier(type);
-			JDTNodeArtifactData tyArtifactData = new JDTNodeArtifactData(typeIdent, typeIdent, type.getClass().getName() + ":" + type.getNodeType());
+			JDTNodeArtifactData tyArtifactData = new JDTNodeArtifactData(typeIdent, typeIdent, getNodeType(type));
 			Artifact.Op<?> tyArtifact = entityFactory.createArtifact(tyArtifactData);
 
 			addProperties(tyArtifact, type, saveLocationInfromtation, cu);
-			checkForReferences(tyArtifact, type);
+			checkForReferences(tyArtifact, type, batch);
 			tyArtifactData.setSource(source);
 			tyArtifactData.setSourceType(SOURCE_TYPE);
 
@@ -420,7 +482,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 				node.addChild(tyNode);
 			}
 
-			traverseAST(type, tyNode, saveLocationInfromtation, cu, source);
+			traverseAST(type, tyNode, saveLocationInfromtation, cu, source, batch);
 
 			//fragments
 			JDTPropertyArtifactData fragmentsArtifactData = new JDTPropertyArtifactData("fragments", "fragments", ChildListPropertyDescriptor.class.getName(), false);
@@ -435,11 +497,11 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 			}
 
 			String fragmentIdent = getIdentifier(fragment);
-			JDTNodeArtifactData fragmentArtifactData = new JDTNodeArtifactData(fragmentIdent, fragmentIdent, fragment.getClass().getName() + ":" + fragment.getNodeType());
+			JDTNodeArtifactData fragmentArtifactData = new JDTNodeArtifactData(fragmentIdent, fragmentIdent, getNodeType(fragment));
 			Artifact.Op<?> fragmentArtifact = entityFactory.createArtifact(fragmentArtifactData);
 
 			addProperties(fragmentArtifact, fragment, saveLocationInfromtation, cu);
-			checkForReferences(fragmentArtifact, fragment);
+			checkForReferences(fragmentArtifact, fragment, batch);
 			fragmentArtifactData.setSource(source);
 			fragmentArtifactData.setSourceType(SOURCE_TYPE);
 
@@ -450,7 +512,7 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 				node.addChild(fragmentNode);
 			}
 
-			traverseAST(fragment, fragmentNode, saveLocationInfromtation, cu, source);
+			traverseAST(fragment, fragmentNode, saveLocationInfromtation, cu, source, batch);
 		}
 
 	}
@@ -469,77 +531,104 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 		}
 	}
 
-	private void checkForReferences(Artifact.Op<?> artifact, ASTNode node) {
+	private void checkForReferences(Artifact.Op<?> artifact, ASTNode node, Batch batch) {
 		//referenced node types
 		if (node instanceof PackageDeclaration) {
-			referenced.put(((PackageDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((PackageDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof TypeDeclaration) {
-			referenced.put(((TypeDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((TypeDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof AnonymousClassDeclaration) {
-			referenced.put(((AnonymousClassDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((AnonymousClassDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof VariableDeclaration) {
-			referenced.put(((VariableDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((VariableDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof MethodDeclaration) {
-			referenced.put(((MethodDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((MethodDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof AnnotationTypeDeclaration) {
-			referenced.put(((AnnotationTypeDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((AnnotationTypeDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof AnnotationTypeMemberDeclaration) {
-			referenced.put(((AnnotationTypeMemberDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((AnnotationTypeMemberDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof EnumDeclaration) {
-			referenced.put(((EnumDeclaration) node).resolveBinding(), artifact);
+			batch.referenced.put(((EnumDeclaration) node).resolveBinding(), artifact);
 		} else if (node instanceof TypeParameter) {
-			referenced.put(((TypeParameter) node).resolveBinding(), artifact);
+			batch.referenced.put(((TypeParameter) node).resolveBinding(), artifact);
 		} else if (node instanceof MemberValuePair) {
-			referenced.put(((MemberValuePair) node).resolveMemberValuePairBinding(), artifact);
+			batch.referenced.put(((MemberValuePair) node).resolveMemberValuePairBinding(), artifact);
 
 
 			//both
 		} else if (node instanceof EnumConstantDeclaration) {
-			referenced.put(((EnumConstantDeclaration) node).resolveVariable(), artifact);
-			referencing.add(new Pair(artifact, ((EnumConstantDeclaration) node).resolveConstructorBinding()));
+			batch.referenced.put(((EnumConstantDeclaration) node).resolveVariable(), artifact);
+			batch.referencing.add(new Pair(artifact, ((EnumConstantDeclaration) node).resolveConstructorBinding()));
 		} else if (node instanceof Annotation) {
-			referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
-			referenced.put(((Annotation) node).resolveAnnotationBinding(), artifact);
+			batch.referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
+			batch.referenced.put(((Annotation) node).resolveAnnotationBinding(), artifact);
 
 
 			//referencing node types
 		} else if (node instanceof Type) {
-			referencing.add(new Pair(artifact, ((Type) node).resolveBinding()));
+			batch.referencing.add(new Pair(artifact, ((Type) node).resolveBinding()));
 		} else if (node instanceof Name) {
-			referencing.add(new Pair(artifact, ((Name) node).resolveBinding()));
-			referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
+			batch.referencing.add(new Pair(artifact, ((Name) node).resolveBinding()));
+			batch.referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
 		} else if (node instanceof MethodInvocation) {
-			referencing.add(new Pair(artifact, ((MethodInvocation) node).resolveMethodBinding()));
-			referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
+			batch.referencing.add(new Pair(artifact, ((MethodInvocation) node).resolveMethodBinding()));
+			batch.referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
 		} else if (node instanceof SuperMethodInvocation) {
-			referencing.add(new Pair(artifact, ((SuperMethodInvocation) node).resolveMethodBinding()));
-			referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
+			batch.referencing.add(new Pair(artifact, ((SuperMethodInvocation) node).resolveMethodBinding()));
+			batch.referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
 		} else if (node instanceof ClassInstanceCreation) {
-			referencing.add(new Pair(artifact, ((ClassInstanceCreation) node).resolveConstructorBinding()));
-			referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
+			batch.referencing.add(new Pair(artifact, ((ClassInstanceCreation) node).resolveConstructorBinding()));
+			batch.referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
 		} else if (node instanceof Expression) {
-			referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
+			batch.referencing.add(new Pair(artifact, ((Expression) node).resolveTypeBinding()));
 		} else if (node instanceof FieldAccess) {
-			referencing.add(new Pair(artifact, ((FieldAccess) node).resolveFieldBinding()));
+			batch.referencing.add(new Pair(artifact, ((FieldAccess) node).resolveFieldBinding()));
 		} else if (node instanceof ImportDeclaration) {
-			referencing.add(new Pair(artifact, ((ImportDeclaration) node).resolveBinding()));
+			batch.referencing.add(new Pair(artifact, ((ImportDeclaration) node).resolveBinding()));
 		}
 	}
 
-	private void resolveReverences() {
-		for (Pair pair : referencing) {
-			Artifact.Op<?> ref = referenced.get(pair.binding);
-			if (ref != null) {
-				pair.artifact.addUses(ref);
+	/**
+	 * Resolves the references of every batch. References to declarations in other batches are resolved by binding key, because the same declaration has a different binding in every batch.
+	 */
+	private void resolveReverences(List<Batch> batches) {
+		Map<String, Artifact.Op<?>> referencedByKey = null;
+		for (Batch batch : batches) {
+			for (Pair pair : batch.referencing) {
+				// names without a binding (e.g. package names) do not reference anything
+				if (pair.binding == null)
+					continue;
+				Artifact.Op<?> ref = batch.referenced.get(pair.binding);
+				if (ref == null && batches.size() > 1) {
+					if (referencedByKey == null)
+						referencedByKey = getReferencedByKey(batches);
+					String key = pair.binding.getKey();
+					if (key != null)
+						ref = referencedByKey.get(key);
+				}
+				if (ref != null) {
+					pair.artifact.addUses(ref);
 
-//				ArtifactOperator.ArtifactReferenceOperand reference = entityFactory.createArtifactReference(pair.artifact, ref);
-//				//TODO check if reference already exists
-//				pair.artifact.addUses(reference);
-//				ref.addUsedBy(reference);
+//					ArtifactOperator.ArtifactReferenceOperand reference = entityFactory.createArtifactReference(pair.artifact, ref);
+//					//TODO check if reference already exists
+//					pair.artifact.addUses(reference);
+//					ref.addUsedBy(reference);
+				}
 			}
 		}
 	}
 
+	private Map<String, Artifact.Op<?>> getReferencedByKey(List<Batch> batches) {
+		Map<String, Artifact.Op<?>> referencedByKey = new HashMap<>();
+		for (Batch batch : batches) {
+			for (Map.Entry<IBinding, Artifact.Op<?>> entry : batch.referenced.entrySet()) {
+				if (entry.getKey() != null && entry.getKey().getKey() != null)
+					referencedByKey.put(entry.getKey().getKey(), entry.getValue());
+			}
+		}
+		return referencedByKey;
+	}
+
 	//TODO make an extra component to calculate identifiers, so it can be reused in other parts when they need to be recalculated
 	@SuppressWarnings("unchecked")
 	public String getIdentifier(ASTNode astNode) {
@@ -663,6 +752,23 @@ public class JavaReader implements ArtifactReader<Path, Set<Node.Op>> {
 		return true;
 	}
 
+	private static String getNodeType(ASTNode astNode) {
+		return NODE_TYPES.computeIfAbsent(astNode.getClass(), clazz -> clazz.getName() + ":" + astNode.getNodeType());
+	}
+
+	private static String getDescriptorName(StructuralPropertyDescriptor desc) {
+		return DESCRIPTOR_NAMES.computeIfAbsent(desc, StructuralPropertyDescriptor::toString);
+	}
+
+	/**
+	 * The nodes and references of the files that were parsed together. Bindings are only identical within the batch in which they were created.
+	 */
+	private class Batch {
+		protected final Set<Node.Op> nodes = new HashSet<>();
+		protected final List<Pair> referencing = new ArrayList<>();
+		protected final IdentityHashMap<IBinding, Artifact.Op<?>> referenced = new IdentityHashMap<>();
+	}
+
 	private class Pair {
 		protected IBinding binding;
 		protected Artifact.Op<?> artifact;
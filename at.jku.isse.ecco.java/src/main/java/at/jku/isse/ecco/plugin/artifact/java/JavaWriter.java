@@ -15,9 +15,7 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.text.edits.MalformedTreeException;
 import org.eclipse.text.edits.TextEdit;
 
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.StringWriter;
+import java.io.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
@@ -44,34 +42,9 @@ public class JavaWriter implements ArtifactWriter<Set<Node>, Path> {
 //				// create directories
 //				Files.createDirectories(src.getParent());
 
-				// create code string
-				StringWriter writer = new StringWriter();
-				for (ASTNode n : entry.getValue()) {
-					writer.append(n.toString());
-				}
-				writer.flush();
-				writer.close();
-
-				String code = writer.toString();
-
-				// format code string
-				CodeFormatter cf = new DefaultCodeFormatter();
-				TextEdit te = cf.format(CodeFormatter.K_COMPILATION_UNIT, code, 0, code.length(), 0, null);
-				IDocument dc = new Document(code);
-				try {
-					te.apply(dc);
-					code = dc.get();
-				} catch (MalformedTreeException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				} catch (BadLocationException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
-
 				// write to file
 				FileWriter fileWriter = new FileWriter(src.toFile());
-				fileWriter.write(code);
+				fileWriter.write(this.createCode(entry.getValue()));
 				fileWriter.flush();
 				fileWriter.close();
 			} catch (IOException e) {
@@ -83,6 +56,52 @@ public class JavaWriter implements ArtifactWriter<Set<Node>, Path> {
 		return output.toArray(new Path[output.size()]);
 	}
 
+	@Override
+	public boolean write(Set<Node> input, OutputStream out) throws IOException {
+		Map<Path, List<ASTNode>> fileMap = new HashMap<>();
+		buildAST(input, fileMap);
+		if (fileMap.size() != 1)
+			return false;
+
+		// the stream is not closed, so the writer is only flushed (with the default charset like the file writer)
+		Writer writer = new OutputStreamWriter(out);
+		writer.write(this.createCode(fileMap.values().iterator().next()));
+		writer.flush();
+		return true;
+	}
+
+	/**
+	 * Creates the formatted code of a compilation unit from the given AST nodes.
+	 */
+	private String createCode(List<ASTNode> astNodes) throws IOException {
+		// create code string
+		StringWriter writer = new StringWriter();
+		for (ASTNode n : astNodes) {
+			writer.append(n.toString());
+		}
+		writer.flush();
+		writer.close();
+
+		String code = writer.toString();
+
+		// format code string
+		CodeFormatter cf = new DefaultCodeFormatter();
+		TextEdit te = cf.format(CodeFormatter.K_COMPILATION_UNIT, code, 0, code.length(), 0, null);
+		IDocument dc = new Document(code);
+		try {
+			te.apply(dc);
+			code = dc.get();
+		} catch (MalformedTreeException e) {
+			// TODO Auto-generated catch block
+			e.printStackTrace();
+		} catch (BadLocationException e) {
+			// TODO Auto-generated catch block
+			e.printStackTrace();
+		}
+
+		return code;
+	}
+
 	@Override
 	public Path[] write(Set<Node> input) {
 		return this.write(Paths.get("."), input);
@@ -1,12 +1,29 @@
 package at.jku.isse.ecco.perst.test;
 
 import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.core.Remote;
+import at.jku.isse.ecco.dao.PerstEntityFactory;
+import at.jku.isse.ecco.dao.PerstRepositoryDao;
+import at.jku.isse.ecco.dao.PerstSettingsDao;
+import at.jku.isse.ecco.dao.PerstTransactionStrategy;
+import at.jku.isse.ecco.feature.Feature;
+import at.jku.isse.ecco.repository.Repository;
+import junit.framework.Assert;
 import org.garret.perst.Storage;
 import org.garret.perst.StorageFactory;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class MultiClientTest {
 
 	@Test(groups = {"integration", "perst", "multiclient"})
@@ -206,6 +223,91 @@ public class MultiClientTest {
 	}
 
 
+	@Test(groups = {"integration", "perst", "multiclient"})
+	public void MultiClient_Shared_ReadOnly_Test() throws EccoException, IOException, InterruptedException {
+		PerstTransactionStrategy transactionStrategy = new PerstTransactionStrategy(Files.createTempDirectory("ecco-perst"));
+		transactionStrategy.open();
+
+		// a second reader does not have to wait for the first one
+		transactionStrategy.beginReadOnly();
+		CountDownLatch began = new CountDownLatch(1);
+		Thread reader = new Thread(() -> {
+			transactionStrategy.beginReadOnly();
+			began.countDown();
+			transactionStrategy.end();
+		});
+		reader.start();
+		Assert.assertTrue(began.await(10, TimeUnit.SECONDS));
+		reader.join();
+
+		// a read-only transaction cannot be upgraded
+		try {
+			transactionStrategy.begin();
+			Assert.fail();
+		} catch (EccoException e) {
+			// expected
+		}
+		transactionStrategy.end();
+
+		transactionStrategy.close();
+	}
+
+	@Test(groups = {"benchmark", "perst", "multiclient"})
+	public void MultiClient_Throughput_Benchmark() throws EccoException, IOException, InterruptedException {
+		PerstTransactionStrategy transactionStrategy = new PerstTransactionStrategy(Files.createTempDirectory("ecco-perst"));
+		PerstEntityFactory entityFactory = new PerstEntityFactory();
+		PerstRepositoryDao repositoryDao = new PerstRepositoryDao(transactionStrategy, entityFactory);
+		PerstSettingsDao settingsDao = new PerstSettingsDao(transactionStrategy, entityFactory);
+		transactionStrategy.open();
+
+		transactionStrategy.begin();
+		Repository.Op repository = repositoryDao.load();
+		for (int i = 0; i < 100; i++)
+			repository.addFeature("F" + i, "F" + i, "");
+		repositoryDao.store(repository);
+		for (int i = 0; i < 10; i++)
+			settingsDao.storeRemote(entityFactory.createRemote("R" + i, "localhost:" + (1000 + i), Remote.Type.REMOTE));
+		transactionStrategy.end();
+
+		for (boolean readOnly : new boolean[]{false, true}) {
+			for (int numClients = 1; numClients <= 8; numClients *= 2) {
+				// every client reads features and remotes and then keeps the transaction open for a moment (e.g. while it composes a checkout)
+				AtomicLong reads = new AtomicLong();
+				AtomicBoolean stop = new AtomicBoolean(false);
+				List<Thread> clients = new ArrayList<>();
+				for (int c = 0; c < numClients; c++) {
+					clients.add(new Thread(() -> {
+						while (!stop.get()) {
+							if (readOnly)
+								transactionStrategy.beginReadOnly();
+							else
+								transactionStrategy.begin();
+							repositoryDao.load().getFeatures().forEach(Feature::getName);
+							settingsDao.loadAllRemotes();
+							try {
+								Thread.sleep(1);
+							} catch (InterruptedException e) {
+								// stop
+							}
+							transactionStrategy.end();
+							reads.incrementAndGet();
+						}
+					}));
+				}
+				clients.forEach(Thread::start);
+				Thread.sleep(1000);
+				stop.set(true);
+				for (Thread client : clients)
+					client.join();
+
+				System.out.println((readOnly ? "READ-ONLY" : "EXCLUSIVE") + " (" + numClients + " clients): " + reads.get() + " transactions per second");
+			}
+		}
+
+		transactionStrategy.close();
+	}
+
+
 	@AfterTest(alwaysRun = true)
 	public void afterTest() {
 		System.out.println("AFTER");
@@ -0,0 +1,130 @@
+package at.jku.isse.ecco.perst.test;
+
+import at.jku.isse.ecco.EccoService;
+import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.dao.PerstTransactionStrategy;
+import at.jku.isse.ecco.dao.TransactionStrategy;
+import junit.framework.Assert;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PerstServiceTest {
+
+	private static final int NUM_FILES = 200;
+
+
+	@Test(groups = {"integration", "perst", "service"})
+	public void Perst_Incremental_Commit_Test() throws IOException {
+		Path baseDir = this.createBaseDir();
+
+		EccoService service = this.createService(baseDir);
+		service.init();
+		service.commit("A");
+		PerstTransactionStrategy transactionStrategy = (PerstTransactionStrategy) service.getInjector().getInstance(TransactionStrategy.class);
+		long firstStoredObjects = transactionStrategy.getLastStoredObjects();
+		long firstWrittenBytes = transactionStrategy.getLastWrittenBytes();
+		Assert.assertTrue(firstStoredObjects > 0);
+		Assert.assertTrue(firstWrittenBytes > 0);
+		service.close();
+
+		// the committed content is stored
+		service = this.createService(baseDir);
+		service.open();
+		Assert.assertEquals(1, service.getRepository().getFeatures().size());
+		Assert.assertEquals(1, service.getRepository().getAssociations().size());
+		int numArtifacts = service.getRepository().getAssociations().iterator().next().getRootNode().countArtifacts();
+		Assert.assertTrue(numArtifacts > NUM_FILES);
+
+		// a small second commit only stores the objects it added or changed
+		Path smallBaseDir = Files.createTempDirectory("ecco-perst-service");
+		Files.write(smallBaseDir.resolve("other.txt"), "other\n".getBytes());
+		service.setBaseDir(smallBaseDir);
+		service.commit("B");
+		transactionStrategy = (PerstTransactionStrategy) service.getInjector().getInstance(TransactionStrategy.class);
+		System.out.println("FIRST COMMIT: " + firstStoredObjects + " objects, " + firstWrittenBytes + " bytes");
+		System.out.println("SECOND COMMIT: " + transactionStrategy.getLastStoredObjects() + " objects, " + transactionStrategy.getLastWrittenBytes() + " bytes");
+		Assert.assertTrue(transactionStrategy.getLastStoredObjects() > 0);
+		Assert.assertTrue(transactionStrategy.getLastStoredObjects() * 4 < firstStoredObjects);
+		Assert.assertTrue(transactionStrategy.getLastWrittenBytes() * 4 < firstWrittenBytes);
+		service.close();
+
+		// both commits are stored
+		service = this.createService(baseDir);
+		service.open();
+		Assert.assertEquals(2, service.getRepository().getFeatures().size());
+		int numArtifactsAfter = 0;
+		for (Association association : service.getRepository().getAssociations())
+			numArtifactsAfter += association.getRootNode().countArtifacts();
+		Assert.assertTrue(numArtifactsAfter > numArtifacts);
+		service.close();
+	}
+
+	@Test(groups = {"integration", "perst", "service"})
+	public void Perst_Parallel_Commit_Test() throws IOException {
+		// the associations of the reopened repository are loaded lazily while they are sliced in parallel
+		int numArtifacts = this.commitReopened(this.createBaseDir(), 4);
+
+		// the result is the same as with sequential slicing
+		int numSequentialArtifacts = this.commitReopened(this.createBaseDir(), 1);
+		Assert.assertEquals(numSequentialArtifacts, numArtifacts);
+	}
+
+	/**
+	 * Commits two variants, reopens the repository and commits a third variant with the given parallelism.
+	 *
+	 * @return The number of artifacts of all associations.
+	 */
+	private int commitReopened(Path baseDir, int parallelism) throws IOException {
+		EccoService service = this.createService(baseDir);
+		service.init();
+		service.commit("A");
+		Files.write(baseDir.resolve("file0.txt"), "changed\n".getBytes());
+		service.commit("A, B");
+		Assert.assertTrue(service.getRepository().getAssociations().size() > 1);
+		service.close();
+
+		service = this.createService(baseDir);
+		service.getProperties().setProperty(EccoService.ECCO_PROPERTIES_PARALLELISM, String.valueOf(parallelism));
+		service.open();
+		Files.write(baseDir.resolve("file1.txt"), "changed\n".getBytes());
+		service.commit("A, C");
+		Assert.assertEquals(3, service.getRepository().getFeatures().size());
+		int numArtifacts = 0;
+		for (Association association : service.getRepository().getAssociations())
+			numArtifacts += association.getRootNode().countArtifacts();
+		service.close();
+
+		return numArtifacts;
+	}
+
+
+	private Path createBaseDir() throws IOException {
+		Path baseDir = Files.createTempDirectory("ecco-perst-service");
+		for (int i = 0; i < NUM_FILES; i++)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\n").getBytes());
+		return baseDir;
+	}
+
+	private EccoService createService(Path baseDir) {
+		EccoService service = new EccoService(baseDir, baseDir.resolve(".ecco"));
+		service.getProperties().setProperty(EccoService.ECCO_PROPERTIES_DATA, "at.jku.isse.ecco.perst");
+		return service;
+	}
+
+
+	@AfterTest(alwaysRun = true)
+	public void afterTest() {
+		System.out.println("AFTER");
+	}
+
+	@BeforeTest(alwaysRun = true)
+	public void beforeTest() {
+		System.out.println("BEFORE");
+	}
+
+}
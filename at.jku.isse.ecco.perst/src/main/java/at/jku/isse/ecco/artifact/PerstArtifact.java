@@ -3,6 +3,7 @@ package at.jku.isse.ecco.artifact;
 import at.jku.isse.ecco.sg.PerstSequenceGraph;
 import at.jku.isse.ecco.sg.SequenceGraph;
 import at.jku.isse.ecco.tree.Node;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.io.*;
@@ -45,6 +46,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 
 	public void setData(DataType data) {
 		this.data = data;
+		this.modify();
 
 //		try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
 //			try (ObjectOutput out = new ObjectOutputStream(bos)) {
@@ -56,8 +58,13 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 //		}
 	}
 
+	/**
+	 * Serializes the data into the buffer before the artifact is written. If the data has never been deserialized since the artifact was loaded the buffer is still up to date and is kept.
+	 */
 	@Override
-	public void store() {
+	public void onStore() {
+		if (this.data == null)
+			return;
 		try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
 			try (ObjectOutput out = new ObjectOutputStream(bos)) {
 				out.writeObject(this.data);
@@ -66,7 +73,6 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		super.store();
 	}
 
 
@@ -157,6 +163,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 	@Override
 	public void setUseReferencesInEquals(boolean useReferenesInEquals) {
 		this.useReferencesInEquals = useReferenesInEquals;
+		this.modify();
 	}
 
 	@Override
@@ -167,6 +174,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 	@Override
 	public void setAtomic(boolean atomic) {
 		this.atomic = atomic;
+		this.modify();
 	}
 
 	@Override
@@ -177,6 +185,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 	@Override
 	public void setOrdered(boolean ordered) {
 		this.ordered = ordered;
+		this.modify();
 	}
 
 	@Override
@@ -187,6 +196,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 	@Override
 	public void setSequenceGraph(SequenceGraph.Op sequenceGraph) {
 		this.sequenceGraph = sequenceGraph;
+		this.modify();
 	}
 
 	@Override
@@ -197,6 +207,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 	@Override
 	public void setSequenceNumber(int sequenceNumber) {
 		this.sequenceNumber = sequenceNumber;
+		this.modify();
 	}
 
 	@Override
@@ -249,6 +260,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 	@Override
 	public void setContainingNode(final Node.Op node) {
 		containingNode = node;
+		this.modify();
 	}
 
 
@@ -259,12 +271,12 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 
 	@Override
 	public List<ArtifactReference.Op> getUsedBy() {
-		return usedBy;
+		return TrackedCollections.list(this::modify, this.usedBy);
 	}
 
 	@Override
 	public List<ArtifactReference.Op> getUses() {
-		return uses;
+		return TrackedCollections.list(this::modify, this.uses);
 	}
 
 	@Override
@@ -277,6 +289,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 		checkNotNull(reference);
 
 		this.uses.add(reference);
+		this.modify();
 	}
 
 	@Override
@@ -284,6 +297,7 @@ public class PerstArtifact<DataType extends ArtifactData> extends Persistent imp
 		checkNotNull(reference);
 
 		this.usedBy.add(reference);
+		this.modify();
 	}
 
 	@Override
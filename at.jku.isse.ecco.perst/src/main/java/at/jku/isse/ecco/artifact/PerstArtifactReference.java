@@ -52,6 +52,7 @@ public class PerstArtifactReference extends Persistent implements ArtifactRefere
 		checkNotNull(source);
 
 		this.source = source;
+		this.modify();
 	}
 
 	@Override
@@ -59,6 +60,7 @@ public class PerstArtifactReference extends Persistent implements ArtifactRefere
 		checkNotNull(target);
 
 		this.target = target;
+		this.modify();
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import at.jku.isse.ecco.module.Module;
 import at.jku.isse.ecco.module.ModuleFeature;
 import at.jku.isse.ecco.module.PresenceCondition;
 import at.jku.isse.ecco.tree.RootNode;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.*;
@@ -29,6 +30,7 @@ public class PerstAssociation extends Persistent implements Association, Associa
 	private Set<Module> modules = new HashSet<>();
 	private Map<ModuleFeature, Integer> presenceTable = new HashMap<>();
 	private int presenceCount;
+	private long revision;
 
 	public PerstAssociation() {
 		//this.id = id;
@@ -43,16 +45,17 @@ public class PerstAssociation extends Persistent implements Association, Associa
 	@Override
 	public void setPresenceCondition(PresenceCondition presenceCondition) {
 		this.presenceCondition = presenceCondition;
+		this.modify();
 	}
 
 	@Override
 	public Set<Module> getModules() {
-		return this.modules;
+		return TrackedCollections.set(this::modify, this.modules);
 	}
 
 	@Override
 	public Map<ModuleFeature, Integer> getPresenceTable() {
-		return this.presenceTable;
+		return TrackedCollections.map(this::modify, this.presenceTable);
 	}
 
 	@Override
@@ -62,42 +65,48 @@ public class PerstAssociation extends Persistent implements Association, Associa
 
 	@Override
 	public int incPresenceCount() {
+		this.modify();
 		return (++this.presenceCount);
 	}
 
 	@Override
 	public int incPresenceCount(int val) {
+		this.modify();
 		return (this.presenceCount += val);
 	}
 
 	@Override
 	public List<Association> getParents() {
-		return this.parents;
+		return TrackedCollections.list(this::modify, this.parents);
 	}
 
 	@Override
 	public void addParent(Association parent) {
 		this.parents.add(parent);
+		this.modify();
 	}
 
 	@Override
 	public void removeParent(Association parent) {
-		this.parents.remove(parent);
+		if (this.parents.remove(parent))
+			this.modify();
 	}
 
 	@Override
 	public Collection<Association> getChildren() {
-		return this.children;
+		return TrackedCollections.list(this::modify, this.children);
 	}
 
 	@Override
 	public void addChild(Association child) {
 		this.children.add(child);
+		this.modify();
 	}
 
 	@Override
 	public void removeChild(Association child) {
-		this.children.remove(child);
+		if (this.children.remove(child))
+			this.modify();
 	}
 
 	@Override
@@ -108,6 +117,7 @@ public class PerstAssociation extends Persistent implements Association, Associa
 	@Override
 	public void setId(final String id) {
 		this.id = id;
+		this.modify();
 	}
 
 	@Override
@@ -120,6 +130,20 @@ public class PerstAssociation extends Persistent implements Association, Associa
 		checkNotNull(name);
 
 		this.name = name;
+		this.modify();
+	}
+
+	@Override
+	public long getRevision() {
+		return this.revision;
+	}
+
+	@Override
+	public void setRevision(long revision) {
+		if (this.revision != revision) {
+			this.revision = revision;
+			this.modify();
+		}
 	}
 
 	@Override
@@ -130,6 +154,7 @@ public class PerstAssociation extends Persistent implements Association, Associa
 	@Override
 	public void setRootNode(final RootNode.Op root) {
 		this.rootNode = root;
+		this.modify();
 		root.setContainingAssociation(this);
 	}
 
@@ -38,6 +38,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void setId(int id) {
 		this.id = id;
+		this.modify();
 	}
 
 	@Override
@@ -48,6 +49,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void setConfiguration(Configuration configuration) {
 		this.configuration = configuration;
+		this.modify();
 	}
 
 	@Override
@@ -58,6 +60,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void addAssociation(Association association) {
 		this.associations.add(association);
+		this.modify();
 	}
 
 	@Override
@@ -68,6 +71,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void setCommitter(String committer) {
 		this.committer = committer;
+		this.modify();
 	}
 
 
@@ -79,6 +83,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void addUnmodified(Association association) {
 		this.unmodifiedAssociations.add(association);
+		this.modify();
 	}
 
 	@Override
@@ -89,6 +94,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void addRemoved(Association association) {
 		this.removedAssociations.add(association);
+		this.modify();
 	}
 
 	@Override
@@ -99,6 +105,7 @@ public class PerstCommit extends Persistent implements Commit {
 	@Override
 	public void addNew(Association association) {
 		this.newAssociations.add(association);
+		this.modify();
 	}
 
 }
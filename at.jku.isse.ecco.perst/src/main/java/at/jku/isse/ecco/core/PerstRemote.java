@@ -1,6 +1,7 @@
 package at.jku.isse.ecco.core;
 
 import at.jku.isse.ecco.feature.Feature;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.ArrayList;
@@ -14,6 +15,9 @@ public class PerstRemote extends Persistent implements Remote {
 
 	private Collection<Feature> features;
 
+	private long pulledRevision = 0;
+	private String pulledDeselection = "";
+
 
 	public PerstRemote() {
 		this("", "", Type.LOCAL);
@@ -35,6 +39,7 @@ public class PerstRemote extends Persistent implements Remote {
 	@Override
 	public void setName(String name) {
 		this.name = name;
+		this.modify();
 	}
 
 	@Override
@@ -45,6 +50,7 @@ public class PerstRemote extends Persistent implements Remote {
 	@Override
 	public void setAddress(String address) {
 		this.address = address;
+		this.modify();
 	}
 
 	@Override
@@ -55,11 +61,29 @@ public class PerstRemote extends Persistent implements Remote {
 	@Override
 	public void setType(Type type) {
 		this.type = type;
+		this.modify();
 	}
 
 	@Override
 	public Collection<Feature> getFeatures() {
-		return this.features;
+		return TrackedCollections.collection(this::modify, this.features);
+	}
+
+	@Override
+	public long getPulledRevision() {
+		return this.pulledRevision;
+	}
+
+	@Override
+	public String getPulledDeselection() {
+		return this.pulledDeselection;
+	}
+
+	@Override
+	public void setPulled(long revision, String deselection) {
+		this.pulledRevision = revision;
+		this.pulledDeselection = deselection;
+		this.modify();
 	}
 
 
@@ -24,6 +24,7 @@ public class PerstVariant extends Persistent implements Variant {
 	@Override
 	public void setName(String name) {
 		this.name = name;
+		this.modify();
 	}
 
 	@Override
@@ -34,6 +35,7 @@ public class PerstVariant extends Persistent implements Variant {
 	@Override
 	public void setDescription(String description) {
 		this.description = description;
+		this.modify();
 	}
 
 	@Override
@@ -44,6 +46,7 @@ public class PerstVariant extends Persistent implements Variant {
 	@Override
 	public void setConfiguration(Configuration configuration) {
 		this.configuration = configuration;
+		this.modify();
 	}
 
 }
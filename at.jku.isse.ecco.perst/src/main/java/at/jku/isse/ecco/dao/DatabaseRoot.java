@@ -46,6 +46,7 @@ public class DatabaseRoot extends Persistent {
 	 * @param variantIndex     used to index {@link PerstVariant}
 	 */
 	public DatabaseRoot(final FieldIndex<PerstAssociation> associationIndex, final FieldIndex<PerstFeature> featureIndex, final FieldIndex<PerstCommit> commitIndex, final FieldIndex<PerstVariant> variantIndex, final FieldIndex<PerstRemote> remoteIndex) {
+		checkNotNull(associationIndex);
 		checkNotNull(commitIndex);
 		checkNotNull(variantIndex);
 		checkNotNull(remoteIndex);
@@ -54,7 +55,7 @@ public class DatabaseRoot extends Persistent {
 		this.variantIndex = variantIndex;
 		this.remoteIndex = remoteIndex;
 
-		this.repository = new PerstRepository();
+		this.repository = new PerstRepository(associationIndex);
 	}
 
 
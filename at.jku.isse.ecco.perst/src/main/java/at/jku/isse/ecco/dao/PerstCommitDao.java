@@ -27,13 +27,7 @@ public class PerstCommitDao extends PerstAbstractGenericDao<Commit> implements C
 
 	@Override
 	public List<Commit> loadAllCommits() throws EccoException {
-		final DatabaseRoot root = this.transactionStrategy.getDatabaseRoot();
-
-		final List<Commit> result = new ArrayList<>(root.getCommitIndex());
-
-		this.transactionStrategy.done();
-
-		return result;
+		return this.transactionStrategy.query(root -> new ArrayList<>(root.getCommitIndex()));
 	}
 
 	@Override
@@ -41,13 +35,7 @@ public class PerstCommitDao extends PerstAbstractGenericDao<Commit> implements C
 		checkNotNull(id);
 		checkArgument(!id.isEmpty(), "Expected a non empty id.");
 
-		final DatabaseRoot root = this.transactionStrategy.getDatabaseRoot();
-
-		final Commit perstCommit = root.getCommitIndex().get(id);
-
-		this.transactionStrategy.done();
-
-		return perstCommit;
+		return this.transactionStrategy.query(root -> root.getCommitIndex().get(id));
 	}
 
 	@Override
@@ -28,13 +28,7 @@ public class PerstSettingsDao extends PerstAbstractGenericDao<Feature> implement
 
 	@Override
 	public Collection<Remote> loadAllRemotes() {
-		final DatabaseRoot root = this.transactionStrategy.getDatabaseRoot();
-
-		final Set<Remote> remotes = new LinkedHashSet<>(root.getRemoteIndex());
-
-		this.transactionStrategy.done();
-
-		return remotes;
+		return this.transactionStrategy.query(root -> new LinkedHashSet<>(root.getRemoteIndex()));
 	}
 
 	@Override
@@ -42,13 +36,7 @@ public class PerstSettingsDao extends PerstAbstractGenericDao<Feature> implement
 		checkNotNull(name);
 		checkArgument(!name.isEmpty(), "Expected a non-empty name but was empty.");
 
-		final DatabaseRoot root = this.transactionStrategy.getDatabaseRoot();
-
-		final Remote remote = root.getRemoteIndex().get(name);
-
-		this.transactionStrategy.done();
-
-		return remote;
+		return this.transactionStrategy.query(root -> root.getRemoteIndex().get(name));
 	}
 
 	@Override
@@ -86,14 +74,7 @@ public class PerstSettingsDao extends PerstAbstractGenericDao<Feature> implement
 
 	@Override
 	public Map<String, String> loadPluginMap() {
-		final DatabaseRoot root = this.transactionStrategy.getDatabaseRoot();
-
-		final Map<String, String> pluginMap = new HashMap<>();
-		pluginMap.putAll(root.getPluginMap());
-
-		this.transactionStrategy.done();
-
-		return pluginMap;
+		return this.transactionStrategy.query(root -> new HashMap<>(root.getPluginMap()));
 	}
 
 	@Override
@@ -118,14 +99,7 @@ public class PerstSettingsDao extends PerstAbstractGenericDao<Feature> implement
 
 	@Override
 	public Set<String> loadIgnorePatterns() {
-		final DatabaseRoot root = this.transactionStrategy.getDatabaseRoot();
-
-		final Set<String> ignorePatterns = new HashSet<>();
-		ignorePatterns.addAll(root.getIgnorePatterns());
-
-		this.transactionStrategy.done();
-
-		return ignorePatterns;
+		return this.transactionStrategy.query(root -> new HashSet<>(root.getIgnorePatterns()));
 	}
 
 	@Override
@@ -9,22 +9,44 @@ import at.jku.isse.ecco.feature.PerstFeature;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
-import org.garret.perst.FieldIndex;
-import org.garret.perst.Storage;
-import org.garret.perst.StorageFactory;
+import org.garret.perst.*;
+import org.garret.perst.impl.OSFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @Singleton
 public class PerstTransactionStrategy implements TransactionStrategy {
 
+	protected static final Logger LOGGER = LoggerFactory.getLogger(PerstTransactionStrategy.class);
+
+	/**
+	 * Number of recently used objects that are kept in memory. Objects beyond that are only weakly referenced by the object cache and are loaded again from the database when needed.
+	 */
+	public static final int OBJECT_CACHE_SIZE = 10000;
+
 	protected final Path repositoryDir;
 	protected Storage database = null;
 	protected boolean initialized = false;
 
-	protected int numBegin = 0;
+	/**
+	 * Transactions are nested per thread, like the transactions of the storage itself.
+	 */
+	protected final ThreadLocal<Integer> numBegin = ThreadLocal.withInitial(() -> 0);
+
+	private CountingFile file = null;
+	private final CountingListener listener = new CountingListener();
+
+	private long storedObjectsAtBegin = 0;
+	private long writtenBytesAtBegin = 0;
+	private long lastStoredObjects = 0;
+	private long lastWrittenBytes = 0;
 
 	@Inject
 	public PerstTransactionStrategy(@Named("repositoryDir") final Path repositoryDir) {
@@ -34,7 +56,13 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 	}
 
 
-	private DatabaseRoot currentDatabaseRoot = null;
+	private final ThreadLocal<DatabaseRoot> currentDatabaseRoot = new ThreadLocal<>();
+	private final ThreadLocal<Boolean> currentReadOnly = ThreadLocal.withInitial(() -> false);
+
+	/**
+	 * The storages in which the current thread is inside a transaction, with the nesting depth. {@link Storage#isInsideThreadTransaction()} cannot be used for this in multi-client mode, because it also returns true while any other thread is inside a transaction.
+	 */
+	private static final ThreadLocal<Map<Storage, Integer>> TRANSACTIONS = ThreadLocal.withInitial(IdentityHashMap::new);
 
 
 	@Override
@@ -45,6 +73,10 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 			// enable multiclient access
 			this.database.setProperty("perst.multiclient.support", Boolean.TRUE);
 
+			// bounded object cache with LRU eviction
+			this.database.setProperty("perst.object.cache.kind", "lru");
+			this.database.setProperty("perst.object.cache.init.size", OBJECT_CACHE_SIZE);
+
 			String connectionString = this.repositoryDir.resolve("ecco.db").toString();
 
 			this.database.open(connectionString);
@@ -56,8 +88,12 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 			this.database.close();
 
 			// open database and keep it open
-			this.database.open(connectionString);
-			this.currentDatabaseRoot = null;
+			this.file = new CountingFile(new OSFile(connectionString, false, false));
+			this.database.open(this.file);
+			this.database.setListener(this.listener);
+			this.numBegin.remove();
+			this.currentReadOnly.remove();
+			this.currentDatabaseRoot.remove();
 
 			this.initialized = true;
 		}
@@ -69,7 +105,9 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 			if (this.database.isOpened())
 				this.database.close();
 
-			this.currentDatabaseRoot = null;
+			this.numBegin.remove();
+			this.currentReadOnly.remove();
+			this.currentDatabaseRoot.remove();
 
 			this.initialized = false;
 		}
@@ -91,45 +129,58 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 	}
 
 
+	/**
+	 * Begins a read-write transaction. Read-write transactions are exclusive, they wait until all other transactions (of this and other clients of the database) have ended and block all others until they end.
+	 */
 	@Override
 	public void begin() throws EccoException {
-		this.checkInitialized();
-
-		this.numBegin++;
-
-		if (this.currentDatabaseRoot == null) {
-			this.database.beginThreadTransaction(Storage.EXCLUSIVE_TRANSACTION);
+		this.begin(false);
+	}
 
-			this.currentDatabaseRoot = this.database.getRoot();
-		} else {
-			//throw new EccoException("Transaction is already in progress.");
-			// do nothing
-		}
+	/**
+	 * Begins a read-only transaction. Read-only transactions only hold a shared lock, so any number of them (of this and other clients of the database) can run at the same time.
+	 */
+	@Override
+	public void beginReadOnly() throws EccoException {
+		this.begin(true);
 	}
 
-	public void beginReadOnly() {
+	private void begin(boolean readOnly) throws EccoException {
+		this.checkInitialized();
 
-	}
+		if (this.currentDatabaseRoot.get() == null) {
+			this.database.beginThreadTransaction(readOnly ? Storage.READ_ONLY_TRANSACTION : Storage.EXCLUSIVE_TRANSACTION);
+			enter(this.database);
+			if (!readOnly) {
+				this.storedObjectsAtBegin = this.listener.storedObjects;
+				this.writtenBytesAtBegin = this.file.writtenBytes;
+			}
 
-	public void beginReadWrite() {
+			this.currentReadOnly.set(readOnly);
+			this.currentDatabaseRoot.set(this.database.getRoot());
+		} else if (!readOnly && this.currentReadOnly.get()) {
+			throw new EccoException("Cannot begin a read-write transaction inside a read-only transaction.");
+		}
 
+		this.numBegin.set(this.numBegin.get() + 1);
 	}
 
-	// TODO: improve transactions!
-
 	@Override
 	public void end() throws EccoException {
 		this.checkInitialized();
 
-		if (this.currentDatabaseRoot == null) { // no explicit transaction
+		if (this.currentDatabaseRoot.get() == null) { // no explicit transaction
 			throw new EccoException("No transaction in progress.");
 		} else { // explicit transaction
-			this.numBegin--;
+			this.numBegin.set(this.numBegin.get() - 1);
 
-			if (this.numBegin == 0) {
+			if (this.numBegin.get() == 0) {
+				leave(this.database);
 				this.database.endThreadTransaction();
+				if (!this.currentReadOnly.get())
+					this.report();
 
-				this.currentDatabaseRoot = null;
+				this.currentDatabaseRoot.remove();
 			}
 		}
 	}
@@ -138,15 +189,20 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 	public void rollback() throws EccoException {
 		this.checkInitialized();
 
-		if (this.currentDatabaseRoot == null) { // no explicit transaction
+		if (this.currentDatabaseRoot.get() == null) { // no explicit transaction
 			throw new EccoException("No transaction in progress.");
 		} else { // explicit transaction
-			this.numBegin--;
+			this.numBegin.set(this.numBegin.get() - 1);
 
-			if (this.numBegin == 0) {
-				this.database.rollbackThreadTransaction();
+			if (this.numBegin.get() == 0) {
+				leave(this.database);
+				// there is nothing to undo for a read-only transaction, and rolling back would discard the objects that other read-only transactions are using
+				if (this.currentReadOnly.get())
+					this.database.endThreadTransaction();
+				else
+					this.database.rollbackThreadTransaction();
 
-				this.currentDatabaseRoot = null;
+				this.currentDatabaseRoot.remove();
 			}
 		}
 	}
@@ -155,16 +211,184 @@ public class PerstTransactionStrategy implements TransactionStrategy {
 	protected DatabaseRoot getDatabaseRoot() throws EccoException {
 		this.checkInitialized();
 
-		if (this.currentDatabaseRoot == null) { // no explicit transaction
+		DatabaseRoot currentDatabaseRoot = this.currentDatabaseRoot.get();
+		if (currentDatabaseRoot == null) { // no explicit transaction
 			return this.database.getRoot();
 		} else { // explicit transaction
-			return this.currentDatabaseRoot;
+			return currentDatabaseRoot;
+		}
+	}
+
+	/**
+	 * Runs the given query on the database root. If there is no explicit transaction in progress the query runs in a read-only transaction of its own.
+	 *
+	 * @param query The query.
+	 * @param <T>   The type of the result.
+	 * @return The result of the query.
+	 */
+	protected <T> T query(Function<DatabaseRoot, T> query) throws EccoException {
+		this.checkInitialized();
+
+		DatabaseRoot currentDatabaseRoot = this.currentDatabaseRoot.get();
+		if (currentDatabaseRoot == null) { // no explicit transaction
+			this.beginReadOnly();
+			try {
+				T result = query.apply(this.currentDatabaseRoot.get());
+				this.end();
+				return result;
+			} catch (RuntimeException e) {
+				this.rollback();
+				throw e;
+			}
+		} else { // explicit transaction
+			return query.apply(currentDatabaseRoot);
 		}
 	}
 
 	protected void done() {
-		if (this.currentDatabaseRoot == null) { // no explicit transaction
+		if (this.currentDatabaseRoot.get() == null) { // no explicit transaction
+			this.storedObjectsAtBegin = this.listener.storedObjects;
+			this.writtenBytesAtBegin = this.file.writtenBytes;
 			this.database.commit();
+			this.report();
+		} else if (this.currentReadOnly.get()) {
+			throw new EccoException("Cannot modify the database in a read-only transaction.");
+		}
+	}
+
+
+	/**
+	 * Loads the given object if it is not loaded yet. In multi-client mode objects can only be loaded inside a transaction. Objects that are loaded on demand may be accessed after the transaction in which they were retrieved has ended, in that case they are loaded in a read-only transaction of their own.
+	 *
+	 * @param object The object to load.
+	 */
+	public static void load(IPersistent object) {
+		if (object.isRaw())
+			read(object.getStorage(), object::load);
+	}
+
+	/**
+	 * Runs the given action inside a read-only transaction unless the current thread is already inside a transaction.
+	 *
+	 * @param storage The storage.
+	 * @param action  The action.
+	 */
+	public static void read(Storage storage, Runnable action) {
+		if (storage == null || isInsideTransaction(storage)) {
+			action.run();
+		} else {
+			storage.beginThreadTransaction(Storage.READ_ONLY_TRANSACTION);
+			enter(storage);
+			try {
+				action.run();
+			} finally {
+				leave(storage);
+				storage.endThreadTransaction();
+			}
+		}
+	}
+
+	/**
+	 * @param storage The storage.
+	 * @return True if the current thread is inside a transaction of the given storage.
+	 */
+	public static boolean isInsideTransaction(Storage storage) {
+		return TRANSACTIONS.get().containsKey(storage);
+	}
+
+	private static void enter(Storage storage) {
+		TRANSACTIONS.get().merge(storage, 1, Integer::sum);
+	}
+
+	private static void leave(Storage storage) {
+		TRANSACTIONS.get().computeIfPresent(storage, (key, depth) -> depth > 1 ? depth - 1 : null);
+	}
+
+
+	/**
+	 * @return The number of objects that were written by the last committed transaction.
+	 */
+	public long getLastStoredObjects() {
+		return this.lastStoredObjects;
+	}
+
+	/**
+	 * @return The number of bytes that were written to the database file by the last committed transaction.
+	 */
+	public long getLastWrittenBytes() {
+		return this.lastWrittenBytes;
+	}
+
+	private void report() {
+		this.lastStoredObjects = this.listener.storedObjects - this.storedObjectsAtBegin;
+		this.lastWrittenBytes = this.file.writtenBytes - this.writtenBytesAtBegin;
+		if (this.lastStoredObjects > 0)
+			LOGGER.info("Committed transaction: stored " + this.lastStoredObjects + " objects, wrote " + this.lastWrittenBytes + " bytes.");
+	}
+
+
+	/**
+	 * Counts the objects that are written.
+	 */
+	private static class CountingListener extends StorageListener {
+		private long storedObjects = 0;
+
+		@Override
+		public void onObjectStore(Object obj) {
+			this.storedObjects++;
+		}
+	}
+
+	/**
+	 * Database file that counts the bytes that are written to it.
+	 */
+	private static class CountingFile implements IFile {
+		private final IFile file;
+		private long writtenBytes = 0;
+
+		private CountingFile(IFile file) {
+			this.file = file;
+		}
+
+		@Override
+		public void write(long pos, byte[] buf) {
+			this.file.write(pos, buf);
+			this.writtenBytes += buf.length;
+		}
+
+		@Override
+		public int read(long pos, byte[] buf) {
+			return this.file.read(pos, buf);
+		}
+
+		@Override
+		public void sync() {
+			this.file.sync();
+		}
+
+		@Override
+		public boolean tryLock(boolean shared) {
+			return this.file.tryLock(shared);
+		}
+
+		@Override
+		public void lock(boolean shared) {
+			this.file.lock(shared);
+		}
+
+		@Override
+		public void unlock() {
+			this.file.unlock();
+		}
+
+		@Override
+		public void close() {
+			this.file.close();
+		}
+
+		@Override
+		public long length() {
+			return this.file.length();
 		}
 	}
 
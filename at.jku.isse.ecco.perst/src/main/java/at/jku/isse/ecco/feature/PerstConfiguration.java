@@ -4,6 +4,7 @@ import at.jku.isse.ecco.module.Module;
 import at.jku.isse.ecco.module.ModuleFeature;
 import at.jku.isse.ecco.module.PerstModule;
 import at.jku.isse.ecco.module.PerstModuleFeature;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.ArrayList;
@@ -31,17 +32,19 @@ public class PerstConfiguration extends Persistent implements Configuration, Con
 
 	@Override
 	public Set<FeatureInstance> getFeatureInstances() {
-		return this.featureInstances;
+		return TrackedCollections.set(this::modify, this.featureInstances);
 	}
 
 	@Override
 	public void addFeatureInstance(FeatureInstance featureInstance) {
-		this.featureInstances.add(featureInstance);
+		if (this.featureInstances.add(featureInstance))
+			this.modify();
 	}
 
 	@Override
 	public void removeFeatureInstance(FeatureInstance featureInstance) {
-		this.featureInstances.remove(featureInstance);
+		if (this.featureInstances.remove(featureInstance))
+			this.modify();
 	}
 
 	@Override
@@ -90,4 +93,14 @@ public class PerstConfiguration extends Persistent implements Configuration, Con
 		return this.operator.computeModules(maxOrder);
 	}
 
+	@Override
+	public Iterable<Module> modules(int maxOrder) {
+		return this.operator.modules(maxOrder);
+	}
+
+	@Override
+	public boolean containsModule(Module module, int maxOrder) {
+		return this.operator.containsModule(module, maxOrder);
+	}
+
 }
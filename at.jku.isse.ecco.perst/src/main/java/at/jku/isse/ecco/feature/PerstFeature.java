@@ -1,5 +1,6 @@
 package at.jku.isse.ecco.feature;
 
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.ArrayList;
@@ -47,7 +48,7 @@ public class PerstFeature extends Persistent implements Feature {
 
 	@Override
 	public List<PerstFeatureVersion> getVersions() {
-		return this.versions;
+		return TrackedCollections.list(this::modify, this.versions);
 	}
 
 	@Override
@@ -55,6 +56,7 @@ public class PerstFeature extends Persistent implements Feature {
 		PerstFeatureVersion featureVersion = new PerstFeatureVersion(this, id);
 		if (!this.versions.contains(featureVersion)) {
 			this.versions.add(featureVersion);
+			this.modify();
 //			if (this.nextVersion <= version)
 //				this.nextVersion = version + 1;
 			return featureVersion;
@@ -83,6 +85,7 @@ public class PerstFeature extends Persistent implements Feature {
 		PerstFeatureVersion featureVersion = new PerstFeatureVersion(this, UUID.randomUUID().toString());
 //		this.nextVersion++;
 		this.versions.add(featureVersion);
+		this.modify();
 		return featureVersion;
 	}
 
@@ -97,6 +100,7 @@ public class PerstFeature extends Persistent implements Feature {
 		checkArgument(!name.isEmpty(), "Expected a non-empty name but was empty.");
 
 		this.name = name;
+		this.modify();
 	}
 
 	@Override
@@ -109,6 +113,7 @@ public class PerstFeature extends Persistent implements Feature {
 		checkNotNull(description);
 
 		this.description = description;
+		this.modify();
 	}
 
 	@Override
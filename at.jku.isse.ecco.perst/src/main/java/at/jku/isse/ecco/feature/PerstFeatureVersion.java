@@ -72,6 +72,7 @@ public class PerstFeatureVersion extends Persistent implements FeatureVersion {
 	@Override
 	public void setDescription(String description) {
 		this.description = description;
+		this.modify();
 	}
 
 
@@ -4,6 +4,7 @@ import at.jku.isse.ecco.feature.Configuration;
 import at.jku.isse.ecco.feature.Feature;
 import at.jku.isse.ecco.feature.FeatureInstance;
 import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.Collection;
@@ -120,7 +121,7 @@ public class PerstModule extends Persistent implements Module {
 
 	@Override
 	public Iterator<ModuleFeature> iterator() {
-		return this.moduleFeatures.iterator();
+		return TrackedCollections.iterator(this::modify, this.moduleFeatures.iterator());
 	}
 
 	@Override
@@ -135,12 +136,12 @@ public class PerstModule extends Persistent implements Module {
 
 	@Override
 	public boolean add(ModuleFeature moduleFeature) {
-		return this.moduleFeatures.add(moduleFeature);
+		return this.changed(this.moduleFeatures.add(moduleFeature));
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		return this.moduleFeatures.remove(o);
+		return this.changed(this.moduleFeatures.remove(o));
 	}
 
 	@Override
@@ -150,22 +151,31 @@ public class PerstModule extends Persistent implements Module {
 
 	@Override
 	public boolean addAll(Collection<? extends ModuleFeature> collection) {
-		return this.moduleFeatures.addAll(collection);
+		return this.changed(this.moduleFeatures.addAll(collection));
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> collection) {
-		return this.moduleFeatures.retainAll(collection);
+		return this.changed(this.moduleFeatures.retainAll(collection));
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> collection) {
-		return this.moduleFeatures.removeAll(collection);
+		return this.changed(this.moduleFeatures.removeAll(collection));
 	}
 
 	@Override
 	public void clear() {
-		this.moduleFeatures.clear();
+		if (!this.moduleFeatures.isEmpty()) {
+			this.moduleFeatures.clear();
+			this.modify();
+		}
+	}
+
+	private boolean changed(boolean changed) {
+		if (changed)
+			this.modify();
+		return changed;
 	}
 
 }
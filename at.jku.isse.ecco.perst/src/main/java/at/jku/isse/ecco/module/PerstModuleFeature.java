@@ -2,6 +2,7 @@ package at.jku.isse.ecco.module;
 
 import at.jku.isse.ecco.feature.Feature;
 import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.Collection;
@@ -93,7 +94,7 @@ public class PerstModuleFeature extends Persistent implements ModuleFeature {
 
 	@Override
 	public Iterator<FeatureVersion> iterator() {
-		return this.featureVersions.iterator();
+		return TrackedCollections.iterator(this::modify, this.featureVersions.iterator());
 	}
 
 	@Override
@@ -108,12 +109,12 @@ public class PerstModuleFeature extends Persistent implements ModuleFeature {
 
 	@Override
 	public boolean add(FeatureVersion moduleFeature) {
-		return this.featureVersions.add(moduleFeature);
+		return this.changed(this.featureVersions.add(moduleFeature));
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		return this.featureVersions.remove(o);
+		return this.changed(this.featureVersions.remove(o));
 	}
 
 	@Override
@@ -123,23 +124,32 @@ public class PerstModuleFeature extends Persistent implements ModuleFeature {
 
 	@Override
 	public boolean addAll(Collection<? extends FeatureVersion> collection) {
-		return this.featureVersions.addAll(collection);
+		return this.changed(this.featureVersions.addAll(collection));
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> collection) {
-		return this.featureVersions.retainAll(collection);
+		return this.changed(this.featureVersions.retainAll(collection));
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> collection) {
-		return this.featureVersions.removeAll(collection);
+		return this.changed(this.featureVersions.removeAll(collection));
 	}
 
 	@Override
 	public void clear() {
-		this.featureVersions.clear();
+		if (!this.featureVersions.isEmpty()) {
+			this.featureVersions.clear();
+			this.modify();
+		}
 	}
 
 
+	private boolean changed(boolean changed) {
+		if (changed)
+			this.modify();
+		return changed;
+	}
+
 }
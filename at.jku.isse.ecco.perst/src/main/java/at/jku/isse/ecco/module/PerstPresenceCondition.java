@@ -2,6 +2,7 @@ package at.jku.isse.ecco.module;
 
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.feature.*;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.*;
@@ -99,22 +100,22 @@ public class PerstPresenceCondition extends Persistent implements PresenceCondit
 
 	@Override
 	public Set<Module> getMinModules() {
-		return this.minModules;
+		return TrackedCollections.set(this::modify, this.minModules);
 	}
 
 	@Override
 	public Set<Module> getMaxModules() {
-		return this.maxModules;
+		return TrackedCollections.set(this::modify, this.maxModules);
 	}
 
 	@Override
 	public Set<Module> getNotModules() {
-		return this.notModules;
+		return TrackedCollections.set(this::modify, this.notModules);
 	}
 
 	@Override
 	public Set<Module> getAllModules() {
-		return this.allModules;
+		return TrackedCollections.set(this::modify, this.allModules);
 	}
 
 	@Override
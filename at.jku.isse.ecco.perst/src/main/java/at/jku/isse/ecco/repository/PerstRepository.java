@@ -6,16 +6,20 @@ import at.jku.isse.ecco.core.Commit;
 import at.jku.isse.ecco.core.PerstAssociation;
 import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.dao.PerstEntityFactory;
+import at.jku.isse.ecco.dao.PerstTransactionStrategy;
 import at.jku.isse.ecco.feature.Configuration;
 import at.jku.isse.ecco.feature.Feature;
 import at.jku.isse.ecco.feature.FeatureVersion;
 import at.jku.isse.ecco.feature.PerstFeature;
 import at.jku.isse.ecco.tree.Node;
+import org.garret.perst.FieldIndex;
+import org.garret.perst.IPersistent;
 import org.garret.perst.Persistent;
 
 import java.util.*;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Memory implementation of {@link Repository}.
@@ -29,12 +33,17 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 
 
 	private Map<String, PerstFeature> features;
+	/**
+	 * Either an in-memory list or, for the repository of a database, an index that is paged in on demand.
+	 */
 	private Collection<PerstAssociation> associations;
 
 	private EntityFactory entityFactory;
 
 	private int maxOrder = 5;
 
+	private long revision = 0;
+
 
 	public PerstRepository() {
 		this.features = new HashMap<>();
@@ -45,12 +54,29 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 		this.operator = new RepositoryOperator(this);
 	}
 
+	/**
+	 * Creates a repository that keeps its associations in the given index instead of in memory. Associations and their artifact trees are then only loaded when they are accessed.
+	 *
+	 * @param associationIndex The index of associations by id.
+	 */
+	public PerstRepository(FieldIndex<PerstAssociation> associationIndex) {
+		this();
+		checkNotNull(associationIndex);
+
+		this.associations = associationIndex;
+	}
+
 
 	@Override
 	public Commit extract(Configuration configuration, Set<Node.Op> nodes) {
 		return this.operator.extract(configuration, nodes);
 	}
 
+	@Override
+	public Commit extract(Configuration configuration, Set<Node.Op> nodes, Collection<? extends Association> unmodifiedAssociations) {
+		return this.operator.extract(configuration, nodes, unmodifiedAssociations);
+	}
+
 	@Override
 	public Checkout compose(Configuration configuration) {
 		return this.operator.compose(configuration);
@@ -61,6 +87,11 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 		return this.operator.subset(deselected, maxOrder, entityFactory);
 	}
 
+	@Override
+	public Op subset(Collection<FeatureVersion> deselected, int maxOrder, EntityFactory entityFactory, long sinceRevision) {
+		return this.operator.subset(deselected, maxOrder, entityFactory, sinceRevision);
+	}
+
 	@Override
 	public Op copy(EntityFactory entityFactory) {
 		return this.operator.copy(entityFactory);
@@ -81,6 +112,12 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 	@Override
 	public Collection<PerstAssociation> getAssociations() {
 		//return new ArrayList<>(this.associations);
+		if (this.associations instanceof IPersistent && !PerstTransactionStrategy.isInsideTransaction(this.getStorage())) {
+			// the index cannot be paged in outside of a transaction, so take a snapshot
+			List<PerstAssociation> associations = new ArrayList<>();
+			PerstTransactionStrategy.read(this.getStorage(), () -> associations.addAll(this.associations));
+			return Collections.unmodifiableCollection(associations);
+		}
 		return Collections.unmodifiableCollection(this.associations);
 	}
 
@@ -99,6 +136,7 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 	public Feature addFeature(String id, String name, String description) {
 		PerstFeature feature = new PerstFeature(id, name, description);
 		this.features.put(feature.getId(), feature);
+		this.modify();
 		return feature;
 	}
 
@@ -106,12 +144,23 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 	@Override
 	public void addAssociation(Association.Op association) {
 		checkArgument(association instanceof PerstAssociation);
-		this.associations.add((PerstAssociation) association);
+		PerstAssociation perstAssociation = (PerstAssociation) association;
+		// the index requires a unique id
+		if (perstAssociation.getId() == null)
+			perstAssociation.setId(UUID.randomUUID().toString());
+		if (!this.associations.add(perstAssociation)) {
+			perstAssociation.setId(UUID.randomUUID().toString());
+			this.associations.add(perstAssociation);
+		}
+		this.modify();
 	}
 
 	@Override
 	public void removeAssociation(Association.Op association) {
-		this.associations.remove(association);
+		if (this.associations.contains(association)) {
+			this.associations.remove(association);
+			this.modify();
+		}
 	}
 
 
@@ -123,6 +172,28 @@ public class PerstRepository extends Persistent implements Repository, Repositor
 	@Override
 	public void setMaxOrder(int maxOrder) {
 		this.maxOrder = maxOrder;
+		this.modify();
+	}
+
+	@Override
+	public long getRevision() {
+		return this.revision;
+	}
+
+	@Override
+	public void setRevision(long revision) {
+		this.revision = revision;
+		this.modify();
+	}
+
+	@Override
+	public int getParallelism() {
+		return this.operator.getParallelism();
+	}
+
+	@Override
+	public void setParallelism(int parallelism) {
+		this.operator.setParallelism(parallelism);
 	}
 
 	@Override
@@ -51,11 +51,21 @@ public class PerstSequenceGraph extends Persistent implements SequenceGraph, Seq
 		this.operator.sequenceArtifacts(artifacts);
 	}
 
+	@Override
+	public void sequenceArtifacts(List<? extends Artifact.Op<?>> artifacts, AlignmentMode mode) throws EccoException {
+		this.operator.sequenceArtifacts(artifacts, mode);
+	}
+
 	@Override
 	public int[] align(List<? extends Artifact.Op<?>> artifacts) throws EccoException {
 		return this.operator.align(artifacts);
 	}
 
+	@Override
+	public int[] align(List<? extends Artifact.Op<?>> artifacts, AlignmentMode mode) throws EccoException {
+		return this.operator.align(artifacts, mode);
+	}
+
 	@Override
 	public void sequence(SequenceGraph.Op other) {
 		this.operator.sequence(other);
@@ -122,6 +132,7 @@ public class PerstSequenceGraph extends Persistent implements SequenceGraph, Seq
 	public int nextSequenceNumber() throws EccoException {
 		if (this.cur_seq_number + 1 < -1)
 			throw new EccoException("WARNING: sequence number overflow!");
+		this.modify();
 		return this.cur_seq_number++;
 	}
 
@@ -133,6 +144,7 @@ public class PerstSequenceGraph extends Persistent implements SequenceGraph, Seq
 	@Override
 	public void setCurrentSequenceNumber(int sn) {
 		this.cur_seq_number = sn;
+		this.modify();
 	}
 
 
@@ -142,6 +154,7 @@ public class PerstSequenceGraph extends Persistent implements SequenceGraph, Seq
 
 	public void setPol(boolean pol) {
 		this.pol = pol;
+		this.modify();
 	}
 
 
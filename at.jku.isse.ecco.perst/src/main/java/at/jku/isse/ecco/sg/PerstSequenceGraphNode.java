@@ -1,6 +1,7 @@
 package at.jku.isse.ecco.sg;
 
 import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.util.TrackedCollections;
 import org.garret.perst.Persistent;
 
 import java.util.HashMap;
@@ -29,11 +30,12 @@ public class PerstSequenceGraphNode extends Persistent implements SequenceGraph.
 	@Override
 	public void setPol(boolean pol) {
 		this.pol = pol;
+		this.modify();
 	}
 
 	@Override
 	public Map<Artifact.Op<?>, SequenceGraph.Node.Op> getChildren() {
-		return this.children;
+		return TrackedCollections.map(this::modify, this.children);
 	}
 
 }
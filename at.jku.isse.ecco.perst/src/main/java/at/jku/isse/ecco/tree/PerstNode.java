@@ -3,6 +3,9 @@ package at.jku.isse.ecco.tree;
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.dao.PerstTransactionStrategy;
+import at.jku.isse.ecco.util.TrackedCollections;
+import org.garret.perst.IPersistent;
 import org.garret.perst.Persistent;
 
 import java.util.*;
@@ -10,7 +13,7 @@ import java.util.*;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * A perst implementation of the node. When recursive loading for this node is disabled it will be loaded on demand as soon as any of its object members is accessed.
+ * A perst implementation of the node. Recursive loading for this node is disabled, so children and artifacts are only loaded on demand as soon as any of their members is accessed. This way artifact trees are only paged in when they are traversed.
  *
  * @author Hannes Thaller
  * @version 1.0
@@ -45,9 +48,9 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 
 	@Override
 	public boolean isAtomic() {
-		this.load();
-		if (this.artifact != null)
-			return this.artifact.isAtomic();
+		Artifact.Op<?> artifact = this.getArtifact();
+		if (artifact != null)
+			return artifact.isAtomic();
 		else
 			return false;
 	}
@@ -66,6 +69,8 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 	@Override
 	public Artifact.Op<?> getArtifact() {
 		this.load();
+		if (this.artifact instanceof IPersistent)
+			PerstTransactionStrategy.load((IPersistent) this.artifact);
 		return artifact;
 	}
 
@@ -73,6 +78,7 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 	public void setArtifact(Artifact.Op<?> artifact) {
 		this.load();
 		this.artifact = artifact;
+		this.modify();
 	}
 
 	@Override
@@ -85,6 +91,7 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 	public void setParent(Op parent) {
 		this.load();
 		this.parent = parent;
+		this.modify();
 	}
 
 	@Override
@@ -97,6 +104,7 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 	public void setUnique(boolean unique) {
 		this.load();
 		this.unique = unique;
+		this.modify();
 	}
 
 
@@ -110,6 +118,7 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 			throw new EccoException("An equivalent child is already contained. If multiple equivalent children are allowed use an ordered node.");
 
 		this.children.add(child);
+		this.modify();
 		child.setParent(this);
 	}
 
@@ -125,7 +134,8 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 
 		this.load();
 
-		this.children.remove(child);
+		if (this.children.remove(child))
+			this.modify();
 		child.setParent(null);
 	}
 
@@ -133,7 +143,19 @@ public class PerstNode extends Persistent implements Node, Node.Op {
 	@Override
 	public List<Op> getChildren() {
 		this.load();
-		return this.children;
+		return TrackedCollections.list(this::modify, this.children);
+	}
+
+
+	@Override
+	public boolean recursiveLoading() {
+		return false;
+	}
+
+	@Override
+	public void load() {
+		if (this.isRaw())
+			PerstTransactionStrategy.read(this.getStorage(), super::load);
 	}
 
 
@@ -44,6 +44,7 @@ public class PerstRootNode extends PerstNode implements RootNode, RootNode.Op {
 	public void setContainingAssociation(Association.Op containingAssociation) {
 		this.load();
 		this.containingAssociation = containingAssociation;
+		this.modify();
 	}
 
 
@@ -3,14 +3,33 @@ package at.jku.isse.ecco.test;
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.EccoService;
 import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.dao.MemEntityFactory;
+import at.jku.isse.ecco.dao.MemTransactionStrategy;
+import at.jku.isse.ecco.dao.TransactionStrategy;
+import at.jku.isse.ecco.feature.Feature;
+import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.module.Module;
+import at.jku.isse.ecco.module.ModuleFeature;
+import at.jku.isse.ecco.net.*;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
+import at.jku.isse.ecco.plugin.artifact.PluginArtifactData;
+import at.jku.isse.ecco.repository.Repository;
+import at.jku.isse.ecco.tree.Node;
+import junit.framework.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ServiceTest {
 
@@ -133,6 +152,347 @@ public class ServiceTest {
 	}
 
 
+	@Test(groups = {"integration", "base", "service", "checkout"})
+	public void Switch_Test() throws IOException {
+		EccoService service = new EccoService();
+		service.setRepositoryDir(outputDir.resolve(Paths.get("switch_repo/.ecco")));
+		service.init();
+		service.setBaseDir(inputDir.resolve(Paths.get("V1")));
+		service.commit();
+		service.setBaseDir(inputDir.resolve(Paths.get("V2")));
+		service.commit();
+
+		// check out first variant and switch to second variant
+		Path checkoutDir = outputDir.resolve(Paths.get("switch_checkout"));
+		service.setBaseDir(checkoutDir);
+		service.checkout("A.0");
+		service.switchConfiguration("A.1, B.1");
+		Assert.assertEquals(new String(Files.readAllBytes(inputDir.resolve(Paths.get("V2/file.txt")))).trim(), new String(Files.readAllBytes(checkoutDir.resolve("file.txt"))).trim());
+
+		// modified files are not overwritten
+		Files.write(checkoutDir.resolve("file.txt"), "modified".getBytes());
+		try {
+			service.switchConfiguration("A.0");
+			Assert.fail();
+		} catch (EccoException e) {
+			// expected
+		}
+		Assert.assertEquals("modified", new String(Files.readAllBytes(checkoutDir.resolve("file.txt"))));
+
+		service.close();
+	}
+
+	@Test(groups = {"integration", "base", "service", "commit"})
+	public void Incremental_Commit_Test() throws IOException {
+		// the subtrees of the files that were not modified since the checkout are reused as they are
+		EccoService service = this.checkoutModified(outputDir.resolve(Paths.get("incremental_repo/.ecco")), outputDir.resolve(Paths.get("incremental_checkout")));
+		Set<Node> unmodifiedNodes = collectNodes(service.getRepository(), Paths.get("file0.txt"));
+		Assert.assertFalse(unmodifiedNodes.isEmpty());
+		service.commit("A.1, C.1");
+		Assert.assertEquals(unmodifiedNodes, collectNodes(service.getRepository(), Paths.get("file0.txt")));
+
+		// the result is the same as that of reading every file
+		EccoService fullService = this.checkoutModified(outputDir.resolve(Paths.get("full_repo/.ecco")), outputDir.resolve(Paths.get("full_checkout")));
+		Files.delete(outputDir.resolve(Paths.get("full_checkout")).resolve(EccoService.HASHES_FILE_NAME));
+		fullService.commit("A.1, C.1");
+
+		System.out.println("INCREMENTAL:");
+		for (Association a : service.getRepository().getAssociations()) {
+			System.out.println("A(" + a.getRootNode().countArtifacts() + "): " + a.getPresenceCondition().toString());
+		}
+		Assert.assertEquals(describe(fullService.getRepository()), describe(service.getRepository()));
+
+		fullService.close();
+		service.close();
+	}
+
+	/**
+	 * Commits two variants, checks out the first one into the given directory and modifies one of its files.
+	 */
+	@Test(groups = {"integration", "base", "service", "commit"})
+	public void Mem_Incremental_Commit_Test() throws IOException {
+		Path baseDir = Files.createTempDirectory("ecco-mem-service");
+		for (int i = 0; i < 200; i++)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\n").getBytes());
+
+		EccoService service = this.createMemService(baseDir);
+		service.init();
+		service.commit("A");
+		MemTransactionStrategy transactionStrategy = (MemTransactionStrategy) service.getInjector().getInstance(TransactionStrategy.class);
+		long firstStoredRecords = transactionStrategy.getLastStoredRecords();
+		long firstWrittenBytes = transactionStrategy.getLastWrittenBytes();
+		Assert.assertTrue(firstStoredRecords > 0);
+		service.close();
+
+		// a small second commit of the reopened repository only stores the records of the entities it added or changed
+		service = this.createMemService(baseDir);
+		service.open();
+		int numArtifacts = countArtifacts(service.getRepository());
+		Path smallBaseDir = Files.createTempDirectory("ecco-mem-service");
+		Files.write(smallBaseDir.resolve("other.txt"), "other\n".getBytes());
+		service.setBaseDir(smallBaseDir);
+		service.commit("B");
+		transactionStrategy = (MemTransactionStrategy) service.getInjector().getInstance(TransactionStrategy.class);
+		System.out.println("FIRST COMMIT: " + firstStoredRecords + " records, " + firstWrittenBytes + " bytes");
+		System.out.println("SECOND COMMIT: " + transactionStrategy.getLastStoredRecords() + " records, " + transactionStrategy.getLastWrittenBytes() + " bytes");
+		Assert.assertTrue(transactionStrategy.getLastStoredRecords() > 0);
+		Assert.assertTrue(transactionStrategy.getLastStoredRecords() * 4 < firstStoredRecords);
+		Assert.assertTrue(transactionStrategy.getLastWrittenBytes() * 4 < firstWrittenBytes);
+		service.close();
+
+		// both commits are stored
+		service = this.createMemService(baseDir);
+		service.open();
+		Assert.assertEquals(2, service.getRepository().getFeatures().size());
+		Assert.assertTrue(countArtifacts(service.getRepository()) > numArtifacts);
+		service.close();
+	}
+
+	@Test(groups = {"integration", "base", "service", "commit"})
+	public void Parallel_Read_Test() throws IOException {
+		// the text files are read concurrently, the java files by a reader that is not thread-safe in a single invocation
+		EccoService sequentialService = this.commitVariants(1);
+		EccoService parallelService = this.commitVariants(4);
+		Assert.assertFalse(collectNodes(parallelService.getRepository(), Paths.get("p", "A.java")).isEmpty());
+		Assert.assertFalse(collectNodes(parallelService.getRepository(), Paths.get("file0.txt")).isEmpty());
+
+		// the result is the same as that of reading one file after the other
+		Assert.assertEquals(describe(sequentialService.getRepository()), describe(parallelService.getRepository()));
+
+		sequentialService.close();
+		parallelService.close();
+	}
+
+	/**
+	 * Commits two variants of text and java files into a new repository, reading the files on the given number of threads.
+	 */
+	private EccoService commitVariants(int readParallelism) throws IOException {
+		Path baseDir = Files.createTempDirectory("ecco-parallel-service");
+		EccoService service = this.createMemService(baseDir);
+		service.getProperties().setProperty(EccoService.ECCO_PROPERTIES_READ_PARALLELISM, Integer.toString(readParallelism));
+		service.init();
+
+		Files.createDirectories(baseDir.resolve("p"));
+		for (int i = 0; i < 50; i++)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\n").getBytes());
+		Files.write(baseDir.resolve("p/A.java"), "package p;\npublic class A {\n\tprivate B b = new B();\n\tpublic int f() {\n\t\treturn this.b.g();\n\t}\n}\n".getBytes());
+		Files.write(baseDir.resolve("p/B.java"), "package p;\npublic class B {\n\tpublic int g() {\n\t\treturn 1;\n\t}\n}\n".getBytes());
+		service.commit("A.1");
+
+		for (int i = 0; i < 50; i += 2)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\nline b\n").getBytes());
+		Files.write(baseDir.resolve("p/B.java"), "package p;\npublic class B {\n\tpublic int g() {\n\t\treturn this.h();\n\t}\n\tpublic int h() {\n\t\treturn 2;\n\t}\n}\n".getBytes());
+		service.commit("A.1, B.1");
+
+		return service;
+	}
+
+	private EccoService createMemService(Path baseDir) {
+		EccoService service = new EccoService(baseDir, baseDir.resolve(".ecco"));
+		service.getProperties().setProperty(EccoService.ECCO_PROPERTIES_DATA, "at.jku.isse.ecco.mem");
+		return service;
+	}
+
+	private EccoService checkoutModified(Path repositoryDir, Path checkoutDir) throws IOException {
+		Path baseDir = Files.createTempDirectory("ecco-service");
+		EccoService service = new EccoService(baseDir, repositoryDir);
+		service.getProperties().setProperty(EccoService.ECCO_PROPERTIES_DATA, "at.jku.isse.ecco.mem");
+		service.init();
+		for (int i = 0; i < 3; i++)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\n").getBytes());
+		service.commit("A.1");
+		Files.write(baseDir.resolve("file0.txt"), "line 1\nline 0\nline b\n".getBytes());
+		Files.write(baseDir.resolve("file3.txt"), "line 3\n".getBytes());
+		service.commit("A.1, B.1");
+
+		service.setBaseDir(checkoutDir);
+		service.checkout("A.1");
+		Files.write(checkoutDir.resolve("file1.txt"), "line 1\nline c\n".getBytes());
+		return service;
+	}
+
+
+	@Test(groups = {"integration", "base", "service", "remote"})
+	public void Remote_Test() throws IOException, InterruptedException {
+		int port = 3427;
+
+		// create parent repo and serve it
+		EccoService parentService = new EccoService();
+		parentService.setRepositoryDir(outputDir.resolve(Paths.get("remote_parent_repo/.ecco")));
+		parentService.init();
+		parentService.setBaseDir(inputDir.resolve(Paths.get("V1")));
+		parentService.commit();
+
+		Thread serverThread = new Thread(() -> parentService.startServer(port));
+		serverThread.start();
+		while (!parentService.serverRunning())
+			Thread.sleep(10);
+
+		EccoService service = new EccoService();
+		service.setRepositoryDir(outputDir.resolve(Paths.get("remote_forked_repo/.ecco")));
+		try {
+			// fork child repo from served parent
+			service.fork("localhost", port);
+			System.out.println("OUTPUT1:");
+			for (Association a : service.getRepository().getAssociations()) {
+				System.out.println("A(" + a.getRootNode().countArtifacts() + "): " + a.getPresenceCondition().toString());
+			}
+			Assert.assertEquals(parentService.getRepository().getAssociations().size(), service.getRepository().getAssociations().size());
+
+			// commit second variant to parent and pull it
+			parentService.setBaseDir(inputDir.resolve(Paths.get("V2")));
+			parentService.commit();
+			service.pull("origin");
+			System.out.println("OUTPUT2:");
+			for (Association a : service.getRepository().getAssociations()) {
+				System.out.println("A(" + a.getRootNode().countArtifacts() + "): " + a.getPresenceCondition().toString());
+			}
+			Assert.assertEquals(countArtifacts(parentService.getRepository()), countArtifacts(service.getRepository()));
+			Assert.assertEquals(((Repository.Op) parentService.getRepository()).getRevision(), service.getRemote("origin").getPulledRevision());
+
+			// pull again without changes, which only transfers the changed associations
+			service.pull("origin");
+			Assert.assertEquals(countArtifacts(parentService.getRepository()), countArtifacts(service.getRepository()));
+
+			// push back to parent and fetch its features
+			service.push("origin");
+			service.fetch("origin");
+			Assert.assertEquals(parentService.getRepository().getFeatures().size(), service.getRemote("origin").getFeatures().size());
+		} finally {
+			parentService.stopServer();
+			serverThread.join();
+		}
+
+		service.close();
+		parentService.close();
+	}
+
+
+	@Test(groups = {"benchmark", "base", "service"})
+	public void Mixed_Load_Benchmark() throws IOException, InterruptedException {
+		Path baseDir = Files.createTempDirectory("ecco-load");
+		for (int i = 0; i < 50; i++)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\n").getBytes());
+
+		EccoService service = new EccoService(baseDir, baseDir.resolve(".ecco"));
+		service.init();
+		service.commit("A");
+		service.commit("A, B");
+
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+			// readers list features, commits and associations while a writer commits from time to time
+			AtomicLong reads = new AtomicLong();
+			AtomicBoolean stop = new AtomicBoolean(false);
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < numThreads; t++) {
+				threads.add(new Thread(() -> {
+					while (!stop.get()) {
+						Repository repository = service.getRepository();
+						repository.getFeatures().forEach(Feature::getName);
+						repository.getAssociations().forEach(Association::getPresenceCondition);
+						service.getCommits();
+						reads.incrementAndGet();
+					}
+				}));
+			}
+			Thread writer = new Thread(() -> {
+				while (!stop.get()) {
+					service.commit("A, B");
+					try {
+						Thread.sleep(100);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			});
+
+			threads.forEach(Thread::start);
+			writer.start();
+			Thread.sleep(2000);
+			stop.set(true);
+			for (Thread thread : threads)
+				thread.join();
+			writer.join();
+
+			System.out.println("READS (" + numThreads + " threads): " + (reads.get() / 2) + " per second");
+		}
+
+		service.close();
+	}
+
+
+	@Test(groups = {"benchmark", "base", "service", "remote"})
+	public void Server_Load_Benchmark() throws IOException, InterruptedException {
+		Path baseDir = Files.createTempDirectory("ecco-server-load");
+		for (int i = 0; i < 50; i++)
+			Files.write(baseDir.resolve("file" + i + ".txt"), ("line 1\nline " + i + "\n").getBytes());
+
+		EccoService service = new EccoService(baseDir, baseDir.resolve(".ecco"));
+		service.init();
+		service.commit("A");
+		service.commit("A, B");
+
+		BlobStore clientBlobStore = new BlobStore(Files.createTempDirectory("ecco-server-load-client"));
+		int numClients = 50;
+		long latency = 20; // simulated round trip time of a remote client in milliseconds
+
+		int port = 3428;
+		for (int maxConnections : new int[]{1, 16}) {
+			service.getProperties().setProperty(EccoService.ECCO_PROPERTIES_SERVER_CONNECTIONS, Integer.toString(maxConnections));
+			int serverPort = port++;
+			Thread serverThread = new Thread(() -> service.startServer(serverPort));
+			serverThread.start();
+			while (!service.serverRunning())
+				Thread.sleep(10);
+
+			// every client pulls the repository over and over again
+			AtomicLong pulls = new AtomicLong();
+			AtomicBoolean stop = new AtomicBoolean(false);
+			List<Thread> clients = new ArrayList<>();
+			for (int c = 0; c < numClients; c++) {
+				clients.add(new Thread(() -> {
+					while (!stop.get()) {
+						try (SocketChannel sChannel = SocketChannel.open(new InetSocketAddress("localhost", serverPort));
+							 FrameWriter out = new FrameWriter(sChannel.socket().getOutputStream(), true)) {
+							DataOutputStream request = new DataOutputStream(out.beginMessage(Protocol.REQUEST));
+							request.writeUTF(Protocol.PULL);
+							request.writeBoolean(true);
+							request.writeUTF("");
+							request.writeLong(0);
+							out.endMessage();
+							out.flush();
+							Thread.sleep(latency);
+
+							try (FrameReader in = new FrameReader(sChannel.socket().getInputStream())) {
+								RepositoryStreamDecoder decoder = new RepositoryStreamDecoder(in, new MemEntityFactory());
+								decoder.readRepository();
+								decoder.readBlobs(clientBlobStore, out);
+							}
+							pulls.incrementAndGet();
+						} catch (IOException | InterruptedException e) {
+							throw new RuntimeException(e);
+						}
+					}
+				}));
+			}
+
+			clients.forEach(Thread::start);
+			Thread.sleep(3000);
+			stop.set(true);
+			for (Thread client : clients)
+				client.join();
+
+			service.stopServer();
+			serverThread.join();
+
+			System.out.println("PULLS (" + numClients + " clients, " + maxConnections + " connections): " + (pulls.get() / 3) + " per second");
+		}
+
+		service.close();
+	}
+
+
 	@BeforeTest(alwaysRun = true)
 	public void beforeTest() throws IOException {
 		System.out.println("BEFORE");
@@ -145,11 +505,27 @@ public class ServiceTest {
 		Files.deleteIfExists(this.outputDir.resolve("parent_repo/.ecco"));
 		Files.deleteIfExists(this.outputDir.resolve("forked_repo/.ecco/ecco.db"));
 		Files.deleteIfExists(this.outputDir.resolve("forked_repo/.ecco"));
+		deleteRecursively(this.outputDir.resolve("remote_parent_repo/.ecco"));
+		deleteRecursively(this.outputDir.resolve("remote_forked_repo/.ecco"));
+		deleteRecursively(this.outputDir.resolve("switch_repo/.ecco"));
+		deleteRecursively(this.outputDir.resolve("switch_checkout"));
+		deleteRecursively(this.outputDir.resolve("incremental_repo/.ecco"));
+		deleteRecursively(this.outputDir.resolve("incremental_checkout"));
+		deleteRecursively(this.outputDir.resolve("full_repo/.ecco"));
+		deleteRecursively(this.outputDir.resolve("full_checkout"));
 
 		// create directories
 		Files.createDirectories(this.repositoryDir);
 		Files.createDirectories(this.outputDir.resolve("parent_repo"));
 		Files.createDirectories(this.outputDir.resolve("forked_repo"));
+		Files.createDirectories(this.outputDir.resolve("remote_parent_repo"));
+		Files.createDirectories(this.outputDir.resolve("remote_forked_repo"));
+		Files.createDirectories(this.outputDir.resolve("switch_repo"));
+		Files.createDirectories(this.outputDir.resolve("switch_checkout"));
+		Files.createDirectories(this.outputDir.resolve("incremental_repo"));
+		Files.createDirectories(this.outputDir.resolve("incremental_checkout"));
+		Files.createDirectories(this.outputDir.resolve("full_repo"));
+		Files.createDirectories(this.outputDir.resolve("full_checkout"));
 	}
 
 	@AfterTest(alwaysRun = true)
@@ -157,4 +533,79 @@ public class ServiceTest {
 		System.out.println("AFTER");
 	}
 
+
+	private static int countArtifacts(Repository repository) {
+		int numArtifacts = 0;
+		for (Association a : repository.getAssociations())
+			numArtifacts += a.getRootNode().countArtifacts();
+		return numArtifacts;
+	}
+
+	/**
+	 * Collects the nodes below the plugin node of the given file in every association of the given repository.
+	 */
+	private static Set<Node> collectNodes(Repository repository, Path file) {
+		Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Association a : repository.getAssociations())
+			collectNodes(a.getRootNode(), file, false, nodes);
+		return nodes;
+	}
+
+	private static void collectNodes(Node node, Path file, boolean below, Set<Node> nodes) {
+		for (Node child : node.getChildren()) {
+			if (below)
+				nodes.add(child);
+			boolean pluginNode = child.getArtifact().getData() instanceof PluginArtifactData && ((PluginArtifactData) child.getArtifact().getData()).getPath().equals(file);
+			collectNodes(child, file, below || pluginNode, nodes);
+		}
+	}
+
+	/**
+	 * Describes the associations of the given repository independent of their order and of the identity of their entities.
+	 */
+	private static List<String> describe(Repository repository) {
+		List<String> description = new ArrayList<>();
+		for (Association a : repository.getAssociations()) {
+			List<String> modules = new ArrayList<>();
+			for (Module module : a.getPresenceCondition().getMinModules()) {
+				List<String> moduleFeatures = new ArrayList<>();
+				for (ModuleFeature moduleFeature : module) {
+					List<String> versions = new ArrayList<>();
+					for (FeatureVersion featureVersion : moduleFeature)
+						versions.add(featureVersion.getId());
+					Collections.sort(versions);
+					moduleFeatures.add((moduleFeature.getSign() ? "+" : "-") + moduleFeature.getFeature().getName() + versions);
+				}
+				Collections.sort(moduleFeatures);
+				modules.add(moduleFeatures.toString());
+			}
+			Collections.sort(modules);
+
+			List<String> nodes = new ArrayList<>();
+			describe(a.getRootNode(), "", nodes);
+			Collections.sort(nodes);
+
+			description.add(modules + ": " + nodes);
+		}
+		Collections.sort(description);
+		return description;
+	}
+
+	private static void describe(Node node, String path, List<String> nodes) {
+		for (Node child : node.getChildren()) {
+			String childPath = path + "/" + child.getArtifact().getData() + (child.isUnique() ? "" : "*");
+			nodes.add(childPath + " " + child.getArtifact().getUses().size());
+			describe(child, childPath, nodes);
+		}
+	}
+
+	private static void deleteRecursively(Path dir) throws IOException {
+		if (!Files.exists(dir))
+			return;
+		List<Path> paths = new ArrayList<>();
+		Files.walk(dir).forEach(paths::add);
+		for (int i = paths.size() - 1; i >= 0; i--)
+			Files.delete(paths.get(i));
+	}
+
 }
@@ -13,6 +13,7 @@ import at.jku.isse.ecco.listener.EccoListener;
 import at.jku.isse.ecco.listener.ReadListener;
 import at.jku.isse.ecco.listener.ServerListener;
 import at.jku.isse.ecco.listener.WriteListener;
+import at.jku.isse.ecco.net.*;
 import at.jku.isse.ecco.plugin.CoreModule;
 import at.jku.isse.ecco.plugin.artifact.*;
 import at.jku.isse.ecco.plugin.data.DataPlugin;
@@ -36,8 +37,10 @@ import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -58,6 +61,16 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	public static final String ECCO_PROPERTIES_FILE = "ecco.properties";
 	public static final String ECCO_PROPERTIES_DATA = "plugin.data";
 	public static final String ECCO_PROPERTIES_ARTIFACT = "plugin.artifact";
+	public static final String ECCO_PROPERTIES_PARALLELISM = "extract.parallelism";
+	public static final String ECCO_PROPERTIES_READ_PARALLELISM = "read.parallelism";
+	public static final String ECCO_PROPERTIES_WRITE_PARALLELISM = "write.parallelism";
+	public static final String ECCO_PROPERTIES_TRANSFER_COMPRESSION = "transfer.compression";
+	public static final String ECCO_PROPERTIES_SERVER_CONNECTIONS = "server.connections";
+	public static final String ECCO_PROPERTIES_SERVER_IN_FLIGHT_BYTES = "server.inFlightBytes";
+
+	private static final int DEFAULT_SERVER_CONNECTIONS = 16;
+	private static final long SERVER_POLL_INTERVAL = 100;
+	private static final long SERVER_SHUTDOWN_TIMEOUT = 10000;
 
 	public static final Path REPOSITORY_DIR_NAME = Paths.get(".ecco");
 	public static final Path DEFAULT_BASE_DIR = Paths.get("");
@@ -112,6 +125,17 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	private int maxAbsoluteProgress;
 
 
+	/**
+	 * Operations that only read the repository (e.g. retrieving features, commits or remotes and checking out) hold the read lock and run in parallel. Operations that modify the repository (e.g. commit, fetch and pull) or open and close it hold the write lock. A thread that holds the write lock can acquire the read lock as well, but not the other way round.
+	 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Serializes the operations that write into the base directory (i.e. checkouts), which only hold the read lock of the repository and would otherwise write the same files, configuration, warnings and hashes files concurrently. It is always acquired before the {@link #lock}, since a thread that waits for it must not hold the read lock while a commit waits for the write lock.
+	 */
+	private final Lock baseDirLock = new ReentrantLock();
+
+
 	/**
 	 * Creates the service and tries to detect an existing repository automatically using {@link #detectRepository(Path path) detectRepository}. If no existing repository was found the base directory (directory from which files are committed and checked out) and repository directory (directory at which the repository data is stored) are set to their defaults:
 	 * <p>
@@ -173,7 +197,7 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 
 	private Injector injector;
 
-	private boolean initialized = false;
+	private volatile boolean initialized = false;
 
 	public boolean isInitialized() {
 		return this.initialized;
@@ -185,6 +209,8 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	private DispatchReader reader;
 	@Inject
 	private DispatchWriter writer;
+	@Inject
+	private BlobStore blobStore;
 
 //	public ArtifactReader getReader() {
 //		return this.reader;
@@ -252,7 +278,7 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 
 	// # LISTENERS #####################################################################################################
 
-	private Collection<EccoListener> listeners = new ArrayList<>();
+	private Collection<EccoListener> listeners = new CopyOnWriteArrayList<>();
 
 	public void addListener(EccoListener listener) {
 		this.listeners.add(listener);
@@ -508,94 +534,142 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	}
 
 	/**
-	 * Initializes the service.
+	 * Loads the repository and configures it for extracting (i.e. committing or merging) associations according to the optional property {@link #ECCO_PROPERTIES_PARALLELISM}.
+	 *
+	 * @return The loaded repository.
 	 */
-	public synchronized void open() {
-		if (!this.repositoryDirectoryExists()) {
-			LOGGER.error("Repository does not exist.");
-			throw new EccoException("Repository does not exist.");
-		}
+	private Repository.Op loadRepositoryForExtraction() {
+		Repository.Op repository = this.repositoryDao.load();
 
-		LOGGER.debug("BASE_DIR: " + this.baseDir);
-		LOGGER.debug("REPOSITORY_DIR: " + this.repositoryDir);
+		String parallelism = this.properties.getProperty(ECCO_PROPERTIES_PARALLELISM);
+		if (parallelism != null) {
+			try {
+				repository.setParallelism(Integer.parseInt(parallelism.trim()));
+			} catch (IllegalArgumentException e) {
+				throw new EccoException("Invalid value '" + parallelism + "' for property '" + ECCO_PROPERTIES_PARALLELISM + "'.", e);
+			}
+		}
 
-		Collection<Module> modules = this.inititializeService();
+		return repository;
+	}
 
-		// create settings module
-		final Module settingsModule = new AbstractModule() {
-			@Override
-			protected void configure() {
-				bind(Path.class).annotatedWith(Names.named("repositoryDir")).toInstance(EccoService.this.repositoryDir);
+	/**
+	 * Initializes the service.
+	 */
+	public void open() {
+		this.lock.writeLock().lock();
+		try {
+			if (!this.repositoryDirectoryExists()) {
+				LOGGER.error("Repository does not exist.");
+				throw new EccoException("Repository does not exist.");
 			}
-		};
-		modules.add(settingsModule);
 
+			LOGGER.debug("BASE_DIR: " + this.baseDir);
+			LOGGER.debug("REPOSITORY_DIR: " + this.repositoryDir);
 
-		// create injector
-		Injector injector = Guice.createInjector(modules);
+			Collection<Module> modules = this.inititializeService();
 
-		this.injector = injector;
+			// create settings module
+			final Module settingsModule = new AbstractModule() {
+				@Override
+				protected void configure() {
+					bind(Path.class).annotatedWith(Names.named("repositoryDir")).toInstance(EccoService.this.repositoryDir);
+				}
+			};
+			modules.add(settingsModule);
 
-		injector.injectMembers(this);
 
-		this.transactionStrategy.open();
+			// create injector
+			Injector injector = Guice.createInjector(modules);
 
-		this.repositoryDao.init();
-		this.settingsDao.init();
-		this.commitDao.init();
+			this.injector = injector;
 
+			injector.injectMembers(this);
 
-		// ignored file patterns
-		try {
-			Path ignoresFile = this.repositoryDir.resolve(IGNORES_FILE_NAME);
-			if (!Files.exists(ignoresFile))
-				Files.createFile(ignoresFile);
-			this.defaultIgnorePatterns.addAll(Files.readAllLines(ignoresFile));
-		} catch (IOException e) {
-			throw new EccoException("Error creating or reading ignores file.", e);
-		}
-		this.reader.getIgnorePatterns().clear();
-		this.reader.getIgnorePatterns().addAll(this.customIgnorePatterns);
-		this.reader.getIgnorePatterns().addAll(this.defaultIgnorePatterns);
+			this.transactionStrategy.open();
 
-		this.reader.addListener(this);
-		this.writer.addListener(this);
+			this.repositoryDao.init();
+			this.settingsDao.init();
+			this.commitDao.init();
 
-		this.initialized = true;
 
-		this.fireStatusChangedEvent();
+			// ignored file patterns
+			try {
+				Path ignoresFile = this.repositoryDir.resolve(IGNORES_FILE_NAME);
+				if (!Files.exists(ignoresFile))
+					Files.createFile(ignoresFile);
+				this.defaultIgnorePatterns.addAll(Files.readAllLines(ignoresFile));
+			} catch (IOException e) {
+				throw new EccoException("Error creating or reading ignores file.", e);
+			}
+			this.reader.getIgnorePatterns().clear();
+			this.reader.getIgnorePatterns().addAll(this.customIgnorePatterns);
+			this.reader.getIgnorePatterns().addAll(this.defaultIgnorePatterns);
 
-		LOGGER.debug("Repository opened.");
+			this.reader.addListener(this);
+
+			String readParallelism = this.properties.getProperty(ECCO_PROPERTIES_READ_PARALLELISM);
+			if (readParallelism != null) {
+				try {
+					this.reader.setParallelism(Integer.parseInt(readParallelism.trim()));
+				} catch (IllegalArgumentException e) {
+					throw new EccoException("Invalid value '" + readParallelism + "' for property '" + ECCO_PROPERTIES_READ_PARALLELISM + "'.", e);
+				}
+			}
+			this.writer.addListener(this);
+
+			String writeParallelism = this.properties.getProperty(ECCO_PROPERTIES_WRITE_PARALLELISM);
+			if (writeParallelism != null) {
+				try {
+					this.writer.setParallelism(Integer.parseInt(writeParallelism.trim()));
+				} catch (IllegalArgumentException e) {
+					throw new EccoException("Invalid value '" + writeParallelism + "' for property '" + ECCO_PROPERTIES_WRITE_PARALLELISM + "'.", e);
+				}
+			}
+
+			this.initialized = true;
+
+			this.fireStatusChangedEvent();
+
+			LOGGER.debug("Repository opened.");
+		} finally {
+			this.lock.writeLock().unlock();
+		}
 	}
 
 	/**
 	 * Properly shuts down the service.
 	 */
 	@Override
-	public synchronized void close() {
-		if (!this.initialized)
-			return;
+	public void close() {
+		this.lock.writeLock().lock();
+		try {
+			if (!this.initialized)
+				return;
 
-		this.initialized = false;
+			this.initialized = false;
 
-		this.reader.removeListener(this);
-		this.writer.removeListener(this);
+			this.reader.removeListener(this);
+			this.writer.removeListener(this);
 
-		this.repositoryDao.close();
-		this.settingsDao.close();
-		this.commitDao.close();
+			this.repositoryDao.close();
+			this.settingsDao.close();
+			this.commitDao.close();
 
-		this.transactionStrategy.close();
+			this.transactionStrategy.close();
 
-		this.fireStatusChangedEvent();
+			this.fireStatusChangedEvent();
 
-		LOGGER.debug("Repository closed.");
+			LOGGER.debug("Repository closed.");
+		} finally {
+			this.lock.writeLock().unlock();
+		}
 	}
 
 
 	// # UTILS #########################################################################################################
 
-	public synchronized Remote addRemote(String name, String address) {
+	public Remote addRemote(String name, String address) {
 		this.checkInitialized();
 
 		Path path;
@@ -616,98 +690,123 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 		}
 	}
 
-	public synchronized Remote addRemote(String name, String address, Remote.Type type) {
-		this.checkInitialized();
-
+	public Remote addRemote(String name, String address, Remote.Type type) {
+		this.lock.writeLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			this.checkInitialized();
 
-			if (this.getRemote(name) != null)
-				throw new EccoException("Remote with this name already exists.");
+			try {
+				this.transactionStrategy.begin();
 
-			//Remote.Type type = Remote.Type.valueOf(typeString);
-			Remote remote = this.entityFactory.createRemote(name, address, type);
-			remote = this.settingsDao.storeRemote(remote);
+				if (this.getRemote(name) != null)
+					throw new EccoException("Remote with this name already exists.");
 
-			this.transactionStrategy.end();
+				//Remote.Type type = Remote.Type.valueOf(typeString);
+				Remote remote = this.entityFactory.createRemote(name, address, type);
+				remote = this.settingsDao.storeRemote(remote);
 
-			return remote;
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				this.transactionStrategy.end();
+
+				return remote;
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error adding remote.", e);
+				throw new EccoException("Error adding remote.", e);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
-	public synchronized void removeRemote(String name) {
-		this.checkInitialized();
-
+	public void removeRemote(String name) {
+		this.lock.writeLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			this.checkInitialized();
 
-			this.settingsDao.removeRemote(name);
+			try {
+				this.transactionStrategy.begin();
 
-			this.transactionStrategy.end();
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				this.settingsDao.removeRemote(name);
+
+				this.transactionStrategy.end();
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error removing remote.", e);
+				throw new EccoException("Error removing remote.", e);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
-	public synchronized Remote getRemote(String name) {
-		this.checkInitialized();
-
+	public Remote getRemote(String name) {
+		this.lock.readLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			this.checkInitialized();
 
-			Remote remote = this.settingsDao.loadRemote(name);
+			try {
+				this.transactionStrategy.beginReadOnly();
 
-			this.transactionStrategy.end();
+				Remote remote = this.settingsDao.loadRemote(name);
 
-			return remote;
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				this.transactionStrategy.end();
 
-			throw new EccoException("Error retrieving remote.", e);
-		} finally {
+				return remote;
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
+				throw new EccoException("Error retrieving remote.", e);
+			} finally {
+
+			}
+		} finally {
+			this.lock.readLock().unlock();
 		}
 	}
 
-	public synchronized Collection<Remote> getRemotes() {
-		this.checkInitialized();
-
+	public Collection<Remote> getRemotes() {
+		this.lock.readLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			this.checkInitialized();
 
-			Collection<Remote> remotes = this.settingsDao.loadAllRemotes();
+			try {
+				this.transactionStrategy.beginReadOnly();
 
-			this.transactionStrategy.end();
+				Collection<Remote> remotes = this.settingsDao.loadAllRemotes();
 
-			return remotes;
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				this.transactionStrategy.end();
 
-			throw new EccoException("Error retrieving remotes.", e);
-		} finally {
+				return remotes;
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
+
+				throw new EccoException("Error retrieving remotes.", e);
+			} finally {
 
+			}
+		} finally {
+			this.lock.readLock().unlock();
 		}
 	}
 
 
-	public synchronized Repository getRepository() {
-		this.checkInitialized();
-
+	public Repository getRepository() {
+		this.lock.readLock().lock();
 		try {
-			this.repositoryDao.init();
-			this.transactionStrategy.begin();
-			Repository repository = this.repositoryDao.load();
-			this.transactionStrategy.end();
-			return repository;
-		} catch (EccoException e) {
-			this.transactionStrategy.rollback();
-			throw new EccoException("Error when retrieving repository.", e);
+			this.checkInitialized();
+
+			try {
+				this.repositoryDao.init();
+				this.transactionStrategy.beginReadOnly();
+				Repository repository = this.repositoryDao.load();
+				this.transactionStrategy.end();
+				return repository;
+			} catch (EccoException e) {
+				this.transactionStrategy.rollback();
+				throw new EccoException("Error when retrieving repository.", e);
+			}
+		} finally {
+			this.lock.readLock().unlock();
 		}
 	}
 
@@ -716,18 +815,23 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 *
 	 * @return Collection containing all commit objects.
 	 */
-	public synchronized Collection<Commit> getCommits() {
-		this.checkInitialized();
-
+	public Collection<Commit> getCommits() {
+		this.lock.readLock().lock();
 		try {
-			this.commitDao.init();
-			this.transactionStrategy.begin();
-			List<Commit> commits = this.commitDao.loadAllCommits();
-			this.transactionStrategy.end();
-			return commits;
-		} catch (EccoException e) {
-			this.transactionStrategy.rollback();
-			throw new EccoException("Error when retrieving commits.", e);
+			this.checkInitialized();
+
+			try {
+				this.commitDao.init();
+				this.transactionStrategy.beginReadOnly();
+				List<Commit> commits = this.commitDao.loadAllCommits();
+				this.transactionStrategy.end();
+				return commits;
+			} catch (EccoException e) {
+				this.transactionStrategy.rollback();
+				throw new EccoException("Error when retrieving commits.", e);
+			}
+		} finally {
+			this.lock.readLock().unlock();
 		}
 	}
 
@@ -836,143 +940,151 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 
 
 	protected Configuration parseConfigurationString(String configurationString) {
-		if (configurationString == null)
-			throw new EccoException("No configuration string provided.");
-
-		if (!configurationString.matches(Configuration.CONFIGURATION_STRING_REGULAR_EXPRESSION))
-			throw new EccoException("Invalid configuration string provided.");
-
+		this.lock.writeLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			if (configurationString == null)
+				throw new EccoException("No configuration string provided.");
 
-			Configuration configuration = this.entityFactory.createConfiguration();
+			if (!configurationString.matches(Configuration.CONFIGURATION_STRING_REGULAR_EXPRESSION))
+				throw new EccoException("Invalid configuration string provided.");
 
-			if (configurationString.isEmpty()) {
-				this.transactionStrategy.end();
-				return configuration;
-			}
+			try {
+				this.transactionStrategy.begin();
 
-			Repository.Op repository = this.repositoryDao.load();
+				Configuration configuration = this.entityFactory.createConfiguration();
 
-			Set<FeatureVersion> newFeatureVersions = new HashSet<>();
-
-			String[] featureInstanceStrings = configurationString.split(",");
-			for (String featureInstanceString : featureInstanceStrings) {
-				featureInstanceString = featureInstanceString.trim();
-
-				if (featureInstanceString.contains(".")) { // use specified feature version
-					String[] pair = featureInstanceString.split("\\.");
-					String featureName = pair[0];
-					if (featureName.startsWith("!") || featureName.startsWith("-") || featureName.startsWith("+"))
-						featureName = featureName.substring(1);
-					String id = pair[1];
-					boolean featureSign = !(pair[0].startsWith("!") || pair[0].startsWith("-"));
-
-					Feature feature;
-					if (featureName.startsWith("[") && featureName.endsWith("]")) { // id
-						feature = repository.getFeature(featureName);
-					} else { // name
-						Collection<Feature> features = repository.getFeaturesByName(featureName);
-						if (features.isEmpty()) {
-							feature = repository.addFeature(UUID.randomUUID().toString(), featureName, "");
-						} else if (features.size() == 1) {
-							feature = features.iterator().next();
-						} else {
-							throw new EccoException("Feature name is not unique. Use feature id instead.");
-						}
-					}
+				if (configurationString.isEmpty()) {
+					this.transactionStrategy.end();
+					return configuration;
+				}
 
-					FeatureVersion featureVersion = feature.getVersion(id);
-					if (featureVersion == null) {
-						featureVersion = feature.addVersion(id);
-						newFeatureVersions.add(featureVersion);
-					}
+				Repository.Op repository = this.repositoryDao.load();
 
-					//configuration.addFeatureInstance(this.entityFactory.createFeatureInstance(feature, featureVersion, featureSign));
-					configuration.addFeatureInstance(featureVersion.getInstance(featureSign));
-				} else if (featureInstanceString.endsWith("'")) { // create new feature version for feature
-					String featureName = featureInstanceString.substring(0, featureInstanceString.length() - 1);
-					if (featureName.startsWith("!") || featureName.startsWith("-") || featureName.startsWith("+"))
-						featureName = featureName.substring(1);
-
-					Feature feature;
-					if (featureName.startsWith("[") && featureName.endsWith("]")) { // id
-						feature = repository.getFeature(featureName);
-					} else { // name
-						Collection<Feature> features = repository.getFeaturesByName(featureName);
-						if (features.isEmpty()) {
-							feature = repository.addFeature(UUID.randomUUID().toString(), featureName, "");
-						} else if (features.size() == 1) {
-							feature = features.iterator().next();
-						} else {
-							throw new EccoException("Feature name is not unique. Use feature id instead.");
+				Set<FeatureVersion> newFeatureVersions = new HashSet<>();
+
+				String[] featureInstanceStrings = configurationString.split(",");
+				for (String featureInstanceString : featureInstanceStrings) {
+					featureInstanceString = featureInstanceString.trim();
+
+					if (featureInstanceString.contains(".")) { // use specified feature version
+						String[] pair = featureInstanceString.split("\\.");
+						String featureName = pair[0];
+						if (featureName.startsWith("!") || featureName.startsWith("-") || featureName.startsWith("+"))
+							featureName = featureName.substring(1);
+						String id = pair[1];
+						boolean featureSign = !(pair[0].startsWith("!") || pair[0].startsWith("-"));
+
+						Feature feature;
+						if (featureName.startsWith("[") && featureName.endsWith("]")) { // id
+							feature = repository.getFeature(featureName);
+						} else { // name
+							Collection<Feature> features = repository.getFeaturesByName(featureName);
+							if (features.isEmpty()) {
+								feature = repository.addFeature(UUID.randomUUID().toString(), featureName, "");
+							} else if (features.size() == 1) {
+								feature = features.iterator().next();
+							} else {
+								throw new EccoException("Feature name is not unique. Use feature id instead.");
+							}
 						}
-					}
 
-					//FeatureVersion featureVersion = feature.createNewVersion();
-					FeatureVersion featureVersion = feature.addVersion(UUID.randomUUID().toString());
-					newFeatureVersions.add(featureVersion);
+						FeatureVersion featureVersion = feature.getVersion(id);
+						if (featureVersion == null) {
+							featureVersion = feature.addVersion(id);
+							newFeatureVersions.add(featureVersion);
+						}
 
-					boolean featureSign = !(featureInstanceString.startsWith("!") || featureInstanceString.startsWith("-"));
+						//configuration.addFeatureInstance(this.entityFactory.createFeatureInstance(feature, featureVersion, featureSign));
+						configuration.addFeatureInstance(featureVersion.getInstance(featureSign));
+					} else if (featureInstanceString.endsWith("'")) { // create new feature version for feature
+						String featureName = featureInstanceString.substring(0, featureInstanceString.length() - 1);
+						if (featureName.startsWith("!") || featureName.startsWith("-") || featureName.startsWith("+"))
+							featureName = featureName.substring(1);
+
+						Feature feature;
+						if (featureName.startsWith("[") && featureName.endsWith("]")) { // id
+							feature = repository.getFeature(featureName);
+						} else { // name
+							Collection<Feature> features = repository.getFeaturesByName(featureName);
+							if (features.isEmpty()) {
+								feature = repository.addFeature(UUID.randomUUID().toString(), featureName, "");
+							} else if (features.size() == 1) {
+								feature = features.iterator().next();
+							} else {
+								throw new EccoException("Feature name is not unique. Use feature id instead.");
+							}
+						}
 
-					//configuration.addFeatureInstance(this.entityFactory.createFeatureInstance(feature, featureVersion, featureSign));
-					configuration.addFeatureInstance(featureVersion.getInstance(featureSign));
-				} else { // use most recent feature version of feature (or create a new one if none existed so far)
-					String featureName = featureInstanceString;
-					if (featureName.startsWith("!") || featureName.startsWith("-") || featureName.startsWith("+"))
-						featureName = featureName.substring(1);
+						//FeatureVersion featureVersion = feature.createNewVersion();
+						FeatureVersion featureVersion = feature.addVersion(UUID.randomUUID().toString());
+						newFeatureVersions.add(featureVersion);
 
-					Feature feature;
-					if (featureName.startsWith("[") && featureName.endsWith("]")) { // id
-						feature = repository.getFeature(featureName);
-						if (feature == null) {
-							feature = repository.addFeature(featureName, "", "");
+						boolean featureSign = !(featureInstanceString.startsWith("!") || featureInstanceString.startsWith("-"));
+
+						//configuration.addFeatureInstance(this.entityFactory.createFeatureInstance(feature, featureVersion, featureSign));
+						configuration.addFeatureInstance(featureVersion.getInstance(featureSign));
+					} else { // use most recent feature version of feature (or create a new one if none existed so far)
+						String featureName = featureInstanceString;
+						if (featureName.startsWith("!") || featureName.startsWith("-") || featureName.startsWith("+"))
+							featureName = featureName.substring(1);
+
+						Feature feature;
+						if (featureName.startsWith("[") && featureName.endsWith("]")) { // id
+							feature = repository.getFeature(featureName);
+							if (feature == null) {
+								feature = repository.addFeature(featureName, "", "");
+							}
+						} else { // name
+							Collection<Feature> features = repository.getFeaturesByName(featureName);
+							if (features.isEmpty()) {
+								feature = repository.addFeature(UUID.randomUUID().toString(), featureName, "");
+							} else if (features.size() == 1) {
+								feature = features.iterator().next();
+							} else {
+								throw new EccoException("Feature name is not unique. Use feature id instead.");
+							}
 						}
-					} else { // name
-						Collection<Feature> features = repository.getFeaturesByName(featureName);
-						if (features.isEmpty()) {
-							feature = repository.addFeature(UUID.randomUUID().toString(), featureName, "");
-						} else if (features.size() == 1) {
-							feature = features.iterator().next();
-						} else {
-							throw new EccoException("Feature name is not unique. Use feature id instead.");
-						}
-					}
 
-					FeatureVersion featureVersion = feature.getLatestVersion();
-					if (featureVersion == null) {
-						//featureVersion = feature.createNewVersion();
-						featureVersion = feature.addVersion(UUID.randomUUID().toString());
-						newFeatureVersions.add(featureVersion);
-					}
+						FeatureVersion featureVersion = feature.getLatestVersion();
+						if (featureVersion == null) {
+							//featureVersion = feature.createNewVersion();
+							featureVersion = feature.addVersion(UUID.randomUUID().toString());
+							newFeatureVersions.add(featureVersion);
+						}
 
-					boolean featureSign = !(featureInstanceString.startsWith("!") || featureInstanceString.startsWith("-"));
+						boolean featureSign = !(featureInstanceString.startsWith("!") || featureInstanceString.startsWith("-"));
 
-					//configuration.addFeatureInstance(this.entityFactory.createFeatureInstance(feature, featureVersion, featureSign));
-					configuration.addFeatureInstance(featureVersion.getInstance(featureSign));
+						//configuration.addFeatureInstance(this.entityFactory.createFeatureInstance(feature, featureVersion, featureSign));
+						configuration.addFeatureInstance(featureVersion.getInstance(featureSign));
+					}
 				}
-			}
 
-			// update existing associations with new (features and) feature versions. NOTE: update with negative features is not necessary if the configurations contain also all the negative features!
-			Collection<? extends Association> associations = repository.getAssociations();
-			for (Association association : associations) {
-				for (FeatureVersion newFeatureVersion : newFeatureVersions) {
-					association.getPresenceCondition().addFeatureVersion(newFeatureVersion);
-					//association.getPresenceCondition().addFeatureInstance(this.entityFactory.createFeatureInstance(newFeatureVersion.getFeature(), newFeatureVersion, false), repository.getMaxOrder());
-					association.getPresenceCondition().addFeatureInstance(newFeatureVersion.getInstance(false), repository.getMaxOrder());
-				}
-			}
+				// every new feature comes with a new feature version, so if there are none the repository was not modified
+				if (!newFeatureVersions.isEmpty()) {
+					// update existing associations with new (features and) feature versions. NOTE: update with negative features is not necessary if the configurations contain also all the negative features!
+					Collection<? extends Association> associations = repository.getAssociations();
+					for (Association association : associations) {
+						for (FeatureVersion newFeatureVersion : newFeatureVersions) {
+							association.getPresenceCondition().addFeatureVersion(newFeatureVersion);
+							//association.getPresenceCondition().addFeatureInstance(this.entityFactory.createFeatureInstance(newFeatureVersion.getFeature(), newFeatureVersion, false), repository.getMaxOrder());
+							association.getPresenceCondition().addFeatureInstance(newFeatureVersion.getInstance(false), repository.getMaxOrder());
+						}
+					}
 
-			this.repositoryDao.store(repository);
+					this.repositoryDao.store(repository);
+				}
 
-			this.transactionStrategy.end();
+				this.transactionStrategy.end();
 
-			return configuration;
+				return configuration;
 
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error parsing configuration string: " + configurationString, e);
+				throw new EccoException("Error parsing configuration string: " + configurationString, e);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
@@ -985,7 +1097,7 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 			throw new EccoException("Invalid feature versions string provided.");
 
 		try {
-			this.transactionStrategy.begin();
+			this.transactionStrategy.beginReadOnly();
 
 			Collection<FeatureVersion> featureVersions = new ArrayList<>();
 
@@ -1048,139 +1160,247 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	private boolean serverRunning = false;
 	private Lock serverLock = new ReentrantLock();
 
+	/**
+	 * Serializes the computation of subsets of the repository, because a subset temporarily registers its copies as replacing artifacts of the artifacts of the repository.
+	 */
+	private final Lock subsetLock = new ReentrantLock();
+
 	public boolean serverRunning() {
 		return this.serverRunning;
 	}
 
-	public synchronized void startServer(int port) {
+	/**
+	 * Starts a server on the given port that serves fetch, pull and push requests until it is stopped (see {@link #stopServer()}). The server does not block other operations while it is waiting for requests, each request holds the read or write lock of the service only while it accesses the repository.
+	 * <p>
+	 * Every connection is handled by its own thread, so fetch and pull requests are served in parallel and a slow client does not delay the others. Received pushes are merged one at a time in the order in which they were received. At most {@link #ECCO_PROPERTIES_SERVER_CONNECTIONS} connections are handled at the same time, further clients wait until a connection has been completed. Frames that would exceed {@link #ECCO_PROPERTIES_SERVER_IN_FLIGHT_BYTES} bytes in flight on all connections wait until other connections have consumed or written their frames.
+	 *
+	 * @param port The port.
+	 */
+	public void startServer(int port) {
 		this.checkInitialized();
 
+		int maxConnections = (int) this.getPositiveProperty(ECCO_PROPERTIES_SERVER_CONNECTIONS, DEFAULT_SERVER_CONNECTIONS);
+		long maxInFlightBytes = this.getPositiveProperty(ECCO_PROPERTIES_SERVER_IN_FLIGHT_BYTES, Runtime.getRuntime().maxMemory() / 2);
+
 		if (!this.serverLock.tryLock())
 			throw new EccoException("Server is already running.");
 //		if (this.serverRunning)
 //			throw new EccoException("Server is already running.");
 
+		ExecutorService connectionExecutor = Executors.newFixedThreadPool(maxConnections, runnable -> {
+			Thread thread = new Thread(runnable, "ecco-server-connection");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ExecutorService mergeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ecco-server-merge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Semaphore connections = new Semaphore(maxConnections);
+		ByteBudget byteBudget = new ByteBudget(maxInFlightBytes);
+
 		try (ServerSocketChannel ssChannel = ServerSocketChannel.open()) {
 			this.ssChannel = ssChannel;
-			this.serverRunning = true;
 			this.serverShutdown = false;
 
 			ssChannel.configureBlocking(true);
 			ssChannel.socket().bind(new InetSocketAddress(port));
+			this.serverRunning = true;
 
 			LOGGER.debug("Server started on port " + port + ".");
 			this.fireServerEvent("Server started on port " + port + ".");
 			this.fireServerStartedEvent(port);
 
 			while (!serverShutdown) {
-				try (SocketChannel sChannel = ssChannel.accept()) {
-					ObjectOutputStream oos = new ObjectOutputStream(sChannel.socket().getOutputStream());
-					ObjectInputStream ois = new ObjectInputStream(sChannel.socket().getInputStream());
+				// clients that exceed the maximum number of connections wait in the backlog of the server socket
+				if (!connections.tryAcquire(SERVER_POLL_INTERVAL, TimeUnit.MILLISECONDS))
+					continue;
 
+				try {
+					SocketChannel sChannel = ssChannel.accept();
+					connectionExecutor.execute(() -> {
+						try {
+							this.serveConnection(sChannel, byteBudget, mergeExecutor);
+						} finally {
+							connections.release();
+						}
+					});
+				} catch (AsynchronousCloseException e) {
+					// server shut down
+					connections.release();
+				} catch (SocketException | ClosedChannelException e) {
+					connections.release();
+					LOGGER.warn("Error receiving request.");
+					this.fireServerEvent("Error receiving request: " + e.getMessage());
+					e.printStackTrace();
+				}
+			}
+		} catch (Exception e) {
+			throw new EccoException("Error starting server.", e);
+		} finally {
+			// complete the accepted connections and their merges
+			connectionExecutor.shutdown();
+			try {
+				if (!connectionExecutor.awaitTermination(SERVER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					connectionExecutor.shutdownNow();
+					connectionExecutor.awaitTermination(SERVER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+				}
+				mergeExecutor.shutdown();
+				mergeExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				connectionExecutor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
 
-					// determine if it is a push (receive data) or a pull (send data)
-					String command = (String) ois.readObject();
-					LOGGER.debug("COMMAND: " + command);
-					this.fireServerEvent("New connection from " + sChannel.getRemoteAddress() + " with command '" + command + "'.");
+			this.serverRunning = false;
+			this.serverLock.unlock();
+		}
+
+		LOGGER.debug("Server stopped.");
+		this.fireServerEvent("Server stopped.");
+		this.fireServerStoppedEvent();
+	}
 
+	/**
+	 * Handles a single connection of the server.
+	 *
+	 * @param sChannel       The accepted connection.
+	 * @param byteBudget     The budget of the bytes in flight that is shared by all connections.
+	 * @param mergeExecutor  The executor that merges pushed repositories one at a time.
+	 */
+	private void serveConnection(SocketChannel sChannel, ByteBudget byteBudget, ExecutorService mergeExecutor) {
+		try (SocketChannel channel = sChannel;
+			 FrameReader in = new FrameReader(channel.socket().getInputStream())) {
+			in.setByteBudget(byteBudget);
+
+			// read request
+			if (in.nextMessage() != Protocol.REQUEST)
+				throw new EccoException("Expected request.");
+			DataInputStream request = new DataInputStream(in.getMessage());
+			String command = request.readUTF();
+			boolean compress = request.readBoolean();
+			String argument = request.readUTF();
+			long revision = request.readLong();
+			LOGGER.debug("COMMAND: " + command);
+			this.fireServerEvent("New connection from " + channel.getRemoteAddress() + " with command '" + command + "'.");
+
+			try (FrameWriter out = new FrameWriter(channel.socket().getOutputStream(), compress)) {
+				out.setByteBudget(byteBudget);
+				RepositoryStreamEncoder encoder = new RepositoryStreamEncoder(out);
+
+				try {
 					switch (command) {
-						case "FETCH": { // if fetch, send data
+						case Protocol.FETCH: { // if fetch, send data
 							// copy features using mem entity factory
-							this.transactionStrategy.begin();
-							Repository.Op repository = this.repositoryDao.load();
-							Collection<Feature> copiedFeatures = EccoUtil.deepCopyFeatures(repository.getFeatures(), this.memEntityFactory);
-							this.transactionStrategy.end();
-
+							Collection<Feature> copiedFeatures;
+							this.lock.readLock().lock();
+							try {
+								this.transactionStrategy.beginReadOnly();
+								Repository.Op repository = this.repositoryDao.load();
+								copiedFeatures = EccoUtil.deepCopyFeatures(repository.getFeatures(), this.memEntityFactory);
+								this.transactionStrategy.end();
+							} catch (Exception e) {
+								this.transactionStrategy.rollback();
+								throw e;
+							} finally {
+								this.lock.readLock().unlock();
+							}
 
 							// send features
-							// with size:
-							ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
-							ObjectOutputStream temp_oos = new ObjectOutputStream(byteOutputStream);
-							// write object to temp_oos
-							temp_oos.writeObject(copiedFeatures);
-							// get size of data
-							int size = byteOutputStream.size();
-							// send size
-							oos.writeObject(size);
-							// send data
-							byteOutputStream.writeTo(sChannel.socket().getOutputStream());
-							byteOutputStream.close();
-							// without size:
-							//oos.writeObject(copiedFeatures);
+							encoder.writeFeatures(copiedFeatures);
 
 							break;
 						}
-						case "PULL": { // if pull, send data
-							// retrieve deselection
-							//Collection<FeatureVersion> deselected = (Collection<FeatureVersion>) ois.readObject();
-							String deselectedFeatureVersionsString = (String) ois.readObject();
-							Collection<FeatureVersion> deselected = this.parseFeatureVersionsString(deselectedFeatureVersionsString);
-
+						case Protocol.PULL: { // if pull, send data
 							// compute subset repository using mem entity factory
-							this.transactionStrategy.begin();
-							Repository.Op repository = this.repositoryDao.load();
-							Repository.Op subsetRepository = repository.subset(deselected, repository.getMaxOrder(), this.memEntityFactory);
-							this.transactionStrategy.end();
-
-
-							// send subset repository
-							// with size:
-							ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
-							ObjectOutputStream temp_oos = new ObjectOutputStream(byteOutputStream);
-							// write object to temp_oos
-							temp_oos.writeObject(subsetRepository);
-							// get size of data
-							int size = byteOutputStream.size();
-							// send size
-							oos.writeObject(size);
-							// send data
-							byteOutputStream.writeTo(sChannel.socket().getOutputStream());
-							byteOutputStream.close();
-							// without size:
-							//oos.writeObject(subsetRepository);
+							Repository.Op subsetRepository;
+							this.lock.readLock().lock();
+							try {
+								Collection<FeatureVersion> deselected = this.parseFeatureVersionsString(argument);
+
+								this.transactionStrategy.beginReadOnly();
+								try {
+									Repository.Op repository = this.repositoryDao.load();
+									// a revision that this repository has not reached yet was pulled from a different repository
+									long sinceRevision = revision <= repository.getRevision() ? revision : 0;
+									subsetRepository = this.subset(repository, deselected, this.memEntityFactory, sinceRevision);
+									this.transactionStrategy.end();
+								} catch (Exception e) {
+									this.transactionStrategy.rollback();
+									throw e;
+								}
+							} finally {
+								this.lock.readLock().unlock();
+							}
+
+							// stream subset repository and file contents
+							encoder.writeRepository(subsetRepository);
+							encoder.writeBlobs(this.blobStore, in);
 
 							break;
 						}
-						case "PUSH": { // if push, receive data
-							// retrieve repository
-							Repository.Op subsetRepository = (Repository.Op) ois.readObject();
+						case Protocol.PUSH: { // if push, receive data
+							// accept request
+							out.writeMessage(Protocol.END);
+							out.flush();
+
+							// receive repository using this entity factory and file contents
+							RepositoryStreamDecoder decoder = new RepositoryStreamDecoder(in, this.entityFactory);
+							Repository.Op receivedRepository = decoder.readRepository();
+							decoder.readBlobs(this.blobStore, out);
+
+							// merge into this repository after the previously received repositories
+							Future<?> merge = mergeExecutor.submit(() -> {
+								this.lock.writeLock().lock();
+								try {
+									this.transactionStrategy.begin();
+									Repository.Op repository = this.loadRepositoryForExtraction();
+									repository.merge(receivedRepository);
+									this.repositoryDao.store(repository);
+									this.transactionStrategy.end();
+								} catch (Exception e) {
+									this.transactionStrategy.rollback();
+									throw e;
+								} finally {
+									this.lock.writeLock().unlock();
+								}
+								return null;
+							});
+							try {
+								merge.get();
+							} catch (InterruptedException e) {
+								merge.cancel(false);
+								throw e;
+							} catch (ExecutionException e) {
+								throw new EccoException("Error merging pushed repository: " + e.getCause().getMessage(), e);
+							}
+
+							// confirm merge
+							out.writeMessage(Protocol.END);
 
-							// copy it using this entity factory
-							Repository.Op copiedRepository = subsetRepository.copy(this.entityFactory);
-
-							// merge into this repository
-							this.transactionStrategy.begin();
-							Repository.Op repository = this.repositoryDao.load();
-							repository.merge(copiedRepository);
-							this.repositoryDao.store(repository);
-							this.transactionStrategy.end();
 							break;
 						}
+						default:
+							encoder.writeError("Unknown command: " + command);
 					}
-				} catch (AsynchronousCloseException e) {
-					// server shut down
-					//e.printStackTrace();
-				} catch (SocketException | ClosedChannelException e) {
-					LOGGER.warn("Error receiving request.");
-					this.fireServerEvent("Error receiving request: " + e.getMessage());
-					e.printStackTrace();
 				} catch (Exception e) {
-					//throw new EccoException("Error receiving request.", e);
-					LOGGER.warn("Error receiving request.");
-					this.fireServerEvent("Error receiving request: " + e.getMessage());
-					e.printStackTrace();
+					// send the error instead of the rest of the response
+					try {
+						out.abortMessage();
+						encoder.writeError(e.getMessage());
+					} catch (IOException | EccoException e2) {
+						// connection is broken
+					}
+					throw e;
 				}
 			}
 		} catch (Exception e) {
-			throw new EccoException("Error starting server.", e);
-		} finally {
-			this.serverRunning = false;
-			this.serverLock.unlock();
+			//throw new EccoException("Error receiving request.", e);
+			LOGGER.warn("Error receiving request.");
+			this.fireServerEvent("Error receiving request: " + e.getMessage());
+			e.printStackTrace();
 		}
-
-		LOGGER.debug("Server stopped.");
-		this.fireServerEvent("Server stopped.");
-		this.fireServerStoppedEvent();
 	}
 
 	public void stopServer() {
@@ -1204,148 +1424,197 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 		this.ssChannel = null;
 	}
 
-
-	public synchronized void fetch(String remoteName) {
-		this.checkInitialized();
-
+	/**
+	 * Computes a subset of the given repository. Subsets are computed one at a time (see {@link #subsetLock}).
+	 *
+	 * @param repository    The repository.
+	 * @param deselected    The deselected feature versions.
+	 * @param entityFactory The entity factory that is used to create the subset repository.
+	 * @param sinceRevision The revision after which associations must have been changed to be contained in the subset, or 0 for all associations.
+	 * @return The subset repository.
+	 */
+	private Repository.Op subset(Repository.Op repository, Collection<FeatureVersion> deselected, EntityFactory entityFactory, long sinceRevision) {
+		this.subsetLock.lock();
 		try {
-			this.transactionStrategy.begin();
+			return repository.subset(deselected, repository.getMaxOrder(), entityFactory, sinceRevision);
+		} finally {
+			this.subsetLock.unlock();
+		}
+	}
 
-			// load remote
-			Remote remote = this.settingsDao.loadRemote(remoteName);
-			if (remote == null) {
-				throw new EccoException("Remote '" + remoteName + "' does not exist.");
-			} else if (remote.getType() == Remote.Type.REMOTE) {
+	/**
+	 * Returns the value of the given optional property, which must be a positive number.
+	 *
+	 * @param name         The name of the property.
+	 * @param defaultValue The value if the property is not set.
+	 * @return The value of the property.
+	 */
+	private long getPositiveProperty(String name, long defaultValue) {
+		String value = this.properties.getProperty(name);
+		if (value == null)
+			return defaultValue;
+		try {
+			long number = Long.parseLong(value.trim());
+			if (number <= 0)
+				throw new IllegalArgumentException("Expected a positive number.");
+			return number;
+		} catch (IllegalArgumentException e) {
+			throw new EccoException("Invalid value '" + value + "' for property '" + name + "'.", e);
+		}
+	}
 
-				try (SocketChannel sChannel = SocketChannel.open()) {
-					sChannel.configureBlocking(true);
-					String[] pair = remote.getAddress().split(":");
-					if (sChannel.connect(new InetSocketAddress(pair[0], Integer.valueOf(pair[1])))) {
-						ProgressInputStream progressInputStream = new ProgressInputStream(sChannel.socket().getInputStream());
 
-						ObjectOutputStream oos = new ObjectOutputStream(sChannel.socket().getOutputStream());
-						ObjectInputStream ois = new ObjectInputStream(progressInputStream);
+	/**
+	 * Sends a request to the server at the other end of the given connection. Whether transfers are compressed is configured by the optional property {@link #ECCO_PROPERTIES_TRANSFER_COMPRESSION} (default true).
+	 *
+	 * @param sChannel The connection to the server.
+	 * @param command  The command (see {@link Protocol}).
+	 * @param argument The argument of the command.
+	 * @param revision The revision of the last pull from the server or 0.
+	 * @return The frame writer of the connection for further messages to the server.
+	 * @throws IOException If the request could not be sent.
+	 */
+	private FrameWriter sendRequest(SocketChannel sChannel, String command, String argument, long revision) throws IOException {
+		boolean compress = !"false".equalsIgnoreCase(this.properties.getProperty(ECCO_PROPERTIES_TRANSFER_COMPRESSION, "true").trim());
 
-						oos.writeObject("FETCH");
+		FrameWriter out = new FrameWriter(sChannel.socket().getOutputStream(), compress);
+		DataOutputStream request = new DataOutputStream(out.beginMessage(Protocol.REQUEST));
+		request.writeUTF(command);
+		request.writeBoolean(compress);
+		request.writeUTF(argument);
+		request.writeLong(revision);
+		out.endMessage();
+		out.flush();
 
+		return out;
+	}
 
-						int size = (Integer) ois.readObject();
-						progressInputStream.setMaxBytes(size);
-						progressInputStream.resetProgress();
-						progressInputStream.addListener(this);
+	public void fetch(String remoteName) {
+		this.lock.writeLock().lock();
+		try {
+			this.checkInitialized();
 
-						// retrieve features
-						Collection<Feature> features = (Collection<Feature>) ois.readObject();
+			try {
+				this.transactionStrategy.begin();
+
+				// load remote
+				Remote remote = this.settingsDao.loadRemote(remoteName);
+				if (remote == null) {
+					throw new EccoException("Remote '" + remoteName + "' does not exist.");
+				} else if (remote.getType() == Remote.Type.REMOTE) {
+
+					try (SocketChannel sChannel = SocketChannel.open()) {
+						sChannel.configureBlocking(true);
+						String[] pair = remote.getAddress().split(":");
+						if (sChannel.connect(new InetSocketAddress(pair[0], Integer.valueOf(pair[1])))) {
+							// the request is complete once it has been sent, a fetch only reads the response
+							FrameWriter out = this.sendRequest(sChannel, Protocol.FETCH, "", 0);
+							try (FrameReader in = new FrameReader(sChannel.socket().getInputStream())) {
+
+								// retrieve features using this entity factory
+								Collection<Feature> features = new RepositoryStreamDecoder(in, this.entityFactory).readFeatures();
+
+								// store with remote
+								remote.getFeatures().clear();
+								remote.getFeatures().addAll(features);
+							} finally {
+								out.close();
+							}
+							this.settingsDao.storeRemote(remote);
+						} else {
+							throw new EccoException("Error connecting to remote: " + remote.getName() + ": " + pair[0] + ":" + pair[1]);
+						}
+					} catch (Exception e) {
+						throw new EccoException("Error during remote fetch.", e);
+					}
 
-						progressInputStream.removeListener(this);
+				} else if (remote.getType() == Remote.Type.LOCAL) {
+					// open parent repository
+					EccoService parentService = new EccoService();
+					parentService.setRepositoryDir(Paths.get(remote.getAddress()));
+					parentService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
 
+					// copy features
+					Collection<Feature> copiedFeatures = EccoUtil.deepCopyFeatures(parentService.getRepository().getFeatures(), this.entityFactory);
 
-						// copy it using this entity factory
-						Collection<Feature> copiedFeatures = EccoUtil.deepCopyFeatures(features, this.entityFactory);
+					// close parent repository
+					parentService.close();
 
-						// store with remote
-						remote.getFeatures().clear();
-						remote.getFeatures().addAll(copiedFeatures);
-						this.settingsDao.storeRemote(remote);
-					} else {
-						throw new EccoException("Error connecting to remote: " + remote.getName() + ": " + pair[0] + ":" + pair[1]);
-					}
-				} catch (Exception e) {
-					throw new EccoException("Error during remote fetch.", e);
+					// merge into this repository
+					remote.getFeatures().clear();
+					remote.getFeatures().addAll(copiedFeatures);
+					this.settingsDao.storeRemote(remote);
 				}
 
-			} else if (remote.getType() == Remote.Type.LOCAL) {
-				// open parent repository
-				EccoService parentService = new EccoService();
-				parentService.setRepositoryDir(Paths.get(remote.getAddress()));
-				parentService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
-
-				// copy features
-				Collection<Feature> copiedFeatures = EccoUtil.deepCopyFeatures(parentService.getRepository().getFeatures(), this.entityFactory);
-
-				// close parent repository
-				parentService.close();
+				this.transactionStrategy.end();
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-				// merge into this repository
-				remote.getFeatures().clear();
-				remote.getFeatures().addAll(copiedFeatures);
-				this.settingsDao.storeRemote(remote);
+				throw new EccoException("Error during fetch.", e);
 			}
-
-			this.transactionStrategy.end();
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
-
-			throw new EccoException("Error during fetch.", e);
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
 
-	public synchronized void fork(String hostname, int port) {
+	public void fork(String hostname, int port) {
 		this.fork(hostname, port, "");
 	}
 
-	public synchronized void fork(String hostname, int port, String deselectedFeatureVersionsString) {
-		if (this.isInitialized())
-			throw new EccoException("Service must not be initialized for fork operation.");
-		if (this.repositoryDirectoryExists())
-			throw new EccoException("A repository already exists at the given location: " + this.repositoryDir);
+	public void fork(String hostname, int port, String deselectedFeatureVersionsString) {
+		this.lock.writeLock().lock();
+		try {
+			if (this.isInitialized())
+				throw new EccoException("Service must not be initialized for fork operation.");
+			if (this.repositoryDirectoryExists())
+				throw new EccoException("A repository already exists at the given location: " + this.repositoryDir);
 
-		Repository.Op copiedRepository;
-		try (SocketChannel sChannel = SocketChannel.open()) {
-			sChannel.configureBlocking(true);
-			if (sChannel.connect(new InetSocketAddress(hostname, port))) {
-				ProgressInputStream progressInputStream = new ProgressInputStream(sChannel.socket().getInputStream());
+			try (SocketChannel sChannel = SocketChannel.open()) {
+				sChannel.configureBlocking(true);
+				if (!sChannel.connect(new InetSocketAddress(hostname, port)))
+					throw new EccoException("Error connecting to remote: " + hostname + ":" + port);
 
-				ObjectOutputStream oos = new ObjectOutputStream(sChannel.socket().getOutputStream());
-				ObjectInputStream ois = new ObjectInputStream(progressInputStream);
+				try (FrameWriter out = this.sendRequest(sChannel, Protocol.PULL, deselectedFeatureVersionsString, 0);
+					 FrameReader in = new FrameReader(sChannel.socket().getInputStream())) {
 
-				oos.writeObject("PULL");
-				oos.writeObject(deselectedFeatureVersionsString);
+					this.init(); // also opens the repository
 
+					try {
+						this.transactionStrategy.begin();
 
-				int size = (Integer) ois.readObject();
-				progressInputStream.setMaxBytes(size);
-				progressInputStream.resetProgress();
-				progressInputStream.addListener(this);
+						// retrieve remote repository using this entity factory and file contents
+						RepositoryStreamDecoder decoder = new RepositoryStreamDecoder(in, this.entityFactory);
+						decoder.setProgressListener(this);
+						Repository.Op receivedRepository = decoder.readRepository();
+						decoder.readBlobs(this.blobStore, out);
 
-				// retrieve remote repository
-				Repository.Op subsetRepository = (Repository.Op) ois.readObject();
+						// merge into this repository
+						Repository.Op repository = this.loadRepositoryForExtraction();
+						repository.merge(receivedRepository);
+						this.repositoryDao.store(repository);
 
-				progressInputStream.removeListener(this);
+						// after fork add used remote as default origin remote
+						Remote remote = this.entityFactory.createRemote(ORIGIN_REMOTE_NAME, hostname + ":" + Integer.toString(port), Remote.Type.REMOTE);
+						remote.setPulled(receivedRepository.getRevision(), deselectedFeatureVersionsString);
+						this.settingsDao.storeRemote(remote);
 
+						this.transactionStrategy.end();
+					} catch (Exception e) {
+						this.transactionStrategy.rollback();
 
-				// copy it using this entity factory
-				copiedRepository = subsetRepository.copy(this.entityFactory);
-			} else {
-				throw new EccoException("Error connecting to remote: " + hostname + ":" + port);
+						throw e;
+					}
+				}
+			} catch (Exception e) {
+				throw new EccoException("Error during remote fork.", e);
 			}
-		} catch (Exception e) {
-			throw new EccoException("Error during remote fork.", e);
-		}
-
-		try {
-			this.init();
-			this.open();
-
-			this.transactionStrategy.begin();
-
-			// merge into this repository
-			Repository.Op repository = this.repositoryDao.load();
-			repository.merge(copiedRepository);
-			this.repositoryDao.store(repository);
-
-			// after fork add used remote as default origin remote
-			Remote remote = this.entityFactory.createRemote(ORIGIN_REMOTE_NAME, hostname + ":" + Integer.toString(port), Remote.Type.REMOTE);
-			this.settingsDao.storeRemote(remote);
-
-			this.transactionStrategy.end();
-		} catch (Exception e) {
-			throw new EccoException("Error during remote fork.", e);
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
-	public synchronized void fork(Path originRepositoryDir) {
+	public void fork(Path originRepositoryDir) {
 		this.fork(originRepositoryDir, "");
 	}
 
@@ -1357,250 +1626,268 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 *
 	 * @param originRepositoryDir The directory of the repository from which to fork.
 	 */
-	public synchronized void fork(Path originRepositoryDir, String deselectedFeatureVersionsString) {
-		// check that this service has not yet been initialized and that no repository already exists,
-		if (this.isInitialized())
-			throw new EccoException("Service must not be initialized for fork operation.");
-		if (this.repositoryDirectoryExists())
-			throw new EccoException("A repository already exists at the given location: " + this.repositoryDir);
-
-		// create another ecco service and init it on the parent repository directory.
-		EccoService originService = new EccoService();
-		originService.setRepositoryDir(originRepositoryDir);
-		// create subset repository
-		Repository.Op subsetOriginRepository;
+	public void fork(Path originRepositoryDir, String deselectedFeatureVersionsString) {
+		this.lock.writeLock().lock();
 		try {
-			originService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
+			// check that this service has not yet been initialized and that no repository already exists,
+			if (this.isInitialized())
+				throw new EccoException("Service must not be initialized for fork operation.");
+			if (this.repositoryDirectoryExists())
+				throw new EccoException("A repository already exists at the given location: " + this.repositoryDir);
+
+			// create another ecco service and init it on the parent repository directory.
+			EccoService originService = new EccoService();
+			originService.setRepositoryDir(originRepositoryDir);
+			// create subset repository
+			Repository.Op subsetOriginRepository;
+			try {
+				originService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
 
-			originService.transactionStrategy.begin();
+				originService.transactionStrategy.beginReadOnly();
 
-			Repository.Op originRepository = originService.repositoryDao.load();
-			subsetOriginRepository = originRepository.subset(originService.parseFeatureVersionsString(deselectedFeatureVersionsString), originRepository.getMaxOrder(), this.entityFactory);
+				Repository.Op originRepository = originService.repositoryDao.load();
+				subsetOriginRepository = originRepository.subset(originService.parseFeatureVersionsString(deselectedFeatureVersionsString), originRepository.getMaxOrder(), this.entityFactory);
 
-			originService.transactionStrategy.end();
-		} catch (Exception e) {
-			originService.transactionStrategy.rollback();
+				originService.transactionStrategy.end();
+			} catch (Exception e) {
+				originService.transactionStrategy.rollback();
 
-			throw new EccoException("Error during local fork.", e);
-		} finally {
-			// close parent repository
-			originService.close();
-		}
+				throw new EccoException("Error during local fork.", e);
+			} finally {
+				// close parent repository
+				originService.close();
+			}
 
-		try {
-			this.init();
-			this.open();
+			try {
+				this.init(); // also opens the repository
 
-			this.transactionStrategy.begin();
+				this.transactionStrategy.begin();
 
-			// merge into this repository
-			Repository.Op repository = this.repositoryDao.load();
-			repository.merge(subsetOriginRepository);
-			this.repositoryDao.store(repository);
+				// merge into this repository
+				Repository.Op repository = this.loadRepositoryForExtraction();
+				repository.merge(subsetOriginRepository);
+				this.repositoryDao.store(repository);
 
-			// after fork add used remote as default origin remote
-			Remote remote = this.entityFactory.createRemote(ORIGIN_REMOTE_NAME, originRepositoryDir.toString(), Remote.Type.LOCAL);
-			this.settingsDao.storeRemote(remote);
+				// copy file contents
+				this.blobStore.putAll(originService.blobStore);
 
-			this.transactionStrategy.end();
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				// after fork add used remote as default origin remote
+				Remote remote = this.entityFactory.createRemote(ORIGIN_REMOTE_NAME, originRepositoryDir.toString(), Remote.Type.LOCAL);
+				remote.setPulled(subsetOriginRepository.getRevision(), deselectedFeatureVersionsString);
+				this.settingsDao.storeRemote(remote);
+
+				this.transactionStrategy.end();
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error during local fork.", e);
+				throw new EccoException("Error during local fork.", e);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
 
-	public synchronized void pull(String remoteName) {
-		this.pull("", remoteName);
+	public void pull(String remoteName) {
+		this.pull(remoteName, "");
 	}
 
 	/**
 	 * Pulls the changes from the parent repository to this repository.
 	 */
-	public synchronized void pull(String remoteName, String deselectedFeatureVersionsString) {
-		this.checkInitialized();
-
+	public void pull(String remoteName, String deselectedFeatureVersionsString) {
+		this.lock.writeLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			this.checkInitialized();
 
-			// load remote
-			Remote remote = this.settingsDao.loadRemote(remoteName);
-			if (remote == null) {
-				throw new EccoException("Remote '" + remoteName + "' does not exist.");
-			} else if (remote.getType() == Remote.Type.REMOTE) {
+			try {
+				this.transactionStrategy.begin();
 
-				try (SocketChannel sChannel = SocketChannel.open()) {
-					sChannel.configureBlocking(true);
-					String[] pair = remote.getAddress().split(":");
-					if (sChannel.connect(new InetSocketAddress(pair[0], Integer.valueOf(pair[1])))) {
-						ProgressInputStream progressInputStream = new ProgressInputStream(sChannel.socket().getInputStream());
+				// load remote
+				Remote remote = this.settingsDao.loadRemote(remoteName);
+				if (remote == null) {
+					throw new EccoException("Remote '" + remoteName + "' does not exist.");
+				}
 
-						ObjectOutputStream oos = new ObjectOutputStream(sChannel.socket().getOutputStream());
-						ObjectInputStream ois = new ObjectInputStream(progressInputStream);
+				// only the associations that were changed since the last pull are needed if the same feature versions are deselected again
+				long sinceRevision = deselectedFeatureVersionsString.equals(remote.getPulledDeselection()) ? remote.getPulledRevision() : 0;
+				long pulledRevision;
 
-						oos.writeObject("PULL");
-						oos.writeObject(deselectedFeatureVersionsString);
+				if (remote.getType() == Remote.Type.REMOTE) {
 
+					try (SocketChannel sChannel = SocketChannel.open()) {
+						sChannel.configureBlocking(true);
+						String[] pair = remote.getAddress().split(":");
+						if (sChannel.connect(new InetSocketAddress(pair[0], Integer.valueOf(pair[1])))) {
+							try (FrameWriter out = this.sendRequest(sChannel, Protocol.PULL, deselectedFeatureVersionsString, sinceRevision);
+								 FrameReader in = new FrameReader(sChannel.socket().getInputStream())) {
 
-						int size = (Integer) ois.readObject();
-						progressInputStream.setMaxBytes(size);
-						progressInputStream.resetProgress();
-						progressInputStream.addListener(this);
+								// retrieve remote repository using this entity factory and file contents
+								RepositoryStreamDecoder decoder = new RepositoryStreamDecoder(in, this.entityFactory);
+								decoder.setProgressListener(this);
+								Repository.Op receivedRepository = decoder.readRepository();
+								decoder.readBlobs(this.blobStore, out);
 
-						// retrieve remote repository
-						Repository.Op subsetRepository = (Repository.Op) ois.readObject();
+								// merge into this repository
+								Repository.Op repository = this.loadRepositoryForExtraction();
+								repository.merge(receivedRepository);
+								this.repositoryDao.store(repository);
 
-						progressInputStream.removeListener(this);
+								pulledRevision = receivedRepository.getRevision();
+							}
+						} else {
+							throw new EccoException("Error connecting to remote: " + remote.getName() + ": " + pair[0] + ":" + pair[1]);
+						}
+					} catch (Exception e) {
+						throw new EccoException("Error during remote pull.", e);
+					}
 
+				} else if (remote.getType() == Remote.Type.LOCAL) {
+					// open parent repository
+					EccoService parentService = new EccoService();
+					parentService.setRepositoryDir(Paths.get(remote.getAddress()));
+					parentService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
 
-						// copy it using this entity factory
-						Repository.Op copiedRepository = subsetRepository.copy(this.entityFactory);
+					// create subset repository
+					Repository.Op subsetParentRepository;
+					try {
+						parentService.transactionStrategy.beginReadOnly();
 
-						// merge into this repository
-						Repository.Op repository = this.repositoryDao.load();
-						repository.merge(copiedRepository);
-						this.repositoryDao.store(repository);
-					} else {
-						throw new EccoException("Error connecting to remote: " + remote.getName() + ": " + pair[0] + ":" + pair[1]);
-					}
-				} catch (Exception e) {
-					throw new EccoException("Error during remote pull.", e);
-				}
+						Repository.Op parentRepository = parentService.repositoryDao.load();
+						// a revision that the parent repository has not reached yet was pulled from a different repository
+						if (sinceRevision > parentRepository.getRevision())
+							sinceRevision = 0;
+						subsetParentRepository = parentRepository.subset(parentService.parseFeatureVersionsString(deselectedFeatureVersionsString), parentRepository.getMaxOrder(), this.entityFactory, sinceRevision);
 
-			} else if (remote.getType() == Remote.Type.LOCAL) {
-				// open parent repository
-				EccoService parentService = new EccoService();
-				parentService.setRepositoryDir(Paths.get(remote.getAddress()));
-				parentService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
+						parentService.transactionStrategy.end();
+					} catch (Exception e) {
+						parentService.transactionStrategy.rollback();
 
-				// create subset repository
-				Repository.Op subsetParentRepository;
-				try {
-					parentService.transactionStrategy.begin();
+						throw new EccoException("Error during local pull.", e);
+					}
 
-					Repository.Op parentRepository = parentService.repositoryDao.load();
-					subsetParentRepository = parentRepository.subset(parentService.parseFeatureVersionsString(deselectedFeatureVersionsString), parentRepository.getMaxOrder(), this.entityFactory);
+					// copy file contents
+					this.blobStore.putAll(parentService.blobStore);
 
-					parentService.transactionStrategy.end();
-				} catch (Exception e) {
-					parentService.transactionStrategy.rollback();
+					// close parent repository
+					parentService.close();
 
-					throw new EccoException("Error during local pull.", e);
-				}
+					// merge into this repository
+					Repository.Op repository = this.loadRepositoryForExtraction();
+					repository.merge(subsetParentRepository);
+					this.repositoryDao.store(repository);
 
-				// close parent repository
-				parentService.close();
+					pulledRevision = subsetParentRepository.getRevision();
+				} else {
+					throw new EccoException("Unsupported remote type: " + remote.getType());
+				}
 
-				// merge into this repository
-				Repository.Op repository = this.repositoryDao.load();
-				repository.merge(subsetParentRepository);
-				this.repositoryDao.store(repository);
-			}
+				remote.setPulled(pulledRevision, deselectedFeatureVersionsString);
+				this.settingsDao.storeRemote(remote);
 
-			this.transactionStrategy.end();
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				this.transactionStrategy.end();
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error during pull.", e);
+				throw new EccoException("Error during pull.", e);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
 		}
 	}
 
 
-	public synchronized void push(String remoteName) {
-		this.push("", remoteName);
+	public void push(String remoteName) {
+		this.push(remoteName, "");
 	}
 
 	/**
 	 * Pushes the changes from this repository to its parent repository.
 	 */
-	public synchronized void push(String remoteName, String deselectedFeatureVersionsString) {
-		this.checkInitialized();
-
+	public void push(String remoteName, String deselectedFeatureVersionsString) {
+		this.lock.readLock().lock();
 		try {
-			this.transactionStrategy.begin();
+			this.checkInitialized();
 
-			// load remote
-			Remote remote = this.settingsDao.loadRemote(remoteName);
-			if (remote == null) {
-				throw new EccoException("Remote " + remoteName + " does not exist");
-			} else if (remote.getType() == Remote.Type.REMOTE) {
+			try {
+				this.transactionStrategy.beginReadOnly();
+
+				// load remote
+				Remote remote = this.settingsDao.loadRemote(remoteName);
+				if (remote == null) {
+					throw new EccoException("Remote " + remoteName + " does not exist");
+				} else if (remote.getType() == Remote.Type.REMOTE) {
+
+					try (SocketChannel sChannel = SocketChannel.open()) {
+						sChannel.configureBlocking(true);
+						String[] pair = remote.getAddress().split(":");
+						if (sChannel.connect(new InetSocketAddress(pair[0], Integer.valueOf(pair[1])))) {
+							// compute subset repository using mem entity factory
+							Repository.Op repository = this.repositoryDao.load();
+							Repository.Op subsetRepository = this.subset(repository, this.parseFeatureVersionsString(deselectedFeatureVersionsString), this.memEntityFactory, 0);
+
+							try (FrameWriter out = this.sendRequest(sChannel, Protocol.PUSH, "", 0);
+								 FrameReader in = new FrameReader(sChannel.socket().getInputStream())) {
+								// wait until the remote has accepted the request
+								RepositoryStreamDecoder decoder = new RepositoryStreamDecoder(in, this.entityFactory);
+								decoder.readEnd();
+
+								// stream subset repository and file contents
+								RepositoryStreamEncoder encoder = new RepositoryStreamEncoder(out);
+								encoder.setProgressListener(this);
+								encoder.writeRepository(subsetRepository);
+								encoder.writeBlobs(this.blobStore, in);
+
+								// wait until the remote has merged the repository
+								decoder.readEnd();
+							}
+						} else {
+							throw new EccoException("Error connecting to remote: " + pair[0] + ":" + pair[1]);
+						}
+					} catch (Exception e) {
+						throw new EccoException("Error during remote push.", e);
+					}
 
-				try (SocketChannel sChannel = SocketChannel.open()) {
-					sChannel.configureBlocking(true);
-					String[] pair = remote.getAddress().split(":");
-					if (sChannel.connect(new InetSocketAddress(pair[0], Integer.valueOf(pair[1])))) {
-						ObjectOutputStream oos = new ObjectOutputStream(sChannel.socket().getOutputStream());
-						ObjectInputStream ois = new ObjectInputStream(sChannel.socket().getInputStream());
+				} else if (remote.getType() == Remote.Type.LOCAL) {
+					// open parent repo
+					EccoService parentService = new EccoService();
+					parentService.setRepositoryDir(Paths.get(remote.getAddress()));
+					parentService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
 
-						oos.writeObject("PUSH");
+					// create subset repository
+					Repository.Op repository = this.repositoryDao.load();
+					Repository.Op subsetRepository = this.subset(repository, this.parseFeatureVersionsString(deselectedFeatureVersionsString), parentService.entityFactory, 0);
 
-						// compute subset repository using mem entity factory
-						this.transactionStrategy.begin();
-						Repository.Op repository = this.repositoryDao.load();
-						Repository.Op subsetRepository = repository.subset(this.parseFeatureVersionsString(deselectedFeatureVersionsString), repository.getMaxOrder(), this.memEntityFactory);
-						this.transactionStrategy.end();
+					// merge into parent repository
+					try {
+						parentService.transactionStrategy.begin();
 
+						Repository.Op parentRepository = parentService.loadRepositoryForExtraction();
+						parentRepository.merge(subsetRepository);
+						parentService.repositoryDao.store(parentRepository);
 
-						// send subset repository
-						// without size:
-						//oos.writeObject(subsetRepository);
-						// with size:
-						ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
-						ObjectOutputStream temp_oos = new ObjectOutputStream(byteOutputStream);
-						temp_oos.writeObject(subsetRepository);
-						// get size of data
-						int size = byteOutputStream.size();
-						byteOutputStream.close();
-						// send data
-						ProgressOutputStream pos = new ProgressOutputStream(sChannel.socket().getOutputStream());
-						pos.setMaxBytes(size);
-						pos.resetProgress();
-						pos.addListener(this);
-						byteOutputStream.writeTo(pos);
-						pos.removeListener(this);
+						parentService.transactionStrategy.end();
+					} catch (Exception e) {
+						parentService.transactionStrategy.rollback();
 
-					} else {
-						throw new EccoException("Error connecting to remote: " + pair[0] + ":" + pair[1]);
+						throw new EccoException("Error during local push.", e);
 					}
-				} catch (Exception e) {
-					throw new EccoException("Error during remote push.", e);
-				}
-
-			} else if (remote.getType() == Remote.Type.LOCAL) {
-				// open parent repo
-				EccoService parentService = new EccoService();
-				parentService.setRepositoryDir(Paths.get(remote.getAddress()));
-				parentService.open(); // TODO: init read only! add read only mode for that (also useful for other read only services on a repository such as a read only web interface REST API service).
 
-				// create subset repository
-				Repository.Op repository = this.repositoryDao.load();
-				Repository.Op subsetRepository = repository.subset(this.parseFeatureVersionsString(deselectedFeatureVersionsString), repository.getMaxOrder(), parentService.entityFactory);
+					// copy file contents
+					parentService.blobStore.putAll(this.blobStore);
 
-				// merge into parent repository
-				try {
-					parentService.transactionStrategy.begin();
-
-					Repository.Op parentRepository = parentService.repositoryDao.load();
-					parentRepository.merge(subsetRepository);
-					parentService.repositoryDao.store(parentRepository);
-
-					parentService.transactionStrategy.end();
-				} catch (Exception e) {
-					parentService.transactionStrategy.rollback();
-
-					throw new EccoException("Error during local push.", e);
+					// close parent repository
+					parentService.close();
 				}
 
-				// close parent repository
-				parentService.close();
-			}
-
-			this.transactionStrategy.end();
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				this.transactionStrategy.end();
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error during push.", e);
+				throw new EccoException("Error during push.", e);
+			}
+		} finally {
+			this.lock.readLock().unlock();
 		}
 	}
 
@@ -1612,26 +1899,31 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 *
 	 * @return True if the repository was created, false otherwise.
 	 */
-	public synchronized boolean init() {
-		if (this.isInitialized())
-			throw new EccoException("Service must not be initialized for init operation.");
+	public boolean init() {
+		this.lock.writeLock().lock();
+		try {
+			if (this.isInitialized())
+				throw new EccoException("Service must not be initialized for init operation.");
 
-		if (this.repositoryDirectoryExists())
-			throw new EccoException("Repository already exists at this location.");
+			if (this.repositoryDirectoryExists())
+				throw new EccoException("Repository already exists at this location.");
 
-		try {
-			if (!this.repositoryDirectoryExists())
-				Files.createDirectory(this.repositoryDir);
+			try {
+				if (!this.repositoryDirectoryExists())
+					Files.createDirectory(this.repositoryDir);
 
-			this.open();
+				this.open();
 
-			// TODO: do some initialization in backend like generating root object, etc.?
+				// TODO: do some initialization in backend like generating root object, etc.?
 
-		} catch (IOException e) {
-			throw new EccoException("Error while creating repository.", e);
-		}
+			} catch (IOException e) {
+				throw new EccoException("Error while creating repository.", e);
+			}
 
-		return true;
+			return true;
+		} finally {
+			this.lock.writeLock().unlock();
+		}
 	}
 
 	// COMMIT //////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -1641,7 +1933,7 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 *
 	 * @return The resulting commit object.
 	 */
-	public synchronized Commit commit() {
+	public Commit commit() {
 		Path configFile = this.baseDir.resolve(CONFIG_FILE_NAME);
 		try {
 			String configurationString = "";
@@ -1659,8 +1951,13 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 * @param configurationString The configuration string.
 	 * @return The resulting commit object.
 	 */
-	public synchronized Commit commit(String configurationString) {
-		return this.commit(this.parseConfigurationString(configurationString));
+	public Commit commit(String configurationString) {
+		this.lock.writeLock().lock();
+		try {
+			return this.commit(this.parseConfigurationString(configurationString));
+		} finally {
+			this.lock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -1669,26 +1966,131 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 * @param configuration The configuration to be commited.
 	 * @return The resulting commit object or null in case of an error.
 	 */
-	public synchronized Commit commit(Configuration configuration) {
-		this.checkInitialized();
+	public Commit commit(Configuration configuration) {
+		this.lock.writeLock().lock();
+		try {
+			this.checkInitialized();
 
-		checkNotNull(configuration);
+			checkNotNull(configuration);
 
-		try {
-			this.transactionStrategy.begin();
+			try {
+				this.transactionStrategy.begin();
 
-			Set<Node.Op> nodes = this.reader.read(this.baseDir, new Path[]{Paths.get("")});
-			Repository.Op repository = this.repositoryDao.load();
-			Commit commit = repository.extract(configuration, nodes);
-			this.repositoryDao.store(repository);
+				Set<Node.Op> nodes = this.reader.read(this.baseDir, new Path[]{Paths.get("")});
+				Repository.Op repository = this.loadRepositoryForExtraction();
+				Collection<Association> unmodifiedAssociations = this.resolveUnmodifiedNodes(repository, nodes);
+				Commit commit = repository.extract(configuration, nodes, unmodifiedAssociations);
+				this.repositoryDao.store(repository);
 
-			this.transactionStrategy.end();
+				this.transactionStrategy.end();
 
-			return commit;
-		} catch (Exception e) {
-			this.transactionStrategy.rollback();
+				return commit;
+			} catch (Exception e) {
+				this.transactionStrategy.rollback();
 
-			throw new EccoException("Error during commit.", e);
+				throw new EccoException("Error during commit.", e);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+
+	/**
+	 * Resolves the nodes of files that were not modified since they were checked out (see {@link Artifact#PROPERTY_UNMODIFIED}), so that these files need not be parsed and sliced again.
+	 * Such a node stands for the subtrees of its file in the associations that were selected for the checked out configuration (given in file {@link #CONFIG_FILE_NAME}), which are reused as they are when the nodes are extracted (see {@link Repository.Op#extract(Configuration, Set, Collection)}).
+	 * A file is only resolved if writing the composed file reproduces it exactly and every artifact in it is unique in one of the selected associations, so that the result is the same as that of reading the file.
+	 * Otherwise, and if there is no configuration file, the file is read again, together with the other unmodified files of its plugin if the plugin may add references between files.
+	 *
+	 * @param repository The repository the nodes are going to be extracted into.
+	 * @param nodes      The nodes returned by the reader.
+	 * @return The associations whose subtrees the remaining unmodified nodes stand for.
+	 */
+	private Collection<Association> resolveUnmodifiedNodes(Repository.Op repository, Set<Node.Op> nodes) {
+		Map<Path, Node.Op> unmodifiedNodes = new HashMap<>();
+		for (Node.Op node : nodes) {
+			this.collectPluginNodes(node, unmodifiedNodes, true);
+		}
+		if (unmodifiedNodes.isEmpty())
+			return Collections.emptySet();
+
+		// compose the checked out configuration
+		Collection<Association> selectedAssociations = Collections.emptySet();
+		Map<Path, Node> composedNodes = new HashMap<>();
+		Path configFile = this.baseDir.resolve(CONFIG_FILE_NAME);
+		if (Files.exists(configFile)) {
+			try {
+				String configurationString = new String(Files.readAllBytes(configFile)).trim();
+				Checkout checkout = repository.compose(this.parseConfigurationString(configurationString));
+				selectedAssociations = checkout.getSelectedAssociations();
+				this.collectPluginNodes(checkout.getNode(), composedNodes, false);
+			} catch (IOException e) {
+				throw new EccoException("Configuration file existed but could not be read.", e);
+			}
+		}
+
+		// find the files that are not reproduced by the composed nodes
+		Set<Path> unresolvedFiles = new TreeSet<>();
+		Set<String> unresolvedPluginIds = new HashSet<>();
+		for (Map.Entry<Path, Node.Op> entry : unmodifiedNodes.entrySet()) {
+			Node composedNode = composedNodes.get(entry.getKey());
+			if (composedNode == null || composedNode.getArtifact().isAtomic() || !this.isUniqueTree(composedNode) || !EccoUtil.getSHA(this.baseDir.resolve(entry.getKey())).equals(this.writer.computeHash(composedNode))) {
+				unresolvedFiles.add(entry.getKey());
+				String pluginId = ((PluginArtifactData) entry.getValue().getArtifact().getData()).getPluginId();
+				if (!this.reader.isThreadSafe(pluginId))
+					unresolvedPluginIds.add(pluginId);
+			}
+		}
+		// the files of a plugin that may add references between files are either all resolved or all read
+		for (Map.Entry<Path, Node.Op> entry : unmodifiedNodes.entrySet()) {
+			if (unresolvedPluginIds.contains(((PluginArtifactData) entry.getValue().getArtifact().getData()).getPluginId()))
+				unresolvedFiles.add(entry.getKey());
+		}
+
+		// the nodes of resolved files must be equal to the nodes they stand for, which the reader could not know
+		for (Map.Entry<Path, Node.Op> entry : unmodifiedNodes.entrySet()) {
+			if (!unresolvedFiles.contains(entry.getKey()))
+				entry.getValue().getArtifact().setOrdered(composedNodes.get(entry.getKey()).getArtifact().isOrdered());
+		}
+
+		// read files that could not be resolved
+		if (!unresolvedFiles.isEmpty()) {
+			LOGGER.debug("Reading " + unresolvedFiles.size() + " unmodified files that could not be resolved from the repository.");
+			for (Node.Op pluginNode : this.reader.readFiles(this.baseDir, unresolvedFiles)) {
+				Node.Op unmodifiedNode = unmodifiedNodes.get(((PluginArtifactData) pluginNode.getArtifact().getData()).getPath());
+				Node.Op parentNode = unmodifiedNode.getParent();
+				parentNode.removeChild(unmodifiedNode);
+				parentNode.addChild(pluginNode);
+			}
+		}
+
+		if (unresolvedFiles.size() == unmodifiedNodes.size())
+			return Collections.emptySet();
+		return selectedAssociations;
+	}
+
+	/**
+	 * Checks if every descendant of the given composed node is unique, i.e. unique in one of the associations it was composed from.
+	 */
+	private boolean isUniqueTree(Node node) {
+		for (Node child : node.getChildren()) {
+			if (!child.isUnique() || !this.isUniqueTree(child))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Collects the plugin nodes in the tree rooted at the given node by their paths. If unmodifiedOnly is set only plugin nodes with property {@link Artifact#PROPERTY_UNMODIFIED} are collected.
+	 */
+	private <T extends Node> void collectPluginNodes(T node, Map<Path, T> pluginNodes, boolean unmodifiedOnly) {
+		if (node.getArtifact() != null && node.getArtifact().getData() instanceof PluginArtifactData) {
+			if (!unmodifiedOnly || node.getArtifact().getProperty(Artifact.PROPERTY_UNMODIFIED).isPresent())
+				pluginNodes.put(((PluginArtifactData) node.getArtifact().getData()).getPath(), node);
+		} else {
+			for (Node child : node.getChildren()) {
+				this.collectPluginNodes((T) child, pluginNodes, unmodifiedOnly);
+			}
 		}
 	}
 
@@ -1700,8 +2102,8 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 *
 	 * @param configurationString The configuration string representing the configuration that shall be checked out.
 	 */
-	public synchronized Checkout checkout(String configurationString) {
-		return this.checkout(this.parseConfigurationString(configurationString));
+	public Checkout checkout(String configurationString) {
+		return this.checkout(configurationString, false);
 	}
 
 	/**
@@ -1709,86 +2111,162 @@ public class EccoService implements ProgressInputStream.ProgressListener, Progre
 	 *
 	 * @param configuration The configuration to be checked out.
 	 */
-	public synchronized Checkout checkout(Configuration configuration) {
-		this.checkInitialized();
+	public Checkout checkout(Configuration configuration) {
+		return this.checkout(configuration, false);
+	}
 
-		checkNotNull(configuration);
+	/**
+	 * Switches the base directory, which contains a previous checkout, to the implementation of the configuration (given as configuration string). Only the files that differ between the two implementations are written or deleted (see {@link DispatchWriter#update(Path, Set)}).
+	 *
+	 * @param configurationString The configuration string representing the configuration that shall be checked out.
+	 */
+	public Checkout switchConfiguration(String configurationString) {
+		return this.checkout(configurationString, true);
+	}
 
+	/**
+	 * Switches the base directory, which contains a previous checkout, to the implementation of the given configuration. Only the files that differ between the two implementations are written or deleted (see {@link DispatchWriter#update(Path, Set)}).
+	 *
+	 * @param configuration The configuration to be checked out.
+	 */
+	public Checkout switchConfiguration(Configuration configuration) {
+		return this.checkout(configuration, true);
+	}
 
-		Repository.Op repository = this.repositoryDao.load();
-		Checkout checkout = repository.compose(configuration);
+	private Checkout checkout(String configurationString, boolean update) {
+		this.baseDirLock.lock();
+		try {
+			// new features and feature versions are added to the repository while parsing, the checkout itself only reads
+			Configuration configuration;
+			this.lock.writeLock().lock();
+			try {
+				configuration = this.parseConfigurationString(configurationString);
+				this.lock.readLock().lock();
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+			try {
+				return this.checkout(configuration, update);
+			} finally {
+				this.lock.readLock().unlock();
+			}
+		} finally {
+			this.baseDirLock.unlock();
+		}
+	}
 
+	/**
+	 * Checks out the implementation of the given configuration into the base directory, which must be empty unless the base directory is updated.
+	 * <p>
+	 * The repository is only read, so a checkout runs in parallel with other read operations (e.g. serving fetches), but the base directory is written by one checkout at a time (see {@link #baseDirLock}), so the check whether it already contains a checkout and the writing are not interleaved with another checkout.
+	 */
+	private Checkout checkout(Configuration configuration, boolean update) {
+		this.baseDirLock.lock();
+		this.lock.readLock().lock();
+		try {
+			this.checkInitialized();
 
-		for (Association selectedAssociation : checkout.getSelectedAssociations()) {
-			this.fireAssociationSelectedEvent(selectedAssociation);
-		}
+			checkNotNull(configuration);
 
-		// write artifacts to files
-		Set<Node> nodes = new HashSet<>(checkout.getNode().getChildren());
-		this.writer.write(this.baseDir, nodes);
 
-		// write config file into base directory
-		Path configFile = this.baseDir.resolve(CONFIG_FILE_NAME);
-		if (Files.exists(configFile)) {
-			throw new EccoException("Configuration file already exists in base directory.");
-		} else {
+			// the composed nodes are loaded lazily while they are written
+			Checkout checkout;
+			this.transactionStrategy.beginReadOnly();
 			try {
-				Files.write(configFile, configuration.toString().getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-			} catch (IOException e) {
-				throw new EccoException("Could not create configuration file.", e);
-			}
-			this.fireWriteEvent(configFile, this.writer);
-		}
+				Repository.Op repository = this.repositoryDao.load();
+				checkout = repository.compose(configuration);
 
-		// write warnings file into base directory
-		Path warningsFile = this.baseDir.resolve(WARNINGS_FILE_NAME);
-		if (Files.exists(warningsFile)) {
-			throw new EccoException("Warnings file already exists in base directory.");
-		} else {
-			try {
-				StringBuilder sb = new StringBuilder();
 
-				for (at.jku.isse.ecco.module.Module m : checkout.getMissing()) {
-					sb.append("MISSING: " + m + System.lineSeparator());
+				for (Association selectedAssociation : checkout.getSelectedAssociations()) {
+					this.fireAssociationSelectedEvent(selectedAssociation);
 				}
-				for (at.jku.isse.ecco.module.Module m : checkout.getSurplus()) {
-					sb.append("SURPLUS: " + m + System.lineSeparator());
-				}
-				for (Artifact a : checkout.getOrderWarnings()) {
-					List<String> pathList = new LinkedList<>();
-					Node current = a.getContainingNode().getParent();
-					while (current != null) {
-						if (current.getArtifact() != null)
-							pathList.add(0, current.getArtifact().toString() + " > ");
-						current = current.getParent();
+
+				// write artifacts to files
+				Set<Node> nodes = new HashSet<>(checkout.getNode().getChildren());
+				if (update)
+					this.writer.update(this.baseDir, nodes);
+				else
+					this.writer.write(this.baseDir, nodes);
+
+				// write config file into base directory
+				Path configFile = this.baseDir.resolve(CONFIG_FILE_NAME);
+				if (Files.exists(configFile) && !update) {
+					throw new EccoException("Configuration file already exists in base directory.");
+				} else {
+					try {
+						Files.write(configFile, configuration.toString().getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+					} catch (IOException e) {
+						throw new EccoException("Could not create configuration file.", e);
 					}
-					pathList.add(a.toString());
-					sb.append("ORDER: " + pathList.stream().collect(Collectors.joining()) + System.lineSeparator());
+					this.fireWriteEvent(configFile, this.writer);
 				}
-				for (Association association : checkout.getUnresolvedAssociations()) {
-					sb.append("UNRESOLVED: " + association + System.lineSeparator());
+
+				// write warnings file into base directory
+				Path warningsFile = this.baseDir.resolve(WARNINGS_FILE_NAME);
+				if (Files.exists(warningsFile) && !update) {
+					throw new EccoException("Warnings file already exists in base directory.");
+				} else {
+					try {
+						StringBuilder sb = new StringBuilder();
+
+						for (at.jku.isse.ecco.module.Module m : checkout.getMissing()) {
+							sb.append("MISSING: " + m + System.lineSeparator());
+						}
+						for (at.jku.isse.ecco.module.Module m : checkout.getSurplus()) {
+							sb.append("SURPLUS: " + m + System.lineSeparator());
+						}
+						for (Artifact a : checkout.getOrderWarnings()) {
+							List<String> pathList = new LinkedList<>();
+							Node current = a.getContainingNode().getParent();
+							while (current != null) {
+								if (current.getArtifact() != null)
+									pathList.add(0, current.getArtifact().toString() + " > ");
+								current = current.getParent();
+							}
+							pathList.add(a.toString());
+							sb.append("ORDER: " + pathList.stream().collect(Collectors.joining()) + System.lineSeparator());
+						}
+						for (Association association : checkout.getUnresolvedAssociations()) {
+							sb.append("UNRESOLVED: " + association + System.lineSeparator());
+						}
+
+						Files.write(warningsFile, sb.toString().getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+					} catch (IOException e) {
+						throw new EccoException("Could not create warnings file.", e);
+					}
+					this.fireWriteEvent(warningsFile, this.writer);
 				}
 
-				Files.write(warningsFile, sb.toString().getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-			} catch (IOException e) {
-				throw new EccoException("Could not create warnings file.", e);
+				this.transactionStrategy.end();
+			} catch (RuntimeException e) {
+				this.transactionStrategy.rollback();
+				throw e;
 			}
-			this.fireWriteEvent(warningsFile, this.writer);
-		}
 
-		return checkout;
+			return checkout;
+		} finally {
+			this.lock.readLock().unlock();
+			this.baseDirLock.unlock();
+		}
 	}
 
-	public synchronized Checkout checkout(Node node) {
-		this.checkInitialized();
+	public Checkout checkout(Node node) {
+		this.baseDirLock.lock();
+		this.lock.readLock().lock();
+		try {
+			this.checkInitialized();
 
-		Checkout checkout = new Checkout();
-		checkout.setNode(node);
+			Checkout checkout = new Checkout();
+			checkout.setNode(node);
 
-		Set<Node> nodes = new HashSet<>(node.getChildren());
-		this.writer.write(this.baseDir, nodes);
+			Set<Node> nodes = new HashSet<>(node.getChildren());
+			this.writer.write(this.baseDir, nodes);
 
-		return checkout;
+			return checkout;
+		} finally {
+			this.lock.readLock().unlock();
+			this.baseDirLock.unlock();
+		}
 	}
 
 
@@ -1,5 +1,6 @@
 package at.jku.isse.ecco.artifact;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.sg.BaseSequenceGraph;
 import at.jku.isse.ecco.sg.SequenceGraph;
 import at.jku.isse.ecco.tree.Node;
@@ -115,6 +116,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 	@Override
 	public void setUseReferencesInEquals(boolean useReferenesInEquals) {
 		this.useReferencesInEquals = useReferenesInEquals;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -125,6 +127,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 	@Override
 	public void setAtomic(boolean atomic) {
 		this.atomic = atomic;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -135,6 +138,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 	@Override
 	public void setOrdered(boolean ordered) {
 		this.ordered = ordered;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -145,6 +149,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 	@Override
 	public void setSequenceGraph(SequenceGraph.Op sequenceGraph) {
 		this.sequenceGraph = sequenceGraph;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -155,6 +160,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 	@Override
 	public void setSequenceNumber(int sequenceNumber) {
 		this.sequenceNumber = sequenceNumber;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -207,6 +213,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 	@Override
 	public void setContainingNode(final Node.Op node) {
 		this.containingNode = node;
+		MemTracking.modified(this);
 	}
 
 
@@ -235,6 +242,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 		checkNotNull(reference);
 
 		this.uses.add(reference);
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -242,6 +250,7 @@ public class BaseArtifact<DataType extends ArtifactData> implements Artifact<Dat
 		checkNotNull(reference);
 
 		this.usedBy.add(reference);
+		MemTracking.modified(this);
 	}
 
 	@Override
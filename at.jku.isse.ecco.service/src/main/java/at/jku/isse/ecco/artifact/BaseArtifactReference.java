@@ -1,5 +1,7 @@
 package at.jku.isse.ecco.artifact;
 
+import at.jku.isse.ecco.dao.MemTracking;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -49,6 +51,7 @@ public class BaseArtifactReference implements ArtifactReference, ArtifactReferen
 		checkNotNull(source);
 
 		this.source = source;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -56,6 +59,7 @@ public class BaseArtifactReference implements ArtifactReference, ArtifactReferen
 		checkNotNull(target);
 
 		this.target = target;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -1,9 +1,11 @@
 package at.jku.isse.ecco.core;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.module.Module;
 import at.jku.isse.ecco.module.ModuleFeature;
 import at.jku.isse.ecco.module.PresenceCondition;
 import at.jku.isse.ecco.tree.RootNode;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.*;
 
@@ -27,6 +29,7 @@ public class BaseAssociation implements Association, Association.Op {
 	private Set<Module> modules = new HashSet<>();
 	private Map<ModuleFeature, Integer> presenceTable = new HashMap<>();
 	private int presenceCount;
+	private long revision;
 
 	/**
 	 * Constructs a new association.
@@ -44,16 +47,17 @@ public class BaseAssociation implements Association, Association.Op {
 	@Override
 	public void setPresenceCondition(PresenceCondition presenceCondition) {
 		this.presenceCondition = presenceCondition;
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public Set<Module> getModules() {
-		return this.modules;
+		return TrackedCollections.set(() -> MemTracking.modified(this), this.modules);
 	}
 
 	@Override
 	public Map<ModuleFeature, Integer> getPresenceTable() {
-		return this.presenceTable;
+		return TrackedCollections.map(() -> MemTracking.modified(this), this.presenceTable);
 	}
 
 	@Override
@@ -63,42 +67,48 @@ public class BaseAssociation implements Association, Association.Op {
 
 	@Override
 	public int incPresenceCount() {
+		MemTracking.modified(this);
 		return (++this.presenceCount);
 	}
 
 	@Override
 	public int incPresenceCount(int val) {
+		MemTracking.modified(this);
 		return (this.presenceCount += val);
 	}
 
 	@Override
 	public List<Association> getParents() {
-		return this.parents;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.parents);
 	}
 
 	@Override
 	public void addParent(Association parent) {
 		this.parents.add(parent);
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public void removeParent(Association parent) {
-		this.parents.remove(parent);
+		if (this.parents.remove(parent))
+			MemTracking.modified(this);
 	}
 
 	@Override
 	public Collection<Association> getChildren() {
-		return this.children;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.children);
 	}
 
 	@Override
 	public void addChild(Association child) {
 		this.children.add(child);
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public void removeChild(Association child) {
-		this.children.remove(child);
+		if (this.children.remove(child))
+			MemTracking.modified(this);
 	}
 
 	@Override
@@ -109,6 +119,7 @@ public class BaseAssociation implements Association, Association.Op {
 	@Override
 	public void setId(final String id) {
 		this.id = id;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -121,6 +132,18 @@ public class BaseAssociation implements Association, Association.Op {
 		checkNotNull(name);
 
 		this.name = name;
+		MemTracking.modified(this);
+	}
+
+	@Override
+	public long getRevision() {
+		return this.revision;
+	}
+
+	@Override
+	public void setRevision(long revision) {
+		this.revision = revision;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -131,6 +154,7 @@ public class BaseAssociation implements Association, Association.Op {
 	@Override
 	public void setRootNode(final RootNode.Op root) {
 		this.artifactTreeRoot = root;
+		MemTracking.modified(this);
 		root.setContainingAssociation(this);
 	}
 
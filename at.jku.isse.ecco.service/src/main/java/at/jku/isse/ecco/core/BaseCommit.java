@@ -1,6 +1,8 @@
 package at.jku.isse.ecco.core;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.Configuration;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +38,7 @@ public class BaseCommit implements Commit {
 	@Override
 	public void setId(int id) {
 		this.id = id;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -46,16 +49,18 @@ public class BaseCommit implements Commit {
 	@Override
 	public void setConfiguration(Configuration configuration) {
 		this.configuration = configuration;
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public List<Association> getAssociations() {
-		return this.associations;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.associations);
 	}
 
 	@Override
 	public void addAssociation(Association association) {
 		this.associations.add(association);
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -66,37 +71,41 @@ public class BaseCommit implements Commit {
 	@Override
 	public void setCommitter(String committer) {
 		this.committer = committer;
+		MemTracking.modified(this);
 	}
 
 
 	@Override
 	public List<Association> getUnmodified() {
-		return this.unmodifiedAssociations;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.unmodifiedAssociations);
 	}
 
 	@Override
 	public void addUnmodified(Association association) {
 		this.unmodifiedAssociations.add(association);
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public List<Association> getRemoved() {
-		return this.removedAssociations;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.removedAssociations);
 	}
 
 	@Override
 	public void addRemoved(Association association) {
 		this.removedAssociations.add(association);
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public List<Association> getNew() {
-		return this.newAssociations;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.newAssociations);
 	}
 
 	@Override
 	public void addNew(Association association) {
 		this.newAssociations.add(association);
+		MemTracking.modified(this);
 	}
 
 }
@@ -1,6 +1,8 @@
 package at.jku.isse.ecco.core;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.Feature;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -13,6 +15,9 @@ public class BaseRemote implements Remote {
 
 	private Collection<Feature> features;
 
+	private long pulledRevision = 0;
+	private String pulledDeselection = "";
+
 
 	public BaseRemote() {
 		this("", "", Type.LOCAL);
@@ -34,6 +39,7 @@ public class BaseRemote implements Remote {
 	@Override
 	public void setName(String name) {
 		this.name = name;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -44,6 +50,7 @@ public class BaseRemote implements Remote {
 	@Override
 	public void setAddress(String address) {
 		this.address = address;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -54,11 +61,29 @@ public class BaseRemote implements Remote {
 	@Override
 	public void setType(Type type) {
 		this.type = type;
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public Collection<Feature> getFeatures() {
-		return this.features;
+		return TrackedCollections.collection(() -> MemTracking.modified(this), this.features);
+	}
+
+	@Override
+	public long getPulledRevision() {
+		return this.pulledRevision;
+	}
+
+	@Override
+	public String getPulledDeselection() {
+		return this.pulledDeselection;
+	}
+
+	@Override
+	public void setPulled(long revision, String deselection) {
+		this.pulledRevision = revision;
+		this.pulledDeselection = deselection;
+		MemTracking.modified(this);
 	}
 
 
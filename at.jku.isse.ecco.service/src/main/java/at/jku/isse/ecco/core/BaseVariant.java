@@ -1,5 +1,6 @@
 package at.jku.isse.ecco.core;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.Configuration;
 
 /**
@@ -22,6 +23,7 @@ public class BaseVariant implements Variant {
 	@Override
 	public void setName(String name) {
 		this.name = name;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -32,6 +34,7 @@ public class BaseVariant implements Variant {
 	@Override
 	public void setDescription(String description) {
 		this.description = description;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -42,6 +45,7 @@ public class BaseVariant implements Variant {
 	@Override
 	public void setConfiguration(Configuration configuration) {
 		this.configuration = configuration;
+		MemTracking.modified(this);
 	}
 
 }
@@ -44,6 +44,8 @@ public class MemCommitDao extends MemAbstractGenericDao implements CommitDao {
 		final Database root = this.transactionStrategy.getDatabase();
 
 		root.getCommitIndex().remove(id);
+
+		this.transactionStrategy.done(root);
 	}
 
 	@Override
@@ -51,6 +53,8 @@ public class MemCommitDao extends MemAbstractGenericDao implements CommitDao {
 		final Database root = this.transactionStrategy.getDatabase();
 
 		root.getCommitIndex().remove(entity.getId());
+
+		this.transactionStrategy.done(root);
 	}
 
 	@Override
@@ -65,6 +69,8 @@ public class MemCommitDao extends MemAbstractGenericDao implements CommitDao {
 
 		root.getCommitIndex().put(baseEntity.getId(), baseEntity);
 
+		this.transactionStrategy.done(root, baseEntity);
+
 		return baseEntity;
 	}
 
@@ -12,6 +12,7 @@ import at.jku.isse.ecco.tree.BaseNode;
 import at.jku.isse.ecco.tree.BaseRootNode;
 import at.jku.isse.ecco.tree.Node;
 import at.jku.isse.ecco.tree.RootNode;
+import com.google.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -22,6 +23,29 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public class MemEntityFactory implements EntityFactory {
 
+	private final transient ModuleIndex moduleIndex;
+
+
+	/**
+	 * Creates an entity factory for a transient repository, whose presence conditions have a module index of their own. The index is not stored with the repository, so a stored factory is decoded with a new index.
+	 */
+	public MemEntityFactory() {
+		this(new ModuleIndex());
+	}
+
+	/**
+	 * Creates an entity factory whose presence conditions intern their modules into the given index of the repository.
+	 *
+	 * @param moduleIndex The module index of the repository.
+	 */
+	@Inject
+	public MemEntityFactory(ModuleIndex moduleIndex) {
+		checkNotNull(moduleIndex);
+
+		this.moduleIndex = moduleIndex;
+	}
+
+
 	@Override
 	public Remote createRemote(String name, String address, Remote.Type type) {
 		return new BaseRemote(name, address, type);
@@ -44,17 +68,17 @@ public class MemEntityFactory implements EntityFactory {
 
 	@Override
 	public PresenceCondition createPresenceCondition() {
-		return new BasePresenceCondition();
+		return new BitsetPresenceCondition(this.moduleIndex);
 	}
 
 	@Override
 	public PresenceCondition createPresenceCondition(Configuration configuration, int maxOrder) {
-		return new BasePresenceCondition(configuration, maxOrder);
+		return new BitsetPresenceCondition(this.moduleIndex, configuration, maxOrder);
 	}
 
 	@Override
 	public PresenceCondition createPresenceCondition(PresenceCondition pc) {
-		BasePresenceCondition clone = new BasePresenceCondition();
+		BitsetPresenceCondition clone = new BitsetPresenceCondition(this.moduleIndex);
 		clone.getMinModules().addAll(pc.getMinModules());
 		clone.getMaxModules().addAll(pc.getMaxModules());
 		clone.getAllModules().addAll(pc.getAllModules());
@@ -0,0 +1,944 @@
+package at.jku.isse.ecco.dao;
+
+import at.jku.isse.ecco.EccoException;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes the objects of a {@link Database} into compact binary records and decodes them again.
+ * <p>
+ * Every object of an ECCO class (e.g. nodes, artifacts, associations or artifact data) is an entity that is encoded into a record of its own, which contains the values of its non-transient fields. Entities reference each other by ids that stay the same as long as an entity is reachable, so the record of an entity only changes when the entity itself changes.
+ * Strings, primitives, enums, arrays, collections and maps are encoded inline in the record of the entity that holds them. Other serializable objects are encoded with Java serialization.
+ * <p>
+ * Every entity needs a no-arg constructor (which may be private). When decoding, entities are created with it, so it also initializes their transient fields. Hash based collections are filled only after the fields of the entities they contain are set, and the {@code readResolve} method of an entity is called once all entities it references are complete.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+final class MemRecordCodec {
+
+	private static final String ENTITY_PACKAGE = "at.jku.isse.ecco.";
+
+	private static final int NULL = 0;
+	private static final int REF = 1;
+	private static final int STRING = 2;
+	private static final int TRUE = 3;
+	private static final int FALSE = 4;
+	private static final int INT = 5;
+	private static final int LONG = 6;
+	private static final int DOUBLE = 7;
+	private static final int FLOAT = 8;
+	private static final int SHORT = 9;
+	private static final int BYTE = 10;
+	private static final int CHAR = 11;
+	private static final int ENUM = 12;
+	private static final int BYTES = 13;
+	private static final int INTS = 14;
+	private static final int LONGS = 15;
+	private static final int ARRAY = 16;
+	private static final int COLLECTION = 17;
+	private static final int MAP = 18;
+	private static final int SERIALIZED = 19;
+
+
+	private final Map<Class<?>, Field[]> fields = new HashMap<>();
+	private final Map<Class<?>, Boolean> entityTypes = new HashMap<>();
+	private final Map<Class<?>, Optional<Method>> readResolveMethods = new HashMap<>();
+	private final Map<String, Class<?>> classes = new HashMap<>();
+
+	private IdentityHashMap<Object, Integer> ids = new IdentityHashMap<>();
+	private int nextId = 1;
+
+	// decoded entities whose records do not describe them, since they were replaced by their readResolve method, and the records of replaced entities that are no longer used
+	private Set<Object> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+	private List<Integer> orphaned = new ArrayList<>();
+
+	// state of the current encoding
+	private IdentityHashMap<Object, Integer> reached = null;
+	private Deque<Object> queue = null;
+
+
+	/**
+	 * Encodes the given modified entities and all entities that are reachable from them or from the given root entity and have not been encoded or decoded by this codec yet. The records of all other entities are still valid and are not encoded again, except for the records of decoded entities that were replaced by their {@code readResolve} method.
+	 *
+	 * @param root     The root entity.
+	 * @param modified The modified entities. Entities that are unknown to this codec are encoded only if they are reachable from an encoded entity.
+	 * @return The records of the encoded entities by their ids.
+	 */
+	Map<Integer, byte[]> encode(Object root, Collection<?> modified) {
+		this.reached = new IdentityHashMap<>();
+		this.queue = new ArrayDeque<>();
+		try {
+			Map<Integer, byte[]> records = new HashMap<>();
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(buffer);
+
+			this.ref(root);
+			for (Collection<?> entities : Arrays.asList(modified, this.stale)) {
+				for (Object entity : entities) {
+					Integer id = this.ids.get(entity);
+					if (id != null && this.reached.put(entity, id) == null)
+						this.queue.add(entity);
+				}
+			}
+			while (!this.queue.isEmpty()) {
+				Object entity = this.queue.poll();
+				buffer.reset();
+				this.writeRecord(out, entity);
+				out.flush();
+				records.put(this.reached.get(entity), buffer.toByteArray());
+			}
+
+			this.ids.putAll(this.reached);
+			this.stale.clear();
+			return records;
+		} catch (IOException e) {
+			throw new EccoException("Error encoding repository.", e);
+		} finally {
+			this.reached = null;
+			this.queue = null;
+		}
+	}
+
+	/**
+	 * Forgets all entities that are no longer reachable from the given root entity, so that they get new ids and are encoded again if they become reachable later. Must be followed by an encoding, since the records of replaced entities are only orphaned once the entities that referenced them are encoded again.
+	 *
+	 * @param root The root entity.
+	 * @return The ids of the records of the forgotten entities and of orphaned records.
+	 */
+	List<Integer> sweep(Object root) {
+		IdentityHashMap<Object, Boolean> reachable = new IdentityHashMap<>();
+		Deque<Object> stack = new ArrayDeque<>();
+		reachable.put(root, true);
+		stack.push(root);
+		try {
+			while (!stack.isEmpty()) {
+				Object entity = stack.pop();
+				for (Field field : this.getFields(entity.getClass())) {
+					if (!field.getType().isPrimitive())
+						this.reach(field.get(entity), reachable, stack);
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new EccoException("Error traversing repository.", e);
+		}
+
+		List<Integer> forgotten = new ArrayList<>(this.orphaned);
+		this.orphaned.clear();
+		Iterator<Map.Entry<Object, Integer>> it = this.ids.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Object, Integer> entry = it.next();
+			if (!reachable.containsKey(entry.getKey())) {
+				forgotten.add(entry.getValue());
+				it.remove();
+			}
+		}
+		return forgotten;
+	}
+
+	/**
+	 * @return The number of entities that have been encoded or decoded by this codec.
+	 */
+	int size() {
+		return this.ids.size();
+	}
+
+	/**
+	 * @param entity The entity.
+	 * @return The id of the given entity, or -1 if it has not been encoded or decoded by this codec.
+	 */
+	int getId(Object entity) {
+		Integer id = this.ids.get(entity);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Decodes the entities from the given records. The decoded entities keep the ids of their records. Entities that were replaced by their {@code readResolve} method are encoded again with the next encoding if they differ from their record, and so are the entities that reference a replaced entity that was decoded from several records (see {@link #sweep(Object)}).
+	 *
+	 * @param records The records by their ids.
+	 * @param rootId  The id of the root entity.
+	 * @return The root entity.
+	 */
+	Object decode(Map<Integer, byte[]> records, int rootId) {
+		try {
+			Decoding decoding = new Decoding();
+
+			// create all entities
+			for (Map.Entry<Integer, byte[]> record : records.entrySet())
+				decoding.entries.put(record.getKey(), this.readRecord(record.getKey(), record.getValue()));
+
+			// set all fields that do not depend on hash codes of other entities
+			for (Entry entry : decoding.entries.values()) {
+				for (int i = 0; i < entry.fields.length; i++) {
+					if (decoding.isDeferred(entry.values[i]))
+						entry.deferred = true;
+					else
+						entry.fields[i].set(entry.instance, decoding.materialize(entry.values[i], false));
+				}
+			}
+
+			// fill hash based collections
+			for (Entry entry : decoding.entries.values())
+				decoding.complete(entry);
+
+			IdentityHashMap<Object, Integer> decodedIds = new IdentityHashMap<>();
+			Set<Object> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+			Set<Integer> orphaned = new HashSet<>();
+			int maxId = 0;
+			for (Entry entry : decoding.entries.values()) {
+				Object resolved = decoding.resolve(entry);
+				if (decodedIds.putIfAbsent(resolved, entry.id) != null)
+					orphaned.add(entry.id);
+				else if (resolved != entry.instance && !this.isEquivalent(entry.instance, resolved))
+					stale.add(resolved);
+				maxId = Math.max(maxId, entry.id);
+			}
+			if (!orphaned.isEmpty()) {
+				List<Integer> refs = new ArrayList<>();
+				for (Entry entry : decoding.entries.values()) {
+					refs.clear();
+					for (Object value : entry.values)
+						collectRefs(value, refs);
+					if (!Collections.disjoint(refs, orphaned))
+						stale.add(decoding.resolve(entry));
+				}
+			}
+			this.ids = decodedIds;
+			this.stale = stale;
+			this.orphaned = new ArrayList<>(orphaned);
+			this.nextId = Math.max(this.nextId, maxId + 1);
+
+			return decoding.resolve(decoding.entry(rootId));
+		} catch (IOException | ReflectiveOperationException e) {
+			throw new EccoException("Error decoding repository.", e);
+		}
+	}
+
+
+	// # ENCODING ####################################################
+
+	/**
+	 * Entities that were encoded or decoded before keep their ids and records, new entities are queued for encoding.
+	 */
+	private int ref(Object entity) {
+		Integer id = this.ids.get(entity);
+		if (id == null) {
+			id = this.reached.get(entity);
+			if (id == null) {
+				id = this.nextId++;
+				this.reached.put(entity, id);
+				this.queue.add(entity);
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Checks if the given entity that replaces a decoded entity has the same field values, so that the record of the decoded entity describes it as well.
+	 */
+	private boolean isEquivalent(Object decoded, Object resolved) throws IllegalAccessException {
+		if (decoded.getClass() != resolved.getClass())
+			return false;
+		for (Field field : this.getFields(decoded.getClass())) {
+			if (!this.isSameValue(field.get(decoded), field.get(resolved)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if two values are encoded into the same bytes, i.e. if they reference the same entities in the same order and are equal otherwise.
+	 */
+	private boolean isSameValue(Object value1, Object value2) {
+		if (value1 == value2)
+			return true;
+		if (value1 == null || value2 == null || value1.getClass() != value2.getClass() || this.isEntity(value1.getClass()))
+			return false;
+
+		if (value1 instanceof Object[]) {
+			Object[] array1 = (Object[]) value1;
+			Object[] array2 = (Object[]) value2;
+			if (array1.length != array2.length)
+				return false;
+			for (int i = 0; i < array1.length; i++) {
+				if (!this.isSameValue(array1[i], array2[i]))
+					return false;
+			}
+			return true;
+		} else if (value1 instanceof Collection) {
+			return ((Collection<?>) value1).size() == ((Collection<?>) value2).size() && this.isSameValues(((Collection<?>) value1).iterator(), ((Collection<?>) value2).iterator());
+		} else if (value1 instanceof Map) {
+			return ((Map<?, ?>) value1).size() == ((Map<?, ?>) value2).size() && this.isSameValues(((Map<?, ?>) value1).entrySet().iterator(), ((Map<?, ?>) value2).entrySet().iterator());
+		} else if (value1 instanceof Map.Entry) {
+			return this.isSameValue(((Map.Entry<?, ?>) value1).getKey(), ((Map.Entry<?, ?>) value2).getKey()) && this.isSameValue(((Map.Entry<?, ?>) value1).getValue(), ((Map.Entry<?, ?>) value2).getValue());
+		} else {
+			return Objects.deepEquals(value1, value2);
+		}
+	}
+
+	private boolean isSameValues(Iterator<?> it1, Iterator<?> it2) {
+		while (it1.hasNext()) {
+			if (!this.isSameValue(it1.next(), it2.next()))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the entities that are contained in the given value to the reachable entities, like they are referenced when the value is encoded (see {@link #writeValue(DataOutputStream, Object)}).
+	 */
+	private void reach(Object value, IdentityHashMap<Object, Boolean> reachable, Deque<Object> stack) {
+		if (value == null)
+			return;
+
+		Class<?> type = value.getClass();
+		if (value instanceof Enum) {
+			return;
+		} else if (this.isEntity(type)) {
+			if (reachable.put(value, true) == null)
+				stack.push(value);
+		} else if (type.isArray()) {
+			if (!type.getComponentType().isPrimitive()) {
+				for (Object element : (Object[]) value)
+					this.reach(element, reachable, stack);
+			}
+		} else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value)
+				this.reach(element, reachable, stack);
+		} else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				this.reach(entry.getKey(), reachable, stack);
+				this.reach(entry.getValue(), reachable, stack);
+			}
+		}
+	}
+
+	private void writeRecord(DataOutputStream out, Object entity) throws IOException {
+		Class<?> type = entity.getClass();
+		writeString(out, type.getName());
+		try {
+			for (Field field : this.getFields(type)) {
+				Class<?> fieldType = field.getType();
+				if (fieldType == int.class)
+					writeVarLong(out, field.getInt(entity));
+				else if (fieldType == long.class)
+					writeVarLong(out, field.getLong(entity));
+				else if (fieldType == boolean.class)
+					out.writeBoolean(field.getBoolean(entity));
+				else if (fieldType == double.class)
+					out.writeDouble(field.getDouble(entity));
+				else if (fieldType == float.class)
+					out.writeFloat(field.getFloat(entity));
+				else if (fieldType == short.class)
+					out.writeShort(field.getShort(entity));
+				else if (fieldType == byte.class)
+					out.writeByte(field.getByte(entity));
+				else if (fieldType == char.class)
+					out.writeChar(field.getChar(entity));
+				else
+					this.writeValue(out, field.get(entity));
+			}
+		} catch (IllegalAccessException e) {
+			throw new EccoException("Error encoding " + type.getName() + ".", e);
+		}
+	}
+
+	private void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+			return;
+		}
+
+		Class<?> type = value.getClass();
+		if (type == String.class) {
+			out.writeByte(STRING);
+			writeString(out, (String) value);
+		} else if (type == Boolean.class) {
+			out.writeByte((Boolean) value ? TRUE : FALSE);
+		} else if (type == Integer.class) {
+			out.writeByte(INT);
+			writeVarLong(out, (Integer) value);
+		} else if (type == Long.class) {
+			out.writeByte(LONG);
+			writeVarLong(out, (Long) value);
+		} else if (type == Double.class) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (type == Float.class) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		} else if (type == Short.class) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		} else if (type == Byte.class) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		} else if (type == Character.class) {
+			out.writeByte(CHAR);
+			out.writeChar((Character) value);
+		} else if (value instanceof Enum) {
+			out.writeByte(ENUM);
+			writeString(out, ((Enum<?>) value).getDeclaringClass().getName());
+			writeString(out, ((Enum<?>) value).name());
+		} else if (this.isEntity(type)) {
+			out.writeByte(REF);
+			writeVarInt(out, this.ref(value));
+		} else if (type == byte[].class) {
+			out.writeByte(BYTES);
+			writeVarInt(out, ((byte[]) value).length);
+			out.write((byte[]) value);
+		} else if (type == int[].class) {
+			out.writeByte(INTS);
+			writeVarInt(out, ((int[]) value).length);
+			for (int element : (int[]) value)
+				writeVarLong(out, element);
+		} else if (type == long[].class) {
+			out.writeByte(LONGS);
+			writeVarInt(out, ((long[]) value).length);
+			for (long element : (long[]) value)
+				writeVarLong(out, element);
+		} else if (type.isArray()) {
+			out.writeByte(ARRAY);
+			writeString(out, type.getName());
+			int length = Array.getLength(value);
+			writeVarInt(out, length);
+			for (int i = 0; i < length; i++)
+				this.writeValue(out, Array.get(value, i));
+		} else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>) value;
+			out.writeByte(COLLECTION);
+			writeString(out, type.getName());
+			writeVarInt(out, collection.size());
+			for (Object element : collection)
+				this.writeValue(out, element);
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			out.writeByte(MAP);
+			writeString(out, type.getName());
+			writeVarInt(out, map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				this.writeValue(out, entry.getKey());
+				this.writeValue(out, entry.getValue());
+			}
+		} else if (value instanceof Serializable) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+				oos.writeObject(value);
+			}
+			out.writeByte(SERIALIZED);
+			writeVarInt(out, bytes.size());
+			bytes.writeTo(out);
+		} else {
+			throw new EccoException("Cannot encode object of type " + type.getName() + ".");
+		}
+	}
+
+
+	// # DECODING ####################################################
+
+	private Entry readRecord(int id, byte[] record) throws IOException, ReflectiveOperationException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		Class<?> type = this.forName(readString(in));
+		Field[] fields = this.getFields(type);
+		Object[] values = new Object[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			Class<?> fieldType = fields[i].getType();
+			if (fieldType == int.class)
+				values[i] = (int) readVarLong(in);
+			else if (fieldType == long.class)
+				values[i] = readVarLong(in);
+			else if (fieldType == boolean.class)
+				values[i] = in.readBoolean();
+			else if (fieldType == double.class)
+				values[i] = in.readDouble();
+			else if (fieldType == float.class)
+				values[i] = in.readFloat();
+			else if (fieldType == short.class)
+				values[i] = in.readShort();
+			else if (fieldType == byte.class)
+				values[i] = in.readByte();
+			else if (fieldType == char.class)
+				values[i] = in.readChar();
+			else
+				values[i] = this.readValue(in);
+		}
+		return new Entry(id, instantiate(type), fields, values, this.getReadResolve(type));
+	}
+
+	private Object readValue(DataInputStream in) throws IOException, ReflectiveOperationException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+			case NULL:
+				return null;
+			case REF:
+				return new Ref(readVarInt(in));
+			case STRING:
+				return readString(in);
+			case TRUE:
+				return Boolean.TRUE;
+			case FALSE:
+				return Boolean.FALSE;
+			case INT:
+				return (int) readVarLong(in);
+			case LONG:
+				return readVarLong(in);
+			case DOUBLE:
+				return in.readDouble();
+			case FLOAT:
+				return in.readFloat();
+			case SHORT:
+				return in.readShort();
+			case BYTE:
+				return in.readByte();
+			case CHAR:
+				return in.readChar();
+			case ENUM: {
+				Class<?> type = this.forName(readString(in));
+				String name = readString(in);
+				for (Object constant : type.getEnumConstants()) {
+					if (((Enum<?>) constant).name().equals(name))
+						return constant;
+				}
+				throw new EccoException("Unknown constant " + name + " of enum " + type.getName() + ".");
+			}
+			case BYTES: {
+				byte[] bytes = new byte[readVarInt(in)];
+				in.readFully(bytes);
+				return bytes;
+			}
+			case INTS: {
+				int[] ints = new int[readVarInt(in)];
+				for (int i = 0; i < ints.length; i++)
+					ints[i] = (int) readVarLong(in);
+				return ints;
+			}
+			case LONGS: {
+				long[] longs = new long[readVarInt(in)];
+				for (int i = 0; i < longs.length; i++)
+					longs[i] = readVarLong(in);
+				return longs;
+			}
+			case ARRAY: {
+				Class<?> type = this.forName(readString(in));
+				Object[] elements = new Object[readVarInt(in)];
+				for (int i = 0; i < elements.length; i++)
+					elements[i] = this.readValue(in);
+				return new ArrayValue(type.getComponentType(), elements);
+			}
+			case COLLECTION: {
+				Class<?> type = this.forName(readString(in));
+				Object[] elements = new Object[readVarInt(in)];
+				for (int i = 0; i < elements.length; i++)
+					elements[i] = this.readValue(in);
+				return new CollectionValue(type, elements);
+			}
+			case MAP: {
+				Class<?> type = this.forName(readString(in));
+				int size = readVarInt(in);
+				Object[] keys = new Object[size];
+				Object[] values = new Object[size];
+				for (int i = 0; i < size; i++) {
+					keys[i] = this.readValue(in);
+					values[i] = this.readValue(in);
+				}
+				return new MapValue(type, keys, values);
+			}
+			case SERIALIZED: {
+				byte[] bytes = new byte[readVarInt(in)];
+				in.readFully(bytes);
+				try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+					return ois.readObject();
+				}
+			}
+			default:
+				throw new EccoException("Invalid value tag " + tag + " in stored repository.");
+		}
+	}
+
+	private final class Decoding {
+		private final Map<Integer, Entry> entries = new HashMap<>();
+
+		private Entry entry(int id) {
+			Entry entry = this.entries.get(id);
+			if (entry == null)
+				throw new EccoException("Missing record " + id + " in stored repository.");
+			return entry;
+		}
+
+		/**
+		 * Values that contain hash based collections or references to entities that are resolved via {@code readResolve} can only be set once the entities they contain are complete.
+		 */
+		private boolean isDeferred(Object value) {
+			if (value instanceof Ref)
+				return this.entry(((Ref) value).id).readResolve != null;
+			if (value instanceof MapValue)
+				return true;
+			if (value instanceof CollectionValue) {
+				if (Set.class.isAssignableFrom(((CollectionValue) value).type))
+					return true;
+				for (Object element : ((CollectionValue) value).elements) {
+					if (this.isDeferred(element))
+						return true;
+				}
+			}
+			if (value instanceof ArrayValue) {
+				for (Object element : ((ArrayValue) value).elements) {
+					if (this.isDeferred(element))
+						return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Sets the deferred fields of the given entity. Entities that are contained in hash based collections of those fields are completed first.
+		 */
+		private void complete(Entry entry) throws ReflectiveOperationException {
+			if (entry.state != Entry.NEW)
+				return;
+			entry.state = Entry.COMPLETING;
+			if (entry.deferred) {
+				for (int i = 0; i < entry.fields.length; i++) {
+					if (this.isDeferred(entry.values[i]))
+						entry.fields[i].set(entry.instance, this.materialize(entry.values[i], false));
+				}
+			}
+			entry.state = Entry.COMPLETE;
+		}
+
+		/**
+		 * Completes the given entity and all entities that are reachable from it.
+		 */
+		private void completeAll(Entry entry) throws ReflectiveOperationException {
+			Set<Entry> visited = new HashSet<>();
+			Deque<Entry> stack = new ArrayDeque<>();
+			stack.push(entry);
+			visited.add(entry);
+			List<Integer> refs = new ArrayList<>();
+			while (!stack.isEmpty()) {
+				Entry current = stack.pop();
+				this.complete(current);
+				refs.clear();
+				for (Object value : current.values)
+					collectRefs(value, refs);
+				for (int id : refs) {
+					Entry referenced = this.entry(id);
+					if (visited.add(referenced))
+						stack.push(referenced);
+				}
+			}
+		}
+
+		private Object resolve(Entry entry) throws ReflectiveOperationException {
+			if (entry.readResolve == null)
+				return entry.instance;
+			if (entry.resolved == null) {
+				this.completeAll(entry);
+				entry.resolved = entry.readResolve.invoke(entry.instance);
+			}
+			return entry.resolved;
+		}
+
+		/**
+		 * Creates the value that is set into a field.
+		 *
+		 * @param value  The decoded value.
+		 * @param hashed True if the hash code of the value is used, in which case the entities it references are completed first.
+		 */
+		private Object materialize(Object value, boolean hashed) throws ReflectiveOperationException {
+			if (value instanceof Ref) {
+				Entry entry = this.entry(((Ref) value).id);
+				if (hashed)
+					this.complete(entry);
+				return this.resolve(entry);
+			} else if (value instanceof ArrayValue) {
+				ArrayValue arrayValue = (ArrayValue) value;
+				Object array = Array.newInstance(arrayValue.componentType, arrayValue.elements.length);
+				for (int i = 0; i < arrayValue.elements.length; i++)
+					Array.set(array, i, this.materialize(arrayValue.elements[i], hashed));
+				return array;
+			} else if (value instanceof CollectionValue) {
+				CollectionValue collectionValue = (CollectionValue) value;
+				Collection<Object> collection = newCollection(collectionValue.type, collectionValue.elements.length);
+				boolean elementsHashed = hashed || collection instanceof Set;
+				for (Object element : collectionValue.elements)
+					collection.add(this.materialize(element, elementsHashed));
+				return collection;
+			} else if (value instanceof MapValue) {
+				MapValue mapValue = (MapValue) value;
+				Map<Object, Object> map = newMap(mapValue.type);
+				for (int i = 0; i < mapValue.keys.length; i++)
+					map.put(this.materialize(mapValue.keys[i], true), this.materialize(mapValue.values[i], hashed));
+				return map;
+			} else {
+				return value;
+			}
+		}
+	}
+
+	private static void collectRefs(Object value, List<Integer> refs) {
+		if (value instanceof Ref) {
+			refs.add(((Ref) value).id);
+		} else if (value instanceof ArrayValue) {
+			for (Object element : ((ArrayValue) value).elements)
+				collectRefs(element, refs);
+		} else if (value instanceof CollectionValue) {
+			for (Object element : ((CollectionValue) value).elements)
+				collectRefs(element, refs);
+		} else if (value instanceof MapValue) {
+			for (Object key : ((MapValue) value).keys)
+				collectRefs(key, refs);
+			for (Object element : ((MapValue) value).values)
+				collectRefs(element, refs);
+		}
+	}
+
+	private static final class Entry {
+		private static final int NEW = 0;
+		private static final int COMPLETING = 1;
+		private static final int COMPLETE = 2;
+
+		private final int id;
+		private final Object instance;
+		private final Field[] fields;
+		private final Object[] values;
+		private final Method readResolve;
+		private boolean deferred = false;
+		private int state = NEW;
+		private Object resolved = null;
+
+		private Entry(int id, Object instance, Field[] fields, Object[] values, Method readResolve) {
+			this.id = id;
+			this.instance = instance;
+			this.fields = fields;
+			this.values = values;
+			this.readResolve = readResolve;
+		}
+	}
+
+	private static final class Ref {
+		private final int id;
+
+		private Ref(int id) {
+			this.id = id;
+		}
+	}
+
+	private static final class ArrayValue {
+		private final Class<?> componentType;
+		private final Object[] elements;
+
+		private ArrayValue(Class<?> componentType, Object[] elements) {
+			this.componentType = componentType;
+			this.elements = elements;
+		}
+	}
+
+	private static final class CollectionValue {
+		private final Class<?> type;
+		private final Object[] elements;
+
+		private CollectionValue(Class<?> type, Object[] elements) {
+			this.type = type;
+			this.elements = elements;
+		}
+	}
+
+	private static final class MapValue {
+		private final Class<?> type;
+		private final Object[] keys;
+		private final Object[] values;
+
+		private MapValue(Class<?> type, Object[] keys, Object[] values) {
+			this.type = type;
+			this.keys = keys;
+			this.values = values;
+		}
+	}
+
+
+	// # TYPES ####################################################
+
+	/**
+	 * Objects of ECCO classes are entities, except for collections and maps that have no persistent fields of their own (e.g. {@link at.jku.isse.ecco.module.ModuleSet}), which are encoded by their elements like any other collection.
+	 */
+	private boolean isEntity(Class<?> type) {
+		Boolean entity = this.entityTypes.get(type);
+		if (entity == null) {
+			entity = type.getName().startsWith(ENTITY_PACKAGE) && !((Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) && this.getFields(type).length == 0);
+			this.entityTypes.put(type, entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * @return The non-static, non-transient fields of the given class and its superclasses outside of the JDK, ordered by declaring class (superclasses first) and name.
+	 */
+	private Field[] getFields(Class<?> type) {
+		Field[] result = this.fields.get(type);
+		if (result == null) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> current = type; current != null && !current.getName().startsWith("java."); current = current.getSuperclass()) {
+				List<Field> declared = new ArrayList<>();
+				for (Field field : current.getDeclaredFields()) {
+					int modifiers = field.getModifiers();
+					if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+						field.setAccessible(true);
+						declared.add(field);
+					}
+				}
+				declared.sort(Comparator.comparing(Field::getName));
+				fields.addAll(0, declared);
+			}
+			result = fields.toArray(new Field[fields.size()]);
+			this.fields.put(type, result);
+		}
+		return result;
+	}
+
+	private Method getReadResolve(Class<?> type) {
+		Optional<Method> method = this.readResolveMethods.get(type);
+		if (method == null) {
+			try {
+				Method readResolve = type.getDeclaredMethod("readResolve");
+				readResolve.setAccessible(true);
+				method = Optional.of(readResolve);
+			} catch (NoSuchMethodException e) {
+				method = Optional.empty();
+			}
+			this.readResolveMethods.put(type, method);
+		}
+		return method.orElse(null);
+	}
+
+	private Class<?> forName(String name) {
+		Class<?> type = this.classes.get(name);
+		if (type == null) {
+			try {
+				type = Class.forName(name, false, MemRecordCodec.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				try {
+					type = Class.forName(name, false, Thread.currentThread().getContextClassLoader());
+				} catch (ClassNotFoundException e2) {
+					throw new EccoException("Unknown class " + name + " in stored repository.", e2);
+				}
+			}
+			this.classes.put(name, type);
+		}
+		return type;
+	}
+
+	/**
+	 * Creates an entity with its no-arg constructor.
+	 */
+	private static Object instantiate(Class<?> type) throws ReflectiveOperationException {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new EccoException("Class " + type.getName() + " has no no-arg constructor, which is required to decode it.", e);
+		}
+		constructor.setAccessible(true);
+		return constructor.newInstance();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Collection<Object> newCollection(Class<?> type, int size) throws ReflectiveOperationException {
+		Object instance = newPublicInstance(type);
+		if (instance != null)
+			return (Collection<Object>) instance;
+		else if (SortedSet.class.isAssignableFrom(type))
+			return new TreeSet<>();
+		else if (Set.class.isAssignableFrom(type))
+			return new LinkedHashSet<>(size);
+		else if (Queue.class.isAssignableFrom(type))
+			return new LinkedList<>();
+		else
+			return new ArrayList<>(size);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> newMap(Class<?> type) throws ReflectiveOperationException {
+		Object instance = newPublicInstance(type);
+		if (instance != null)
+			return (Map<Object, Object>) instance;
+		else if (SortedMap.class.isAssignableFrom(type))
+			return new TreeMap<>();
+		else
+			return new LinkedHashMap<>();
+	}
+
+	/**
+	 * Unmodifiable, empty or otherwise special collections of the JDK have no public no-arg constructor and are replaced by their general purpose counterparts.
+	 */
+	private static Object newPublicInstance(Class<?> type) throws ReflectiveOperationException {
+		if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers()))
+			return null;
+		try {
+			return type.getConstructor().newInstance();
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+
+	// # PRIMITIVES ####################################################
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new EccoException("Invalid variable length integer in stored repository.");
+	}
+
+	/**
+	 * Writes a zig-zag encoded variable length long, so that small negative values are short as well.
+	 */
+	private static void writeVarLong(DataOutput out, long value) throws IOException {
+		long zigZag = (value << 1) ^ (value >> 63);
+		while ((zigZag & ~0x7FL) != 0) {
+			out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+			zigZag >>>= 7;
+		}
+		out.writeByte((int) zigZag);
+	}
+
+	private static long readVarLong(DataInput in) throws IOException {
+		long zigZag = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			zigZag |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+		}
+		throw new EccoException("Invalid variable length long in stored repository.");
+	}
+
+	private static void writeString(DataOutput out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		byte[] bytes = new byte[readVarInt(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
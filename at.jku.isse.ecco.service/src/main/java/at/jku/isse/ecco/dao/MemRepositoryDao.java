@@ -27,7 +27,7 @@ public class MemRepositoryDao extends MemAbstractGenericDao implements Repositor
 
 	@Override
 	public void store(Repository.Op repository) {
-		// nothing to do for memory implementation
+		this.transactionStrategy.done(repository);
 	}
 
 }
@@ -56,6 +56,8 @@ public class MemSettingsDao extends MemAbstractGenericDao implements SettingsDao
 
 		remoteIndex.put(memEntity.getName(), memEntity);
 
+		this.transactionStrategy.done(root, memEntity);
+
 		return memEntity;
 	}
 
@@ -67,6 +69,8 @@ public class MemSettingsDao extends MemAbstractGenericDao implements SettingsDao
 		final Map<String, BaseRemote> remoteIndex = root.getRemoteIndex();
 
 		remoteIndex.remove(name);
+
+		this.transactionStrategy.done(root);
 	}
 
 
@@ -85,6 +89,8 @@ public class MemSettingsDao extends MemAbstractGenericDao implements SettingsDao
 		final Database root = this.transactionStrategy.getDatabase();
 
 		root.getPluginMap().put(pattern, pluginId);
+
+		this.transactionStrategy.done(root);
 	}
 
 	@Override
@@ -92,6 +98,8 @@ public class MemSettingsDao extends MemAbstractGenericDao implements SettingsDao
 		final Database root = this.transactionStrategy.getDatabase();
 
 		root.getPluginMap().remove(pattern);
+
+		this.transactionStrategy.done(root);
 	}
 
 	@Override
@@ -109,6 +117,8 @@ public class MemSettingsDao extends MemAbstractGenericDao implements SettingsDao
 		final Database root = this.transactionStrategy.getDatabase();
 
 		root.getIgnorePatterns().add(ignorePattern);
+
+		this.transactionStrategy.done(root);
 	}
 
 	@Override
@@ -116,6 +126,8 @@ public class MemSettingsDao extends MemAbstractGenericDao implements SettingsDao
 		final Database root = this.transactionStrategy.getDatabase();
 
 		root.getIgnorePatterns().remove(ignorePattern);
+
+		this.transactionStrategy.done(root);
 	}
 
 }
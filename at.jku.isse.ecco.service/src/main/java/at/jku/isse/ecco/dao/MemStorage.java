@@ -0,0 +1,416 @@
+package at.jku.isse.ecco.dao;
+
+import at.jku.isse.ecco.EccoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Durable storage of the records of the memory backend (see {@link MemRecordCodec}) in the repository directory.
+ * <p>
+ * The storage consists of a snapshot of all records ({@link #SNAPSHOT_FILE_NAME}) and an append-only log ({@link #LOG_FILE_NAME}) that contains the changed and deleted records of every transaction that was committed after the snapshot was taken.
+ * Every log entry is checksummed and forced to disk before the commit returns. When the log grows beyond {@link #SNAPSHOT_LOG_SIZE} a new snapshot is written in the background from the current snapshot and the log, and the log entries it contains are dropped from the log.
+ * When the storage is opened the log is replayed on top of the snapshot. An incomplete entry at the end of the log (e.g. after a crash during a commit) is discarded.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+final class MemStorage {
+
+	protected static final Logger LOGGER = LoggerFactory.getLogger(MemStorage.class);
+
+	public static final String SNAPSHOT_FILE_NAME = "mem.snapshot";
+	public static final String LOG_FILE_NAME = "mem.log";
+
+	/**
+	 * Size of the log in bytes beyond which a new snapshot is written.
+	 */
+	public static final long SNAPSHOT_LOG_SIZE = 8L * 1024 * 1024;
+
+	private static final int SNAPSHOT_MAGIC = 0xECC05AAB;
+	private static final int SNAPSHOT_VERSION = 1;
+
+	/**
+	 * Header of every log entry: length of the compressed payload and its CRC32 checksum.
+	 */
+	private static final int LOG_HEADER_SIZE = 8;
+
+
+	/**
+	 * Records of the repository after a committed transaction.
+	 */
+	static final class State {
+		private long transaction;
+		private int rootId;
+		private final Map<Integer, byte[]> records;
+
+		State(long transaction, int rootId, Map<Integer, byte[]> records) {
+			this.transaction = transaction;
+			this.rootId = rootId;
+			this.records = records;
+		}
+
+		long getTransaction() {
+			return this.transaction;
+		}
+
+		int getRootId() {
+			return this.rootId;
+		}
+
+		Map<Integer, byte[]> getRecords() {
+			return Collections.unmodifiableMap(this.records);
+		}
+
+		boolean isEmpty() {
+			return this.records.isEmpty();
+		}
+
+		/**
+		 * Applies the changes of the given transaction to this state.
+		 */
+		void apply(long transaction, int rootId, Map<Integer, byte[]> changed, Collection<Integer> deleted) {
+			for (Integer id : deleted)
+				this.records.remove(id);
+			this.records.putAll(changed);
+			this.transaction = transaction;
+			this.rootId = rootId;
+		}
+	}
+
+
+	private final Path snapshotFile;
+	private final Path logFile;
+
+	private FileChannel log = null;
+
+	/**
+	 * Transactions contained in the log and the position in the log where their entries end.
+	 */
+	private final NavigableMap<Long, Long> logEntries = new TreeMap<>();
+
+	private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ecco-mem-snapshot");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private Future<?> snapshotTask = null;
+
+
+	MemStorage(Path repositoryDir) {
+		checkNotNull(repositoryDir);
+
+		this.snapshotFile = repositoryDir.resolve(SNAPSHOT_FILE_NAME);
+		this.logFile = repositoryDir.resolve(LOG_FILE_NAME);
+	}
+
+
+	/**
+	 * Reads the snapshot and replays the log.
+	 *
+	 * @return The last committed state.
+	 */
+	synchronized State open() {
+		try {
+			State state = this.readSnapshot();
+
+			this.log = FileChannel.open(this.logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.logEntries.clear();
+
+			long size = this.log.size();
+			long position = replay(this.log, size, state, this.logEntries);
+			if (position < size) {
+				LOGGER.warn("Discarding incomplete entry at the end of the log " + this.logFile + ".");
+				this.log.truncate(position);
+				this.log.force(true);
+			}
+			this.log.position(position);
+
+			LOGGER.debug("Opened memory storage: " + state.getRecords().size() + " records of transaction " + state.getTransaction() + ".");
+
+			return state;
+		} catch (IOException e) {
+			throw new EccoException("Error opening memory storage in " + this.logFile.getParent() + ".", e);
+		}
+	}
+
+	/**
+	 * Reads the snapshot and replays the log again, e.g. to restore the last committed state when a transaction is rolled back.
+	 *
+	 * @return The last committed state.
+	 */
+	synchronized State read() {
+		try {
+			State state = this.readSnapshot();
+			replay(this.log, this.log.position(), state, null);
+			return state;
+		} catch (IOException e) {
+			throw new EccoException("Error reading memory storage in " + this.logFile.getParent() + ".", e);
+		}
+	}
+
+	/**
+	 * Waits for a running snapshot and closes the log.
+	 */
+	void close() {
+		this.awaitSnapshot();
+		this.snapshotExecutor.shutdown();
+		synchronized (this) {
+			try {
+				if (this.log != null)
+					this.log.close();
+			} catch (IOException e) {
+				throw new EccoException("Error closing memory storage.", e);
+			} finally {
+				this.log = null;
+			}
+		}
+	}
+
+	/**
+	 * Appends the changes of a transaction to the log and forces them to disk.
+	 *
+	 * @param transaction The transaction.
+	 * @param rootId      The id of the root record after the transaction.
+	 * @param changed     The records that were added or changed by the transaction.
+	 * @param deleted     The ids of the records that were deleted by the transaction.
+	 * @return The number of bytes that were written.
+	 */
+	synchronized long append(long transaction, int rootId, Map<Integer, byte[]> changed, Collection<Integer> deleted) {
+		try {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(payload, deflater))) {
+				out.writeLong(transaction);
+				out.writeInt(rootId);
+				writeRecords(out, changed);
+				out.writeInt(deleted.size());
+				for (int id : deleted)
+					out.writeInt(id);
+			} finally {
+				deflater.end();
+			}
+
+			byte[] bytes = payload.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(bytes, 0, bytes.length);
+
+			ByteBuffer entry = ByteBuffer.allocate(LOG_HEADER_SIZE + bytes.length);
+			entry.putInt(bytes.length);
+			entry.putInt((int) crc.getValue());
+			entry.put(bytes);
+			entry.flip();
+			while (entry.hasRemaining())
+				this.log.write(entry);
+			this.log.force(false);
+
+			this.logEntries.put(transaction, this.log.position());
+
+			if (this.log.position() > SNAPSHOT_LOG_SIZE && (this.snapshotTask == null || this.snapshotTask.isDone()))
+				this.snapshotTask = this.snapshotExecutor.submit(() -> this.snapshot(transaction));
+
+			return entry.limit();
+		} catch (IOException e) {
+			throw new EccoException("Error writing to the log " + this.logFile + ".", e);
+		}
+	}
+
+	/**
+	 * Waits until a snapshot that is currently written in the background is complete.
+	 */
+	void awaitSnapshot() {
+		Future<?> task;
+		synchronized (this) {
+			task = this.snapshotTask;
+		}
+		if (task != null) {
+			try {
+				task.get();
+			} catch (Exception e) {
+				LOGGER.warn("Error writing snapshot.", e);
+			}
+		}
+	}
+
+
+	/**
+	 * Writes a snapshot of the state after the given transaction next to the current one and atomically replaces it. Afterwards the log entries up to the transaction are dropped from the log.
+	 * <p>
+	 * The state is read from the current snapshot and the log, which is only appended to while the snapshot is written.
+	 */
+	private void snapshot(long transaction) {
+		try {
+			FileChannel log;
+			long end;
+			synchronized (this) {
+				log = this.log;
+				end = this.logEntries.get(transaction);
+			}
+			State state = this.readSnapshot();
+			replay(log, end, state, null);
+
+			Path temp = this.snapshotFile.resolveSibling(SNAPSHOT_FILE_NAME + ".tmp");
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(SNAPSHOT_VERSION);
+				Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+				try {
+					DeflaterOutputStream deflaterStream = new DeflaterOutputStream(out, deflater, 1 << 16);
+					DataOutputStream data = new DataOutputStream(deflaterStream);
+					data.writeLong(state.getTransaction());
+					data.writeInt(state.getRootId());
+					writeRecords(data, state.getRecords());
+					data.flush();
+					deflaterStream.finish();
+					out.flush();
+				} finally {
+					deflater.end();
+				}
+				channel.force(true);
+			}
+			Files.move(temp, this.snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+			this.truncateLog(state.getTransaction());
+
+			LOGGER.debug("Wrote snapshot of transaction " + state.getTransaction() + " with " + state.getRecords().size() + " records.");
+		} catch (IOException e) {
+			throw new EccoException("Error writing snapshot " + this.snapshotFile + ".", e);
+		}
+	}
+
+	/**
+	 * Rewrites the log so that it only contains the entries of transactions after the given one.
+	 */
+	private synchronized void truncateLog(long transaction) throws IOException {
+		if (this.log == null)
+			return;
+
+		Map.Entry<Long, Long> last = this.logEntries.floorEntry(transaction);
+		long start = last == null ? 0 : last.getValue();
+		long end = this.log.position();
+
+		Path temp = this.logFile.resolveSibling(LOG_FILE_NAME + ".tmp");
+		try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long position = start;
+			while (position < end)
+				position += this.log.transferTo(position, end - position, target);
+			target.force(true);
+		}
+		this.log.close();
+		Files.move(temp, this.logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		this.log = FileChannel.open(this.logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.log.position(end - start);
+
+		NavigableMap<Long, Long> remaining = new TreeMap<>(this.logEntries.tailMap(transaction, false));
+		this.logEntries.clear();
+		for (Map.Entry<Long, Long> entry : remaining.entrySet())
+			this.logEntries.put(entry.getKey(), entry.getValue() - start);
+	}
+
+	/**
+	 * Applies the entries of the given log up to the given position to the given state. Entries of transactions that are contained in the state already are skipped.
+	 *
+	 * @param entries The map to which the transactions of the entries and the positions where they end are added, or null.
+	 * @return The position after the last complete entry.
+	 */
+	private static long replay(FileChannel log, long end, State state, NavigableMap<Long, Long> entries) throws IOException {
+		long position = 0;
+		ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+		while (position + LOG_HEADER_SIZE <= end) {
+			header.clear();
+			readFully(log, header, position);
+			header.flip();
+			int length = header.getInt();
+			int checksum = header.getInt();
+			if (length < 0 || position + LOG_HEADER_SIZE + length > end)
+				break;
+
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			readFully(log, payload, position + LOG_HEADER_SIZE);
+			CRC32 crc = new CRC32();
+			crc.update(payload.array(), 0, length);
+			if ((int) crc.getValue() != checksum)
+				break;
+
+			try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload.array())))) {
+				long transaction = in.readLong();
+				int rootId = in.readInt();
+				Map<Integer, byte[]> changed = readRecords(in);
+				int deletedCount = in.readInt();
+				List<Integer> deleted = new ArrayList<>(deletedCount);
+				for (int i = 0; i < deletedCount; i++)
+					deleted.add(in.readInt());
+
+				position += LOG_HEADER_SIZE + length;
+				if (entries != null)
+					entries.put(transaction, position);
+
+				// entries that are contained in the snapshot already remain in the log until the next snapshot
+				if (transaction > state.getTransaction())
+					state.apply(transaction, rootId, changed, deleted);
+			}
+		}
+		return position;
+	}
+
+	private State readSnapshot() throws IOException {
+		if (!Files.exists(this.snapshotFile))
+			return new State(0, -1, new HashMap<>());
+
+		InputStream file = new BufferedInputStream(Files.newInputStream(this.snapshotFile));
+		try (DataInputStream in = new DataInputStream(file); DataInputStream data = new DataInputStream(new BufferedInputStream(new InflaterInputStream(file), 1 << 16))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+				throw new EccoException("Invalid snapshot " + this.snapshotFile + ".");
+			long transaction = data.readLong();
+			int rootId = data.readInt();
+			return new State(transaction, rootId, readRecords(data));
+		}
+	}
+
+
+	private static void writeRecords(DataOutputStream out, Map<Integer, byte[]> records) throws IOException {
+		out.writeInt(records.size());
+		for (Map.Entry<Integer, byte[]> record : records.entrySet()) {
+			out.writeInt(record.getKey());
+			out.writeInt(record.getValue().length);
+			out.write(record.getValue());
+		}
+	}
+
+	private static Map<Integer, byte[]> readRecords(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Map<Integer, byte[]> records = new HashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			int id = in.readInt();
+			byte[] record = new byte[in.readInt()];
+			in.readFully(record);
+			records.put(id, record);
+		}
+		return records;
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0)
+				throw new EOFException();
+		}
+	}
+
+}
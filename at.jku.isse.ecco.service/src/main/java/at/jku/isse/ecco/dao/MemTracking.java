@@ -0,0 +1,53 @@
+package at.jku.isse.ecco.dao;
+
+import at.jku.isse.ecco.util.TrackedCollections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks the modifications of the entities of the memory backend, so that only the entities that were modified by a transaction are encoded when it is committed (see {@link MemTransactionStrategy}).
+ * <p>
+ * Entities call {@link #modified(Object)} in their mutators. Collections that are encoded as part of the entity that holds them are exposed through the views of {@link TrackedCollections}, which call it for that owner when they are changed.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+public final class MemTracking {
+
+	/**
+	 * The transaction strategies that currently have a read-write transaction in progress.
+	 */
+	private static volatile MemTransactionStrategy[] strategies = new MemTransactionStrategy[0];
+
+
+	private MemTracking() {
+	}
+
+
+	/**
+	 * Marks the given entity as modified by the read-write transactions that are in progress. Entities that have not been committed yet are ignored, since they are encoded when they are reached from a modified entity.
+	 *
+	 * @param entity The modified entity.
+	 */
+	public static void modified(Object entity) {
+		for (MemTransactionStrategy strategy : strategies)
+			strategy.modified(entity);
+	}
+
+	static synchronized void track(MemTransactionStrategy strategy) {
+		List<MemTransactionStrategy> list = new ArrayList<>(Arrays.asList(strategies));
+		if (!list.contains(strategy)) {
+			list.add(strategy);
+			strategies = list.toArray(new MemTransactionStrategy[list.size()]);
+		}
+	}
+
+	static synchronized void untrack(MemTransactionStrategy strategy) {
+		List<MemTransactionStrategy> list = new ArrayList<>(Arrays.asList(strategies));
+		if (list.remove(strategy))
+			strategies = list.toArray(new MemTransactionStrategy[list.size()]);
+	}
+
+}
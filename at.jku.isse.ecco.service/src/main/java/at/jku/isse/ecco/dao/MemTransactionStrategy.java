@@ -1,47 +1,344 @@
 package at.jku.isse.ecco.dao;
 
 import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.module.ModuleIndex;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Transactions of the memory backend.
+ * <p>
+ * The database is committed as records (see {@link MemRecordCodec}). The entities of the database mark themselves as modified while a read-write transaction is in progress (see {@link MemTracking}), and the DAOs mark the entities they change directly. When the transaction ends, only the modified entities and the new entities that are reachable from them are encoded and committed. Entities that are no longer reachable are found by a sweep over the database once the records committed since the last sweep amount to a quarter of all records, and their records are deleted.
+ * <p>
+ * When a transaction is rolled back, the database is decoded again from the records of the last committed state, so objects that were loaded during the transaction must not be used afterwards. The records are read from the repository directory, they are only kept in memory if there is none.
+ * <p>
+ * Transactions are nested per thread, so that several threads can read the database at the same time. Read-only transactions neither commit nor roll back anything. Modifications must not happen concurrently with other transactions (see {@link at.jku.isse.ecco.EccoService}).
+ * <p>
+ * If a repository directory is given, the committed changes are also appended to a log in that directory that is forced to disk on every commit and compacted into a snapshot in the background (see {@link MemStorage}), so the database survives closing the repository.
+ */
 @Singleton
 public class MemTransactionStrategy implements TransactionStrategy {
 
-	protected Database database;
+	protected static final Logger LOGGER = LoggerFactory.getLogger(MemTransactionStrategy.class);
 
-	@Inject
+	protected final Path repositoryDir;
+
+	private final ModuleIndex moduleIndex;
+
+	protected volatile Database database;
+
+	protected boolean initialized = false;
+
+	protected final ThreadLocal<Integer> numBegin = ThreadLocal.withInitial(() -> 0);
+
+	private final ThreadLocal<Boolean> readOnly = ThreadLocal.withInitial(() -> false);
+
+	private boolean modified = false;
+
+	// every thread collects the entities it modifies in a set of its own, so that threads that slice trees in parallel do not contend for a lock
+	private final Queue<ThreadModifications> threadModifications = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<ThreadModifications> modifications = ThreadLocal.withInitial(this::createThreadModifications);
+	private volatile boolean tracking = false;
+
+	private MemRecordCodec codec = null;
+	private MemStorage storage = null;
+	private MemStorage.State memoryState = null;
+	private long transaction = 0;
+	private long storedSinceSweep = 0;
+
+	private long lastStoredRecords = 0;
+	private long lastWrittenBytes = 0;
+
+
+	/**
+	 * Creates a transaction strategy that keeps the database in memory only.
+	 */
 	public MemTransactionStrategy() {
+		this.repositoryDir = null;
+		this.moduleIndex = new ModuleIndex();
+	}
 
+	/**
+	 * Creates a transaction strategy that stores the database in the given repository directory.
+	 *
+	 * @param repositoryDir The repository directory.
+	 */
+	public MemTransactionStrategy(final Path repositoryDir) {
+		this(repositoryDir, new ModuleIndex());
 	}
 
+	/**
+	 * Creates a transaction strategy that stores the database in the given repository directory and decodes the modules of its presence conditions into the given index of the repository (see {@link MemEntityFactory}).
+	 *
+	 * @param repositoryDir The repository directory.
+	 * @param moduleIndex   The module index of the repository.
+	 */
+	@Inject
+	public MemTransactionStrategy(@Named("repositoryDir") final Path repositoryDir, final ModuleIndex moduleIndex) {
+		checkNotNull(repositoryDir);
+		checkNotNull(moduleIndex);
+
+		this.repositoryDir = repositoryDir;
+		this.moduleIndex = moduleIndex;
+	}
+
+
 	protected Database getDatabase() {
 		return this.database;
 	}
 
 	@Override
 	public void open() throws EccoException {
-		this.database = new Database();
+		if (!this.initialized) {
+			this.codec = new MemRecordCodec();
+			MemStorage.State state;
+			if (this.repositoryDir != null) {
+				this.storage = new MemStorage(this.repositoryDir);
+				state = this.storage.open();
+				this.memoryState = null;
+			} else {
+				this.storage = null;
+				state = new MemStorage.State(0, -1, new HashMap<>());
+				this.memoryState = state;
+			}
+			this.transaction = state.getTransaction();
+			this.storedSinceSweep = 0;
+			this.database = this.restore(state);
+			this.numBegin.remove();
+			this.readOnly.remove();
+			this.modified = false;
+
+			this.initialized = true;
+		}
 	}
 
 	@Override
 	public void close() throws EccoException {
-		this.database = null;
+		if (this.initialized) {
+			this.track(false);
+			if (this.storage != null)
+				this.storage.close();
+			this.storage = null;
+			this.memoryState = null;
+			this.codec = null;
+			this.database = null;
+
+			this.initialized = false;
+		}
+	}
+
+	protected void checkInitialized() throws EccoException {
+		if (!this.initialized)
+			throw new EccoException("Transaction Strategy has not been initialized.");
 	}
 
 	@Override
 	public void begin() throws EccoException {
+		this.begin(false);
+	}
 
+	@Override
+	public void beginReadOnly() throws EccoException {
+		this.begin(true);
+	}
+
+	private void begin(boolean readOnly) throws EccoException {
+		this.checkInitialized();
+
+		int numBegin = this.numBegin.get();
+		if (numBegin == 0) {
+			this.readOnly.set(readOnly);
+			if (!readOnly)
+				this.track(true);
+		} else if (!readOnly && this.readOnly.get())
+			throw new EccoException("Cannot begin a read-write transaction inside a read-only transaction.");
+
+		this.numBegin.set(numBegin + 1);
 	}
 
 	@Override
 	public void end() throws EccoException {
+		this.checkInitialized();
+
+		int numBegin = this.numBegin.get();
+		if (numBegin == 0)
+			throw new EccoException("No transaction in progress.");
 
+		this.numBegin.set(numBegin - 1);
+		if (numBegin == 1 && !this.readOnly.get()) {
+			this.track(false);
+			this.commit();
+		}
 	}
 
 	@Override
-	public void rollback() {
-		System.err.println("Rollback not supported by backend.");
-		//throw new EccoException("Rollback not supported by backend.");
+	public void rollback() throws EccoException {
+		this.checkInitialized();
+
+		int numBegin = this.numBegin.get();
+		if (numBegin == 0)
+			throw new EccoException("No transaction in progress.");
+
+		this.numBegin.set(numBegin - 1);
+		if (numBegin == 1 && !this.readOnly.get()) {
+			this.track(false);
+			this.reset();
+		}
+	}
+
+	/**
+	 * Marks the database as modified by the current transaction. If there is no transaction in progress the modification is committed immediately.
+	 *
+	 * @param entities The entities that were changed directly, e.g. the database itself when one of its indices was changed.
+	 */
+	protected void done(Object... entities) {
+		this.checkInitialized();
+
+		if (this.numBegin.get() > 0 && this.readOnly.get())
+			throw new EccoException("Cannot modify the database in a read-only transaction.");
+
+		Set<Object> modifiedEntities = this.modifications.get().entities;
+		synchronized (modifiedEntities) {
+			for (Object entity : entities) {
+				if (this.codec.getId(entity) >= 0)
+					modifiedEntities.add(entity);
+			}
+		}
+		this.modified = true;
+		if (this.numBegin.get() == 0)
+			this.commit();
+	}
+
+	/**
+	 * Starts or stops tracking the modifications of the entities of the database (see {@link MemTracking}).
+	 */
+	private void track(boolean tracking) {
+		if (tracking)
+			MemTracking.track(this);
+		else
+			MemTracking.untrack(this);
+		this.tracking = tracking;
+	}
+
+	/**
+	 * Marks the given entity as modified if it is an entity of the database that has been committed before. The entities are encoded when the transaction is committed.
+	 */
+	void modified(Object entity) {
+		if (this.tracking && this.codec.getId(entity) >= 0) {
+			Set<Object> modifiedEntities = this.modifications.get().entities;
+			synchronized (modifiedEntities) {
+				modifiedEntities.add(entity);
+			}
+		}
+	}
+
+	private ThreadModifications createThreadModifications() {
+		ThreadModifications modifications = new ThreadModifications();
+		this.threadModifications.add(modifications);
+		return modifications;
+	}
+
+	/**
+	 * Removes the entities that were marked as modified by any thread. The sets of threads that have terminated are dropped.
+	 *
+	 * @return The modified entities.
+	 */
+	private List<Object> drainModifiedEntities() {
+		Set<Object> modifiedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+		Iterator<ThreadModifications> it = this.threadModifications.iterator();
+		while (it.hasNext()) {
+			ThreadModifications modifications = it.next();
+			synchronized (modifications.entities) {
+				modifiedEntities.addAll(modifications.entities);
+				modifications.entities.clear();
+			}
+			if (!modifications.thread.isAlive())
+				it.remove();
+		}
+		return new ArrayList<>(modifiedEntities);
+	}
+
+	private static final class ThreadModifications {
+		private final Thread thread = Thread.currentThread();
+		private final Set<Object> entities = Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+
+	/**
+	 * @return The number of records that were written by the last committed transaction.
+	 */
+	public long getLastStoredRecords() {
+		return this.lastStoredRecords;
+	}
+
+	/**
+	 * @return The number of bytes that were written to the log by the last committed transaction.
+	 */
+	public long getLastWrittenBytes() {
+		return this.lastWrittenBytes;
+	}
+
+	/**
+	 * Waits until a snapshot that is currently written in the background is complete.
+	 */
+	public void awaitSnapshot() {
+		if (this.storage != null)
+			this.storage.awaitSnapshot();
+	}
+
+
+	private synchronized void commit() {
+		List<Object> modifiedEntities = this.drainModifiedEntities();
+		if (!this.modified && modifiedEntities.isEmpty())
+			return;
+
+		List<Integer> deleted = Collections.emptyList();
+		if (this.storedSinceSweep > this.codec.size() / 4) {
+			deleted = this.codec.sweep(this.database);
+			this.storedSinceSweep = 0;
+		}
+
+		int previousRootId = this.codec.getId(this.database);
+		Map<Integer, byte[]> changed = this.codec.encode(this.database, modifiedEntities);
+		int rootId = this.codec.getId(this.database);
+
+		this.lastWrittenBytes = 0;
+		if (!changed.isEmpty() || !deleted.isEmpty() || rootId != previousRootId) {
+			this.transaction++;
+			if (this.storage != null)
+				this.lastWrittenBytes = this.storage.append(this.transaction, rootId, changed, deleted);
+			else
+				this.memoryState.apply(this.transaction, rootId, changed, deleted);
+		}
+		this.lastStoredRecords = changed.size();
+		this.storedSinceSweep += changed.size();
+		this.modified = false;
+
+		if (this.lastStoredRecords > 0 || !deleted.isEmpty())
+			LOGGER.info("Committed transaction: stored " + this.lastStoredRecords + " records, deleted " + deleted.size() + " records, wrote " + this.lastWrittenBytes + " bytes.");
+	}
+
+	private synchronized void reset() {
+		this.drainModifiedEntities();
+		// the database may have been modified without being marked as modified yet
+		this.database = this.restore(this.storage != null ? this.storage.read() : this.memoryState);
+		this.modified = false;
+	}
+
+	private Database restore(MemStorage.State state) {
+		if (state.isEmpty())
+			return new Database();
+		else
+			return this.moduleIndex.decode(() -> (Database) this.codec.decode(state.getRecords(), state.getRootId()));
 	}
 
 }
@@ -1,9 +1,11 @@
 package at.jku.isse.ecco.feature;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.module.BaseModule;
 import at.jku.isse.ecco.module.BaseModuleFeature;
 import at.jku.isse.ecco.module.Module;
 import at.jku.isse.ecco.module.ModuleFeature;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,17 +27,19 @@ public class BaseConfiguration implements Configuration, ConfigurationOperator.C
 
 	@Override
 	public Set<FeatureInstance> getFeatureInstances() {
-		return this.featureInstances;
+		return TrackedCollections.set(() -> MemTracking.modified(this), this.featureInstances);
 	}
 
 	@Override
 	public void addFeatureInstance(FeatureInstance featureInstance) {
-		this.featureInstances.add(featureInstance);
+		if (this.featureInstances.add(featureInstance))
+			MemTracking.modified(this);
 	}
 
 	@Override
 	public void removeFeatureInstance(FeatureInstance featureInstance) {
-		this.featureInstances.remove(featureInstance);
+		if (this.featureInstances.remove(featureInstance))
+			MemTracking.modified(this);
 	}
 
 	@Override
@@ -84,4 +88,14 @@ public class BaseConfiguration implements Configuration, ConfigurationOperator.C
 		return this.operator.computeModules(maxOrder);
 	}
 
+	@Override
+	public Iterable<Module> modules(int maxOrder) {
+		return this.operator.modules(maxOrder);
+	}
+
+	@Override
+	public boolean containsModule(Module module, int maxOrder) {
+		return this.operator.containsModule(module, maxOrder);
+	}
+
 }
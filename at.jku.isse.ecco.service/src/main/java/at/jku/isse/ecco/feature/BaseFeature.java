@@ -1,5 +1,8 @@
 package at.jku.isse.ecco.feature;
 
+import at.jku.isse.ecco.dao.MemTracking;
+import at.jku.isse.ecco.util.TrackedCollections;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -24,6 +27,9 @@ public class BaseFeature implements Feature {
 
 //	private int nextVersion = 0;
 
+	protected BaseFeature() {
+	}
+
 //	public BaseFeature() {
 //		this(UUID.randomUUID().toString(), "", "");
 //	}
@@ -48,7 +54,7 @@ public class BaseFeature implements Feature {
 
 	@Override
 	public List<FeatureVersion> getVersions() {
-		return this.versions;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.versions);
 	}
 
 	@Override
@@ -56,6 +62,7 @@ public class BaseFeature implements Feature {
 		BaseFeatureVersion featureVersion = new BaseFeatureVersion(this, id);
 		if (!this.versions.contains(featureVersion)) {
 			this.versions.add(featureVersion);
+			MemTracking.modified(this);
 //			if (this.nextVersion <= version)
 //				this.nextVersion = version + 1;
 			return featureVersion;
@@ -84,6 +91,7 @@ public class BaseFeature implements Feature {
 		BaseFeatureVersion featureVersion = new BaseFeatureVersion(this, UUID.randomUUID().toString());
 //		this.nextVersion++;
 		this.versions.add(featureVersion);
+		MemTracking.modified(this);
 		return featureVersion;
 	}
 
@@ -104,6 +112,7 @@ public class BaseFeature implements Feature {
 		checkArgument(!name.isEmpty(), "Expected a non-empty name but was empty.");
 
 		this.name = name;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -116,6 +125,7 @@ public class BaseFeature implements Feature {
 		checkNotNull(description);
 
 		this.description = description;
+		MemTracking.modified(this);
 	}
 
 
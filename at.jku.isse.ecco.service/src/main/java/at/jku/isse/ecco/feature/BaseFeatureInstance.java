@@ -14,6 +14,9 @@ public class BaseFeatureInstance implements FeatureInstance {
 	private FeatureVersion featureVersion;
 	private boolean sign;
 
+	protected BaseFeatureInstance() {
+	}
+
 	public BaseFeatureInstance(Feature feature, FeatureVersion featureVersion, boolean sign) {
 		checkNotNull(feature);
 		checkNotNull(featureVersion);
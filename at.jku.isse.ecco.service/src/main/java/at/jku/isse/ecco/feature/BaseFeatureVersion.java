@@ -1,5 +1,7 @@
 package at.jku.isse.ecco.feature;
 
+import at.jku.isse.ecco.dao.MemTracking;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -17,6 +19,9 @@ public class BaseFeatureVersion implements FeatureVersion {
 	private FeatureInstance pos;
 	private FeatureInstance neg;
 
+	protected BaseFeatureVersion() {
+	}
+
 	public BaseFeatureVersion(Feature feature, String id) {
 		checkNotNull(feature);
 		checkNotNull(id);
@@ -67,6 +72,7 @@ public class BaseFeatureVersion implements FeatureVersion {
 	@Override
 	public void setDescription(String description) {
 		this.description = description;
+		MemTracking.modified(this);
 	}
 
 
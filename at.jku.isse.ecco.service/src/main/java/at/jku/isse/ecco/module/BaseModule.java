@@ -1,9 +1,11 @@
 package at.jku.isse.ecco.module;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.Configuration;
 import at.jku.isse.ecco.feature.Feature;
 import at.jku.isse.ecco.feature.FeatureInstance;
 import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -101,7 +103,7 @@ public class BaseModule implements Module {
 
 	@Override
 	public Iterator<ModuleFeature> iterator() {
-		return this.moduleFeatures.iterator();
+		return TrackedCollections.iterator(() -> MemTracking.modified(this), this.moduleFeatures.iterator());
 	}
 
 	@Override
@@ -116,12 +118,20 @@ public class BaseModule implements Module {
 
 	@Override
 	public boolean add(ModuleFeature moduleFeature) {
-		return this.moduleFeatures.add(moduleFeature);
+		if (this.moduleFeatures.add(moduleFeature)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		return this.moduleFeatures.remove(o);
+		if (this.moduleFeatures.remove(o)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
@@ -131,22 +141,37 @@ public class BaseModule implements Module {
 
 	@Override
 	public boolean addAll(Collection<? extends ModuleFeature> collection) {
-		return this.moduleFeatures.addAll(collection);
+		if (this.moduleFeatures.addAll(collection)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> collection) {
-		return this.moduleFeatures.retainAll(collection);
+		if (this.moduleFeatures.retainAll(collection)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> collection) {
-		return this.moduleFeatures.removeAll(collection);
+		if (this.moduleFeatures.removeAll(collection)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public void clear() {
-		this.moduleFeatures.clear();
+		if (!this.moduleFeatures.isEmpty()) {
+			this.moduleFeatures.clear();
+			MemTracking.modified(this);
+		}
 	}
 
 }
@@ -1,7 +1,9 @@
 package at.jku.isse.ecco.module;
 
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.Feature;
 import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -91,7 +93,7 @@ public class BaseModuleFeature implements ModuleFeature {
 
 	@Override
 	public Iterator<FeatureVersion> iterator() {
-		return this.featureVersions.iterator();
+		return TrackedCollections.iterator(() -> MemTracking.modified(this), this.featureVersions.iterator());
 	}
 
 	@Override
@@ -106,12 +108,20 @@ public class BaseModuleFeature implements ModuleFeature {
 
 	@Override
 	public boolean add(FeatureVersion moduleFeature) {
-		return this.featureVersions.add(moduleFeature);
+		if (this.featureVersions.add(moduleFeature)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		return this.featureVersions.remove(o);
+		if (this.featureVersions.remove(o)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
@@ -121,22 +131,37 @@ public class BaseModuleFeature implements ModuleFeature {
 
 	@Override
 	public boolean addAll(Collection<? extends FeatureVersion> collection) {
-		return this.featureVersions.addAll(collection);
+		if (this.featureVersions.addAll(collection)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> collection) {
-		return this.featureVersions.retainAll(collection);
+		if (this.featureVersions.retainAll(collection)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> collection) {
-		return this.featureVersions.removeAll(collection);
+		if (this.featureVersions.removeAll(collection)) {
+			MemTracking.modified(this);
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public void clear() {
-		this.featureVersions.clear();
+		if (!this.featureVersions.isEmpty()) {
+			this.featureVersions.clear();
+			MemTracking.modified(this);
+		}
 	}
 
 }
@@ -1,7 +1,9 @@
 package at.jku.isse.ecco.module;
 
 import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.*;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -95,22 +97,22 @@ public class BasePresenceCondition implements PresenceCondition, PresenceConditi
 
 	@Override
 	public Set<Module> getMinModules() {
-		return this.minModules;
+		return TrackedCollections.set(() -> MemTracking.modified(this), this.minModules);
 	}
 
 	@Override
 	public Set<Module> getMaxModules() {
-		return this.maxModules;
+		return TrackedCollections.set(() -> MemTracking.modified(this), this.maxModules);
 	}
 
 	@Override
 	public Set<Module> getNotModules() {
-		return this.notModules;
+		return TrackedCollections.set(() -> MemTracking.modified(this), this.notModules);
 	}
 
 	@Override
 	public Set<Module> getAllModules() {
-		return this.allModules;
+		return TrackedCollections.set(() -> MemTracking.modified(this), this.allModules);
 	}
 
 	@Override
@@ -0,0 +1,175 @@
+package at.jku.isse.ecco.module;
+
+import at.jku.isse.ecco.feature.Configuration;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable module that is interned by a {@link ModuleIndex}. The feature versions of every module feature are also stored as a bitset of feature version ids, so that equality and {@link #holds(Configuration)} are computed word-wise.
+ * <p>
+ * Instances are only created by the {@link ModuleIndex}. Use a {@link BaseModule} to build modules and add them to a {@link ModuleSet} to intern them.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+public final class BitsetModule extends AbstractSet<ModuleFeature> implements Module {
+
+	private final ModuleFeature[] moduleFeatures;
+
+	private transient ModuleIndex index;
+	private transient long[][] masks;
+	private transient long[] key;
+	private transient int hash;
+
+	private transient boolean interned;
+	private transient int id;
+
+
+	/**
+	 * Only used when decoding, the decoded module is replaced by an interned one in {@link #readResolve()}.
+	 */
+	private BitsetModule() {
+		this.moduleFeatures = null;
+	}
+
+	BitsetModule(ModuleIndex index, ModuleFeature[] moduleFeatures, long[][] masks) {
+		this.index = index;
+		this.moduleFeatures = moduleFeatures;
+		this.masks = masks;
+		this.computeKey();
+	}
+
+	/**
+	 * Computes a canonical encoding of the module features (independent of their order) that is used for equality with modules of the same index. The hash code does not depend on the index.
+	 */
+	private void computeKey() {
+		Integer[] order = new Integer[this.moduleFeatures.length];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, (i1, i2) -> {
+			if (this.moduleFeatures[i1].getSign() != this.moduleFeatures[i2].getSign())
+				return this.moduleFeatures[i1].getSign() ? 1 : -1;
+			long[] m1 = this.masks[i1];
+			long[] m2 = this.masks[i2];
+			if (m1.length != m2.length)
+				return m1.length - m2.length;
+			for (int w = m1.length - 1; w >= 0; w--) {
+				if (m1[w] != m2[w])
+					return Long.compareUnsigned(m1[w], m2[w]);
+			}
+			return 0;
+		});
+
+		int length = 0;
+		for (long[] mask : this.masks)
+			length += mask.length + 1;
+		this.key = new long[length];
+		int pos = 0;
+		for (int i : order) {
+			this.key[pos++] = ((long) this.masks[i].length << 1) | (this.moduleFeatures[i].getSign() ? 1 : 0);
+			System.arraycopy(this.masks[i], 0, this.key, pos, this.masks[i].length);
+			pos += this.masks[i].length;
+		}
+		int hash = 0;
+		for (ModuleFeature moduleFeature : this.moduleFeatures)
+			hash += moduleFeature.hashCode();
+		this.hash = hash;
+	}
+
+
+	ModuleIndex getIndex() {
+		return this.index;
+	}
+
+	int getId() {
+		return this.interned ? this.id : -1;
+	}
+
+	void setId(int id) {
+		this.id = id;
+		this.interned = true;
+	}
+
+
+	@Override
+	public boolean holds(Configuration configuration) {
+		long[][] configurationMasks = this.index.computeMasks(configuration);
+		return this.holds(configurationMasks[0], configurationMasks[1]);
+	}
+
+	/**
+	 * Checks if this module holds in a configuration given as masks of selected and deselected feature versions (see {@link ModuleIndex#computeMasks(Configuration)}). A module holds if every module feature has at least one of its feature versions selected (or deselected, if it is negative).
+	 *
+	 * @param positive The mask of selected feature versions.
+	 * @param negative The mask of deselected feature versions.
+	 * @return True if the module holds, false otherwise.
+	 */
+	public boolean holds(long[] positive, long[] negative) {
+		for (int i = 0; i < this.masks.length; i++) {
+			long[] configurationMask = this.moduleFeatures[i].getSign() ? positive : negative;
+			long[] mask = this.masks[i];
+			boolean matched = false;
+			for (int w = Math.min(mask.length, configurationMask.length) - 1; w >= 0; w--) {
+				if ((mask[w] & configurationMask[w]) != 0) {
+					matched = true;
+					break;
+				}
+			}
+			if (!matched)
+				return false;
+		}
+		return true;
+	}
+
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof BitsetModule)) return false;
+
+		BitsetModule that = (BitsetModule) o;
+
+		if (this.index != that.index)
+			return this.hash == that.hash && super.equals(that);
+		return this.hash == that.hash && Arrays.equals(this.key, that.key);
+	}
+
+	@Override
+	public String toString() {
+		String result = this.stream().map((ModuleFeature mf) -> {
+			return mf.toString();
+		}).collect(Collectors.joining(", "));
+
+		return "d^" + this.getOrder() + "(" + result + ")";
+	}
+
+
+	/**
+	 * Replaces a deserialized module by the one that is interned in the index of the current decoding (see {@link ModuleIndex#decode(java.util.function.Supplier)}), since ids are not persisted.
+	 */
+	private Object readResolve() {
+		BaseModule module = new BaseModule();
+		module.addAll(Arrays.asList(this.moduleFeatures));
+		return ModuleIndex.decoding().intern(module);
+	}
+
+
+	// # SET ####################################################
+
+	@Override
+	public int size() {
+		return this.moduleFeatures.length;
+	}
+
+	@Override
+	public Iterator<ModuleFeature> iterator() {
+		return Collections.unmodifiableList(Arrays.asList(this.moduleFeatures)).iterator();
+	}
+
+}
@@ -0,0 +1,206 @@
+package at.jku.isse.ecco.module;
+
+import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.dao.MemTracking;
+import at.jku.isse.ecco.feature.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Compact memory implementation of {@link PresenceCondition} that stores its module sets as bitsets of interned modules (see {@link ModuleSet}).
+ * Slicing and merging are thereby computed word-wise and a presence condition is checked against a configuration via bit masks of feature versions.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+public class BitsetPresenceCondition implements PresenceCondition, PresenceConditionOperator.PresenceConditionOperand {
+
+	private transient PresenceConditionOperator operator = new PresenceConditionOperator(this);
+
+	private transient ModuleIndex index;
+
+
+	protected Set<Module> minModules;
+	protected Set<Module> maxModules;
+	protected Set<Module> allModules;
+	protected Set<Module> notModules;
+
+
+	/**
+	 * Only used when decoding, the presence condition uses the index of the current decoding (see {@link ModuleIndex#decode(java.util.function.Supplier)}).
+	 */
+	protected BitsetPresenceCondition() {
+		this(ModuleIndex.decoding());
+	}
+
+	/**
+	 * Creates an empty presence condition whose modules are interned into the given index.
+	 *
+	 * @param index The module index.
+	 */
+	public BitsetPresenceCondition(ModuleIndex index) {
+		super();
+		this.index = index;
+		this.minModules = new ModuleSet(index);
+		this.maxModules = new ModuleSet(index);
+		this.allModules = new ModuleSet(index);
+		this.notModules = new ModuleSet(index);
+	}
+
+	public BitsetPresenceCondition(ModuleIndex index, Configuration configuration, int maxOrder) {
+		this(index);
+		this.operator.initialize(configuration, maxOrder);
+	}
+
+
+	@Override
+	public boolean holds(Configuration configuration) {
+		// a presence condition holds in a configuration when at least one of the modules in minModules (or maxModules if there are no minModules) holds.
+		Set<Module> modules = this.minModules.isEmpty() ? this.maxModules : this.minModules;
+		if (modules.isEmpty())
+			return false;
+
+		long[][] masks = this.index.computeMasks(configuration);
+		for (Module module : modules) {
+			if (((BitsetModule) module).holds(masks[0], masks[1]))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.operator.isEmpty();
+	}
+
+	@Override
+	public PresenceCondition slice(PresenceCondition other) throws EccoException {
+		return this.operator.slice(other);
+	}
+
+	@Override
+	public void merge(PresenceCondition other) {
+		this.operator.merge(other);
+	}
+
+	@Override
+	public void addFeatureInstance(FeatureInstance featureInstance) {
+		this.operator.addFeatureInstance(featureInstance);
+	}
+
+	@Override
+	public void addFeatureInstance(FeatureInstance featureInstance, int maxOrder) {
+		this.operator.addFeatureInstance(featureInstance, maxOrder);
+	}
+
+	@Override
+	public void addFeatureVersion(FeatureVersion newFeatureVersion) {
+		this.operator.addFeatureVersion(newFeatureVersion);
+	}
+
+	@Override
+	public void removeFeatureVersion(FeatureVersion featureVersion) {
+		// TODO
+	}
+
+	@Override
+	public void removeModules(Set<Module> modules) {
+		// TODO
+	}
+
+
+	// operand
+
+	@Override
+	public Set<Module> getMinModules() {
+		return this.owned(this.minModules);
+	}
+
+	@Override
+	public Set<Module> getMaxModules() {
+		return this.owned(this.maxModules);
+	}
+
+	@Override
+	public Set<Module> getNotModules() {
+		return this.owned(this.notModules);
+	}
+
+	@Override
+	public Set<Module> getAllModules() {
+		return this.owned(this.allModules);
+	}
+
+	/**
+	 * Makes the given module set mark this presence condition as modified when it is changed (see {@link MemTracking}). This also covers module sets that were decoded.
+	 */
+	private Set<Module> owned(Set<Module> modules) {
+		((ModuleSet) modules).setOwner(this);
+		return modules;
+	}
+
+	@Override
+	public Module createModule() {
+		return new BaseModule();
+	}
+
+	@Override
+	public ModuleFeature createModuleFeature(ModuleFeature moduleFeature) {
+		return this.createModuleFeature(moduleFeature.getFeature(), moduleFeature, moduleFeature.getSign());
+	}
+
+	@Override
+	public ModuleFeature createModuleFeature(Feature feature, boolean sign) {
+		return this.createModuleFeature(feature, new ArrayList<>(), sign);
+	}
+
+	@Override
+	public ModuleFeature createModuleFeature(Feature feature, Collection<FeatureVersion> featureVersions, boolean sign) {
+		return new BaseModuleFeature(feature, featureVersions, sign);
+	}
+
+	@Override
+	public PresenceConditionOperator.PresenceConditionOperand createPresenceCondition() {
+		return new BitsetPresenceCondition(this.index);
+	}
+
+
+	@Override
+	public boolean equals(Object o) {
+		return this.operator.equals(o);
+	}
+
+	@Override
+	public boolean implies(PresenceCondition other) {
+		return this.operator.implies(other);
+	}
+
+	@Override
+	public String getLabel() {
+		return this.operator.getLabel();
+	}
+
+	@Override
+	public String getSimpleLabel() {
+		return this.operator.getSimpleLabel();
+	}
+
+	@Override
+	public void addFeatureInstance(FeatureVersion featureVersion, boolean sign, int maxOrder) {
+		this.addFeatureInstance(new BaseFeatureInstance(featureVersion.getFeature(), featureVersion, sign), maxOrder);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.operator.hashCode();
+	}
+
+
+	@Override
+	public String toString() {
+		return this.operator.getLabel();
+	}
+
+}
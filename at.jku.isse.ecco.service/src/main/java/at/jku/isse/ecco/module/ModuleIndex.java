@@ -0,0 +1,210 @@
+package at.jku.isse.ecco.module;
+
+import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.feature.Configuration;
+import at.jku.isse.ecco.feature.FeatureInstance;
+import at.jku.isse.ecco.feature.FeatureVersion;
+import com.google.inject.Singleton;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Interns feature versions and modules to dense integer ids. The ids of feature versions are the bit positions in the masks of {@link BitsetModule}s and the ids of modules are the bit positions in {@link ModuleSet}s.
+ * <p>
+ * Ids are only valid within one index and are never persisted. Interned feature versions and modules are kept for the lifetime of the index, which is shared by all presence conditions of a repository (see {@link at.jku.isse.ecco.dao.MemEntityFactory}). Lookups do not lock, only interning a new module does.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+@Singleton
+public final class ModuleIndex {
+
+	private static final ThreadLocal<ModuleIndex> DECODING = new ThreadLocal<>();
+
+	/**
+	 * Returns the index into which decoded modules are interned (see {@link #decode(Supplier)}).
+	 *
+	 * @return The index of the current decoding.
+	 */
+	static ModuleIndex decoding() {
+		ModuleIndex index = DECODING.get();
+		if (index == null)
+			throw new EccoException("Modules can only be decoded into a module index.");
+		return index;
+	}
+
+
+	private final ConcurrentMap<FeatureVersion, Integer> featureVersionIds = new ConcurrentHashMap<>();
+	private final AtomicInteger featureVersionCount = new AtomicInteger();
+
+	private final ConcurrentMap<BitsetModule, BitsetModule> modules = new ConcurrentHashMap<>();
+	private volatile BitsetModule[] modulesById = new BitsetModule[64];
+	private int moduleCount = 0;
+
+
+	public ModuleIndex() {
+	}
+
+
+	/**
+	 * Decodes presence conditions and modules into this index. Modules that are decoded by the given decoding are interned into this index and module sets and presence conditions that are decoded use this index.
+	 *
+	 * @param decoding The decoding.
+	 * @param <T>      The type of the decoded object.
+	 * @return The decoded object.
+	 */
+	public <T> T decode(Supplier<T> decoding) {
+		ModuleIndex previous = DECODING.get();
+		DECODING.set(this);
+		try {
+			return decoding.get();
+		} finally {
+			if (previous == null)
+				DECODING.remove();
+			else
+				DECODING.set(previous);
+		}
+	}
+
+
+	/**
+	 * Returns the id of the given feature version and assigns a new one if it has none yet.
+	 */
+	private int internFeatureVersion(FeatureVersion featureVersion) {
+		Integer id = this.featureVersionIds.get(featureVersion);
+		if (id == null)
+			id = this.featureVersionIds.computeIfAbsent(featureVersion, key -> this.featureVersionCount.getAndIncrement());
+		return id;
+	}
+
+	/**
+	 * Returns the unique interned module that is equal to the given module, interning a copy of the given module if there is none yet.
+	 *
+	 * @param module The module.
+	 * @return The interned module.
+	 */
+	public BitsetModule intern(Module module) {
+		if (this.isInterned(module))
+			return (BitsetModule) module;
+
+		BitsetModule key = this.createModule(module, true);
+		BitsetModule interned = this.modules.get(key);
+		if (interned == null)
+			interned = this.add(key);
+		return interned;
+	}
+
+	/**
+	 * Assigns the next id to the given module unless an equal module was interned concurrently.
+	 */
+	private synchronized BitsetModule add(BitsetModule module) {
+		BitsetModule interned = this.modules.get(module);
+		if (interned == null) {
+			BitsetModule[] modulesById = this.modulesById;
+			if (this.moduleCount == modulesById.length)
+				modulesById = Arrays.copyOf(modulesById, this.moduleCount * 2);
+			module.setId(this.moduleCount);
+			modulesById[this.moduleCount] = module;
+			this.moduleCount++;
+			// publish the module by its id before it can be found
+			this.modulesById = modulesById;
+			this.modules.put(module, module);
+			interned = module;
+		}
+		return interned;
+	}
+
+	/**
+	 * Returns the id of the interned module that is equal to the given module, or -1 if there is none. Nothing is interned.
+	 *
+	 * @param module The module.
+	 * @return The id of the module or -1.
+	 */
+	public int find(Module module) {
+		if (this.isInterned(module))
+			return ((BitsetModule) module).getId();
+
+		BitsetModule key = this.createModule(module, false);
+		if (key == null)
+			return -1;
+		BitsetModule interned = this.modules.get(key);
+		return interned == null ? -1 : interned.getId();
+	}
+
+	/**
+	 * Returns the interned module with the given id.
+	 *
+	 * @param id The id of the module.
+	 * @return The module.
+	 */
+	public BitsetModule get(int id) {
+		return this.modulesById[id];
+	}
+
+	private boolean isInterned(Module module) {
+		return module instanceof BitsetModule && ((BitsetModule) module).getIndex() == this && ((BitsetModule) module).getId() >= 0;
+	}
+
+	/**
+	 * Computes the masks of the feature versions that are selected (index 0) and deselected (index 1) in the given configuration. Feature versions that are not contained in any module are ignored.
+	 *
+	 * @param configuration The configuration.
+	 * @return The positive and the negative mask.
+	 */
+	public long[][] computeMasks(Configuration configuration) {
+		long[] positive = new long[0];
+		long[] negative = new long[0];
+		for (FeatureInstance featureInstance : configuration.getFeatureInstances()) {
+			Integer id = this.featureVersionIds.get(featureInstance.getFeatureVersion());
+			if (id != null) {
+				if (featureInstance.getSign())
+					positive = setBit(positive, id);
+				else
+					negative = setBit(negative, id);
+			}
+		}
+		return new long[][]{positive, negative};
+	}
+
+
+	/**
+	 * Creates a (not yet interned) bitset module with the same module features as the given module. If feature versions are not to be interned and the module contains an unknown feature version null is returned.
+	 */
+	private BitsetModule createModule(Module module, boolean internFeatureVersions) {
+		ModuleFeature[] moduleFeatures = new ModuleFeature[module.size()];
+		long[][] masks = new long[module.size()][];
+		int i = 0;
+		for (ModuleFeature moduleFeature : module) {
+			long[] mask = new long[0];
+			for (FeatureVersion featureVersion : moduleFeature) {
+				int id;
+				if (internFeatureVersions) {
+					id = this.internFeatureVersion(featureVersion);
+				} else {
+					Integer existingId = this.featureVersionIds.get(featureVersion);
+					if (existingId == null)
+						return null;
+					id = existingId;
+				}
+				mask = setBit(mask, id);
+			}
+			moduleFeatures[i] = new BaseModuleFeature(moduleFeature.getFeature(), moduleFeature, moduleFeature.getSign());
+			masks[i] = mask;
+			i++;
+		}
+		return new BitsetModule(this, moduleFeatures, masks);
+	}
+
+	private static long[] setBit(long[] words, int bit) {
+		int word = bit >>> 6;
+		if (word >= words.length)
+			words = Arrays.copyOf(words, word + 1);
+		words[word] |= 1L << bit;
+		return words;
+	}
+
+}
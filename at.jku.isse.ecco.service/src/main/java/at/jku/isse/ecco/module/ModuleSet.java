@@ -0,0 +1,304 @@
+package at.jku.isse.ecco.module;
+
+import at.jku.isse.ecco.dao.MemTracking;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Set of modules that is stored as a bitset of the ids of the modules in a {@link ModuleIndex}. Modules are interned into the index when they are added, so iterating the set returns {@link BitsetModule}s.
+ * <p>
+ * Bulk operations with another module set of the same index ({@link #addAll(Collection)}, {@link #removeAll(Collection)}, {@link #retainAll(Collection)}, {@link #containsAll(Collection)} and {@link #equals(Object)}) are computed word-wise.
+ *
+ * @author JKU, ISSE
+ * @version 1.0
+ */
+public class ModuleSet extends AbstractSet<Module> implements Serializable {
+
+	private transient ModuleIndex index;
+	private transient long[] words = new long[0];
+	private transient int size = 0;
+
+	private transient Object owner;
+
+
+	/**
+	 * Creates a module set in the index of the current decoding (see {@link ModuleIndex#decode(java.util.function.Supplier)}).
+	 */
+	public ModuleSet() {
+		this(ModuleIndex.decoding());
+	}
+
+	public ModuleSet(ModuleIndex index) {
+		this.index = index;
+	}
+
+	public ModuleSet(ModuleIndex index, Collection<? extends Module> modules) {
+		this(index);
+		this.addAll(modules);
+	}
+
+
+	/**
+	 * Bulk operations are computed word-wise with module sets of the same index only, since the ids of other indices differ.
+	 */
+	private boolean isSameIndex(Object o) {
+		return o instanceof ModuleSet && ((ModuleSet) o).index == this.index;
+	}
+
+	private boolean get(int id) {
+		int word = id >>> 6;
+		return word < this.words.length && (this.words[word] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Sets the entity that holds this module set, which is marked as modified when the set is changed (see {@link MemTracking}).
+	 */
+	void setOwner(Object owner) {
+		this.owner = owner;
+	}
+
+	private void modified() {
+		if (this.owner != null)
+			MemTracking.modified(this.owner);
+	}
+
+	private void updateSize() {
+		int size = 0;
+		for (long word : this.words)
+			size += Long.bitCount(word);
+		this.size = size;
+	}
+
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof Module))
+			return false;
+		int id = this.index.find((Module) o);
+		return id >= 0 && this.get(id);
+	}
+
+	@Override
+	public boolean add(Module module) {
+		int id = this.index.intern(module).getId();
+		if (this.get(id))
+			return false;
+		int word = id >>> 6;
+		if (word >= this.words.length)
+			this.words = Arrays.copyOf(this.words, Math.max(word + 1, this.words.length * 2));
+		this.words[word] |= 1L << id;
+		this.size++;
+		this.modified();
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof Module))
+			return false;
+		int id = this.index.find((Module) o);
+		if (id < 0 || !this.get(id))
+			return false;
+		this.words[id >>> 6] &= ~(1L << id);
+		this.size--;
+		this.modified();
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		if (this.size > 0)
+			this.modified();
+		this.words = new long[0];
+		this.size = 0;
+	}
+
+	@Override
+	public Iterator<Module> iterator() {
+		return new Iterator<Module>() {
+			private int next = this.find(0);
+			private int last = -1;
+
+			private int find(int from) {
+				int word = from >>> 6;
+				if (word >= ModuleSet.this.words.length)
+					return -1;
+				long bits = ModuleSet.this.words[word] & (-1L << from);
+				while (true) {
+					if (bits != 0)
+						return (word << 6) + Long.numberOfTrailingZeros(bits);
+					if (++word >= ModuleSet.this.words.length)
+						return -1;
+					bits = ModuleSet.this.words[word];
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return this.next >= 0;
+			}
+
+			@Override
+			public Module next() {
+				if (this.next < 0)
+					throw new NoSuchElementException();
+				this.last = this.next;
+				this.next = this.find(this.next + 1);
+				return ModuleSet.this.index.get(this.last);
+			}
+
+			@Override
+			public void remove() {
+				if (this.last < 0)
+					throw new IllegalStateException();
+				ModuleSet.this.words[this.last >>> 6] &= ~(1L << this.last);
+				ModuleSet.this.size--;
+				ModuleSet.this.modified();
+				this.last = -1;
+			}
+		};
+	}
+
+
+	// # BULK OPERATIONS ####################################################
+
+	@Override
+	public boolean addAll(Collection<? extends Module> collection) {
+		if (!this.isSameIndex(collection))
+			return super.addAll(collection);
+
+		long[] other = ((ModuleSet) collection).words;
+		if (other.length > this.words.length)
+			this.words = Arrays.copyOf(this.words, other.length);
+		boolean modified = false;
+		for (int i = 0; i < other.length; i++) {
+			long word = this.words[i] | other[i];
+			if (word != this.words[i]) {
+				this.words[i] = word;
+				modified = true;
+			}
+		}
+		if (modified) {
+			this.updateSize();
+			this.modified();
+		}
+		return modified;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> collection) {
+		if (!this.isSameIndex(collection)) {
+			boolean modified = false;
+			for (Object o : collection)
+				modified |= this.remove(o);
+			return modified;
+		}
+
+		long[] other = ((ModuleSet) collection).words;
+		boolean modified = false;
+		for (int i = Math.min(this.words.length, other.length) - 1; i >= 0; i--) {
+			long word = this.words[i] & ~other[i];
+			if (word != this.words[i]) {
+				this.words[i] = word;
+				modified = true;
+			}
+		}
+		if (modified) {
+			this.updateSize();
+			this.modified();
+		}
+		return modified;
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> collection) {
+		if (!this.isSameIndex(collection))
+			return super.retainAll(collection);
+
+		long[] other = ((ModuleSet) collection).words;
+		boolean modified = false;
+		for (int i = 0; i < this.words.length; i++) {
+			long word = i < other.length ? this.words[i] & other[i] : 0L;
+			if (word != this.words[i]) {
+				this.words[i] = word;
+				modified = true;
+			}
+		}
+		if (modified) {
+			this.updateSize();
+			this.modified();
+		}
+		return modified;
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> collection) {
+		if (!this.isSameIndex(collection))
+			return super.containsAll(collection);
+
+		long[] other = ((ModuleSet) collection).words;
+		for (int i = 0; i < other.length; i++) {
+			long word = i < this.words.length ? this.words[i] : 0L;
+			if ((other[i] & ~word) != 0)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!this.isSameIndex(o)) return super.equals(o);
+
+		ModuleSet that = (ModuleSet) o;
+
+		if (this.size != that.size) return false;
+		for (int i = Math.max(this.words.length, that.words.length) - 1; i >= 0; i--) {
+			long word1 = i < this.words.length ? this.words[i] : 0L;
+			long word2 = i < that.words.length ? that.words[i] : 0L;
+			if (word1 != word2)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+
+	// # SERIALIZATION ####################################################
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(this.size);
+		for (Module module : this)
+			out.writeObject(module);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		this.index = ModuleIndex.decoding();
+		this.words = new long[0];
+		this.size = 0;
+		int size = in.readInt();
+		for (int i = 0; i < size; i++)
+			this.add((Module) in.readObject());
+	}
+
+}
@@ -0,0 +1,77 @@
+package at.jku.isse.ecco.net;
+
+import at.jku.isse.ecco.EccoException;
+
+import java.io.InterruptedIOException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Limits the number of bytes that are in flight on a set of connections at the same time.
+ * <p>
+ * Frame readers and writers that share a budget acquire the bytes of every frame before it is transferred and release them as soon as the frame has been consumed or written. Since a reader or writer holds the bytes of at most one frame and releases them without waiting for anything else, a frame that does not fit into the budget waits until other connections have released their frames.
+ */
+public class ByteBudget {
+
+	private final long capacity;
+
+	private long used = 0;
+
+
+	/**
+	 * @param capacity The maximum number of bytes in flight.
+	 */
+	public ByteBudget(long capacity) {
+		checkArgument(capacity > 0, "Expected a positive capacity.");
+
+		this.capacity = capacity;
+	}
+
+
+	/**
+	 * Acquires the given number of bytes and waits until they are available.
+	 *
+	 * @param bytes The number of bytes.
+	 * @throws InterruptedIOException If the thread was interrupted while waiting.
+	 */
+	public synchronized void acquire(long bytes) throws InterruptedIOException {
+		if (bytes > this.capacity)
+			throw new EccoException("Frame of " + bytes + " bytes exceeds the budget of " + this.capacity + " bytes in flight.");
+
+		try {
+			while (this.used + bytes > this.capacity)
+				this.wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for bytes in flight.");
+		}
+		this.used += bytes;
+	}
+
+	/**
+	 * Releases the given number of previously acquired bytes.
+	 *
+	 * @param bytes The number of bytes.
+	 */
+	public synchronized void release(long bytes) {
+		if (bytes == 0)
+			return;
+		this.used -= bytes;
+		this.notifyAll();
+	}
+
+	/**
+	 * @return The maximum number of bytes in flight.
+	 */
+	public long getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return The number of bytes currently in flight.
+	 */
+	public synchronized long getUsed() {
+		return this.used;
+	}
+
+}
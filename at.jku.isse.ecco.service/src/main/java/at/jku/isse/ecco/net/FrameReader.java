@@ -0,0 +1,207 @@
+package at.jku.isse.ecco.net;
+
+import at.jku.isse.ecco.EccoException;
+
+import java.io.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static at.jku.isse.ecco.net.Protocol.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads messages that were written by a {@link FrameWriter} from a connection.
+ * <p>
+ * Frames are read only when the content of the current message is consumed, so at most one frame is buffered at a time.
+ */
+public class FrameReader implements Closeable {
+
+	private final DataInputStream in;
+
+	private final Inflater inflater = new Inflater();
+	private final byte[] deflated = new byte[MAX_FRAME_SIZE];
+
+	private final byte[] buffer = new byte[MAX_FRAME_SIZE];
+	private int position = 0;
+	private int limit = 0;
+
+	private byte type = 0;
+	private boolean last = true;
+	private final InputStream message = new MessageInputStream();
+
+	private long bytesRead = 0;
+
+	private ByteBudget byteBudget = null;
+	private long acquiredBytes = 0;
+
+
+	/**
+	 * Creates a frame reader and reads the protocol header from the given stream. Blocks until the header has been received.
+	 *
+	 * @param in The input stream of the connection.
+	 * @throws IOException If the header could not be read.
+	 */
+	public FrameReader(InputStream in) throws IOException {
+		checkNotNull(in);
+
+		this.in = new DataInputStream(new BufferedInputStream(in, MAX_FRAME_SIZE + 6));
+
+		int magic = this.in.readInt();
+		if (magic != MAGIC)
+			throw new EccoException("Peer does not speak the ecco protocol.");
+		int version = this.in.readInt();
+		if (version != VERSION)
+			throw new EccoException("Unsupported protocol version " + version + ", expected version " + VERSION + ".");
+	}
+
+
+	/**
+	 * Reads the first frame of the next message. The rest of the current message is skipped.
+	 *
+	 * @return The type of the next message.
+	 * @throws IOException If the frame could not be read.
+	 */
+	public byte nextMessage() throws IOException {
+		while (!this.last)
+			this.readFrame(true);
+		this.readFrame(false);
+
+		return this.type;
+	}
+
+	/**
+	 * @return The stream of the content of the current message.
+	 */
+	public InputStream getMessage() {
+		return this.message;
+	}
+
+	/**
+	 * @return The number of bytes that were read from the connection so far.
+	 */
+	public long getBytesRead() {
+		return this.bytesRead;
+	}
+
+	/**
+	 * Sets the budget from which every read frame is acquired until its content has been consumed.
+	 *
+	 * @param byteBudget The budget or null.
+	 */
+	public void setByteBudget(ByteBudget byteBudget) {
+		this.byteBudget = byteBudget;
+	}
+
+	/**
+	 * Releases the decompressor and the acquired bytes of the budget. The connection itself is not closed.
+	 */
+	@Override
+	public void close() {
+		this.inflater.end();
+		this.releaseFrame();
+	}
+
+
+	/**
+	 * Releases the bytes of the current frame once its content has been consumed.
+	 */
+	private void releaseFrame() {
+		if (this.byteBudget != null)
+			this.byteBudget.release(this.acquiredBytes);
+		this.acquiredBytes = 0;
+	}
+
+
+	private void readFrame(boolean continuation) throws IOException {
+		byte type = this.in.readByte();
+		byte flags = this.in.readByte();
+		int length = this.in.readInt();
+
+		if (length < 0 || length > MAX_FRAME_SIZE)
+			throw new EccoException("Invalid frame length: " + length);
+		if (continuation && type != this.type && type != ERROR)
+			throw new EccoException("Unexpected frame of type " + type + " within message of type " + this.type + ".");
+
+		// the previous frame has been consumed, its buffer is reused for this frame
+		this.releaseFrame();
+		if (this.byteBudget != null) {
+			this.byteBudget.acquire(6 + length);
+			this.acquiredBytes = 6 + length;
+		}
+
+		if ((flags & FLAG_DEFLATED) != 0) {
+			this.in.readFully(this.deflated, 0, length);
+			this.inflater.reset();
+			this.inflater.setInput(this.deflated, 0, length);
+			try {
+				this.limit = this.inflater.inflate(this.buffer);
+			} catch (DataFormatException e) {
+				throw new EccoException("Invalid compressed frame.", e);
+			}
+			if (!this.inflater.finished())
+				throw new EccoException("Compressed frame exceeds the maximum frame size.");
+		} else {
+			this.in.readFully(this.buffer, 0, length);
+			this.limit = length;
+		}
+
+		this.type = type;
+		this.last = (flags & FLAG_LAST) != 0;
+		this.position = 0;
+		this.bytesRead += 6 + length;
+
+		// the sender abandoned the current message
+		if (continuation && type == ERROR)
+			throw new EccoException("Remote error: " + new DataInputStream(this.message).readUTF());
+	}
+
+
+	private class MessageInputStream extends InputStream {
+		@Override
+		public int read() throws IOException {
+			if (!this.fill())
+				return -1;
+			int b = FrameReader.this.buffer[FrameReader.this.position++] & 0xFF;
+			this.consumed();
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0)
+				return 0;
+			if (!this.fill())
+				return -1;
+			int n = Math.min(len, FrameReader.this.limit - FrameReader.this.position);
+			System.arraycopy(FrameReader.this.buffer, FrameReader.this.position, b, off, n);
+			FrameReader.this.position += n;
+			this.consumed();
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return FrameReader.this.limit - FrameReader.this.position;
+		}
+
+		@Override
+		public void close() {
+			// the rest of the message is skipped by the frame reader
+		}
+
+		private void consumed() {
+			if (FrameReader.this.position == FrameReader.this.limit)
+				FrameReader.this.releaseFrame();
+		}
+
+		private boolean fill() throws IOException {
+			while (FrameReader.this.position == FrameReader.this.limit) {
+				if (FrameReader.this.last)
+					return false;
+				FrameReader.this.readFrame(true);
+			}
+			return true;
+		}
+	}
+
+}
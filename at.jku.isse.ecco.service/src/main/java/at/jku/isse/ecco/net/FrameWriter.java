@@ -0,0 +1,223 @@
+package at.jku.isse.ecco.net;
+
+import at.jku.isse.ecco.EccoException;
+
+import java.io.*;
+import java.util.zip.Deflater;
+
+import static at.jku.isse.ecco.net.Protocol.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Writes messages to a connection as frames of at most {@link Protocol#MAX_FRAME_SIZE} bytes (see {@link Protocol}).
+ * <p>
+ * The content of a message is written to the stream returned by {@link #beginMessage(byte)}. Whenever the current frame is full it is written to the connection, so a message of any size only needs a single frame buffer. Since the connection blocks when the receiver does not keep up, the sender is slowed down to the pace of the receiver.
+ */
+public class FrameWriter implements Closeable {
+
+	private final DataOutputStream out;
+
+	private final Deflater deflater;
+	private final byte[] deflated;
+
+	private final byte[] buffer = new byte[MAX_FRAME_SIZE];
+	private int position = 0;
+
+	private byte type = 0;
+	private final OutputStream message = new MessageOutputStream();
+
+	private long bytesWritten = 0;
+
+	private ByteBudget byteBudget = null;
+
+
+	/**
+	 * Creates a frame writer and writes the protocol header to the given stream.
+	 *
+	 * @param out      The output stream of the connection.
+	 * @param compress Whether to deflate the frames.
+	 * @throws IOException If the header could not be written.
+	 */
+	public FrameWriter(OutputStream out, boolean compress) throws IOException {
+		checkNotNull(out);
+
+		this.out = new DataOutputStream(new BufferedOutputStream(out, MAX_FRAME_SIZE + 6));
+		if (compress) {
+			this.deflater = new Deflater(Deflater.BEST_SPEED);
+			this.deflated = new byte[MAX_FRAME_SIZE];
+		} else {
+			this.deflater = null;
+			this.deflated = null;
+		}
+
+		this.out.writeInt(MAGIC);
+		this.out.writeInt(VERSION);
+		this.out.flush();
+	}
+
+
+	/**
+	 * Begins a new message. The content of the message is written to the returned stream until {@link #endMessage()} is called.
+	 *
+	 * @param type The type of the message.
+	 * @return The stream to write the content of the message to.
+	 */
+	public OutputStream beginMessage(byte type) {
+		if (this.type != 0)
+			throw new EccoException("The previous message has not been ended.");
+
+		this.type = type;
+		this.position = 0;
+
+		return this.message;
+	}
+
+	/**
+	 * Abandons the current message, if any, so that an {@link Protocol#ERROR} message can be written instead. Frames of the message that were already written are discarded by the receiver.
+	 */
+	public void abortMessage() {
+		this.type = 0;
+		this.position = 0;
+	}
+
+	/**
+	 * Ends the current message by writing its last frame.
+	 *
+	 * @throws IOException If the frame could not be written.
+	 */
+	public void endMessage() throws IOException {
+		if (this.type == 0)
+			throw new EccoException("No message has been begun.");
+
+		this.writeFrame(FLAG_LAST);
+		this.type = 0;
+	}
+
+	/**
+	 * Writes a message without content.
+	 *
+	 * @param type The type of the message.
+	 * @throws IOException If the message could not be written.
+	 */
+	public void writeMessage(byte type) throws IOException {
+		this.beginMessage(type);
+		this.endMessage();
+	}
+
+	/**
+	 * Writes all buffered frames to the connection. This must be done before waiting for an answer.
+	 *
+	 * @throws IOException If the frames could not be written.
+	 */
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+	/**
+	 * @return The number of bytes that were written to the connection so far.
+	 */
+	public long getBytesWritten() {
+		return this.bytesWritten;
+	}
+
+	/**
+	 * Sets the budget from which every frame is acquired while it is written.
+	 *
+	 * @param byteBudget The budget or null.
+	 */
+	public void setByteBudget(ByteBudget byteBudget) {
+		this.byteBudget = byteBudget;
+	}
+
+	/**
+	 * Flushes the frame writer and releases the compressor. The connection itself is not closed.
+	 *
+	 * @throws IOException If the frames could not be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.flush();
+		} finally {
+			if (this.deflater != null)
+				this.deflater.end();
+		}
+	}
+
+
+	private void writeFrame(byte flags) throws IOException {
+		byte[] payload = this.buffer;
+		int length = this.position;
+
+		if (this.deflater != null && length > 0) {
+			this.deflater.reset();
+			this.deflater.setInput(this.buffer, 0, length);
+			this.deflater.finish();
+			int deflatedLength = this.deflater.deflate(this.deflated, 0, this.deflated.length);
+			// send the frame as it is if it does not compress
+			if (this.deflater.finished() && deflatedLength < length) {
+				payload = this.deflated;
+				length = deflatedLength;
+				flags |= FLAG_DEFLATED;
+			}
+		}
+
+		// errors are sent even if the budget is exhausted, since they are usually the reason for it
+		ByteBudget byteBudget = this.type != ERROR ? this.byteBudget : null;
+		if (byteBudget != null)
+			byteBudget.acquire(6 + length);
+		try {
+			this.out.writeByte(this.type);
+			this.out.writeByte(flags);
+			this.out.writeInt(length);
+			this.out.write(payload, 0, length);
+		} finally {
+			if (byteBudget != null)
+				byteBudget.release(6 + length);
+		}
+
+		this.bytesWritten += 6 + length;
+		this.position = 0;
+	}
+
+
+	private class MessageOutputStream extends OutputStream {
+		@Override
+		public void write(int b) throws IOException {
+			this.checkMessage();
+			if (FrameWriter.this.position == FrameWriter.this.buffer.length)
+				FrameWriter.this.writeFrame((byte) 0);
+			FrameWriter.this.buffer[FrameWriter.this.position++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.checkMessage();
+			while (len > 0) {
+				if (FrameWriter.this.position == FrameWriter.this.buffer.length)
+					FrameWriter.this.writeFrame((byte) 0);
+				int n = Math.min(len, FrameWriter.this.buffer.length - FrameWriter.this.position);
+				System.arraycopy(b, off, FrameWriter.this.buffer, FrameWriter.this.position, n);
+				FrameWriter.this.position += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void flush() {
+			// frames are only written when they are full or the message ends
+		}
+
+		@Override
+		public void close() {
+			// the message is ended by the frame writer
+		}
+
+		private void checkMessage() {
+			if (FrameWriter.this.type == 0)
+				throw new EccoException("No message has been begun.");
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package at.jku.isse.ecco.net;
+
+/**
+ * Constants of the wire protocol that is used between an ecco server and its clients (see {@link at.jku.isse.ecco.EccoService#startServer(int)}).
+ * <p>
+ * Both directions of a connection start with {@link #MAGIC} and {@link #VERSION}, followed by a sequence of messages. Every message is split into frames of at most {@link #MAX_FRAME_SIZE} bytes of payload:
+ * <pre>
+ * frame = type (1 byte) | flags (1 byte) | length (4 bytes) | payload (length bytes)
+ * </pre>
+ * The last frame of a message carries the flag {@link #FLAG_LAST}. Frames with the flag {@link #FLAG_DEFLATED} carry a deflated payload.
+ * <p>
+ * A connection starts with a {@link #REQUEST} message from the client that contains the command, whether the response should be compressed, the argument of the command and a revision:
+ * <ul>
+ * <li>{@link #FETCH}: the server responds with {@link #FEATURE} messages and {@link #END}.</li>
+ * <li>{@link #PULL}: the server responds with a repository section and a blob section (see below). The argument contains the deselected feature versions. If the revision is not 0 the repository only contains the associations that were changed after it.</li>
+ * <li>{@link #PUSH}: the server accepts the request with {@link #END}, the client continues with a repository section and a blob section and the server confirms the merge with {@link #END}.</li>
+ * </ul>
+ * A repository section consists of a {@link #HEADER} message that contains the revision of the repository, {@link #FEATURE} messages, {@link #ASSOCIATION} messages, {@link #SEQUENCE_GRAPH} messages and {@link #END}. A blob section consists of a {@link #BLOB_INDEX} message that is answered by a {@link #BLOB_REQUEST} message of the receiving side, followed by {@link #BLOB} messages and {@link #END}. Instead of any message the server may send an {@link #ERROR} message, which may also interrupt a message whose frames were partially sent.
+ */
+public final class Protocol {
+
+	private Protocol() {
+	}
+
+
+	public static final int MAGIC = 0x4543434F; // "ECCO"
+
+	public static final int VERSION = 2;
+
+	public static final int MAX_FRAME_SIZE = 64 * 1024;
+
+
+	// flags
+
+	public static final byte FLAG_LAST = 0x01;
+
+	public static final byte FLAG_DEFLATED = 0x02;
+
+
+	// message types
+
+	public static final byte REQUEST = 1;
+
+	public static final byte HEADER = 2;
+
+	public static final byte FEATURE = 3;
+
+	public static final byte ASSOCIATION = 4;
+
+	public static final byte SEQUENCE_GRAPH = 5;
+
+	public static final byte BLOB_INDEX = 6;
+
+	public static final byte BLOB_REQUEST = 7;
+
+	public static final byte BLOB = 8;
+
+	public static final byte END = 9;
+
+	public static final byte ERROR = 10;
+
+
+	// commands
+
+	public static final String FETCH = "FETCH";
+
+	public static final String PULL = "PULL";
+
+	public static final String PUSH = "PUSH";
+
+}
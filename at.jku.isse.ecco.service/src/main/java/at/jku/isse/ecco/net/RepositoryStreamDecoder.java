@@ -0,0 +1,325 @@
+package at.jku.isse.ecco.net;
+
+import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.ProgressInputStream;
+import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.artifact.ArtifactData;
+import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.dao.EntityFactory;
+import at.jku.isse.ecco.feature.Feature;
+import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.module.Module;
+import at.jku.isse.ecco.module.ModuleFeature;
+import at.jku.isse.ecco.module.PresenceCondition;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
+import at.jku.isse.ecco.repository.Repository;
+import at.jku.isse.ecco.sg.SequenceGraph;
+import at.jku.isse.ecco.tree.Node;
+import at.jku.isse.ecco.tree.RootNode;
+import at.jku.isse.ecco.util.Trees;
+import com.google.common.io.ByteStreams;
+
+import java.io.*;
+import java.util.*;
+
+import static at.jku.isse.ecco.net.Protocol.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Decodes messages that were encoded by a {@link RepositoryStreamEncoder}.
+ * <p>
+ * The entities are created with the given entity factory as soon as their message has been received, so no intermediate copy of the transferred repository is needed. Blobs are stored in the blob store while they are received.
+ */
+public class RepositoryStreamDecoder {
+
+	private final FrameReader in;
+
+	private final EntityFactory entityFactory;
+
+	private final List<Artifact.Op<?>> artifacts = new ArrayList<>();
+
+	private byte type = 0;
+
+	private ProgressInputStream.ProgressListener progressListener = null;
+
+
+	/**
+	 * @param in            The connection to read from.
+	 * @param entityFactory The entity factory that is used to create the received entities.
+	 */
+	public RepositoryStreamDecoder(FrameReader in, EntityFactory entityFactory) {
+		checkNotNull(in);
+		checkNotNull(entityFactory);
+
+		this.in = in;
+		this.entityFactory = entityFactory;
+	}
+
+
+	/**
+	 * Sets a listener that is notified after every received association.
+	 *
+	 * @param progressListener The listener or null.
+	 */
+	public void setProgressListener(ProgressInputStream.ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+
+	/**
+	 * Reads features until {@link Protocol#END}.
+	 *
+	 * @return The received features.
+	 * @throws IOException If the features could not be read.
+	 */
+	public Collection<Feature> readFeatures() throws IOException {
+		Collection<Feature> features = new ArrayList<>();
+		while (this.nextMessage() == FEATURE) {
+			DataInputStream message = new DataInputStream(this.in.getMessage());
+			Feature feature = this.entityFactory.createFeature(message.readUTF(), readString(message), readString(message));
+			this.readFeatureVersions(message, feature);
+			features.add(feature);
+		}
+		this.checkType(END);
+		return features;
+	}
+
+	/**
+	 * Reads a repository until {@link Protocol#END}. The repository is not consolidated, i.e. it is intended to be merged into another repository.
+	 *
+	 * @return The received repository.
+	 * @throws IOException If the repository could not be read.
+	 */
+	public Repository.Op readRepository() throws IOException {
+		Repository.Op repository = this.entityFactory.createRepository();
+
+		this.nextMessage();
+		this.checkType(HEADER);
+		DataInputStream header = new DataInputStream(this.in.getMessage());
+		repository.setMaxOrder(header.readInt());
+		repository.setRevision(header.readLong());
+		int numFeatures = header.readInt();
+		int numAssociations = header.readInt();
+
+		for (int i = 0; i < numFeatures; i++) {
+			this.nextMessage();
+			this.checkType(FEATURE);
+			DataInputStream message = new DataInputStream(this.in.getMessage());
+			Feature feature = repository.addFeature(message.readUTF(), readString(message), readString(message));
+			this.readFeatureVersions(message, feature);
+		}
+
+		for (int i = 0; i < numAssociations; i++) {
+			this.nextMessage();
+			this.checkType(ASSOCIATION);
+			repository.addAssociation(this.readAssociation(repository));
+
+			if (this.progressListener != null)
+				this.progressListener.readProgressEvent((double) (i + 1) / numAssociations, this.in.getBytesRead());
+		}
+
+		while (this.nextMessage() == SEQUENCE_GRAPH)
+			this.readSequenceGraph();
+		this.checkType(END);
+
+		for (Association.Op association : repository.getAssociations())
+			Trees.checkConsistency(association.getRootNode());
+
+		return repository;
+	}
+
+	/**
+	 * Reads the blob index of the sender, requests the blobs that are not contained in the given blob store and stores them until {@link Protocol#END}.
+	 *
+	 * @param blobStore The blob store.
+	 * @param out       The connection to write the request to.
+	 * @throws IOException If the blobs could not be read.
+	 */
+	public void readBlobs(BlobStore blobStore, FrameWriter out) throws IOException {
+		this.nextMessage();
+		this.checkType(BLOB_INDEX);
+		DataInputStream index = new DataInputStream(this.in.getMessage());
+		int numIds = index.readInt();
+		List<String> missing = new ArrayList<>();
+		for (int i = 0; i < numIds; i++) {
+			String id = index.readUTF();
+			if (!blobStore.contains(id))
+				missing.add(id);
+		}
+
+		DataOutputStream request = new DataOutputStream(out.beginMessage(BLOB_REQUEST));
+		request.writeInt(missing.size());
+		for (String id : missing)
+			request.writeUTF(id);
+		out.endMessage();
+		out.flush();
+
+		while (this.nextMessage() == BLOB) {
+			DataInputStream blob = new DataInputStream(this.in.getMessage());
+			String id = blob.readUTF();
+			long size = blob.readLong();
+			String storedId = blobStore.put(ByteStreams.limit(blob, size));
+			if (!storedId.equals(id))
+				throw new EccoException("Received blob " + storedId + " instead of blob " + id + ".");
+		}
+		this.checkType(END);
+	}
+
+	/**
+	 * Waits for {@link Protocol#END}, which confirms that the receiver has processed the transferred data.
+	 *
+	 * @throws IOException If the confirmation could not be read.
+	 */
+	public void readEnd() throws IOException {
+		this.nextMessage();
+		this.checkType(END);
+	}
+
+
+	private byte nextMessage() throws IOException {
+		this.type = this.in.nextMessage();
+		if (this.type == ERROR)
+			throw new EccoException("Remote error: " + new DataInputStream(this.in.getMessage()).readUTF());
+		return this.type;
+	}
+
+	private void checkType(byte expected) {
+		if (this.type != expected)
+			throw new EccoException("Unexpected message of type " + this.type + ", expected type " + expected + ".");
+	}
+
+	private void readFeatureVersions(DataInput in, Feature feature) throws IOException {
+		int numVersions = in.readInt();
+		for (int i = 0; i < numVersions; i++) {
+			FeatureVersion featureVersion = feature.addVersion(in.readUTF());
+			featureVersion.setDescription(readString(in));
+		}
+	}
+
+	private Association.Op readAssociation(Repository.Op repository) throws IOException {
+		ObjectInputStream message = new ObjectInputStream(this.in.getMessage());
+
+		Association.Op association = this.entityFactory.createAssociation();
+		association.setId(message.readUTF());
+
+		PresenceCondition presenceCondition = this.entityFactory.createPresenceCondition();
+		this.readModules(message, repository, presenceCondition.getMinModules());
+		this.readModules(message, repository, presenceCondition.getMaxModules());
+		this.readModules(message, repository, presenceCondition.getNotModules());
+		this.readModules(message, repository, presenceCondition.getAllModules());
+		association.setPresenceCondition(presenceCondition);
+
+		RootNode.Op rootNode = this.entityFactory.createRootNode();
+		association.setRootNode(rootNode);
+		this.readChildren(message, rootNode);
+
+		return association;
+	}
+
+	private void readModules(DataInput in, Repository.Op repository, Set<Module> modules) throws IOException {
+		int numModules = in.readInt();
+		for (int i = 0; i < numModules; i++) {
+			Module module = this.entityFactory.createModule();
+			int numModuleFeatures = in.readInt();
+			for (int j = 0; j < numModuleFeatures; j++) {
+				String featureId = in.readUTF();
+				Feature feature = repository.getFeature(featureId);
+				if (feature == null)
+					throw new EccoException("Presence condition refers to unknown feature " + featureId + ".");
+				ModuleFeature moduleFeature = this.entityFactory.createModuleFeature(feature, in.readBoolean());
+				int numVersions = in.readInt();
+				for (int k = 0; k < numVersions; k++) {
+					String versionId = in.readUTF();
+					FeatureVersion featureVersion = feature.getVersion(versionId);
+					if (featureVersion == null)
+						throw new EccoException("Presence condition refers to unknown version " + versionId + " of feature " + featureId + ".");
+					moduleFeature.add(featureVersion);
+				}
+				module.add(moduleFeature);
+			}
+			modules.add(module);
+		}
+	}
+
+	private void readChildren(ObjectInputStream in, Node.Op node) throws IOException {
+		int numChildren = in.readInt();
+		for (int i = 0; i < numChildren; i++) {
+			Node.Op child = this.entityFactory.createNode();
+			child.setUnique(in.readBoolean());
+
+			int artifactId = in.readInt();
+			if (artifactId != -2) {
+				Artifact.Op<?> artifact = artifactId == -1 ? this.readArtifact(in) : this.getArtifact(artifactId);
+				child.setArtifact(artifact);
+				if (child.isUnique())
+					artifact.setContainingNode(child);
+			}
+
+			node.addChild(child);
+			this.readChildren(in, child);
+		}
+	}
+
+	private Artifact.Op<?> readArtifact(ObjectInputStream in) throws IOException {
+		ArtifactData data;
+		try {
+			data = (ArtifactData) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new EccoException("Unknown artifact data type.", e);
+		}
+
+		Artifact.Op<?> artifact = this.entityFactory.createArtifact(data);
+		artifact.setAtomic(in.readBoolean());
+		artifact.setOrdered(in.readBoolean());
+		artifact.setSequenceNumber(in.readInt());
+		this.artifacts.add(artifact);
+
+		int numUses = in.readInt();
+		for (int i = 0; i < numUses; i++)
+			artifact.addUses(this.getArtifact(in.readInt()), in.readUTF());
+		int numUsedBy = in.readInt();
+		for (int i = 0; i < numUsedBy; i++)
+			this.getArtifact(in.readInt()).addUses(artifact, in.readUTF());
+
+		return artifact;
+	}
+
+	private void readSequenceGraph() throws IOException {
+		DataInputStream message = new DataInputStream(this.in.getMessage());
+		Artifact.Op<?> artifact = this.getArtifact(message.readInt());
+
+		SequenceGraph.Op sequenceGraph = artifact.createSequenceGraph();
+		sequenceGraph.setCurrentSequenceNumber(message.readInt());
+
+		List<SequenceGraph.Node.Op> nodes = new ArrayList<>();
+		nodes.add(sequenceGraph.getRoot());
+		for (int i = 0; i < nodes.size(); i++) {
+			int numChildren = message.readInt();
+			for (int j = 0; j < numChildren; j++) {
+				Artifact.Op<?> symbol = this.getArtifact(message.readInt());
+				int childId = message.readInt();
+				if (childId == nodes.size())
+					nodes.add(sequenceGraph.createSequenceGraphNode(sequenceGraph.getPol()));
+				else if (childId < 0 || childId > nodes.size())
+					throw new EccoException("Invalid sequence graph node " + childId + ".");
+				nodes.get(i).getChildren().put(symbol, nodes.get(childId));
+			}
+		}
+
+		artifact.setSequenceGraph(sequenceGraph);
+	}
+
+	private Artifact.Op<?> getArtifact(int id) {
+		if (id < 0 || id >= this.artifacts.size())
+			throw new EccoException("Reference to unknown artifact " + id + ".");
+		return this.artifacts.get(id);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		if (in.readBoolean())
+			return in.readUTF();
+		else
+			return null;
+	}
+
+}
@@ -0,0 +1,292 @@
+package at.jku.isse.ecco.net;
+
+import at.jku.isse.ecco.EccoException;
+import at.jku.isse.ecco.ProgressOutputStream;
+import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.artifact.ArtifactReference;
+import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.feature.Feature;
+import at.jku.isse.ecco.feature.FeatureVersion;
+import at.jku.isse.ecco.module.Module;
+import at.jku.isse.ecco.module.ModuleFeature;
+import at.jku.isse.ecco.module.PresenceCondition;
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
+import at.jku.isse.ecco.repository.Repository;
+import at.jku.isse.ecco.sg.SequenceGraph;
+import at.jku.isse.ecco.tree.Node;
+
+import java.io.*;
+import java.util.*;
+
+import static at.jku.isse.ecco.net.Protocol.*;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Encodes features, repositories and blobs into messages of the wire protocol (see {@link Protocol}) that are decoded by a {@link RepositoryStreamDecoder}.
+ * <p>
+ * Every association is sent in its own message. Artifacts are numbered in the order in which they are sent. An artifact is sent with its data where it first occurs and referenced by its number afterwards. Artifact references are sent with the artifact that is sent last of their source and target, and sequence graphs are sent after all associations because their symbols may be contained in any association.
+ */
+public class RepositoryStreamEncoder {
+
+	private final FrameWriter out;
+
+	private final Map<Artifact<?>, Integer> artifactIds = new IdentityHashMap<>();
+	private final List<Artifact.Op<?>> artifacts = new ArrayList<>();
+
+	private ProgressOutputStream.ProgressListener progressListener = null;
+
+
+	public RepositoryStreamEncoder(FrameWriter out) {
+		checkNotNull(out);
+
+		this.out = out;
+	}
+
+
+	/**
+	 * Sets a listener that is notified after every sent association.
+	 *
+	 * @param progressListener The listener or null.
+	 */
+	public void setProgressListener(ProgressOutputStream.ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+
+	/**
+	 * Writes the given features followed by {@link Protocol#END}.
+	 *
+	 * @param features The features.
+	 * @throws IOException If the features could not be written.
+	 */
+	public void writeFeatures(Collection<? extends Feature> features) throws IOException {
+		for (Feature feature : features)
+			this.writeFeature(feature);
+		this.out.writeMessage(END);
+		this.out.flush();
+	}
+
+	/**
+	 * Writes the features, associations and sequence graphs of the given repository followed by {@link Protocol#END}.
+	 *
+	 * @param repository The repository.
+	 * @throws IOException If the repository could not be written.
+	 */
+	public void writeRepository(Repository.Op repository) throws IOException {
+		Collection<? extends Feature> features = repository.getFeatures();
+		Collection<? extends Association> associations = repository.getAssociations();
+
+		DataOutputStream header = new DataOutputStream(this.out.beginMessage(HEADER));
+		header.writeInt(repository.getMaxOrder());
+		header.writeLong(repository.getRevision());
+		header.writeInt(features.size());
+		header.writeInt(associations.size());
+		this.out.endMessage();
+
+		for (Feature feature : features)
+			this.writeFeature(feature);
+
+		int numAssociations = 0;
+		for (Association association : associations) {
+			this.writeAssociation(association);
+
+			numAssociations++;
+			if (this.progressListener != null)
+				this.progressListener.writeProgressEvent((double) numAssociations / associations.size(), this.out.getBytesWritten());
+		}
+
+		for (int i = 0; i < this.artifacts.size(); i++) {
+			if (this.artifacts.get(i).getSequenceGraph() != null)
+				this.writeSequenceGraph(i, this.artifacts.get(i).getSequenceGraph());
+		}
+
+		this.out.writeMessage(END);
+		this.out.flush();
+	}
+
+	/**
+	 * Offers the ids of all blobs in the given store to the receiver and writes the blobs it requests followed by {@link Protocol#END}.
+	 *
+	 * @param blobStore The blob store.
+	 * @param in        The connection to read the request of the receiver from.
+	 * @throws IOException If the blobs could not be written.
+	 */
+	public void writeBlobs(BlobStore blobStore, FrameReader in) throws IOException {
+		Collection<String> ids = blobStore.getIds();
+		DataOutputStream index = new DataOutputStream(this.out.beginMessage(BLOB_INDEX));
+		index.writeInt(ids.size());
+		for (String id : ids)
+			index.writeUTF(id);
+		this.out.endMessage();
+		this.out.flush();
+
+		if (in.nextMessage() != BLOB_REQUEST)
+			throw new EccoException("Expected blob request.");
+		DataInputStream request = new DataInputStream(in.getMessage());
+		int numRequested = request.readInt();
+		for (int i = 0; i < numRequested; i++) {
+			String id = request.readUTF();
+
+			DataOutputStream blob = new DataOutputStream(this.out.beginMessage(BLOB));
+			blob.writeUTF(id);
+			blob.writeLong(blobStore.size(id));
+			blobStore.copyTo(id, blob);
+			this.out.endMessage();
+		}
+
+		this.out.writeMessage(END);
+		this.out.flush();
+	}
+
+	/**
+	 * Writes an error message instead of the expected messages.
+	 *
+	 * @param message The error message.
+	 * @throws IOException If the message could not be written.
+	 */
+	public void writeError(String message) throws IOException {
+		DataOutputStream error = new DataOutputStream(this.out.beginMessage(ERROR));
+		error.writeUTF(message != null ? message : "Unknown error.");
+		this.out.endMessage();
+		this.out.flush();
+	}
+
+
+	private void writeFeature(Feature feature) throws IOException {
+		DataOutputStream message = new DataOutputStream(this.out.beginMessage(FEATURE));
+		message.writeUTF(feature.getId());
+		writeString(message, feature.getName());
+		writeString(message, feature.getDescription());
+
+		Collection<? extends FeatureVersion> versions = feature.getVersions();
+		message.writeInt(versions.size());
+		for (FeatureVersion version : versions) {
+			message.writeUTF(version.getId());
+			writeString(message, version.getDescription());
+		}
+		this.out.endMessage();
+	}
+
+	private void writeAssociation(Association association) throws IOException {
+		ObjectOutputStream message = new ObjectOutputStream(this.out.beginMessage(ASSOCIATION));
+		message.writeUTF(association.getId());
+
+		PresenceCondition presenceCondition = association.getPresenceCondition();
+		writeModules(message, presenceCondition.getMinModules());
+		writeModules(message, presenceCondition.getMaxModules());
+		writeModules(message, presenceCondition.getNotModules());
+		writeModules(message, presenceCondition.getAllModules());
+
+		this.writeChildren(message, association.getRootNode());
+
+		message.flush();
+		this.out.endMessage();
+	}
+
+	private static void writeModules(DataOutput out, Set<Module> modules) throws IOException {
+		out.writeInt(modules.size());
+		for (Module module : modules) {
+			out.writeInt(module.size());
+			for (ModuleFeature moduleFeature : module) {
+				out.writeUTF(moduleFeature.getFeature().getId());
+				out.writeBoolean(moduleFeature.getSign());
+				out.writeInt(moduleFeature.size());
+				for (FeatureVersion featureVersion : moduleFeature)
+					out.writeUTF(featureVersion.getId());
+			}
+		}
+	}
+
+	private void writeChildren(ObjectOutputStream out, Node node) throws IOException {
+		Collection<? extends Node> children = node.getChildren();
+		out.writeInt(children.size());
+		for (Node child : children)
+			this.writeNode(out, child);
+	}
+
+	private void writeNode(ObjectOutputStream out, Node node) throws IOException {
+		out.writeBoolean(node.isUnique());
+
+		Artifact.Op<?> artifact = (Artifact.Op<?>) node.getArtifact();
+		if (artifact == null) {
+			out.writeInt(-2);
+		} else if (this.artifactIds.containsKey(artifact)) {
+			out.writeInt(this.artifactIds.get(artifact));
+		} else {
+			out.writeInt(-1);
+			this.writeArtifact(out, artifact);
+		}
+
+		this.writeChildren(out, node);
+	}
+
+	private void writeArtifact(ObjectOutputStream out, Artifact.Op<?> artifact) throws IOException {
+		this.artifactIds.put(artifact, this.artifacts.size());
+		this.artifacts.add(artifact);
+
+		out.writeObject(artifact.getData());
+		out.writeBoolean(artifact.isAtomic());
+		out.writeBoolean(artifact.isOrdered());
+		out.writeInt(artifact.getSequenceNumber());
+
+		// references whose other end has already been sent
+		List<ArtifactReference> uses = new ArrayList<>();
+		for (ArtifactReference reference : artifact.getUses()) {
+			if (this.artifactIds.containsKey(reference.getTarget()))
+				uses.add(reference);
+		}
+		List<ArtifactReference> usedBy = new ArrayList<>();
+		for (ArtifactReference reference : artifact.getUsedBy()) {
+			if (reference.getSource() != artifact && this.artifactIds.containsKey(reference.getSource()))
+				usedBy.add(reference);
+		}
+		out.writeInt(uses.size());
+		for (ArtifactReference reference : uses) {
+			out.writeInt(this.artifactIds.get(reference.getTarget()));
+			out.writeUTF(reference.getType());
+		}
+		out.writeInt(usedBy.size());
+		for (ArtifactReference reference : usedBy) {
+			out.writeInt(this.artifactIds.get(reference.getSource()));
+			out.writeUTF(reference.getType());
+		}
+	}
+
+	private void writeSequenceGraph(int artifactId, SequenceGraph.Op sequenceGraph) throws IOException {
+		DataOutputStream message = new DataOutputStream(this.out.beginMessage(SEQUENCE_GRAPH));
+		message.writeInt(artifactId);
+		message.writeInt(sequenceGraph.getCurrentSequenceNumber());
+
+		// the graph is acyclic but nodes can be shared, so nodes are numbered in the order in which they are discovered
+		List<SequenceGraph.Node.Op> nodes = new ArrayList<>();
+		Map<SequenceGraph.Node.Op, Integer> nodeIds = new IdentityHashMap<>();
+		nodes.add(sequenceGraph.getRoot());
+		nodeIds.put(sequenceGraph.getRoot(), 0);
+		for (int i = 0; i < nodes.size(); i++) {
+			Map<Artifact.Op<?>, SequenceGraph.Node.Op> children = nodes.get(i).getChildren();
+			message.writeInt(children.size());
+			for (Map.Entry<Artifact.Op<?>, SequenceGraph.Node.Op> child : children.entrySet()) {
+				Integer symbolId = this.artifactIds.get(child.getKey());
+				if (symbolId == null)
+					throw new EccoException("Sequence graph contains an artifact that is not contained in the repository: " + child.getKey());
+				Integer childId = nodeIds.get(child.getValue());
+				if (childId == null) {
+					childId = nodes.size();
+					nodes.add(child.getValue());
+					nodeIds.put(child.getValue(), childId);
+				}
+				message.writeInt(symbolId);
+				message.writeInt(childId);
+			}
+		}
+
+		this.out.endMessage();
+	}
+
+	private static void writeString(DataOutput out, String string) throws IOException {
+		out.writeBoolean(string != null);
+		if (string != null)
+			out.writeUTF(string);
+	}
+
+}
@@ -1,5 +1,6 @@
 package at.jku.isse.ecco.plugin;
 
+import at.jku.isse.ecco.plugin.artifact.BlobStore;
 import at.jku.isse.ecco.plugin.artifact.DispatchReader;
 import at.jku.isse.ecco.plugin.artifact.DispatchWriter;
 import at.jku.isse.ecco.EccoService;
@@ -13,6 +14,8 @@ public class CoreModule extends AbstractModule {
 
 		bind(DispatchReader.class);
 		bind(DispatchWriter.class);
+
+		bind(BlobStore.class);
 	}
 
 }
@@ -14,6 +14,15 @@ public interface ArtifactReader<I, O> {
 
 	public O read(I[] input);
 
+	/**
+	 * Returns whether the reader can be invoked concurrently with disjoint inputs, e.g. with one file per invocation. Readers that keep state across invocations or across the files of an invocation (e.g. to resolve references between files) must return false so that they are invoked only once with all their input.
+	 *
+	 * @return True if the reader is thread-safe.
+	 */
+	public default boolean isThreadSafe() {
+		return true;
+	}
+
 	public void addListener(ReadListener listener);
 
 	public void removeListener(ReadListener listener);
@@ -2,6 +2,9 @@ package at.jku.isse.ecco.plugin.artifact;
 
 import at.jku.isse.ecco.listener.WriteListener;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface ArtifactWriter<I, O> {
 
 	public abstract String getPluginId();
@@ -10,6 +13,27 @@ public interface ArtifactWriter<I, O> {
 
 	public abstract O[] write(I input);
 
+	/**
+	 * Writes the content of the single file that {@link #write(Object, Object)} would write for the given input to the given stream instead, e.g. to compute its hash without writing it. Writers that do not write exactly one file for the input return false without writing anything.
+	 *
+	 * @param input The input, usually a single plugin node.
+	 * @param out   The stream to write the content to, which is not closed.
+	 * @return True if the content was written, false if the writer does not support writing to a stream.
+	 * @throws IOException If the content could not be written.
+	 */
+	public default boolean write(I input, OutputStream out) throws IOException {
+		return false;
+	}
+
+	/**
+	 * Returns whether the writer can be invoked concurrently with disjoint inputs, e.g. with one plugin node per invocation. Writers that keep state across invocations must return false so that they are invoked by one thread at a time.
+	 *
+	 * @return True if the writer is thread-safe.
+	 */
+	public default boolean isThreadSafe() {
+		return true;
+	}
+
 	public void addListener(WriteListener listener);
 
 	public void removeListener(WriteListener listener);
@@ -0,0 +1,262 @@
+package at.jku.isse.ecco.plugin.artifact;
+
+import at.jku.isse.ecco.EccoException;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import javax.xml.bind.annotation.adapters.HexBinaryAdapter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for file contents (blobs) in directory {@link #OBJECTS_DIR_NAME} of the repository directory.
+ * Every blob is stored once, in a file named by the hex encoded SHA-1 hash of its content and fanned out into sub directories by the first two characters of the hash.
+ * <p>
+ * Blobs are immutable. Contents are hashed while they are copied into a temporary file, so that every stored file is read only once, and are read via memory mapping.
+ */
+@Singleton
+public class BlobStore {
+
+	public static final Path OBJECTS_DIR_NAME = Paths.get("objects");
+
+	/**
+	 * Maximum size of a region that is memory mapped at once when storing a file.
+	 */
+	private static final long MAP_REGION_SIZE = 1L << 30;
+
+	private final Path objectsDir;
+
+	@Inject
+	public BlobStore(@Named("repositoryDir") Path repositoryDir) {
+		this.objectsDir = repositoryDir.resolve(OBJECTS_DIR_NAME);
+	}
+
+	public Path getObjectsDir() {
+		return this.objectsDir;
+	}
+
+
+	/**
+	 * Stores the content of the given file unless a blob with the same content is already stored.
+	 *
+	 * @param file The file.
+	 * @return The id (i.e. the hex encoded SHA-1 hash) of the blob.
+	 */
+	public String put(Path file) {
+		try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+			Files.createDirectories(this.objectsDir);
+
+			// the id is only known once the content has been read, so it is written into a temporary file first
+			Path temp = Files.createTempFile(this.objectsDir, "blob", ".tmp");
+			try {
+				String id;
+				try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+					id = getHex(copy(source, target));
+				}
+				this.store(temp, id);
+
+				return id;
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException e) {
+			throw new EccoException("Could not store blob for " + file, e);
+		}
+	}
+
+	/**
+	 * Stores the content read from the given stream unless a blob with the same content is already stored. The stream is read to its end but not closed.
+	 *
+	 * @param in The stream of the content.
+	 * @return The id (i.e. the hex encoded SHA-1 hash) of the blob.
+	 */
+	public String put(InputStream in) {
+		try {
+			Files.createDirectories(this.objectsDir);
+
+			// the id is only known once the content has been read, so it is written into a temporary file first
+			Path temp = Files.createTempFile(this.objectsDir, "blob", ".tmp");
+			try {
+				MessageDigest complete = MessageDigest.getInstance("SHA1");
+				Files.copy(new DigestInputStream(in, complete), temp, StandardCopyOption.REPLACE_EXISTING);
+				String id = getHex(complete.digest());
+				this.store(temp, id);
+
+				return id;
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new EccoException("Could not store blob.", e);
+		}
+	}
+
+	/**
+	 * Copies all blobs that are not contained in this store from the given store.
+	 *
+	 * @param other The store to copy from.
+	 */
+	public void putAll(BlobStore other) {
+		for (String id : other.getIds()) {
+			if (!this.contains(id))
+				this.put(other.resolve(id));
+		}
+	}
+
+	public boolean contains(String id) {
+		return Files.exists(this.resolve(id));
+	}
+
+	/**
+	 * @param id The id of the blob.
+	 * @return The size of the blob in bytes.
+	 */
+	public long size(String id) {
+		try {
+			return Files.size(this.getBlob(id));
+		} catch (IOException e) {
+			throw new EccoException("Could not read blob " + id, e);
+		}
+	}
+
+	/**
+	 * Returns a read-only memory mapped buffer of the content of the blob.
+	 *
+	 * @param id The id of the blob.
+	 * @return The content of the blob.
+	 */
+	public ByteBuffer read(String id) {
+		try (FileChannel channel = FileChannel.open(this.getBlob(id), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new EccoException("Blob " + id + " is too large to be mapped at once.");
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			throw new EccoException("Could not read blob " + id, e);
+		}
+	}
+
+	/**
+	 * Writes the content of the blob into the given file, which is created or truncated.
+	 *
+	 * @param id     The id of the blob.
+	 * @param target The file to write.
+	 */
+	public void copyTo(String id, Path target) {
+		try (FileChannel source = FileChannel.open(this.getBlob(id), StandardOpenOption.READ);
+			 FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			transfer(source, targetChannel);
+		} catch (IOException e) {
+			throw new EccoException("Could not write blob " + id + " to " + target, e);
+		}
+	}
+
+	/**
+	 * Writes the content of the blob to the given stream, which is not closed.
+	 *
+	 * @param id  The id of the blob.
+	 * @param out The stream to write to.
+	 */
+	public void copyTo(String id, OutputStream out) {
+		try {
+			Files.copy(this.getBlob(id), out);
+		} catch (IOException e) {
+			throw new EccoException("Could not read blob " + id, e);
+		}
+	}
+
+	/**
+	 * @return The ids of all stored blobs.
+	 */
+	public Collection<String> getIds() {
+		Collection<String> ids = new ArrayList<>();
+		if (Files.exists(this.objectsDir)) {
+			try (Stream<Path> blobs = Files.walk(this.objectsDir, 2)) {
+				blobs.filter(Files::isRegularFile).forEach(blob -> {
+					String name = blob.getFileName().toString();
+					if (!name.endsWith(".tmp"))
+						ids.add(blob.getParent().getFileName().toString() + name);
+				});
+			} catch (IOException e) {
+				throw new EccoException("Could not list blobs.", e);
+			}
+		}
+		return ids;
+	}
+
+
+	private Path resolve(String id) {
+		if (id.length() <= 2)
+			throw new EccoException("Invalid blob id: " + id);
+		return this.objectsDir.resolve(id.substring(0, 2)).resolve(id.substring(2));
+	}
+
+	/**
+	 * Moves the temporary file with the given content into the store unless a blob with the same content is already stored. The move is atomic, so that concurrent readers never see partial blobs.
+	 */
+	private void store(Path temp, String id) throws IOException {
+		Path blob = this.resolve(id);
+		if (!Files.exists(blob)) {
+			Files.createDirectories(blob.getParent());
+			try {
+				Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException e) {
+				// stored concurrently
+			}
+		}
+	}
+
+	private Path getBlob(String id) {
+		Path blob = this.resolve(id);
+		if (!Files.exists(blob))
+			throw new EccoException("Blob " + id + " does not exist in " + this.objectsDir);
+		return blob;
+	}
+
+	/**
+	 * Copies the content of the source into the target and hashes it on the way, region by memory mapped region.
+	 *
+	 * @return The SHA-1 hash of the content.
+	 */
+	private static byte[] copy(FileChannel source, FileChannel target) throws IOException {
+		try {
+			MessageDigest complete = MessageDigest.getInstance("SHA1");
+
+			long size = source.size();
+			for (long position = 0; position < size; position += MAP_REGION_SIZE) {
+				ByteBuffer region = source.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_REGION_SIZE, size - position));
+				complete.update(region.duplicate());
+				while (region.hasRemaining()) {
+					target.write(region);
+				}
+			}
+
+			return complete.digest();
+		} catch (NoSuchAlgorithmException e) {
+			throw new EccoException("Could not compute hash.", e);
+		}
+	}
+
+	private static void transfer(FileChannel source, FileChannel target) throws IOException {
+		long size = source.size();
+		long position = 0;
+		while (position < size) {
+			position += source.transferTo(position, size - position, target);
+		}
+	}
+
+	private static String getHex(byte[] raw) {
+		return new HexBinaryAdapter().marshal(raw);
+	}
+
+}
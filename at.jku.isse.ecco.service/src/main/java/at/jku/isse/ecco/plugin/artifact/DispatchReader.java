@@ -2,17 +2,22 @@ package at.jku.isse.ecco.plugin.artifact;
 
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.EccoService;
+import at.jku.isse.ecco.EccoUtil;
 import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.listener.ReadListener;
 import at.jku.isse.ecco.tree.Node;
+import at.jku.isse.ecco.util.BoundedExecutor;
 import com.google.inject.Inject;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class DispatchReader implements ArtifactReader<Path, Set<Node.Op>> {
@@ -47,6 +52,23 @@ public class DispatchReader implements ArtifactReader<Path, Set<Node.Op>> {
 		this.readers = readers;
 	}
 
+	private int parallelism = 1;
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of threads used to hash and read files. Files of readers that are not thread-safe are never read concurrently.
+	 *
+	 * @param parallelism The number of threads (1 means sequential).
+	 */
+	public void setParallelism(int parallelism) {
+		checkArgument(parallelism >= 1, "Parallelism must be at least 1.");
+
+		this.parallelism = parallelism;
+	}
+
 	private Collection<ReadListener> listeners = new ArrayList<ReadListener>();
 
 	@Override
@@ -118,66 +140,132 @@ public class DispatchReader implements ArtifactReader<Path, Set<Node.Op>> {
 				}
 			}
 
-			Map<ArtifactReader<Path, Set<Node.Op>>, ArrayList<Path>> readerToFilesMap = new HashMap<>();
-			Map<ArtifactReader<Path, Set<Node.Op>>, ArrayList<Path>> readerToUnmodifiedFilesMap = new HashMap<>();
-
 			// this reader itself is responsible for the directory tree structure (unless there is an adapter that deals with a directory)
+			Map<Path, ArtifactReader<Path, Set<Node.Op>>> files = new LinkedHashMap<>();
 			Map<Path, Node.Op> directoryNodes = new HashMap<>();
-			Node.Op baseDirectoryNode = this.readDirectories(base, base.resolve(path), hashes, readerToFilesMap, readerToUnmodifiedFilesMap, directoryNodes);
+			Node.Op baseDirectoryNode = this.readDirectories(base, base.resolve(path), files, directoryNodes);
 			nodes.add(baseDirectoryNode);
 
-			// let readers read the assigned, modified files
-			for (ArtifactReader<Path, Set<Node.Op>> reader : this.readers) {
-				ArrayList<Path> filesList = readerToFilesMap.get(reader);
-
-				if (filesList != null) {
-					Path[] pluginInput = filesList.toArray(new Path[filesList.size()]);
-
-					Set<Node.Op> pluginNodes = reader.read(base, pluginInput);
-					for (Node.Op pluginNode : pluginNodes) {
-						if (!(pluginNode.getArtifact().getData() instanceof PluginArtifactData))
-							throw new EccoException("Plugin must return valid plugin nodes as root nodes in order for it to be compatible with dispatchers.");
-
-						PluginArtifactData pluginArtifactData = (PluginArtifactData) pluginNode.getArtifact().getData();
-						Path parent = pluginArtifactData.getPath().getParent();
-						if (parent == null)
-							parent = Paths.get(".").normalize();
-						Node.Op parentNode = directoryNodes.get(parent);
-						if (parentNode != null)
-							parentNode.addChild(pluginNode);
-						else
-							throw new EccoException("Plugin '" + pluginArtifactData.getPluginId() + "' returned an invalid plugin node: " + pluginNode);
-					}
-				}
+			// let readers read the assigned files and attach the resulting plugin nodes to their directories
+			for (Node.Op pluginNode : this.readFiles(base, files, hashes)) {
+				PluginArtifactData pluginArtifactData = (PluginArtifactData) pluginNode.getArtifact().getData();
+				Path parent = pluginArtifactData.getPath().getParent();
+				if (parent == null)
+					parent = Paths.get(".").normalize();
+				Node.Op parentNode = directoryNodes.get(parent);
+				if (parentNode != null)
+					parentNode.addChild(pluginNode);
+				else
+					throw new EccoException("Plugin '" + pluginArtifactData.getPluginId() + "' returned an invalid plugin node: " + pluginNode);
 			}
+		}
 
-			// deal with unmodified files
-			for (ArtifactReader<Path, Set<Node.Op>> reader : this.readers) {
-				ArrayList<Path> unmodifiedFilesList = readerToUnmodifiedFilesMap.get(reader);
+		// return produced nodes
+		return nodes;
+	}
+
+	/**
+	 * Checks if the reader of the plugin with the given id is thread-safe (see {@link ArtifactReader#isThreadSafe()}). Such a reader reads every file on its own, so that the artifacts of different files never reference each other.
+	 *
+	 * @param pluginId The id of the plugin.
+	 * @return True if the reader of the plugin is thread-safe, false otherwise.
+	 */
+	public boolean isThreadSafe(String pluginId) {
+		for (ArtifactReader<Path, Set<Node.Op>> reader : this.readers) {
+			if (reader.getPluginId().equals(pluginId))
+				return reader.isThreadSafe();
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the given files with the readers best suited for them. This is used to read files that were assumed to be unmodified but could not be mapped to the repository.
+	 *
+	 * @param base  The base directory.
+	 * @param files The files to be read, relative to the base directory.
+	 * @return The plugin nodes of the files.
+	 */
+	public Set<Node.Op> readFiles(Path base, Collection<Path> files) {
+		Map<Path, ArtifactReader<Path, Set<Node.Op>>> readerFiles = new LinkedHashMap<>();
+		for (Path file : files) {
+			ArtifactReader<Path, Set<Node.Op>> reader = this.getReaderForFile(base, file);
+			if (reader == null)
+				throw new EccoException("No reader found for file: " + file);
+			readerFiles.put(file, reader);
+			this.fireReadEvent(file, reader);
+		}
+		return new HashSet<>(this.readFiles(base, readerFiles, new Properties()));
+	}
 
-				if (unmodifiedFilesList != null) {
-					for (Path unmodifiedFilePath : unmodifiedFilesList) {
-						Artifact.Op<PluginArtifactData> pluginArtifact = this.entityFactory.createArtifact(new PluginArtifactData(this.getPluginId(), unmodifiedFilePath));
+	/**
+	 * Reads the given files with their assigned readers. Files whose hash matches the one in the given hashes are not read but returned as plugin nodes with property {@link Artifact#PROPERTY_UNMODIFIED}.
+	 * <p>
+	 * Files are hashed and, if their reader is thread-safe (see {@link ArtifactReader#isThreadSafe()}), read individually by tasks that are executed on {@link #getParallelism()} threads (see {@link BoundedExecutor}). The files of readers that are not thread-safe are read afterwards in a single invocation per reader. Since such a reader may add references between the files it reads together, all of its files are read if any of them is modified.
+	 *
+	 * @return The plugin nodes ordered by their paths.
+	 */
+	private List<Node.Op> readFiles(Path base, Map<Path, ArtifactReader<Path, Set<Node.Op>>> files, Properties hashes) {
+		try (BoundedExecutor executor = new BoundedExecutor(this.parallelism)) {
+			// hash every file and read the modified files of thread-safe readers
+			Map<ArtifactReader<Path, Set<Node.Op>>, Collection<Path>> batchFiles = new ConcurrentHashMap<>();
+			Map<ArtifactReader<Path, Set<Node.Op>>, Collection<Node.Op>> batchUnmodifiedNodes = new ConcurrentHashMap<>();
+			Map<Path, Future<Set<Node.Op>>> fileTasks = new LinkedHashMap<>();
+			for (Map.Entry<Path, ArtifactReader<Path, Set<Node.Op>>> entry : files.entrySet()) {
+				Path file = entry.getKey();
+				ArtifactReader<Path, Set<Node.Op>> reader = entry.getValue();
+				fileTasks.put(file, executor.submit(() -> {
+					String hash = hashes.getProperty(file.toString());
+					if (hash != null && hash.equals(EccoUtil.getSHA(base.resolve(file)))) { // hashes match
+						Artifact.Op<PluginArtifactData> pluginArtifact = this.entityFactory.createArtifact(new PluginArtifactData(reader.getPluginId(), file));
 						Node.Op pluginNode = this.entityFactory.createNode(pluginArtifact);
 						pluginArtifact.putProperty(Artifact.PROPERTY_UNMODIFIED, true);
+						if (!reader.isThreadSafe())
+							batchUnmodifiedNodes.computeIfAbsent(reader, r -> new ConcurrentLinkedQueue<>()).add(pluginNode);
+						return Collections.singleton(pluginNode);
+					} else if (reader.isThreadSafe()) {
+						return reader.read(base, new Path[]{file});
+					} else {
+						batchFiles.computeIfAbsent(reader, r -> new ConcurrentLinkedQueue<>()).add(file);
+						return Collections.emptySet();
+					}
+				}));
+			}
+			List<Node.Op> pluginNodes = new ArrayList<>();
+			for (Map.Entry<Path, Future<Set<Node.Op>>> entry : fileTasks.entrySet()) {
+				pluginNodes.addAll(executor.join(entry.getValue(), "reading", entry.getKey()));
+			}
 
-						PluginArtifactData pluginArtifactData = (PluginArtifactData) pluginNode.getArtifact().getData();
-						Path parent = pluginArtifactData.getPath().getParent();
-						if (parent == null)
-							parent = Paths.get(".").normalize();
-						Node.Op parentNode = directoryNodes.get(parent);
-						if (parentNode != null)
-							parentNode.addChild(pluginNode);
-						else
-							throw new EccoException("Plugin '" + this.getPluginId() + "' returned an invalid plugin node: " + pluginNode);
+			// read the files of readers that are not thread-safe if any of them is modified
+			Map<ArtifactReader<Path, Set<Node.Op>>, Future<Set<Node.Op>>> batchTasks = new LinkedHashMap<>();
+			for (ArtifactReader<Path, Set<Node.Op>> reader : this.readers) {
+				Collection<Path> readerFiles = batchFiles.get(reader);
+				if (readerFiles != null) {
+					Collection<Node.Op> unmodifiedNodes = batchUnmodifiedNodes.get(reader);
+					if (unmodifiedNodes != null) {
+						Set<Node.Op> removedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+						removedNodes.addAll(unmodifiedNodes);
+						pluginNodes.removeIf(removedNodes::contains);
+						for (Node.Op unmodifiedNode : unmodifiedNodes)
+							readerFiles.add(((PluginArtifactData) unmodifiedNode.getArtifact().getData()).getPath());
 					}
+					Path[] pluginInput = readerFiles.stream().sorted().toArray(Path[]::new);
+					batchTasks.put(reader, executor.submit(() -> reader.read(base, pluginInput)));
 				}
 			}
+			for (Map.Entry<ArtifactReader<Path, Set<Node.Op>>, Future<Set<Node.Op>>> entry : batchTasks.entrySet()) {
+				pluginNodes.addAll(executor.join(entry.getValue(), "reading", entry.getKey().getPluginId()));
+			}
 
-		}
+			for (Node.Op pluginNode : pluginNodes) {
+				if (!(pluginNode.getArtifact().getData() instanceof PluginArtifactData))
+					throw new EccoException("Plugin must return valid plugin nodes as root nodes in order for it to be compatible with dispatchers.");
+			}
 
-		// return produced nodes
-		return nodes;
+			// order plugin nodes by path so that the resulting tree does not depend on the order in which tasks completed
+			pluginNodes.sort(Comparator.comparing(pluginNode -> ((PluginArtifactData) pluginNode.getArtifact().getData()).getPath()));
+
+			return pluginNodes;
+		}
 	}
 
 
@@ -208,7 +296,7 @@ public class DispatchReader implements ArtifactReader<Path, Set<Node.Op>> {
 	}
 
 
-	private Node.Op readDirectories(Path base, Path current, Properties hashes, Map<ArtifactReader<Path, Set<Node.Op>>, ArrayList<Path>> readerToFilesMap, Map<ArtifactReader<Path, Set<Node.Op>>, ArrayList<Path>> readerToUnmodifiedFilesMap, Map<Path, Node.Op> directoryNodes) {
+	private Node.Op readDirectories(Path base, Path current, Map<Path, ArtifactReader<Path, Set<Node.Op>>> files, Map<Path, Node.Op> directoryNodes) {
 		Path relativeCurrent = base.relativize(current);
 
 		try {
@@ -221,46 +309,25 @@ public class DispatchReader implements ArtifactReader<Path, Set<Node.Op>> {
 					this.fireReadEvent(base.relativize(current), this);
 
 					// go into sub directories
-					Files.list(current).forEach(d -> {
-						Node.Op child = this.readDirectories(base, d, hashes, readerToFilesMap, readerToUnmodifiedFilesMap, directoryNodes);
-						if (child != null)
-							directoryNode.addChild(child);
-					});
+					try (Stream<Path> children = Files.list(current)) {
+						children.forEach(d -> {
+							Node.Op child = this.readDirectories(base, d, files, directoryNodes);
+							if (child != null)
+								directoryNode.addChild(child);
+						});
+					}
 
 					return directoryNode;
 				}
 			} else { // deal with files and directories that can be dispatched
-				if (!this.isIgnored(relativeCurrent)) { // if file is not ignored add it to readerToFilesMap
-					Map<ArtifactReader<Path, Set<Node.Op>>, ArrayList<Path>> filesMap;
-
+				if (!this.isIgnored(relativeCurrent)) { // if file is not ignored assign it to its reader
 					// get reader for file
 					ArtifactReader<Path, Set<Node.Op>> reader = this.getReaderForFile(base, relativeCurrent);
 
-//					// check if file was modified
-//					String hash = hashes.getProperty(relativeCurrent.toString());
-//					if (hash != null && hash.equals(EccoUtil.getSHA(base.resolve(relativeCurrent)))) { // hashes match
-//						filesMap = readerToUnmodifiedFilesMap;
-//					} else {
-//						filesMap = readerToFilesMap;
-//					}
-					// TODO: for now, always read all the files.
-					filesMap = readerToFilesMap;
-
-					// assign file to reader
+					// assign file to reader. whether it was modified is checked when the files are read.
 					if (reader != null) {
-						ArrayList<Path> fileList = filesMap.get(reader);
-						if (fileList == null)
-							fileList = new ArrayList<>();
-						fileList.add(relativeCurrent);
-						filesMap.put(reader, fileList);
+						files.put(relativeCurrent, reader);
 						this.fireReadEvent(relativeCurrent, reader);
-
-//						// add artifact plugin node
-//						Artifact<PluginArtifactData> pluginArtifact = this.entityFactory.createArtifact(new PluginArtifactData(reader.getPluginId(), relativeCurrent));
-//						Node pluginNode = this.entityFactory.createOrderedNode(pluginArtifact);
-//						directoryNodes.put(relativeCurrent, pluginNode);
-//
-//						return pluginNode;
 					}
 
 					return null;
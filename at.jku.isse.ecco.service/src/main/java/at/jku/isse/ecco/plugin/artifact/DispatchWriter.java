@@ -6,18 +6,28 @@ import at.jku.isse.ecco.EccoUtil;
 import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.listener.WriteListener;
 import at.jku.isse.ecco.tree.Node;
+import at.jku.isse.ecco.util.BoundedExecutor;
+import com.google.common.io.ByteStreams;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.bind.annotation.adapters.HexBinaryAdapter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Writer;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 public class DispatchWriter implements ArtifactWriter<Set<? extends Node>, Path> {
 
@@ -42,6 +52,23 @@ public class DispatchWriter implements ArtifactWriter<Set<? extends Node>, Path>
 		this.repositoryDir = repositoryDir;
 	}
 
+	private int parallelism = 1;
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of threads used to write and hash files. Writers that are not thread-safe are never invoked concurrently.
+	 *
+	 * @param parallelism The number of threads (1 means sequential).
+	 */
+	public void setParallelism(int parallelism) {
+		checkArgument(parallelism >= 1, "Parallelism must be at least 1.");
+
+		this.parallelism = parallelism;
+	}
+
 	private Collection<WriteListener> listeners = new ArrayList<WriteListener>();
 
 	@Override
@@ -95,9 +122,36 @@ public class DispatchWriter implements ArtifactWriter<Set<? extends Node>, Path>
 
 		List<Path> output = new ArrayList<>();
 
-		Properties hashes = new Properties();
+		// create all directories up front so that the plugin nodes can be written independently of each other
+		Set<Path> directories = new LinkedHashSet<>();
+		List<Node> pluginNodes = new ArrayList<>();
 		for (Node node : input) {
-			this.writeRec(base, node, output, hashes);
+			this.collectRec(node, directories, pluginNodes);
+		}
+		for (Path directory : directories) {
+			Path path = base.resolve(directory);
+			try {
+				if (!path.equals(base))
+					Files.createDirectory(path);
+			} catch (IOException e) {
+				throw new EccoException("Could not create directory " + path, e);
+			}
+			output.add(path);
+			this.fireWriteEvent(path, this);
+		}
+
+		Properties hashes = new Properties();
+		Path absoluteBase = base.toAbsolutePath().normalize();
+		List<Map<Path, String>> writtenFiles = this.writeFiles(base, pluginNodes);
+		for (int i = 0; i < pluginNodes.size(); i++) {
+			for (Map.Entry<Path, String> entry : writtenFiles.get(i).entrySet()) {
+				// hashes are stored for paths relative to the base directory, which is how the dispatch reader looks them up
+				hashes.put(absoluteBase.relativize(resolveOutputPath(base, entry.getKey())).toString(), entry.getValue());
+				output.add(entry.getKey());
+			}
+
+			PluginArtifactData pluginArtifactData = (PluginArtifactData) pluginNodes.get(i).getArtifact().getData();
+			this.fireWriteEvent(pluginArtifactData.getPath(), this.getWriterForArtifact(pluginArtifactData));
 		}
 
 		// write hashes file into base directory
@@ -116,38 +170,340 @@ public class DispatchWriter implements ArtifactWriter<Set<? extends Node>, Path>
 		return output.toArray(new Path[output.size()]);
 	}
 
-	private void writeRec(Path base, Node node, List<Path> output, Properties hashes) {
-		Artifact artifact = node.getArtifact();
-		if (artifact.getData() instanceof DirectoryArtifactData) {
-			DirectoryArtifactData directoryArtifactData = (DirectoryArtifactData) artifact.getData();
-			Path path = base.resolve(directoryArtifactData.getPath());
-			try {
-				if (!path.equals(base))
-					Files.createDirectory(path);
+	/**
+	 * Updates a base directory that contains a previous checkout to the given nodes. Only files whose content differs from the hash recorded in the hashes file of the previous checkout are written, files that are no longer part of the checkout are deleted and all other files are left untouched.
+	 * The hashes of the new files are computed without writing them (see {@link ArtifactWriter#write(Object, OutputStream)}), so only files that differ are written. Only the files of writers that cannot write to a stream are written into a staging directory in the repository directory to hash them. The base directory is only changed if none of the files that have to be written or deleted were modified since the previous checkout and no file that is not part of the previous checkout would be overwritten with different content.
+	 * If the base directory is empty this is equivalent to {@link #write(Path, Set)}.
+	 *
+	 * @param base  The base directory.
+	 * @param input The nodes of the new checkout.
+	 * @return The paths of the files that were written or deleted.
+	 */
+	public Path[] update(Path base, Set<? extends Node> input) {
+		if (!Files.isDirectory(base))
+			throw new EccoException("Base directory does not exist or is not a directory.");
+
+		// read hashes of previous checkout
+		Path hashesFile = base.resolve(EccoService.HASHES_FILE_NAME);
+		Properties oldHashes = new Properties();
+		if (Files.exists(hashesFile)) {
+			try (Reader reader = Files.newBufferedReader(hashesFile)) {
+				oldHashes.load(reader);
+			} catch (IOException e) {
+				throw new EccoException("Error reading hashes file.", e);
+			}
+		} else {
+			try (Stream<Path> paths = Files.list(base)) {
+				if (paths.anyMatch(path -> !path.equals(this.repositoryDir) && !path.getFileName().equals(EccoService.CONFIG_FILE_NAME) && !path.getFileName().equals(EccoService.WARNINGS_FILE_NAME)))
+					throw new EccoException("Base directory contains files but no hashes file of a previous checkout.");
+			} catch (IOException e) {
+				throw new EccoException("Could not list base directory.", e);
+			}
+		}
+
+		Path stagingDir = null;
+		try {
+			// hash all files without writing them and keep the ones that differ from the previous checkout
+			Set<Path> directories = new LinkedHashSet<>();
+			List<Node> pluginNodes = new ArrayList<>();
+			for (Node node : input) {
+				this.collectRec(node, directories, pluginNodes);
+			}
+			Properties newHashes = new Properties();
+			Map<String, Node> changedFiles = new LinkedHashMap<>();
+			List<Node> unhashedNodes = new ArrayList<>();
+			List<String> hashes = this.hashFiles(pluginNodes);
+			for (int i = 0; i < pluginNodes.size(); i++) {
+				String hash = hashes.get(i);
+				if (hash == null) {
+					unhashedNodes.add(pluginNodes.get(i));
+				} else {
+					String file = ((PluginArtifactData) pluginNodes.get(i).getArtifact().getData()).getPath().normalize().toString();
+					newHashes.put(file, hash);
+					if (!hash.equals(oldHashes.getProperty(file)))
+						changedFiles.put(file, pluginNodes.get(i));
+				}
+			}
+
+			// files of writers that cannot write to a stream are hashed once they are staged
+			Map<String, Path> stagedFiles = new LinkedHashMap<>();
+			if (!unhashedNodes.isEmpty()) {
+				stagingDir = Files.createTempDirectory(this.repositoryDir, "checkout");
+				for (Node node : unhashedNodes) {
+					Path parent = ((PluginArtifactData) node.getArtifact().getData()).getPath().getParent();
+					if (parent != null)
+						Files.createDirectories(stagingDir.resolve(parent));
+				}
+				Path absoluteStagingDir = stagingDir.toAbsolutePath().normalize();
+				for (Map<Path, String> writtenFiles : this.writeFiles(stagingDir, unhashedNodes)) {
+					for (Map.Entry<Path, String> entry : writtenFiles.entrySet()) {
+						Path stagedPath = resolveOutputPath(stagingDir, entry.getKey());
+						String file = absoluteStagingDir.relativize(stagedPath).toString();
+						newHashes.put(file, entry.getValue());
+						if (entry.getValue().equals(oldHashes.getProperty(file)))
+							Files.delete(stagedPath);
+						else
+							stagedFiles.put(file, stagedPath);
+					}
+				}
+			}
+
+			List<String> deletedFiles = new ArrayList<>();
+			for (String file : oldHashes.stringPropertyNames()) {
+				if (!newHashes.containsKey(file))
+					deletedFiles.add(file);
+			}
+
+			// check that no modifications in the base directory are lost
+			List<String> conflicts = new ArrayList<>();
+			Set<String> files = new LinkedHashSet<>(changedFiles.keySet());
+			files.addAll(stagedFiles.keySet());
+			for (String file : files) {
+				Path path = base.resolve(file);
+				if (Files.exists(path)) {
+					String hash = EccoUtil.getSHA(path);
+					if (hash.equals(newHashes.getProperty(file))) {
+						// the file already has the new content
+						changedFiles.remove(file);
+						stagedFiles.remove(file);
+					} else if (!hash.equals(oldHashes.getProperty(file))) {
+						conflicts.add(file);
+					}
+				}
+			}
+			for (String file : deletedFiles) {
+				Path path = base.resolve(file);
+				if (Files.exists(path) && !EccoUtil.getSHA(path).equals(oldHashes.getProperty(file)))
+					conflicts.add(file);
+			}
+			if (!conflicts.isEmpty())
+				throw new EccoException("Files were modified since the last checkout or are not part of it: " + conflicts);
+
+			// apply changes
+			List<Path> output = new ArrayList<>();
+			for (String file : deletedFiles) {
+				Path path = base.resolve(file);
+				if (Files.deleteIfExists(path)) {
+					output.add(path);
+					this.fireWriteEvent(path, this);
+				}
+			}
+			for (String file : deletedFiles) {
+				Path parent = base.resolve(file).getParent();
+				while (parent != null && !parent.equals(base) && !directories.contains(base.relativize(parent).normalize()) && Files.isDirectory(parent)) {
+					try (Stream<Path> children = Files.list(parent)) {
+						if (children.findAny().isPresent())
+							break;
+					}
+					Files.delete(parent);
+					parent = parent.getParent();
+				}
+			}
+			for (Path directory : directories) {
+				Files.createDirectories(base.resolve(directory));
+			}
+			List<Node> changedNodes = new ArrayList<>(changedFiles.values());
+			List<Map<Path, String>> writtenFiles = this.writeFiles(base, changedNodes);
+			for (Map<Path, String> nodeFiles : writtenFiles) {
+				for (Path outputPath : nodeFiles.keySet()) {
+					Path path = resolveOutputPath(base, outputPath);
+					output.add(path);
+					this.fireWriteEvent(path, this);
+				}
+			}
+			for (Map.Entry<String, Path> entry : stagedFiles.entrySet()) {
+				Path path = base.resolve(entry.getKey());
+				Files.createDirectories(path.getParent());
+				Files.move(entry.getValue(), path, StandardCopyOption.REPLACE_EXISTING);
 				output.add(path);
 				this.fireWriteEvent(path, this);
-				for (Node child : node.getChildren()) {
-					this.writeRec(base, child, output, hashes);
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
 			}
-		} else if (artifact.getData() instanceof PluginArtifactData) {
-			PluginArtifactData pluginArtifactData = (PluginArtifactData) node.getArtifact().getData();
 
-			ArtifactWriter<Set<Node>, Path> writer = this.getWriterForArtifact(pluginArtifactData);
+			// write hashes file into base directory
+			try (Writer writer = Files.newBufferedWriter(hashesFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				newHashes.store(writer, null);
+			}
+			this.fireWriteEvent(hashesFile, this);
+
+			return output.toArray(new Path[output.size()]);
+		} catch (IOException e) {
+			throw new EccoException("Could not update base directory.", e);
+		} finally {
+			if (stagingDir != null)
+				deleteDirectory(stagingDir);
+		}
+	}
+
+	/**
+	 * Collects the paths of the directory nodes (relative to the base directory, parents before their children) and the plugin nodes of the tree rooted at the given node.
+	 */
+	private void collectRec(Node node, Set<Path> directories, List<Node> pluginNodes) {
+		Artifact artifact = node.getArtifact();
+		if (artifact.getData() instanceof DirectoryArtifactData) {
+			directories.add(((DirectoryArtifactData) artifact.getData()).getPath().normalize());
+			for (Node child : node.getChildren()) {
+				this.collectRec(child, directories, pluginNodes);
+			}
+		} else if (artifact.getData() instanceof PluginArtifactData) {
+			pluginNodes.add(node);
+		}
+	}
 
-			Set<Node> pluginInput = new HashSet<>();
-			pluginInput.add(node);
+	/**
+	 * Writes the given plugin nodes into the base directory, which must already contain their directories, and hashes the written files.
+	 * <p>
+	 * Files of writers that can write to a stream (see {@link ArtifactWriter#write(Object, OutputStream)}) are hashed while they are written. Files of other writers are read back right after they were written, while they are still cached by the file system.
+	 *
+	 * @return For every plugin node in the given order, the output paths returned by its writer with the hashes of the files.
+	 */
+	private List<Map<Path, String>> writeFiles(Path base, List<Node> pluginNodes) {
+		return this.dispatch(pluginNodes, (writer, pluginInput) -> {
+			Path file = base.resolve(((PluginArtifactData) pluginInput.iterator().next().getArtifact().getData()).getPath());
+			MessageDigest digest = createDigest();
+			boolean written;
+			try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), digest)) {
+				written = writer.write(pluginInput, out);
+			}
+			if (written)
+				return Collections.singletonMap(file, new HexBinaryAdapter().marshal(digest.digest()));
+			Files.delete(file);
 
 			Path[] outputPaths = writer.write(base, pluginInput);
+
+			Map<Path, String> files = new LinkedHashMap<>();
 			for (Path outputPath : outputPaths) {
-				hashes.put(outputPath.toString(), EccoUtil.getSHA(base.resolve(outputPath)));
+				files.put(outputPath, EccoUtil.getSHA(resolveOutputPath(base, outputPath)));
 			}
+			return files;
+		});
+	}
+
+	/**
+	 * Hashes the files of the given plugin nodes without writing them.
+	 *
+	 * @return For every plugin node in the given order, the hash of its file or null if its writer cannot write to a stream.
+	 */
+	private List<String> hashFiles(List<Node> pluginNodes) {
+		return this.dispatch(pluginNodes, DispatchWriter::hashFile);
+	}
+
+	private static String hashFile(ArtifactWriter<Set<Node>, Path> writer, Set<Node> pluginInput) throws IOException {
+		MessageDigest complete = createDigest();
+		if (!writer.write(pluginInput, new DigestOutputStream(ByteStreams.nullOutputStream(), complete)))
+			return null;
+		return new HexBinaryAdapter().marshal(complete.digest());
+	}
+
+	/**
+	 * Creates a digest that computes the same hashes as {@link EccoUtil#getSHA(Path)}.
+	 */
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new EccoException("Could not compute hash.", e);
+		}
+	}
+
+	private interface PluginTask<T> {
+		T run(ArtifactWriter<Set<Node>, Path> writer, Set<Node> pluginInput) throws IOException;
+	}
+
+	/**
+	 * Runs the given task with every plugin node and the writer of its plugin.
+	 * <p>
+	 * Every plugin node is handled by a task that is executed on {@link #getParallelism()} threads (see {@link BoundedExecutor}). Writers that are not thread-safe (see {@link ArtifactWriter#isThreadSafe()}) are invoked by one task at a time.
+	 *
+	 * @return The results of the tasks in the order of the given plugin nodes.
+	 */
+	private <T> List<T> dispatch(List<Node> pluginNodes, PluginTask<T> pluginTask) {
+		try (BoundedExecutor executor = new BoundedExecutor(this.parallelism)) {
+			List<Future<T>> tasks = new ArrayList<>();
+			for (Node node : pluginNodes) {
+				PluginArtifactData pluginArtifactData = (PluginArtifactData) node.getArtifact().getData();
+				ArtifactWriter<Set<Node>, Path> writer = this.getWriterForArtifact(pluginArtifactData);
+				if (writer == null)
+					throw new EccoException("No writer found for " + pluginArtifactData.getPath());
+
+				tasks.add(executor.submit(() -> {
+					Set<Node> pluginInput = new HashSet<>();
+					pluginInput.add(node);
+
+					if (writer.isThreadSafe()) {
+						return pluginTask.run(writer, pluginInput);
+					} else {
+						synchronized (writer) {
+							return pluginTask.run(writer, pluginInput);
+						}
+					}
+				}));
+			}
+
+			List<T> results = new ArrayList<>();
+			for (int i = 0; i < tasks.size(); i++) {
+				results.add(executor.join(tasks.get(i), "writing", ((PluginArtifactData) pluginNodes.get(i).getArtifact().getData()).getPath()));
+			}
+			return results;
+		}
+	}
+
+	/**
+	 * Returns the absolute path of an output path of a writer. Most writers return their output paths resolved against the base directory, others return them relative to it.
+	 */
+	private static Path resolveOutputPath(Path base, Path outputPath) {
+		if (outputPath.isAbsolute() || outputPath.startsWith(base))
+			return outputPath.toAbsolutePath().normalize();
+		else
+			return base.resolve(outputPath).toAbsolutePath().normalize();
+	}
+
+	private static void deleteDirectory(Path dir) {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		} catch (IOException e) {
+			LOGGER.warn("Could not delete temporary directory " + dir, e);
+		}
+	}
+
+	/**
+	 * Computes the hash of the file the given plugin node would be written to without modifying any base directory. If the writer of the node cannot write to a stream, the node is written into a temporary directory that is deleted afterwards.
+	 *
+	 * @param node The plugin node.
+	 * @return The hash of the file or null if there is no writer for the node or it did not write the file.
+	 */
+	public String computeHash(Node node) {
+		if (!(node.getArtifact().getData() instanceof PluginArtifactData))
+			throw new EccoException("Hashes can only be computed for plugin nodes.");
+
+		PluginArtifactData pluginArtifactData = (PluginArtifactData) node.getArtifact().getData();
+		ArtifactWriter<Set<Node>, Path> writer = this.getWriterForArtifact(pluginArtifactData);
+		if (writer == null)
+			return null;
+
+		Set<Node> pluginInput = new HashSet<>();
+		pluginInput.add(node);
+
+		Path tempDir = null;
+		try {
+			String hash = hashFile(writer, pluginInput);
+			if (hash != null)
+				return hash;
+
+			tempDir = Files.createTempDirectory("ecco");
+			Path file = tempDir.resolve(pluginArtifactData.getPath());
+			Files.createDirectories(file.getParent());
 
-			output.addAll(Arrays.asList(outputPaths));
+			writer.write(tempDir, pluginInput);
 
-			this.fireWriteEvent(pluginArtifactData.getPath(), writer);
+			if (Files.isRegularFile(file))
+				return EccoUtil.getSHA(file);
+			else
+				return null;
+		} catch (IOException e) {
+			throw new EccoException("Could not compute hash for " + pluginArtifactData.getPath(), e);
+		} finally {
+			if (tempDir != null)
+				deleteDirectory(tempDir);
 		}
 	}
 
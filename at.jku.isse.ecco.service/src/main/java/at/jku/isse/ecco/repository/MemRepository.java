@@ -5,6 +5,7 @@ import at.jku.isse.ecco.core.Checkout;
 import at.jku.isse.ecco.core.Commit;
 import at.jku.isse.ecco.dao.EntityFactory;
 import at.jku.isse.ecco.dao.MemEntityFactory;
+import at.jku.isse.ecco.dao.MemTracking;
 import at.jku.isse.ecco.feature.BaseFeature;
 import at.jku.isse.ecco.feature.Configuration;
 import at.jku.isse.ecco.feature.Feature;
@@ -31,6 +32,8 @@ public class MemRepository implements Repository, Repository.Op {
 
 	private int maxOrder = 5;
 
+	private long revision = 0;
+
 
 	public MemRepository() {
 		this.features = new HashMap<>();
@@ -47,6 +50,11 @@ public class MemRepository implements Repository, Repository.Op {
 		return this.operator.extract(configuration, nodes);
 	}
 
+	@Override
+	public Commit extract(Configuration configuration, Set<Node.Op> nodes, Collection<? extends Association> unmodifiedAssociations) {
+		return this.operator.extract(configuration, nodes, unmodifiedAssociations);
+	}
+
 	@Override
 	public Checkout compose(Configuration configuration) {
 		return this.operator.compose(configuration);
@@ -57,6 +65,11 @@ public class MemRepository implements Repository, Repository.Op {
 		return this.operator.subset(deselected, maxOrder, entityFactory);
 	}
 
+	@Override
+	public Op subset(Collection<FeatureVersion> deselected, int maxOrder, EntityFactory entityFactory, long sinceRevision) {
+		return this.operator.subset(deselected, maxOrder, entityFactory, sinceRevision);
+	}
+
 	@Override
 	public Op copy(EntityFactory entityFactory) {
 		return this.operator.copy(entityFactory);
@@ -95,6 +108,7 @@ public class MemRepository implements Repository, Repository.Op {
 	public Feature addFeature(String id, String name, String description) {
 		Feature feature = new BaseFeature(id, name, description);
 		this.features.put(feature.getId(), feature);
+		MemTracking.modified(this);
 		return feature;
 	}
 
@@ -102,11 +116,13 @@ public class MemRepository implements Repository, Repository.Op {
 	@Override
 	public void addAssociation(Association.Op association) {
 		this.associations.add(association);
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public void removeAssociation(Association.Op association) {
-		this.associations.remove(association);
+		if (this.associations.remove(association))
+			MemTracking.modified(this);
 	}
 
 
@@ -118,6 +134,28 @@ public class MemRepository implements Repository, Repository.Op {
 	@Override
 	public void setMaxOrder(int maxOrder) {
 		this.maxOrder = maxOrder;
+		MemTracking.modified(this);
+	}
+
+	@Override
+	public long getRevision() {
+		return this.revision;
+	}
+
+	@Override
+	public void setRevision(long revision) {
+		this.revision = revision;
+		MemTracking.modified(this);
+	}
+
+	@Override
+	public int getParallelism() {
+		return this.operator.getParallelism();
+	}
+
+	@Override
+	public void setParallelism(int parallelism) {
+		this.operator.setParallelism(parallelism);
 	}
 
 	@Override
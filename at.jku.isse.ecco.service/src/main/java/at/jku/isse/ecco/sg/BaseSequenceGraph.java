@@ -2,6 +2,8 @@ package at.jku.isse.ecco.sg;
 
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.dao.MemTracking;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.*;
 
@@ -46,11 +48,21 @@ public class BaseSequenceGraph implements SequenceGraph, SequenceGraph.Op {
 		this.operator.sequenceArtifacts(artifacts);
 	}
 
+	@Override
+	public void sequenceArtifacts(List<? extends Artifact.Op<?>> artifacts, AlignmentMode mode) throws EccoException {
+		this.operator.sequenceArtifacts(artifacts, mode);
+	}
+
 	@Override
 	public int[] align(List<? extends Artifact.Op<?>> artifacts) throws EccoException {
 		return this.operator.align(artifacts);
 	}
 
+	@Override
+	public int[] align(List<? extends Artifact.Op<?>> artifacts, AlignmentMode mode) throws EccoException {
+		return this.operator.align(artifacts, mode);
+	}
+
 	@Override
 	public void sequence(SequenceGraph.Op other) {
 		this.operator.sequence(other);
@@ -80,7 +92,7 @@ public class BaseSequenceGraph implements SequenceGraph, SequenceGraph.Op {
 	// operand
 
 	public Map<Set<Artifact<?>>, Node> getNodes() {
-		return this.nodes;
+		return TrackedCollections.map(() -> MemTracking.modified(this), this.nodes);
 	}
 
 
@@ -91,11 +103,13 @@ public class BaseSequenceGraph implements SequenceGraph, SequenceGraph.Op {
 	@Override
 	public void setCurrentSequenceNumber(int sn) {
 		this.cur_seq_number = sn;
+		MemTracking.modified(this);
 	}
 
 	public int nextSequenceNumber() throws EccoException {
 		if (this.cur_seq_number + 1 < -1)
 			throw new EccoException("WARNING: sequence number overflow!");
+		MemTracking.modified(this);
 		return this.cur_seq_number++;
 	}
 
@@ -106,6 +120,7 @@ public class BaseSequenceGraph implements SequenceGraph, SequenceGraph.Op {
 
 	public void setPol(boolean pol) {
 		this.pol = pol;
+		MemTracking.modified(this);
 	}
 
 
@@ -1,6 +1,8 @@
 package at.jku.isse.ecco.sg;
 
 import at.jku.isse.ecco.artifact.Artifact;
+import at.jku.isse.ecco.dao.MemTracking;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,6 +13,10 @@ public class BaseSequenceGraphNode implements SequenceGraph.Node, SequenceGraph.
 
 	private boolean pol;
 
+	protected BaseSequenceGraphNode() {
+		this.pol = false;
+	}
+
 	public BaseSequenceGraphNode(boolean pol) {
 		this.pol = pol;
 	}
@@ -23,11 +29,12 @@ public class BaseSequenceGraphNode implements SequenceGraph.Node, SequenceGraph.
 	@Override
 	public void setPol(boolean pol) {
 		this.pol = pol;
+		MemTracking.modified(this);
 	}
 
 	@Override
 	public Map<Artifact.Op<?>, SequenceGraph.Node.Op> getChildren() {
-		return this.children;
+		return TrackedCollections.map(() -> MemTracking.modified(this), this.children);
 	}
 
 }
@@ -3,6 +3,8 @@ package at.jku.isse.ecco.tree;
 import at.jku.isse.ecco.EccoException;
 import at.jku.isse.ecco.artifact.Artifact;
 import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.dao.MemTracking;
+import at.jku.isse.ecco.util.TrackedCollections;
 
 import java.util.*;
 
@@ -62,6 +64,7 @@ public class BaseNode implements Node, Node.Op {
 	@Override
 	public void setArtifact(Artifact.Op<?> artifact) {
 		this.artifact = artifact;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -72,6 +75,7 @@ public class BaseNode implements Node, Node.Op {
 	@Override
 	public void setParent(Op parent) {
 		this.parent = parent;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -82,6 +86,7 @@ public class BaseNode implements Node, Node.Op {
 	@Override
 	public void setUnique(boolean unique) {
 		this.unique = unique;
+		MemTracking.modified(this);
 	}
 
 
@@ -93,6 +98,7 @@ public class BaseNode implements Node, Node.Op {
 			throw new EccoException("An equivalent child is already contained. If multiple equivalent children are allowed use an ordered node.");
 
 		this.children.add(child);
+		MemTracking.modified(this);
 		child.setParent(this);
 	}
 
@@ -106,14 +112,15 @@ public class BaseNode implements Node, Node.Op {
 	public void removeChild(Op child) {
 		checkNotNull(child);
 
-		this.children.remove(child);
+		if (this.children.remove(child))
+			MemTracking.modified(this);
 		child.setParent(null);
 	}
 
 
 	@Override
 	public List<Op> getChildren() {
-		return this.children;
+		return TrackedCollections.list(() -> MemTracking.modified(this), this.children);
 	}
 
 
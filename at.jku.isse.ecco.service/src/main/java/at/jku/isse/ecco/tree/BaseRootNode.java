@@ -1,6 +1,7 @@
 package at.jku.isse.ecco.tree;
 
 import at.jku.isse.ecco.core.Association;
+import at.jku.isse.ecco.dao.MemTracking;
 
 public class BaseRootNode extends BaseNode implements RootNode, RootNode.Op {
 
@@ -32,6 +33,7 @@ public class BaseRootNode extends BaseNode implements RootNode, RootNode.Op {
 	@Override
 	public void setContainingAssociation(Association.Op containingAssociation) {
 		this.containingAssociation = containingAssociation;
+		MemTracking.modified(this);
 	}
 
 	@Override
@@ -59,7 +59,7 @@ public class Main {
 		final Module repositoryDirModule = new AbstractModule() {
 			@Override
 			protected void configure() {
-				bind(String.class).annotatedWith(Names.named("repositoryDir")).toInstance(properties.getProperty("repositoryDir"));
+				bind(Path.class).annotatedWith(Names.named("repositoryDir")).toInstance(Paths.get(properties.getProperty("repositoryDir")));
 			}
 		};
 		List<Module> modules = new ArrayList<Module>();
@@ -80,7 +80,7 @@ public class Main {
 		Path[] inputFiles = new Path[]{Paths.get("data/input/file.txt")};
 
 		System.out.println("READ");
-		Set<Node> nodes = reader.read(Paths.get("data/input"), inputFiles);
+		Set<Node> nodes = new HashSet<>(reader.read(Paths.get("data/input"), inputFiles));
 
 		// TODO: sequence the nodes?
 
@@ -4,15 +4,18 @@ import at.jku.isse.ecco.plugin.CoreModule;
 import at.jku.isse.ecco.tree.Node;
 import at.jku.isse.ecco.plugin.PerstModule;
 import at.jku.isse.ecco.plugin.artifact.ArtifactPlugin;
+import at.jku.isse.ecco.plugin.artifact.PluginArtifactData;
+import at.jku.isse.ecco.plugin.artifact.text.LineArtifactData;
 import at.jku.isse.ecco.plugin.artifact.text.TextReader;
 import at.jku.isse.ecco.plugin.artifact.text.TextFileWriter;
 import com.google.inject.*;
 import com.google.inject.name.Names;
+import junit.framework.Assert;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
-import java.io.IOException;
+import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -35,7 +38,7 @@ public class TextModuleTest {
 		Path[] inputFiles = new Path[]{Paths.get("data/input/file.txt")};
 
 		System.out.println("READ");
-		Set<Node> nodes = this.reader.read(Paths.get("data/input"), inputFiles);
+		Set<Node> nodes = new HashSet<>(this.reader.read(Paths.get("data/input"), inputFiles));
 
 		// TODO: sequence the nodes?
 
@@ -45,6 +48,50 @@ public class TextModuleTest {
 		// TODO: compare inputFiles with outputFiles
 	}
 
+	@Test(groups = {"integration", "text"})
+	public void Line_Sharing_Test() throws IOException, ClassNotFoundException {
+		Path baseDir = Files.createTempDirectory("ecco-text");
+		Files.write(baseDir.resolve("a.txt"), "}\nline a\n".getBytes());
+		Files.write(baseDir.resolve("b.txt"), "}\nline b\n".getBytes());
+
+		Map<Path, List<LineArtifactData>> lines = new HashMap<>();
+		for (Node.Op pluginNode : this.reader.read(baseDir, new Path[]{Paths.get("a.txt"), Paths.get("b.txt")})) {
+			List<LineArtifactData> fileLines = new ArrayList<>();
+			for (Node.Op lineNode : pluginNode.getChildren())
+				fileLines.add((LineArtifactData) lineNode.getArtifact().getData());
+			lines.put(((PluginArtifactData) pluginNode.getArtifact().getData()).getPath(), fileLines);
+		}
+
+		// equal lines of different files share one instance
+		LineArtifactData brace = lines.get(Paths.get("a.txt")).get(0);
+		Assert.assertSame(brace, lines.get(Paths.get("b.txt")).get(0));
+		Assert.assertSame(brace, LineArtifactData.valueOf("}"));
+		Assert.assertNotSame(lines.get(Paths.get("a.txt")).get(1), lines.get(Paths.get("b.txt")).get(1));
+
+		// the cached hash is the hash of the line
+		Assert.assertEquals(Objects.hash("}"), brace.hashCode());
+		Assert.assertEquals(new LineArtifactData("}").hashCode(), brace.hashCode());
+		Assert.assertEquals(new LineArtifactData("}"), brace);
+		Assert.assertFalse(new LineArtifactData("{").equals(brace));
+
+		// line data of existing repositories can still be read
+		Assert.assertEquals(-2171885456357832531L, ObjectStreamClass.lookup(LineArtifactData.class).getSerialVersionUID());
+
+		// deserialized line data is shared as well
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new LineArtifactData("}"));
+			out.writeObject(new LineArtifactData("line c"));
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Assert.assertSame(brace, in.readObject());
+			LineArtifactData line = (LineArtifactData) in.readObject();
+			Assert.assertEquals("line c", line.getLine());
+			Assert.assertEquals(Objects.hash("line c"), line.hashCode());
+			Assert.assertSame(line, LineArtifactData.valueOf("line c"));
+		}
+	}
+
 	@AfterTest(alwaysRun = true)
 	public void afterTest() {
 		System.out.println("AFTER");
@@ -75,7 +122,7 @@ public class TextModuleTest {
 		final Module repositoryDirModule = new AbstractModule() {
 			@Override
 			protected void configure() {
-				bind(String.class).annotatedWith(Names.named("repositoryDir")).toInstance(properties.getProperty("repositoryDir"));
+				bind(Path.class).annotatedWith(Names.named("repositoryDir")).toInstance(Paths.get(properties.getProperty("repositoryDir")));
 			}
 		};
 		List<Module> modules = new ArrayList<Module>();
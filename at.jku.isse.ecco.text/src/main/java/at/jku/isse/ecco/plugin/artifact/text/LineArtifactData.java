@@ -1,13 +1,25 @@
 package at.jku.isse.ecco.plugin.artifact.text;
 
 import at.jku.isse.ecco.artifact.ArtifactData;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 import java.util.Objects;
 
 public class LineArtifactData implements ArtifactData {
 
+	private static final long serialVersionUID = -2171885456357832531L;
+
+	/**
+	 * Lines like blank lines or closing braces occur many times in a file and again in every variant of it. Line data is immutable, so there is only one instance per distinct line for as long as it is referenced anywhere.
+	 */
+	private static final Interner<LineArtifactData> INTERNER = Interners.newWeakInterner();
+
 	private String line;
 
+	// line artifacts are hashed over and over while trees are sliced, sequenced and composed
+	private transient int hash;
+
 	protected LineArtifactData() {
 		this.line = null;
 	}
@@ -16,6 +28,16 @@ public class LineArtifactData implements ArtifactData {
 		this.line = line;
 	}
 
+	/**
+	 * Returns the shared line data for the given line.
+	 *
+	 * @param line The line.
+	 * @return The line data.
+	 */
+	public static LineArtifactData valueOf(String line) {
+		return INTERNER.intern(new LineArtifactData(line));
+	}
+
 	public String getLine() {
 		return this.line;
 	}
@@ -27,7 +49,9 @@ public class LineArtifactData implements ArtifactData {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.line);
+		if (this.hash == 0)
+			this.hash = Objects.hash(this.line);
+		return this.hash;
 	}
 
 	@Override
@@ -39,6 +63,8 @@ public class LineArtifactData implements ArtifactData {
 		if (getClass() != obj.getClass())
 			return false;
 		LineArtifactData other = (LineArtifactData) obj;
+		if (this.hashCode() != other.hashCode())
+			return false;
 		if (line == null) {
 			if (other.line != null)
 				return false;
@@ -47,4 +73,11 @@ public class LineArtifactData implements ArtifactData {
 		return true;
 	}
 
+	/**
+	 * Deserialized line data is shared as well.
+	 */
+	private Object readResolve() {
+		return INTERNER.intern(this);
+	}
+
 }
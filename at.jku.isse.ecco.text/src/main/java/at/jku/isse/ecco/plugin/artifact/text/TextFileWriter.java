@@ -8,6 +8,9 @@ import at.jku.isse.ecco.tree.Node;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -44,12 +47,7 @@ public class TextFileWriter implements ArtifactWriter<Set<Node>, Path> {
 			output.add(outputPath);
 
 			try (BufferedWriter bw = Files.newBufferedWriter(outputPath)) {
-				for (Node lineNode : fileNode.getChildren()) {
-					LineArtifactData lineArtifactData = (LineArtifactData) lineNode.getArtifact().getData();
-
-					bw.write(lineArtifactData.getLine());
-					bw.newLine();
-				}
+				this.writeLines(fileNode, bw);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -58,6 +56,27 @@ public class TextFileWriter implements ArtifactWriter<Set<Node>, Path> {
 		return output.toArray(new Path[output.size()]);
 	}
 
+	@Override
+	public boolean write(Set<Node> input, OutputStream out) throws IOException {
+		if (input.size() != 1)
+			return false;
+
+		// the stream is not closed, so the writer is only flushed
+		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		this.writeLines(input.iterator().next(), bw);
+		bw.flush();
+		return true;
+	}
+
+	private void writeLines(Node fileNode, BufferedWriter bw) throws IOException {
+		for (Node lineNode : fileNode.getChildren()) {
+			LineArtifactData lineArtifactData = (LineArtifactData) lineNode.getArtifact().getData();
+
+			bw.write(lineArtifactData.getLine());
+			bw.newLine();
+		}
+	}
+
 
 	private Collection<WriteListener> listeners = new ArrayList<WriteListener>();
 
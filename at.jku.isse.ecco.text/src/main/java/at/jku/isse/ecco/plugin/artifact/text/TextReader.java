@@ -67,7 +67,7 @@ public class TextReader implements ArtifactReader<Path, Set<Node.Op>> {
 				Iterator<String> it = lines.iterator();
 				while (it.hasNext()) {
 					String line = it.next();
-					Artifact.Op<LineArtifactData> lineArtifact = this.entityFactory.createArtifact(new LineArtifactData(line));
+					Artifact.Op<LineArtifactData> lineArtifact = this.entityFactory.createArtifact(LineArtifactData.valueOf(line));
 					pluginNode.addChild(this.entityFactory.createNode(lineArtifact));
 				}
 			} catch (IOException e) {
@@ -22,6 +22,12 @@ public class EDataTypeArtifactData extends EmfArtifactData {
     // In EMF all DataTypes must be serializable and de-serializable from a string representation
     private final String value;
 
+    private EDataTypeArtifactData() {
+        this.ePackageUri = null;
+        this.dataTypeName = null;
+        this.value = null;
+    }
+
     public EDataTypeArtifactData(Object value, EStructuralFeature feature, EList container) {
         super(value, feature, container);
 
@@ -24,6 +24,12 @@ public class EObjectArtifactData extends EmfArtifactData {
     // We assume the meteamodel has one feature which is the id
     private final Object id;
 
+    private EObjectArtifactData() {
+        this.ePackageUri = null;
+        this.eClassName = null;
+        this.id = null;
+    }
+
     public EObjectArtifactData(EObject value, EStructuralFeature feature, EList<EObject> container) {
         super(value, feature, container);
         EClass eClass = value.eClass();
@@ -16,6 +16,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public abstract class EmfArtifactData implements ArtifactData {
 
+    // the no-arg constructor is needed by the subclasses and would otherwise change the computed serial version
+    private static final long serialVersionUID = 2103361559576734125L;
+
     /** The feature that relates this element to the parent node.
      * It can be null for nodes in the root.
      * Since we need to serialize the data, we save the id, not the feature
@@ -35,6 +38,12 @@ public abstract class EmfArtifactData implements ArtifactData {
      * For multivalue-nonunique-unordered features, there is a choice of how many times an element is referenced.
      */
     private final int repetitions;
+    protected EmfArtifactData() {
+        this.featureId = null;
+        this.position = null;
+        this.repetitions = 0;
+    }
+
     /**
      *  @param value
      * @param feature